@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.astro.internal.model.Eclipse;
+import org.openhab.binding.astro.internal.model.Moon;
+import org.openhab.binding.astro.internal.model.MoonPhase;
+import org.openhab.binding.astro.internal.model.Position;
+import org.openhab.binding.astro.internal.model.Sun;
+
+/**
+ * Binding wide cache of the daily sun and moon calculations.
+ * <p>
+ * The rise and set ranges, eclipses and moon phases only depend on the location and the day, but are expensive to
+ * calculate. They are calculated once per location and day and shared by all Things and actions. Every caller gets
+ * its own copy, so that positional data can be set without affecting other callers. The few values that depend on the
+ * time of the day (sun phase, season name, apogee and perigee) are calculated again for each copy.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class EphemerisCache {
+    private static final int MAX_ENTRIES = 128;
+
+    private final SunCalc sunCalc = new SunCalc();
+    private final MoonCalc moonCalc = new MoonCalc();
+
+    private final Map<DayKey, Sun> suns = new LruMap<>();
+    private final Map<DayKey, Moon> moons = new LruMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the sun data of the day of the specified calendar, see
+     * {@link SunCalc#getSunInfo(Calendar, double, double, Double, boolean)}.
+     */
+    public Sun getSunInfo(Calendar calendar, double latitude, double longitude, double altitude,
+            boolean useMeteorologicalSeason) {
+        DayKey key = new DayKey(calendar, latitude, longitude, altitude, useMeteorologicalSeason);
+        Sun daily;
+        synchronized (suns) {
+            daily = suns.get(key);
+            if (daily == null) {
+                misses.incrementAndGet();
+                daily = sunCalc.getSunInfo(calendar, latitude, longitude, altitude, useMeteorologicalSeason);
+                suns.put(key, daily);
+            } else {
+                hits.incrementAndGet();
+            }
+        }
+
+        Sun sun = new Sun();
+        sun.getAllRanges().putAll(daily.getAllRanges());
+        sun.setRise(daily.getRise());
+        sun.setSet(daily.getSet());
+        sun.setZodiac(daily.getZodiac());
+        sun.setSeason(new SeasonCalc().getSeason(calendar, latitude, useMeteorologicalSeason));
+        copyEclipse(daily.getEclipse(), sun.getEclipse());
+        sunCalc.setSunPhase(sun);
+        return sun;
+    }
+
+    /**
+     * Returns the moon data of the day of the specified calendar, see
+     * {@link MoonCalc#getMoonInfo(Calendar, double, double)}.
+     */
+    public Moon getMoonInfo(Calendar calendar, double latitude, double longitude) {
+        DayKey key = new DayKey(calendar, latitude, longitude, 0, false);
+        Moon daily;
+        synchronized (moons) {
+            daily = moons.get(key);
+            if (daily == null) {
+                misses.incrementAndGet();
+                daily = moonCalc.getMoonInfo(calendar, latitude, longitude);
+                moons.put(key, daily);
+            } else {
+                hits.incrementAndGet();
+            }
+        }
+
+        Moon moon = new Moon();
+        moon.setRise(daily.getRise());
+        moon.setSet(daily.getSet());
+        MoonPhase dailyPhase = daily.getPhase();
+        MoonPhase phase = moon.getPhase();
+        phase.setNew(dailyPhase.getNew());
+        phase.setFirstQuarter(dailyPhase.getFirstQuarter());
+        phase.setFull(dailyPhase.getFull());
+        phase.setThirdQuarter(dailyPhase.getThirdQuarter());
+        copyEclipse(daily.getEclipse(), moon.getEclipse());
+        moonCalc.setApogeePerigee(calendar, moon);
+        return moon;
+    }
+
+    /**
+     * Removes all cached calculations.
+     */
+    public void clear() {
+        synchronized (suns) {
+            suns.clear();
+        }
+        synchronized (moons) {
+            moons.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void copyEclipse(Eclipse source, Eclipse target) {
+        source.getKinds().forEach(eclipseKind -> {
+            Calendar eclipseDate = source.getDate(eclipseKind);
+            if (eclipseDate != null) {
+                target.set(eclipseKind, eclipseDate, new Position());
+            }
+        });
+    }
+
+    /**
+     * Location and day of a calculation.
+     */
+    private static class DayKey {
+        private final double latitude;
+        private final double longitude;
+        private final double altitude;
+        private final boolean useMeteorologicalSeason;
+        private final int year;
+        private final int dayOfYear;
+        private final String timeZone;
+
+        DayKey(Calendar calendar, double latitude, double longitude, double altitude,
+                boolean useMeteorologicalSeason) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.altitude = altitude;
+            this.useMeteorologicalSeason = useMeteorologicalSeason;
+            this.year = calendar.get(Calendar.YEAR);
+            this.dayOfYear = calendar.get(Calendar.DAY_OF_YEAR);
+            this.timeZone = calendar.getTimeZone().getID();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DayKey)) {
+                return false;
+            }
+            DayKey other = (DayKey) obj;
+            return Double.compare(latitude, other.latitude) == 0 && Double.compare(longitude, other.longitude) == 0
+                    && Double.compare(altitude, other.altitude) == 0
+                    && useMeteorologicalSeason == other.useMeteorologicalSeason && year == other.year
+                    && dayOfYear == other.dayOfYear && timeZone.equals(other.timeZone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(latitude, longitude, altitude, useMeteorologicalSeason, year, dayOfYear, timeZone);
+        }
+    }
+
+    /**
+     * Keeps the most recently used calculations, older days are dropped first.
+     */
+    private static class LruMap<V> extends LinkedHashMap<DayKey, V> {
+        private static final long serialVersionUID = 1L;
+
+        LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<DayKey, V> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    }
+}
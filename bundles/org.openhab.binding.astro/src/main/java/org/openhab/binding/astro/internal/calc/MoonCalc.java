@@ -51,7 +51,6 @@ public class MoonCalc {
     public Moon getMoonInfo(Calendar calendar, double latitude, double longitude) {
         Moon moon = new Moon();
 
-        double julianDate = DateTimeUtils.dateToJulianDate(calendar);
         double julianDateMidnight = DateTimeUtils.midnightDateToJulianDate(calendar);
 
         double[] riseSet = getRiseSet(calendar, latitude, longitude);
@@ -86,6 +85,16 @@ public class MoonCalc {
             eclipse.set(eclipseKind, DateTimeUtils.toCalendar(jdate), new Position());
         });
 
+        setApogeePerigee(calendar, moon);
+
+        return moon;
+    }
+
+    /**
+     * Calculates the next apogee and perigee after the specified time.
+     */
+    void setApogeePerigee(Calendar calendar, Moon moon) {
+        double julianDate = DateTimeUtils.dateToJulianDate(calendar);
         double decimalYear = DateTimeUtils.getDecimalYear(calendar);
         MoonDistance apogee = moon.getApogee();
         double apogeeJd = getApogee(julianDate, decimalYear);
@@ -96,8 +105,15 @@ public class MoonCalc {
         double perigeeJd = getPerigee(julianDate, decimalYear);
         perigee.setDate(DateTimeUtils.toCalendar(perigeeJd));
         perigee.setDistance(getDistance(perigeeJd));
+    }
 
-        return moon;
+    /**
+     * Calculates the moon position (azimuth and elevation) only.
+     */
+    public Position getMoonPosition(Calendar calendar, double latitude, double longitude) {
+        Moon moon = new Moon();
+        setAzimuthElevationZodiac(DateTimeUtils.dateToJulianDate(calendar), latitude, longitude, moon);
+        return moon.getPosition();
     }
 
     /**
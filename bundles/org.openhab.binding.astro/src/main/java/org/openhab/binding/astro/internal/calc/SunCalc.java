@@ -250,10 +250,19 @@ public class SunCalc {
         SeasonCalc seasonCalc = new SeasonCalc();
         sun.setSeason(seasonCalc.getSeason(calendar, latitude, useMeteorologicalSeason));
 
-        // phase
+        setSunPhase(sun);
+
+        return sun;
+    }
+
+    /**
+     * Sets the current sun phase from the ranges of the sun.
+     */
+    void setSunPhase(Sun sun) {
+        Calendar now = Calendar.getInstance();
         for (Entry<SunPhaseName, Range> rangeEntry : sun.getAllRanges().entrySet()) {
             SunPhaseName entryPhase = rangeEntry.getKey();
-            if (rangeEntry.getValue().matches(Calendar.getInstance())) {
+            if (rangeEntry.getValue().matches(now)) {
                 if (entryPhase == SunPhaseName.MORNING_NIGHT || entryPhase == SunPhaseName.EVENING_NIGHT) {
                     sun.getPhase().setName(SunPhaseName.NIGHT);
                 } else {
@@ -261,8 +270,6 @@ public class SunCalc {
                 }
             }
         }
-
-        return sun;
     }
 
     /**
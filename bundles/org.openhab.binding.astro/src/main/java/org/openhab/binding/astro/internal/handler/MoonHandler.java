@@ -23,6 +23,7 @@ import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.astro.internal.calc.EphemerisCache;
 import org.openhab.binding.astro.internal.calc.MoonCalc;
 import org.openhab.binding.astro.internal.job.DailyJobMoon;
 import org.openhab.binding.astro.internal.job.Job;
@@ -48,13 +49,16 @@ public class MoonHandler extends AstroThingHandler {
     private final String[] positionalChannelIds = new String[] { "phase#name", "phase#age", "phase#agePercent",
             "phase#ageDegree", "phase#illumination", "position#azimuth", "position#elevation", "zodiac#sign" };
     private final MoonCalc moonCalc = new MoonCalc();
+    private final EphemerisCache ephemerisCache;
     private @NonNullByDefault({}) Moon moon;
 
     /**
      * Constructor
      */
-    public MoonHandler(Thing thing, final CronScheduler scheduler, final TimeZoneProvider timeZoneProvider) {
+    public MoonHandler(Thing thing, final CronScheduler scheduler, final TimeZoneProvider timeZoneProvider,
+            final EphemerisCache ephemerisCache) {
         super(thing, scheduler, timeZoneProvider);
+        this.ephemerisCache = ephemerisCache;
     }
 
     @Override
@@ -94,17 +98,15 @@ public class MoonHandler extends AstroThingHandler {
     private Moon getMoonAt(ZonedDateTime date) {
         Double latitude = thingConfig.latitude;
         Double longitude = thingConfig.longitude;
-        return moonCalc.getMoonInfo(GregorianCalendar.from(date), latitude != null ? latitude : 0,
+        return ephemerisCache.getMoonInfo(GregorianCalendar.from(date), latitude != null ? latitude : 0,
                 longitude != null ? longitude : 0);
     }
 
     @Override
     public @Nullable Position getPositionAt(ZonedDateTime date) {
-        Moon localMoon = getMoonAt(date);
         Double latitude = thingConfig.latitude;
         Double longitude = thingConfig.longitude;
-        moonCalc.setPositionalInfo(GregorianCalendar.from(date), latitude != null ? latitude : 0,
-                longitude != null ? longitude : 0, localMoon);
-        return localMoon.getPosition();
+        return moonCalc.getMoonPosition(GregorianCalendar.from(date), latitude != null ? latitude : 0,
+                longitude != null ? longitude : 0);
     }
 }
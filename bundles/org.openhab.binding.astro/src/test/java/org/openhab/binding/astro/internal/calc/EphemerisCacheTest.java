@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Map.Entry;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.astro.internal.model.EclipseKind;
+import org.openhab.binding.astro.internal.model.Moon;
+import org.openhab.binding.astro.internal.model.Range;
+import org.openhab.binding.astro.internal.model.Sun;
+import org.openhab.binding.astro.internal.model.SunPhaseName;
+
+/**
+ * Tests that the {@link EphemerisCache} returns the same data as the uncached calculations and that the cached data
+ * is shared by all callers of the same location and day.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class EphemerisCacheTest {
+
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("Europe/Amsterdam");
+    private static final double AMSTERDAM_LATITUDE = 52.367607;
+    private static final double AMSTERDAM_LONGITUDE = 4.8978293;
+    private static final double AMSTERDAM_ALTITUDE = 0.0;
+    private static final double TROMSO_LATITUDE = 69.649205;
+    private static final double TROMSO_LONGITUDE = 18.955324;
+
+    private EphemerisCache cache;
+
+    @BeforeEach
+    public void init() {
+        cache = new EphemerisCache();
+    }
+
+    @Test
+    public void testSunInfoEqualsCalculation() {
+        for (int month : new int[] { Calendar.FEBRUARY, Calendar.JUNE, Calendar.DECEMBER }) {
+            Calendar calendar = newCalendar(2019, month, 27, 13, 0, TIME_ZONE);
+            assertSunEquals(new SunCalc().getSunInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE,
+                    AMSTERDAM_ALTITUDE, false),
+                    cache.getSunInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE, false));
+            assertSunEquals(
+                    new SunCalc().getSunInfo(calendar, TROMSO_LATITUDE, TROMSO_LONGITUDE, AMSTERDAM_ALTITUDE, true),
+                    cache.getSunInfo(calendar, TROMSO_LATITUDE, TROMSO_LONGITUDE, AMSTERDAM_ALTITUDE, true));
+        }
+    }
+
+    @Test
+    public void testMoonInfoEqualsCalculation() {
+        Calendar calendar = newCalendar(2019, Calendar.FEBRUARY, 27, 13, 0, TIME_ZONE);
+        Moon expected = new MoonCalc().getMoonInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE);
+        Moon actual = cache.getMoonInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE);
+
+        assertRangeEquals(expected.getRise(), actual.getRise());
+        assertRangeEquals(expected.getSet(), actual.getSet());
+        assertEquals(expected.getPhase().getNew(), actual.getPhase().getNew());
+        assertEquals(expected.getPhase().getFirstQuarter(), actual.getPhase().getFirstQuarter());
+        assertEquals(expected.getPhase().getFull(), actual.getPhase().getFull());
+        assertEquals(expected.getPhase().getThirdQuarter(), actual.getPhase().getThirdQuarter());
+        assertEquals(expected.getApogee().getDate(), actual.getApogee().getDate());
+        assertEquals(expected.getPerigee().getDate(), actual.getPerigee().getDate());
+        for (EclipseKind eclipseKind : expected.getEclipse().getKinds()) {
+            assertEquals(expected.getEclipse().getDate(eclipseKind), actual.getEclipse().getDate(eclipseKind));
+        }
+    }
+
+    @Test
+    public void testSameDayIsCalculatedOnce() {
+        Calendar morning = newCalendar(2019, Calendar.FEBRUARY, 27, 1, 0, TIME_ZONE);
+        Calendar evening = newCalendar(2019, Calendar.FEBRUARY, 27, 23, 0, TIME_ZONE);
+        Calendar nextDay = newCalendar(2019, Calendar.FEBRUARY, 28, 1, 0, TIME_ZONE);
+
+        cache.getSunInfo(morning, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE, false);
+        cache.getSunInfo(evening, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE, false);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        cache.getSunInfo(nextDay, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE, false);
+        cache.getSunInfo(evening, TROMSO_LATITUDE, TROMSO_LONGITUDE, AMSTERDAM_ALTITUDE, false);
+        cache.getMoonInfo(evening, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE);
+        assertEquals(4, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testCallersGetIndependentCopies() {
+        Calendar calendar = newCalendar(2019, Calendar.FEBRUARY, 27, 13, 0, TIME_ZONE);
+        Sun first = cache.getSunInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE, false);
+        Sun second = cache.getSunInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE, false);
+        assertNotSame(first, second);
+
+        new SunCalc().setPositionalInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE, first);
+        assertNotEquals(0.0, first.getPosition().getElevationAsDouble());
+        assertEquals(0.0, second.getPosition().getElevationAsDouble());
+
+        Calendar eclipseDate = first.getEclipse().getTotal();
+        assertNotNull(eclipseDate);
+        first.getEclipse().set(EclipseKind.TOTAL, eclipseDate, first.getPosition());
+        assertEquals(0.0, second.getEclipse().getTotalElevation());
+    }
+
+    private void assertSunEquals(Sun expected, Sun actual) {
+        assertEquals(expected.getAllRanges().keySet(), actual.getAllRanges().keySet());
+        for (Entry<SunPhaseName, Range> entry : expected.getAllRanges().entrySet()) {
+            assertRangeEquals(entry.getValue(), actual.getAllRanges().get(entry.getKey()));
+        }
+        assertRangeEquals(expected.getRise(), actual.getRise());
+        assertRangeEquals(expected.getSet(), actual.getSet());
+        assertEquals(expected.getZodiac().getSign(), actual.getZodiac().getSign());
+        assertEquals(expected.getSeason().getName(), actual.getSeason().getName());
+        assertEquals(expected.getSeason().getNextSeason(), actual.getSeason().getNextSeason());
+        assertEquals(expected.getPhase().getName(), actual.getPhase().getName());
+        for (EclipseKind eclipseKind : expected.getEclipse().getKinds()) {
+            assertEquals(expected.getEclipse().getDate(eclipseKind), actual.getEclipse().getDate(eclipseKind));
+        }
+    }
+
+    private void assertRangeEquals(Range expected, Range actual) {
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getEnd(), actual.getEnd());
+    }
+
+    private static Calendar newCalendar(int year, int month, int dayOfMonth, int hourOfDay, int minute, TimeZone zone) {
+        Calendar result = new GregorianCalendar(year, month, dayOfMonth, hourOfDay, minute);
+        result.setTimeZone(zone);
+
+        return result;
+    }
+}
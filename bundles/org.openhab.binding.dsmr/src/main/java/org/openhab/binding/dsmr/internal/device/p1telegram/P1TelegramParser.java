@@ -15,12 +15,13 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectFactory;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
@@ -33,6 +34,10 @@ import org.slf4j.LoggerFactory;
  *
  * Data can be parsed in chunks. If a full P1 telegram is received, listeners are notified
  *
+ * The OBIS data is collected in reusable byte buffers. Meters send the same lines in the same order with every
+ * telegram, therefore the lines of the previous telegram are kept. If a line didn't change the {@link CosemObject} of
+ * the previous telegram is passed on and the line isn't parsed again.
+ *
  * @author M. Volaart - Initial contribution
  * @author Hilbrand Bouwkamp - Removed asynchronous call and some clean up
  */
@@ -60,9 +65,53 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of hexadecimal digits of the CRC-code
+     */
+    private static final int CRC_LENGTH = 4;
+
+    /**
+     * A line of a telegram with the {@link CosemObject} parsed from it.
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static class ParsedLine {
+        final LineBuffer obisId = new LineBuffer();
+        final LineBuffer obisValue = new LineBuffer();
+        String obisIdString = "";
+        String obisValueString = "";
+        @Nullable
+        CosemObject cosemObject;
+    }
+
+    /**
+     * Growing byte array that is reused between telegrams.
+     */
+    private static class LineBuffer {
+        byte[] data = new byte[64];
+        int length;
+
+        void append(byte b) {
+            if (length == data.length) {
+                data = Arrays.copyOf(data, length * 2);
+            }
+            data[length++] = b;
+        }
+
+        void set(LineBuffer other) {
+            if (data.length < other.length) {
+                data = new byte[other.data.length];
+            }
+            System.arraycopy(other.data, 0, data, 0, other.length);
+            length = other.length;
+        }
+
+        boolean contentEquals(LineBuffer other) {
+            return Arrays.equals(data, 0, length, other.data, 0, other.length);
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -71,12 +120,22 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * current obisId buffer.
      */
-    private final StringBuilder obisId = new StringBuilder();
+    private final LineBuffer obisId = new LineBuffer();
 
     /**
      * Current cosem object values buffer.
      */
-    private final StringBuilder obisValue = new StringBuilder();
+    private final LineBuffer obisValue = new LineBuffer();
+
+    /**
+     * Lines of the previous telegrams by their position in the telegram.
+     */
+    private final List<ParsedLine> parsedLines = new ArrayList<>();
+
+    /**
+     * Position of the current line in the telegram.
+     */
+    private int lineIndex;
 
     /**
      * In lenient mode store raw data and log when a complete message is received.
@@ -86,7 +145,12 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * Current crc value read.
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private int crcValue;
+
+    /**
+     * Number of characters of the crc value read, or -1 if a character isn't a valid digit.
+     */
+    private int crcValueLength;
 
     /**
      * CRC calculation helper
@@ -242,18 +306,20 @@ public class P1TelegramParser implements TelegramParser {
                      * P1 telegram is correctly finished
                      */
                     if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("telegramState {}, crcValue to check 0x{}", telegramState,
+                                    String.format("%04X", crcValue));
+                        }
                         // Only perform CRC check if telegram is still ok
-                        if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                        if (telegramState == TelegramState.OK && crcValueLength != 0) {
+                            if (crcValueLength == CRC_LENGTH) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("received CRC value: 0x{}, calculated CRC value: 0x{}",
+                                            String.format("%04X", crcValue), String.format("%04X", calculatedCRC));
                                 }
-                                if (crcP1Telegram != calculatedCRC) {
+                                if (crcValue != calculatedCRC) {
                                     logger.trace("CRC value does not match, p1 Telegram failed");
 
                                     telegramState = TelegramState.CRC_ERROR;
@@ -324,22 +390,22 @@ public class P1TelegramParser implements TelegramParser {
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_ID:
-                obisId.append(c);
+                obisId.append((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE:
-                obisValue.append(c);
+                obisValue.append((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE_END:
-                obisValue.append(c);
+                obisValue.append((byte) c);
                 crc.processByte((byte) c);
                 break;
             case CRC_VALUE:
                 if (c == '!') {
                     crc.processByte((byte) c);
                 } else {
-                    crcValue.append(c);
+                    appendCrcDigit(c);
                 }
                 // CRC data is not part of received data
                 break;
@@ -348,14 +414,38 @@ public class P1TelegramParser implements TelegramParser {
         }
     }
 
+    /**
+     * Adds a character to the CRC value. Only upper case hexadecimal digits are valid.
+     *
+     * @param c the character to add
+     */
+    private void appendCrcDigit(char c) {
+        if (crcValueLength < 0) {
+            return;
+        }
+        int digit;
+        if (c >= '0' && c <= '9') {
+            digit = c - '0';
+        } else if (c >= 'A' && c <= 'F') {
+            digit = c - 'A' + 10;
+        } else {
+            crcValueLength = -1;
+            return;
+        }
+        crcValue = (crcValue << 4) | digit;
+        crcValueLength++;
+    }
+
     /**
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisId.length = 0;
+        obisValue.length = 0;
         rawData.setLength(0);
-        crcValue.setLength(0);
+        crcValue = 0;
+        crcValueLength = 0;
+        lineIndex = 0;
         crc.initialize();
         cosemObjects.clear();
         unknownCosemObjects.clear();
@@ -367,23 +457,30 @@ public class P1TelegramParser implements TelegramParser {
      * - current OBIS value
      */
     private void clearObisData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisId.length = 0;
+        obisValue.length = 0;
     }
 
     /**
-     * Store the current CosemObject in the list of received cosem Objects
+     * Store the current CosemObject in the list of received cosem Objects. If the same line was received at the same
+     * position in the previous telegram the CosemObject of the previous telegram is reused.
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
-
-        if (!obisIdString.isEmpty()) {
-            final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+        if (obisId.length > 0) {
+            final ParsedLine line = getParsedLine(lineIndex++);
+
+            if (!line.obisId.contentEquals(obisId) || !line.obisValue.contentEquals(obisValue)) {
+                line.obisId.set(obisId);
+                line.obisValue.set(obisValue);
+                line.obisIdString = obisId.toString();
+                line.obisValueString = obisValue.toString();
+                line.cosemObject = factory.getCosemObject(line.obisIdString, line.obisValueString);
+            }
+            final CosemObject cosemObject = line.cosemObject;
 
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(new SimpleEntry<>(line.obisIdString, line.obisValueString));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
@@ -393,6 +490,13 @@ public class P1TelegramParser implements TelegramParser {
         clearObisData();
     }
 
+    private ParsedLine getParsedLine(int index) {
+        if (index == parsedLines.size()) {
+            parsedLines.add(new ParsedLine());
+        }
+        return parsedLines.get(index);
+    }
+
     /**
      * @param newState the new state to set
      */
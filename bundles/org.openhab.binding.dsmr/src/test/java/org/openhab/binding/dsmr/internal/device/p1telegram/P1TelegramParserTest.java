@@ -12,15 +12,19 @@
  */
 package org.openhab.binding.dsmr.internal.device.p1telegram;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 
 /**
@@ -60,4 +64,33 @@ public class P1TelegramParserTest {
                 telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum(),
                 "Expected number of objects");
     }
+
+    @Test
+    public void testUnchangedObjectsAreReused() {
+        final List<P1Telegram> telegrams = new ArrayList<>();
+        final P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+        final byte[] telegram = TelegramReaderUtil.readRawTelegram("dsmr_50");
+
+        parser.parse(telegram, telegram.length);
+        parser.parse(telegram, telegram.length);
+        assertEquals(2, telegrams.size(), "Expected 2 telegrams");
+        assertEquals(TelegramState.OK, telegrams.get(1).getTelegramState());
+        final List<CosemObject> first = telegrams.get(0).getCosemObjects();
+        final List<CosemObject> second = telegrams.get(1).getCosemObjects();
+        assertEquals(first.size(), second.size(), "Expected same number of objects");
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i), second.get(i), "Unchanged object should not be parsed again");
+        }
+
+        // Changing a value gives a new object for that value, the telegram fails the CRC check
+        final String changed = new String(telegram, StandardCharsets.US_ASCII).replace("1-3:0.2.8(50)",
+                "1-3:0.2.8(42)");
+        final byte[] changedTelegram = changed.getBytes(StandardCharsets.US_ASCII);
+        parser.parse(changedTelegram, changedTelegram.length);
+        assertEquals(3, telegrams.size(), "Expected 3 telegrams");
+        assertEquals(TelegramState.CRC_ERROR, telegrams.get(2).getTelegramState());
+        final List<CosemObject> third = telegrams.get(2).getCosemObjects();
+        assertNotSame(first.get(0), third.get(0), "Changed object should be parsed again");
+        assertSame(first.get(1), third.get(1), "Unchanged object should not be parsed again");
+    }
 }
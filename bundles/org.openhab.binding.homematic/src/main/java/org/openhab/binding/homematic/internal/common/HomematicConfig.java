@@ -57,6 +57,7 @@ public class HomematicConfig {
     private boolean unpairOnDeletion = false;
     private boolean factoryResetOnDeletion = false;
     private int bufferSize = 2048;
+    private int rpcConnections = 4;
 
     private HmGatewayInfo gatewayInfo;
 
@@ -387,6 +388,20 @@ public class HomematicConfig {
         return bufferSize;
     }
 
+    /**
+     * Returns the maximum number of parallel RPC connections to each interface of the Homematic gateway.
+     */
+    public int getRpcConnections() {
+        return rpcConnections;
+    }
+
+    /**
+     * Sets the maximum number of parallel RPC connections to each interface of the Homematic gateway.
+     */
+    public void setRpcConnections(int rpcConnections) {
+        this.rpcConnections = rpcConnections;
+    }
+
     /**
      * Returns true, if the configured gatewayType is CCU.
      */
@@ -406,9 +421,9 @@ public class HomematicConfig {
         return String.format(
                 "%s[gatewayAddress=%s,callbackHost=%s,bindAddress=%s,xmlCallbackPort=%d,binCallbackPort=%d,"
                         + "gatewayType=%s,rfPort=%d,wiredPort=%d,hmIpPort=%d,cuxdPort=%d,groupPort=%d,timeout=%d,"
-                        + "discoveryTimeToLive=%d,installModeDuration=%d,socketMaxAlive=%d]",
+                        + "discoveryTimeToLive=%d,installModeDuration=%d,socketMaxAlive=%d,rpcConnections=%d]",
                 getClass().getSimpleName(), gatewayAddress, callbackHost, bindAddress, xmlCallbackPort, binCallbackPort,
                 gatewayType, getRfPort(), getWiredPort(), getHmIpPort(), getCuxdPort(), getGroupPort(), timeout,
-                discoveryTimeToLive, installModeDuration, socketMaxAlive);
+                discoveryTimeToLive, installModeDuration, socketMaxAlive, rpcConnections);
     }
 }
@@ -39,6 +39,7 @@ import org.openhab.binding.homematic.internal.communicator.client.XmlRpcClient;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.server.BinRpcServer;
 import org.openhab.binding.homematic.internal.communicator.server.RpcEventListener;
+import org.openhab.binding.homematic.internal.communicator.server.RpcEventQueue;
 import org.openhab.binding.homematic.internal.communicator.server.RpcServer;
 import org.openhab.binding.homematic.internal.communicator.server.XmlRpcServer;
 import org.openhab.binding.homematic.internal.communicator.virtual.BatteryTypeVirtualDatapointHandler;
@@ -89,6 +90,10 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String EVENT_POOL_NAME = "homematicEvents";
+    private static final int DEVICE_BATCH_SIZE = 25;
+    private static final HmParamsetType[] PREFETCHED_PARAMSET_TYPES = { HmParamsetType.MASTER,
+            HmParamsetType.VALUES };
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
@@ -110,6 +115,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME);
+    private final RpcEventQueue eventQueue = new RpcEventQueue(this, this::isCoalescable,
+            ThreadPoolManager.getPool(EVENT_POOL_NAME));
 
     static {
         // loads all virtual datapoints
@@ -212,6 +219,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         sendDelayedExecutor.stop();
         receiveDelayedExecutor.stop();
         stopServers();
+        eventQueue.clear();
         stopClients();
         devices.clear();
         echoEvents.clear();
@@ -247,8 +255,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private synchronized void startServers() throws IOException {
         for (TransferMode mode : availableInterfaces.values()) {
             if (!rpcServers.containsKey(mode)) {
-                RpcServer rpcServer = mode == TransferMode.XML_RPC ? new XmlRpcServer(this, config)
-                        : new BinRpcServer(this, config, id);
+                RpcServer rpcServer = mode == TransferMode.XML_RPC ? new XmlRpcServer(eventQueue, config)
+                        : new BinRpcServer(eventQueue, config, id);
                 rpcServers.put(mode, rpcServer);
                 rpcServer.start();
             }
@@ -370,54 +378,70 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
+        // loading datapoints for all channels, in batches of devices to combine the requests into multicall requests
         Set<String> loadedDevices = new HashSet<>();
         Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
-        for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
-                try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+        for (int start = 0; start < deviceDescriptions.size(); start += DEVICE_BATCH_SIZE) {
+            List<HmDevice> batch = deviceDescriptions.subList(start,
+                    Math.min(start + DEVICE_BATCH_SIZE, deviceDescriptions.size()));
+            Map<HmParamsetType, Set<HmChannel>> prefetchedChannels = cancelLoadAllMetadata ? Collections.emptyMap()
+                    : prefetchChannelDatapoints(batch, datapointsByChannelIdCache);
+            List<HmDevice> preparedDevices = new ArrayList<>();
+            for (HmDevice device : batch) {
+                if (!cancelLoadAllMetadata) {
+                    try {
+                        logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
+                                device.getType());
+                        if (device.isGatewayExtras()) {
+                            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+                            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+                        } else {
+                            for (HmChannel channel : device.getChannels()) {
+                                logger.trace("  Loading channel {}", channel);
+                                // speed up metadata generation a little bit for equal channels in the gateway devices
+                                if (isVirtualDeviceChannelClone(channel)) {
+                                    HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                                    cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
                                 } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                                    String channelId = getChannelId(channel);
+                                    Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache
+                                            .get(channelId);
+                                    if (cachedDatapoints != null) {
+                                        // clone all datapoints
+                                        cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                                    } else {
+                                        logger.trace("    Loading datapoints into channel {}", channel);
+                                        for (HmParamsetType paramsetType : PREFETCHED_PARAMSET_TYPES) {
+                                            Set<HmChannel> prefetched = prefetchedChannels.get(paramsetType);
+                                            if (prefetched == null || !prefetched.contains(channel)) {
+                                                addChannelDatapoints(channel, paramsetType);
+                                            }
+                                        }
+
+                                        // Make sure to only cache non-reconfigurable channels. For reconfigurable
+                                        // channels, the data point set might change depending on the selected mode.
+                                        if (!channel.isReconfigurable()) {
+                                            datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                                        }
                                     }
                                 }
                             }
                         }
+                        prepareDevice(device);
+                        preparedDevices.add(device);
+                    } catch (IOException ex) {
+                        logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(),
+                                id, ex.getMessage());
                     }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
                 }
             }
+            if (!cancelLoadAllMetadata) {
+                prefetchChannelValues(preparedDevices);
+            }
+            for (HmDevice device : preparedDevices) {
+                loadedDevices.add(device.getAddress());
+                gatewayAdapter.onDeviceLoaded(device);
+            }
         }
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
@@ -425,6 +449,96 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         initialized = true;
     }
 
+    /**
+     * Returns true, if the datapoints of the channel are cloned from the previous channel of the same gateway device.
+     */
+    private boolean isVirtualDeviceChannelClone(HmChannel channel) {
+        String deviceType = channel.getDevice().getType();
+        return (DEVICE_TYPE_VIRTUAL.equals(deviceType) || DEVICE_TYPE_VIRTUAL_WIRED.equals(deviceType))
+                && channel.getNumber() > 1;
+    }
+
+    /**
+     * Returns the id of a channel, channels with the same id have the same datapoints.
+     */
+    private String getChannelId(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
+    }
+
+    /**
+     * Loads the datapoint metadata of all channels of the given devices which can't be cloned from another channel
+     * with multicall requests. Returns the loaded channels per paramset type, all other channels are loaded one by
+     * one.
+     */
+    private Map<HmParamsetType, Set<HmChannel>> prefetchChannelDatapoints(List<HmDevice> devices,
+            Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache) {
+        Map<HmInterface, List<HmChannel>> channelsByInterface = new TreeMap<>();
+        Set<String> channelIds = new HashSet<>();
+        for (HmDevice device : devices) {
+            if (!device.isGatewayExtras()) {
+                for (HmChannel channel : device.getChannels()) {
+                    String channelId = getChannelId(channel);
+                    if (!isVirtualDeviceChannelClone(channel) && !datapointsByChannelIdCache.containsKey(channelId)
+                            && channelIds.add(channelId)) {
+                        channelsByInterface.computeIfAbsent(device.getHmInterface(), i -> new ArrayList<>())
+                                .add(channel);
+                    }
+                }
+            }
+        }
+
+        Map<HmParamsetType, Set<HmChannel>> prefetchedChannels = new HashMap<>();
+        for (Entry<HmInterface, List<HmChannel>> entry : channelsByInterface.entrySet()) {
+            try {
+                RpcClient<?> rpcClient = getRpcClient(entry.getKey());
+                for (HmParamsetType paramsetType : PREFETCHED_PARAMSET_TYPES) {
+                    prefetchedChannels.computeIfAbsent(paramsetType, t -> new HashSet<>())
+                            .addAll(rpcClient.addChannelDatapoints(entry.getValue(), paramsetType));
+                }
+            } catch (IOException ex) {
+                logger.debug("Can't prefetch metadata for interface {} from gateway '{}': {}", entry.getKey(), id,
+                        ex.getMessage());
+            }
+        }
+        return prefetchedChannels;
+    }
+
+    /**
+     * Loads the values of all channels of the given devices with multicall requests and initializes the loaded
+     * channels. All other channels are loaded on demand with {@link #loadChannelValues(HmChannel)}.
+     */
+    private void prefetchChannelValues(List<HmDevice> devices) {
+        Map<HmInterface, List<HmChannel>> channelsByInterface = new TreeMap<>();
+        for (HmDevice device : devices) {
+            if (!device.isGatewayExtras()) {
+                for (HmChannel channel : device.getChannels()) {
+                    if (!channel.isInitialized()) {
+                        channelsByInterface.computeIfAbsent(device.getHmInterface(), i -> new ArrayList<>())
+                                .add(channel);
+                    }
+                }
+            }
+        }
+
+        for (Entry<HmInterface, List<HmChannel>> entry : channelsByInterface.entrySet()) {
+            try {
+                RpcClient<?> rpcClient = getRpcClient(entry.getKey());
+                Set<HmChannel> loadedChannels = rpcClient.setChannelDatapointValues(entry.getValue(),
+                        HmParamsetType.MASTER);
+                loadedChannels.retainAll(rpcClient.setChannelDatapointValues(loadedChannels, HmParamsetType.VALUES));
+                for (HmChannel channel : entry.getValue()) {
+                    if (loadedChannels.contains(channel)) {
+                        initializeChannel(channel);
+                    }
+                }
+            } catch (IOException ex) {
+                logger.debug("Can't prefetch values for interface {} from gateway '{}': {}", entry.getKey(), id,
+                        ex.getMessage());
+            }
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -487,6 +601,13 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             setChannelDatapointValues(channel, HmParamsetType.VALUES);
         }
 
+        initializeChannel(channel);
+    }
+
+    /**
+     * Initializes the virtual datapoints of a channel after its values have been loaded.
+     */
+    private void initializeChannel(HmChannel channel) {
         for (HmDatapoint dp : channel.getDatapoints()) {
             handleVirtualDatapointEvent(dp, false);
         }
@@ -748,6 +869,22 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         }
     }
 
+    /**
+     * Returns true, if a queued event of the datapoint may be replaced by a newer one. Events of trigger datapoints
+     * like button presses and events with a pending echo are always delivered.
+     */
+    private boolean isCoalescable(HmDatapointInfo dpInfo) {
+        if (echoEvents.contains(dpInfo)) {
+            return false;
+        }
+        try {
+            HmDatapoint dp = getDatapoint(dpInfo);
+            return !dp.isTrigger() && !dp.isPressDatapoint();
+        } catch (HomematicClientException ex) {
+            return false;
+        }
+    }
+
     @Override
     public void newDevices(List<String> addresses) {
         if (initialized && newDeviceEventsEnabled) {
@@ -907,6 +1044,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     gatewayAdapter.onDutyCycleRatioUpdate(dutyCycleRatio);
                 }
                 connectionConfirmed();
+                logEventQueueMetrics();
             } catch (IOException ex) {
                 try {
                     handleInvalidConnection("IOException " + ex.getMessage());
@@ -916,6 +1054,16 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             }
         }
 
+        private void logEventQueueMetrics() {
+            if (logger.isDebugEnabled()) {
+                logger.debug(
+                        "Events of gateway '{}': received={}, processed={}, coalesced={}, dropped={}, queued={}, lag={}ms, maxLag={}ms",
+                        id, eventQueue.getReceivedEvents(), eventQueue.getProcessedEvents(),
+                        eventQueue.getCoalescedEvents(), eventQueue.getDroppedEvents(), eventQueue.getQueuedEvents(),
+                        eventQueue.getLastLag(), eventQueue.getMaxLag());
+            }
+        }
+
         private void connectionConfirmed() {
             if (connectionLost) {
                 connectionLost = false;
@@ -60,40 +60,48 @@ public class BinRpcClient extends RpcClient<byte[]> {
     }
 
     /**
-     * Sends a BIN-RPC message and parses the response to see if there was an error.
+     * Sends a BIN-RPC message and parses the response to see if there was an error. Retries if there was a socket
+     * failure.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
-        return sendMessage(port, request, 0);
+        int rpcRetryCounter = 0;
+        while (true) {
+            try {
+                return sendMessageOnce(port, request);
+            } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
+                // throw immediately, don't retry the message
+                throw rpcEx;
+            } catch (IOException ioEx) {
+                if ("init".equals(request.getMethodName()) || rpcRetryCounter >= MAX_RPC_RETRY) {
+                    throw ioEx;
+                }
+                rpcRetryCounter++;
+                logger.debug("BinRpcMessage socket failure, sending message again {}/{}", rpcRetryCounter,
+                        MAX_RPC_RETRY);
+                socketHandler.removeSocket(port);
+            }
+        }
     }
 
     /**
-     * Sends the message, retries if there was an error.
+     * Sends the message over a pooled socket, the socket is only reused if a complete response has been received.
      */
-    private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter) throws IOException {
+    private Object[] sendMessageOnce(int port, RpcRequest<byte[]> request) throws IOException {
         BinRpcMessage resp = null;
+        SocketInfo socketInfo = socketHandler.borrowSocket(port);
+        boolean reusable = false;
         try {
-            Socket socket = socketHandler.getSocket(port);
+            Socket socket = socketInfo.getSocket();
             socket.getOutputStream().write(request.createMessage());
             resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            reusable = true;
             return new RpcResponseParser(request).parse(resp.getResponseData());
-        } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
-            // throw immediately, don't retry the message
-            throw rpcEx;
-        } catch (IOException ioEx) {
-            if ("init".equals(request.getMethodName()) || rpcRetryCounter >= MAX_RPC_RETRY) {
-                throw ioEx;
-            } else {
-                rpcRetryCounter++;
-                logger.debug("BinRpcMessage socket failure, sending message again {}/{}", rpcRetryCounter,
-                        MAX_RPC_RETRY);
-                socketHandler.removeSocket(port);
-                return sendMessage(port, request, rpcRetryCounter);
-            }
         } finally {
+            socketHandler.returnSocket(port, socketInfo, reusable);
             if (logger.isTraceEnabled()) {
                 logger.trace("Client BinRpcResponse:\n{}", resp == null ? "null" : resp.toString());
             }
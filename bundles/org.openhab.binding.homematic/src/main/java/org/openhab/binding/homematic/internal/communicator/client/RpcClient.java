@@ -15,10 +15,17 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
@@ -32,7 +39,10 @@ import org.openhab.binding.homematic.internal.communicator.parser.GetValueParser
 import org.openhab.binding.homematic.internal.communicator.parser.HomegearLoadDeviceNamesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListDevicesParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser;
 import org.openhab.binding.homematic.internal.communicator.parser.RssiInfoParser;
+import org.openhab.binding.homematic.internal.misc.HomematicConstants;
 import org.openhab.binding.homematic.internal.misc.MiscUtils;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -53,8 +63,10 @@ public abstract class RpcClient<T> {
     private final Logger logger = LoggerFactory.getLogger(RpcClient.class);
     protected static final int MAX_RPC_RETRY = 3;
     protected static final int RESP_BUFFER_SIZE = 8192;
+    protected static final int MULTICALL_BATCH_SIZE = 50;
 
     protected HomematicConfig config;
+    private final Set<Integer> multicallUnsupportedPorts = ConcurrentHashMap.newKeySet();
 
     public RpcClient(HomematicConfig config) {
         this.config = config;
@@ -213,6 +225,135 @@ public abstract class RpcClient<T> {
         }
     }
 
+    /**
+     * Loads all datapoint metadata into the given channels with system.multicall requests. Returns the channels that
+     * have been loaded, all other channels have to be loaded with
+     * {@link #addChannelDatapoints(HmChannel, HmParamsetType)}.
+     */
+    public Set<HmChannel> addChannelDatapoints(Collection<HmChannel> channels, HmParamsetType paramsetType) {
+        return multicallParamsets(channels, "getParamsetDescription", paramsetType,
+                channel -> new GetParamsetDescriptionParser(channel, paramsetType));
+    }
+
+    /**
+     * Sets all datapoint values for the given channels with system.multicall requests. Returns the channels that have
+     * been loaded, all other channels have to be loaded with
+     * {@link #setChannelDatapointValues(HmChannel, HmParamsetType)}.
+     */
+    public Set<HmChannel> setChannelDatapointValues(Collection<HmChannel> channels, HmParamsetType paramsetType) {
+        List<HmChannel> paramsetChannels = new ArrayList<>(channels.size());
+        for (HmChannel channel : channels) {
+            // CUxD values are loaded datapoint by datapoint
+            if (channel.getDevice().getHmInterface() != HmInterface.CUXD || paramsetType != HmParamsetType.VALUES) {
+                paramsetChannels.add(channel);
+            }
+        }
+        return multicallParamsets(paramsetChannels, "getParamset", paramsetType,
+                channel -> new GetParamsetParser(channel, paramsetType));
+    }
+
+    /**
+     * Calls the paramset method for all channels, in batches of {@link #MULTICALL_BATCH_SIZE} calls per
+     * system.multicall request. Failed calls are not retried, the caller falls back to single requests for them.
+     */
+    private Set<HmChannel> multicallParamsets(Collection<HmChannel> channels, String methodName,
+            HmParamsetType paramsetType, Function<HmChannel, RpcParser<Object[], ?>> parserFactory) {
+        Set<HmChannel> loadedChannels = new HashSet<>();
+        Map<Integer, List<HmChannel>> channelsByPort = new LinkedHashMap<>();
+        for (HmChannel channel : channels) {
+            if (isConfigurationChannel(channel) && paramsetType != HmParamsetType.MASTER) {
+                // The configuration channel only has a MASTER Paramset, so there is nothing to load
+                loadedChannels.add(channel);
+            } else {
+                channelsByPort.computeIfAbsent(config.getRpcPort(channel), port -> new ArrayList<>()).add(channel);
+            }
+        }
+
+        for (Map.Entry<Integer, List<HmChannel>> entry : channelsByPort.entrySet()) {
+            int port = entry.getKey();
+            List<HmChannel> portChannels = entry.getValue();
+            for (int start = 0; start < portChannels.size(); start += MULTICALL_BATCH_SIZE) {
+                List<HmChannel> batch = portChannels.subList(start,
+                        Math.min(start + MULTICALL_BATCH_SIZE, portChannels.size()));
+                List<Object[]> params = new ArrayList<>(batch.size());
+                for (HmChannel channel : batch) {
+                    String address = getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel);
+                    params.add(new Object[] { address, paramsetType.toString() });
+                }
+                Object[] results = multicall(port, methodName, params);
+                if (results == null) {
+                    continue;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    HmChannel channel = batch.get(i);
+                    try {
+                        parserFactory.apply(channel).parse(parseMulticallResult(methodName, params.get(i), results[i]));
+                        loadedChannels.add(channel);
+                    } catch (IOException ex) {
+                        logger.debug("Multicall of {} failed for device: {}, channel: {}, paramset: {}: {}", methodName,
+                                channel.getDevice().getAddress(), channel.getNumber(), paramsetType, ex.getMessage());
+                    }
+                }
+            }
+        }
+        return loadedChannels;
+    }
+
+    /**
+     * Sends a system.multicall request with one call of the given method per parameter list. Returns the result of
+     * each call, or null if the request failed or the gateway does not support system.multicall on the given port.
+     * Only a fault or an unexpected response marks the port as not supporting system.multicall, other failures only
+     * affect the given calls.
+     */
+    private Object[] multicall(int port, String methodName, List<Object[]> params) {
+        if (multicallUnsupportedPorts.contains(port)) {
+            return null;
+        }
+        List<Map<String, Object>> calls = new ArrayList<>(params.size());
+        for (Object[] callParams : params) {
+            Map<String, Object> call = new HashMap<>();
+            call.put("methodName", methodName);
+            call.put("params", Arrays.asList(callParams));
+            calls.add(call);
+        }
+        RpcRequest<T> request = createRpcRequest(HomematicConstants.RPC_METHODNAME_SYSTEM_MULTICALL);
+        request.addArg(calls);
+        try {
+            Object[] response = sendMessage(port, request);
+            if (response.length > 0 && response[0] instanceof Object[]
+                    && ((Object[]) response[0]).length == params.size()) {
+                return (Object[]) response[0];
+            }
+            logger.debug("Unexpected response to {} on port {}, sending single requests", request.getMethodName(),
+                    port);
+        } catch (RpcFaultException ex) {
+            logger.debug("Request {} is not supported on port {}, sending single requests: {}", request.getMethodName(),
+                    port, ex.getMessage());
+        } catch (IOException ex) {
+            logger.debug("Request {} failed on port {}, sending single requests for this batch: {}",
+                    request.getMethodName(), port, ex.getMessage());
+            return null;
+        }
+        multicallUnsupportedPorts.add(port);
+        return null;
+    }
+
+    /**
+     * Returns the result of a single call of a system.multicall request, throws an exception if it is a fault.
+     */
+    private Object[] parseMulticallResult(String methodName, Object[] params, Object result) throws IOException {
+        if (result instanceof Object[]) {
+            return (Object[]) result;
+        }
+        RpcRequest<T> request = createRpcRequest(methodName);
+        for (Object param : params) {
+            request.addArg(param);
+        }
+        // a fault is returned as struct, the parser throws the matching exception
+        new RpcResponseParser(request).parse(new Object[] { result });
+        throw new IOException("Unknown Result: " + result);
+    }
+
     /**
      * Reads all VALUES datapoints individually, fallback method if setChannelDatapointValues throws a -1 Failure
      * exception.
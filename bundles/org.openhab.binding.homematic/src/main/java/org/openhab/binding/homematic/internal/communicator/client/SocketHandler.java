@@ -13,24 +13,32 @@
 package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Socket pool, keeps up to {@link HomematicConfig#getRpcConnections()} sockets per port, so that multiple requests
+ * can be sent to the same port in parallel.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<>();
+    private Map<Integer, Deque<SocketInfo>> idleSocketsPerPort = new HashMap<>();
+    private Map<Integer, Semaphore> connectionsPerPort = new HashMap<>();
+    private Map<Integer, Long> removedPerPort = new HashMap<>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -38,56 +46,126 @@ public class SocketHandler {
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Returns an idle socket for the given port, (re)creates it if required. Waits until a connection is free if the
+     * maximum number of connections for the port is in use. The socket must be handed back with
+     * {@link #returnSocket(int, SocketInfo, boolean)}.
      */
-    public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
-            logger.trace("Creating new socket for port {}", port);
-            Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.setReuseAddress(true);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
-
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
+    public SocketInfo borrowSocket(int port) throws IOException {
+        Semaphore connections = getConnections(port);
+        try {
+            if (!connections.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new IOException("No free connection available for port " + port);
             }
-            logger.trace("Returning socket for port {}", port);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to port " + port);
+        }
+        try {
+            SocketInfo socketInfo = pollIdleSocket(port);
+            if (socketInfo == null) {
+                logger.trace("Creating new socket for port {}", port);
+                Socket socket = new Socket();
+                try {
+                    socket.setSoTimeout(config.getTimeout() * 1000);
+                    socket.setReuseAddress(true);
+                    socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+                } catch (IOException | RuntimeException e) {
+                    closeSilent(socket);
+                    throw e;
+                }
+                socketInfo = new SocketInfo(socket);
+            }
+            return socketInfo;
+        } catch (IOException | RuntimeException e) {
+            connections.release();
+            throw e;
         }
-        return socketInfo.getSocket();
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Hands back a socket borrowed with {@link #borrowSocket(int)}. The socket is kept for the next request if it is
+     * reusable, otherwise it is closed.
      */
-    public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
+    public void returnSocket(int port, SocketInfo socketInfo, boolean reusable) {
+        boolean keep;
+        synchronized (this) {
+            Long removed = removedPerPort.get(port);
+            keep = reusable && (removed == null || socketInfo.getCreated() > removed);
+            if (keep) {
+                idleSocketsPerPort.computeIfAbsent(port, p -> new ArrayDeque<>()).addFirst(socketInfo);
+            }
+        }
+        if (!keep) {
             logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
             closeSilent(socketInfo.getSocket());
         }
+        getConnections(port).release();
+    }
+
+    /**
+     * Removes all sockets for the given port from the cache, sockets currently in use are closed when they are handed
+     * back.
+     */
+    public void removeSocket(int port) {
+        Deque<SocketInfo> idleSockets;
+        synchronized (this) {
+            removedPerPort.put(port, System.currentTimeMillis());
+            idleSockets = idleSocketsPerPort.remove(port);
+        }
+        if (idleSockets != null) {
+            for (SocketInfo socketInfo : idleSockets) {
+                logger.trace("Closing Socket on port {}", port);
+                closeSilent(socketInfo.getSocket());
+            }
+        }
     }
 
     /**
      * Removes all cached sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
+        Integer[] portsToRemove;
+        synchronized (this) {
+            portsToRemove = connectionsPerPort.keySet().toArray(new Integer[0]);
+        }
+        for (Integer key : portsToRemove) {
+            removeSocket(key);
+        }
+    }
+
+    /**
+     * Returns the most recently used idle socket for the given port, sockets which reached their max alive time are
+     * closed.
+     */
+    private SocketInfo pollIdleSocket(int port) {
+        while (true) {
+            SocketInfo socketInfo;
+            synchronized (this) {
+                Deque<SocketInfo> idleSockets = idleSocketsPerPort.get(port);
+                socketInfo = idleSockets == null ? null : idleSockets.pollFirst();
+            }
+            if (socketInfo == null) {
+                return null;
             }
+            boolean isMaxAliveReached = System.currentTimeMillis()
+                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+            if (!isMaxAliveReached) {
+                logger.trace("Returning socket for port {}", port);
+                return socketInfo;
+            }
+            logger.debug("Max alive time reached for socket on port {}", port);
+            closeSilent(socketInfo.getSocket());
         }
     }
 
+    /**
+     * Returns the semaphore which limits the number of parallel connections to the given port.
+     */
+    private synchronized Semaphore getConnections(int port) {
+        return connectionsPerPort.computeIfAbsent(port,
+                p -> new Semaphore(Math.max(1, config.getRpcConnections()), true));
+    }
+
     /**
      * Silently closes the given socket.
      */
@@ -14,7 +14,11 @@ package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -43,6 +47,7 @@ import org.xml.sax.SAXException;
 public class XmlRpcClient extends RpcClient<String> {
     private final Logger logger = LoggerFactory.getLogger(XmlRpcClient.class);
     private HttpClient httpClient;
+    private final Map<Integer, Semaphore> connectionsPerPort = new ConcurrentHashMap<>();
 
     public XmlRpcClient(HomematicConfig config, HttpClient httpClient) throws IOException {
         super(config);
@@ -67,7 +72,7 @@ public class XmlRpcClient extends RpcClient<String> {
     }
 
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client XmlRpcRequest (port {}):\n{}", port, request);
         }
@@ -96,7 +101,28 @@ public class XmlRpcClient extends RpcClient<String> {
         throw reason;
     }
 
+    /**
+     * Sends the request, limits the number of parallel requests per port to the configured number of RPC connections.
+     */
     private byte[] send(int port, RpcRequest<String> request) throws IOException {
+        Semaphore connections = connectionsPerPort.computeIfAbsent(port,
+                p -> new Semaphore(Math.max(1, config.getRpcConnections()), true));
+        try {
+            if (!connections.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new IOException("No free connection available for port " + port);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to port " + port);
+        }
+        try {
+            return sendRequest(port, request);
+        } finally {
+            connections.release();
+        }
+    }
+
+    private byte[] sendRequest(int port, RpcRequest<String> request) throws IOException {
         byte[] ret = new byte[0];
         try {
             BytesContentProvider content = new BytesContentProvider(
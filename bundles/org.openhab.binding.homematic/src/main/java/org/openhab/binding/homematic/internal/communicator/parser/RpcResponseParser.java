@@ -15,6 +15,7 @@ package org.openhab.binding.homematic.internal.communicator.parser;
 import java.io.IOException;
 import java.util.Map;
 
+import org.openhab.binding.homematic.internal.communicator.client.RpcFaultException;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownRpcFailureException;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
@@ -47,7 +48,7 @@ public class RpcResponseParser extends CommonRpcParser<Object[], Object[]> {
                     } else if (faultCode.intValue() == -3 && "Unknown paramset".equals(faultString)) {
                         throw new UnknownParameterSetException(faultMessage);
                     }
-                    throw new IOException(faultMessage);
+                    throw new RpcFaultException(faultMessage);
                 }
             }
             return message;
@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decouples the events received from a Homematic gateway from their processing.
+ * <p>
+ * Events are queued in a fixed number of stripes, the stripe is selected by the device address. Each stripe is
+ * processed by at most one thread at a time, so the events of a datapoint are processed in the order they have been
+ * received. If a value is received for a datapoint which still has a queued value, the new value replaces the queued
+ * one, unless the datapoint must not be coalesced (e.g. button presses). The replaced value keeps the position of the
+ * queued one, so the order is only kept per datapoint, not between the datapoints of a device.
+ * <p>
+ * The stripes are bounded. If a stripe is full, the receiving thread waits for free space and thereby slows down the
+ * gateway, events which can't be queued in time are dropped. Once a stripe dropped events, the receiving thread no
+ * longer waits for that stripe, further events for it are dropped right away while it is full, until it has been
+ * processed down to half of its capacity. So a burst of events can't block the gateway for more than one timeout per
+ * stripe, and a full stripe doesn't affect the other stripes.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class RpcEventQueue implements RpcEventListener {
+    private final Logger logger = LoggerFactory.getLogger(RpcEventQueue.class);
+
+    public static final int DEFAULT_STRIPES = 4;
+    public static final int DEFAULT_CAPACITY = 5000;
+    public static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 2000;
+    private static final int MAX_EVENTS_PER_RUN = 100;
+
+    private final RpcEventListener listener;
+    private final Predicate<HmDatapointInfo> coalescable;
+    private final Executor executor;
+    private final Stripe[] stripes;
+    private final int stripeCapacity;
+    private final long offerTimeoutNanos;
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicLong processedEvents = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public RpcEventQueue(RpcEventListener listener, Predicate<HmDatapointInfo> coalescable, Executor executor) {
+        this(listener, coalescable, executor, DEFAULT_STRIPES, DEFAULT_CAPACITY, DEFAULT_OFFER_TIMEOUT_MILLIS);
+    }
+
+    public RpcEventQueue(RpcEventListener listener, Predicate<HmDatapointInfo> coalescable, Executor executor,
+            int stripeCount, int capacity, long offerTimeoutMillis) {
+        this.listener = listener;
+        this.coalescable = coalescable;
+        this.executor = executor;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeCapacity = Math.max(1, capacity / stripeCount);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+    }
+
+    @Override
+    public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+        receivedEvents.incrementAndGet();
+        String address = dpInfo.getAddress();
+        int hash = address == null ? 0 : address.hashCode();
+        stripes[Math.floorMod(hash, stripes.length)].offer(dpInfo, newValue);
+    }
+
+    @Override
+    public void newDevices(List<String> adresses) {
+        listener.newDevices(adresses);
+    }
+
+    @Override
+    public void deleteDevices(List<String> addresses) {
+        listener.deleteDevices(addresses);
+    }
+
+    /**
+     * Removes all queued events.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Returns the number of events received from the gateway.
+     */
+    public long getReceivedEvents() {
+        return receivedEvents.get();
+    }
+
+    /**
+     * Returns the number of events handed to the listener.
+     */
+    public long getProcessedEvents() {
+        return processedEvents.get();
+    }
+
+    /**
+     * Returns the number of events which have been replaced by a newer value of the same datapoint.
+     */
+    public long getCoalescedEvents() {
+        return coalescedEvents.get();
+    }
+
+    /**
+     * Returns the number of events which have been dropped because the queue was full.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Returns the number of currently queued events.
+     */
+    public int getQueuedEvents() {
+        int queued = 0;
+        for (Stripe stripe : stripes) {
+            queued += stripe.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Returns the time in milliseconds the last processed event has been waiting in the queue.
+     */
+    public long getLastLag() {
+        return lastLagMillis.get();
+    }
+
+    /**
+     * Returns the maximum time in milliseconds an event has been waiting in the queue.
+     */
+    public long getMaxLag() {
+        return maxLagMillis.get();
+    }
+
+    private void eventProcessed(QueuedEvent event) {
+        long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - event.received);
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        processedEvents.incrementAndGet();
+    }
+
+    /**
+     * A queued event, the value may be replaced as long as the event is queued.
+     */
+    private static class QueuedEvent {
+        private final HmDatapointInfo dpInfo;
+        private final long received = System.nanoTime();
+        private Object value;
+
+        private QueuedEvent(HmDatapointInfo dpInfo, Object value) {
+            this.dpInfo = dpInfo;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A bounded queue of events which is processed by at most one thread at a time.
+     */
+    private class Stripe implements Runnable {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final Deque<QueuedEvent> events = new ArrayDeque<>();
+        private final Map<HmDatapointInfo, QueuedEvent> queuedByDatapoint = new HashMap<>();
+        private boolean scheduled;
+        private boolean dropping;
+
+        private void offer(HmDatapointInfo dpInfo, Object value) {
+            lock.lock();
+            try {
+                QueuedEvent queued = queuedByDatapoint.get(dpInfo);
+                if (queued != null && coalescable.test(dpInfo)) {
+                    queued.value = value;
+                    coalescedEvents.incrementAndGet();
+                    return;
+                }
+                // Don't wait for every single event of a burst while the queue is overloaded
+                long nanos = dropping ? 0 : offerTimeoutNanos;
+                while (events.size() >= stripeCapacity) {
+                    if (nanos <= 0) {
+                        eventDropped(dpInfo);
+                        return;
+                    }
+                    nanos = notFull.awaitNanos(nanos);
+                }
+                QueuedEvent event = new QueuedEvent(dpInfo, value);
+                events.addLast(event);
+                queuedByDatapoint.put(dpInfo, event);
+                schedule();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                eventDropped(dpInfo);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void eventDropped(HmDatapointInfo dpInfo) {
+            droppedEvents.incrementAndGet();
+            if (!dropping) {
+                dropping = true;
+                logger.warn("Event queue is full, dropping events from the gateway");
+            }
+            logger.debug("Dropped event for '{}'", dpInfo);
+        }
+
+        private void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled = false;
+                    logger.warn("Can't process events from the gateway: {}", e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_EVENTS_PER_RUN; i++) {
+                QueuedEvent event;
+                boolean recovered = false;
+                lock.lock();
+                try {
+                    event = events.pollFirst();
+                    if (event == null) {
+                        scheduled = false;
+                    } else {
+                        queuedByDatapoint.remove(event.dpInfo, event);
+                        notFull.signal();
+                    }
+                    if (dropping && events.size() <= stripeCapacity / 2) {
+                        dropping = false;
+                        recovered = true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (recovered) {
+                    logger.info("Event queue recovered, {} events dropped in total", droppedEvents.get());
+                }
+                if (event == null) {
+                    return;
+                }
+                try {
+                    listener.eventReceived(event.dpInfo, event.value);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to process event for '{}': {}", event.dpInfo, e.getMessage(), e);
+                }
+                eventProcessed(event);
+            }
+            // give the other stripes a chance, then continue
+            lock.lock();
+            try {
+                scheduled = false;
+                if (!events.isEmpty()) {
+                    schedule();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return events.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                events.clear();
+                queuedByDatapoint.clear();
+                dropping = false;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
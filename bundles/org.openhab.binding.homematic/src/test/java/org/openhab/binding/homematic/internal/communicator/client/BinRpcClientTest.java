@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.core.test.java.JavaTest;
+
+/**
+ * Tests the {@link BinRpcClient} against a local BIN-RPC stub server.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class BinRpcClientTest extends JavaTest {
+    private static final String ENCODING = "ISO-8859-1";
+
+    private ServerSocket serverSocket;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger acceptedConnections = new AtomicInteger();
+    private final CountDownLatch parallelPings = new CountDownLatch(2);
+    private final List<Object> multicallResults = new ArrayList<>();
+
+    private BinRpcClient rpcClient;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverExecutor = Executors.newCachedThreadPool();
+        serverExecutor.submit(this::acceptConnections);
+
+        int port = serverSocket.getLocalPort();
+        HomematicConfig config = new HomematicConfig() {
+            @Override
+            public int getRpcPort(HmInterface hmInterface) {
+                return port;
+            }
+        };
+        config.setGatewayAddress(serverSocket.getInetAddress().getHostAddress());
+        config.setTimeout(5);
+        config.setRpcConnections(2);
+        rpcClient = new BinRpcClient(config);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        rpcClient.dispose();
+        serverSocket.close();
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void sequentialRequestsReuseTheConnection() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            rpcClient.ping(HmInterface.RF, "test");
+        }
+
+        assertThat(acceptedConnections.get(), is(1));
+    }
+
+    @Test
+    public void parallelRequestsAreSentOverSeparateConnections() throws Exception {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> pings = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                pings.add(clientExecutor.submit(() -> {
+                    rpcClient.ping(HmInterface.RF, "parallel");
+                    return null;
+                }));
+            }
+            for (Future<?> ping : pings) {
+                ping.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+
+        assertThat(parallelPings.getCount(), is(0L));
+        assertThat(acceptedConnections.get(), is(2));
+    }
+
+    @Test
+    public void multicallResultsAreAssignedToTheirChannels() throws IOException {
+        Map<String, Object> fault = new HashMap<>();
+        fault.put("faultCode", -3);
+        fault.put("faultString", "Unknown paramset");
+        multicallResults.add(Arrays.asList(new HashMap<>()));
+        multicallResults.add(fault);
+        HmChannel first = createDimmerHmChannel();
+        HmChannel second = createDimmerHmChannel();
+
+        Set<HmChannel> loadedChannels = rpcClient.setChannelDatapointValues(Arrays.asList(first, second),
+                HmParamsetType.VALUES);
+
+        assertThat(loadedChannels.contains(first), is(true));
+        assertThat(loadedChannels.contains(second), is(false));
+    }
+
+    private void acceptConnections() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                acceptedConnections.incrementAndGet();
+                serverExecutor.submit(() -> handleConnection(socket));
+            }
+        } catch (IOException e) {
+            // server socket closed
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try (Socket s = socket) {
+            while (true) {
+                BinRpcMessage request = new BinRpcMessage(s.getInputStream(), true, ENCODING);
+                BinRpcMessage response = new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, ENCODING);
+                if ("system.multicall".equals(request.getMethodName())) {
+                    response.addArg(multicallResults);
+                } else {
+                    if ("parallel".equals(request.getResponseData()[0])) {
+                        // only answers when both requests are in flight at the same time
+                        parallelPings.countDown();
+                        parallelPings.await(5, TimeUnit.SECONDS);
+                    }
+                    response.addArg(Boolean.TRUE);
+                }
+                s.getOutputStream().write(response.createMessage());
+            }
+        } catch (EOFException e) {
+            // connection closed by the client
+        } catch (IOException | InterruptedException e) {
+            // server stopped
+        }
+    }
+}
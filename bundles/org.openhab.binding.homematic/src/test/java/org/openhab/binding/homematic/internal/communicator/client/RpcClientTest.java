@@ -19,6 +19,10 @@ import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -95,6 +99,79 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
     }
 
+    @Test
+    public void paramsetDescriptionsAreLoadedWithOneMulticall() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel(), createDimmerHmChannel());
+
+        Set<HmChannel> loadedChannels = rpcClient.addChannelDatapoints(channels, HmParamsetType.VALUES);
+
+        assertThat(loadedChannels.size(), is(2));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(0));
+    }
+
+    @Test
+    public void paramsetsAreLoadedWithMulticallBatches() throws IOException {
+        List<HmChannel> channels = new ArrayList<>();
+        for (int i = 0; i < RpcClient.MULTICALL_BATCH_SIZE + 1; i++) {
+            channels.add(createDimmerHmChannel());
+        }
+
+        Set<HmChannel> loadedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        assertThat(loadedChannels.size(), is(channels.size()));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(2));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
+    }
+
+    @Test
+    public void valuesParamsetIsNotLoadedWithMulticallForDummyChannel() throws IOException {
+        Set<HmChannel> loadedChannels = rpcClient
+                .setChannelDatapointValues(Arrays.asList(createDimmerDummyChannel()), HmParamsetType.VALUES);
+
+        assertThat(loadedChannels.size(), is(1));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(0));
+    }
+
+    @Test
+    public void noChannelsAreLoadedIfMulticallIsNotSupported() throws IOException {
+        rpcClient.multicallSupported = false;
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel());
+
+        Set<HmChannel> loadedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+        rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        assertThat(loadedChannels.isEmpty(), is(true));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+    }
+
+    @Test
+    public void failedMulticallOnlyFallsBackForItsBatch() throws IOException {
+        rpcClient.failingMulticalls = 1;
+        List<HmChannel> channels = new ArrayList<>();
+        for (int i = 0; i < RpcClient.MULTICALL_BATCH_SIZE + 1; i++) {
+            channels.add(createDimmerHmChannel());
+        }
+
+        Set<HmChannel> loadedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        assertThat(loadedChannels.size(), is(1));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(2));
+    }
+
+    @Test
+    public void failedMulticallDoesNotDisableMulticall() throws IOException {
+        rpcClient.failingMulticalls = 1;
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel());
+
+        Set<HmChannel> loadedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+        assertThat(loadedChannels.isEmpty(), is(true));
+
+        loadedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+        assertThat(loadedChannels.size(), is(1));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(2));
+    }
+
     @Test
     public void burstRxModeIsConfiguredAsParameterOnRequest() throws IOException {
         RpcRequest<String> request = new XmlRpcRequest("setValue");
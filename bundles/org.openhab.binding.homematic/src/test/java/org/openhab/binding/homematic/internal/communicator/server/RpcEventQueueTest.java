@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.core.test.java.JavaTest;
+
+/**
+ * Tests for {@link RpcEventQueue}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class RpcEventQueueTest extends JavaTest {
+    // LEVEL and WORKING are queued in the first, PRESS_SHORT in the second of two stripes
+    private static final HmDatapointInfo LEVEL = new HmDatapointInfo("ABC12345678", HmParamsetType.VALUES, 1, "LEVEL");
+    private static final HmDatapointInfo WORKING = new HmDatapointInfo("ABC12345678", HmParamsetType.VALUES, 1,
+            "WORKING");
+    private static final HmDatapointInfo PRESS_SHORT = new HmDatapointInfo("XYZ12345678", HmParamsetType.VALUES, 1,
+            "PRESS_SHORT");
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Executor executor = tasks::add;
+    private final List<String> receivedEvents = new ArrayList<>();
+    private BiConsumer<HmDatapointInfo, Object> onEvent = (dpInfo, newValue) -> {
+    };
+
+    private final RpcEventListener listener = new RpcEventListener() {
+        @Override
+        public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+            receivedEvents.add(dpInfo.getName() + "=" + newValue);
+            onEvent.accept(dpInfo, newValue);
+        }
+
+        @Override
+        public void newDevices(List<String> adresses) {
+        }
+
+        @Override
+        public void deleteDevices(List<String> addresses) {
+        }
+    };
+
+    private RpcEventQueue eventQueue;
+
+    @BeforeEach
+    public void setup() {
+        eventQueue = new RpcEventQueue(listener, dpInfo -> !dpInfo.getName().startsWith("PRESS_"), executor, 2, 10,
+                0);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void eventsOfADeviceAreProcessedInOrder() {
+        eventQueue.eventReceived(WORKING, true);
+        eventQueue.eventReceived(LEVEL, 0.5);
+
+        runTasks();
+
+        assertThat(receivedEvents, is(Arrays.asList("WORKING=true", "LEVEL=0.5")));
+        assertThat(eventQueue.getProcessedEvents(), is(2L));
+    }
+
+    @Test
+    public void supersededValuesAreCoalesced() {
+        eventQueue.eventReceived(LEVEL, 0.2);
+        eventQueue.eventReceived(WORKING, true);
+        eventQueue.eventReceived(LEVEL, 0.7);
+
+        runTasks();
+
+        // The new value takes the position of the queued one, the order is only kept per datapoint
+        assertThat(receivedEvents, is(Arrays.asList("LEVEL=0.7", "WORKING=true")));
+        assertThat(eventQueue.getReceivedEvents(), is(3L));
+        assertThat(eventQueue.getCoalescedEvents(), is(1L));
+    }
+
+    @Test
+    public void buttonPressesAreNotCoalesced() {
+        eventQueue.eventReceived(PRESS_SHORT, true);
+        eventQueue.eventReceived(PRESS_SHORT, true);
+
+        runTasks();
+
+        assertThat(receivedEvents, is(Arrays.asList("PRESS_SHORT=true", "PRESS_SHORT=true")));
+    }
+
+    @Test
+    public void eventsAreDroppedIfTheQueueIsFull() {
+        for (int i = 0; i < 7; i++) {
+            eventQueue.eventReceived(PRESS_SHORT, i);
+        }
+
+        runTasks();
+
+        assertThat(receivedEvents.size(), is(5));
+        assertThat(eventQueue.getDroppedEvents(), is(2L));
+        assertThat(eventQueue.getQueuedEvents(), is(0));
+    }
+
+    @Test
+    public void fullQueueWaitsForFreeSpace() throws InterruptedException {
+        eventQueue = new RpcEventQueue(listener, dpInfo -> false, executor, 1, 1, 10000);
+        eventQueue.eventReceived(PRESS_SHORT, 1);
+        Thread receiver = new Thread(() -> eventQueue.eventReceived(PRESS_SHORT, 2));
+        receiver.start();
+
+        waitForAssert(() -> assertThat(receiver.getState(), is(Thread.State.TIMED_WAITING)));
+        Runnable task;
+        while (receiver.isAlive() || !tasks.isEmpty()) {
+            if ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+        runTasks();
+
+        assertThat(receivedEvents, is(Arrays.asList("PRESS_SHORT=1", "PRESS_SHORT=2")));
+        assertThat(eventQueue.getDroppedEvents(), is(0L));
+    }
+
+    @Test
+    public void burstAgainstAFullStripeWaitsOnlyOnce() {
+        eventQueue = new RpcEventQueue(listener, dpInfo -> false, executor, 1, 1, 200);
+        eventQueue.eventReceived(PRESS_SHORT, 0);
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= 50; i++) {
+            eventQueue.eventReceived(PRESS_SHORT, i);
+        }
+        long durationMillis = (System.nanoTime() - start) / 1000000;
+
+        // Waiting for every event would take 10 seconds
+        assertThat(durationMillis < 2000, is(true));
+        assertThat(eventQueue.getDroppedEvents(), is(50L));
+
+        runTasks();
+        eventQueue.eventReceived(PRESS_SHORT, 51);
+        runTasks();
+
+        assertThat(receivedEvents, is(Arrays.asList("PRESS_SHORT=0", "PRESS_SHORT=51")));
+        assertThat(eventQueue.getDroppedEvents(), is(50L));
+    }
+
+    @Test
+    public void fullStripeDoesNotDropEventsOfOtherStripes() throws InterruptedException {
+        eventQueue = new RpcEventQueue(listener, dpInfo -> false, executor, 2, 2, 1000);
+        eventQueue.eventReceived(LEVEL, 1);
+        // Dropped after the timeout, the first stripe drops further events right away from now on
+        eventQueue.eventReceived(LEVEL, 2);
+        assertThat(eventQueue.getDroppedEvents(), is(1L));
+
+        eventQueue.eventReceived(PRESS_SHORT, 1);
+        Thread receiver = new Thread(() -> eventQueue.eventReceived(PRESS_SHORT, 2));
+        receiver.start();
+
+        // The second stripe still waits for free space
+        waitForAssert(() -> assertThat(receiver.getState(), is(Thread.State.TIMED_WAITING)));
+        Runnable task;
+        while (receiver.isAlive() || !tasks.isEmpty()) {
+            if ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+        runTasks();
+
+        assertThat(receivedEvents, hasItems("LEVEL=1", "PRESS_SHORT=1", "PRESS_SHORT=2"));
+        assertThat(eventQueue.getDroppedEvents(), is(1L));
+    }
+
+    @Test
+    public void stripeWaitsAgainOnceProcessedDownToHalfItsCapacity() {
+        eventQueue = new RpcEventQueue(listener, dpInfo -> false, executor, 1, 4, 200);
+        for (int i = 0; i < 4; i++) {
+            eventQueue.eventReceived(PRESS_SHORT, i);
+        }
+        // Dropped after the timeout, the stripe drops further events right away from now on
+        eventQueue.eventReceived(PRESS_SHORT, 4);
+
+        long[] durationMillis = new long[2];
+        onEvent = (dpInfo, newValue) -> {
+            if (Integer.valueOf(0).equals(newValue)) {
+                // Three events are queued, the stripe is still dropping
+                eventQueue.eventReceived(PRESS_SHORT, 5);
+                durationMillis[0] = measureMillis(() -> eventQueue.eventReceived(PRESS_SHORT, 6));
+            } else if (Integer.valueOf(2).equals(newValue)) {
+                // Two events are queued, the stripe waits again
+                eventQueue.eventReceived(PRESS_SHORT, 7);
+                eventQueue.eventReceived(PRESS_SHORT, 8);
+                durationMillis[1] = measureMillis(() -> eventQueue.eventReceived(PRESS_SHORT, 9));
+            }
+        };
+        runTasks();
+
+        assertThat(receivedEvents, is(Arrays.asList("PRESS_SHORT=0", "PRESS_SHORT=1", "PRESS_SHORT=2",
+                "PRESS_SHORT=3", "PRESS_SHORT=5", "PRESS_SHORT=7", "PRESS_SHORT=8")));
+        assertThat(eventQueue.getDroppedEvents(), is(3L));
+        assertThat(durationMillis[0] < 200, is(true));
+        assertThat(durationMillis[1] >= 200, is(true));
+    }
+
+    private static long measureMillis(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
@@ -13,12 +13,15 @@
 package org.openhab.binding.homematic.test.util;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
+import org.openhab.binding.homematic.internal.communicator.client.RpcFaultException;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 
 /**
@@ -28,8 +31,11 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     public static final String GET_PARAMSET_DESCRIPTION_NAME = "getParamsetDescription";
     public static final String GET_PARAMSET_NAME = "getParamset";
+    public static final String SYSTEM_MULTICALL_NAME = "system.multicall";
 
     public Map<String, Integer> numberOfCalls = new HashMap<>();
+    public boolean multicallSupported = true;
+    public int failingMulticalls;
 
     public RpcClientMockImpl() throws IOException {
         this(new HomematicConfig());
@@ -38,7 +44,8 @@ public class RpcClientMockImpl extends RpcClient<String> {
     public RpcClientMockImpl(HomematicConfig config) throws IOException {
         super(config);
 
-        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME).forEach(method -> numberOfCalls.put(method, 0));
+        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME, SYSTEM_MULTICALL_NAME)
+                .forEach(method -> numberOfCalls.put(method, 0));
     }
 
     @Override
@@ -47,6 +54,9 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
         increaseNumberOfCalls(methodName);
 
+        if (SYSTEM_MULTICALL_NAME.equals(methodName)) {
+            return mockMulticallResponse(((MockRpcRequest) request).args);
+        }
         return mockResponse();
     }
 
@@ -59,6 +69,22 @@ public class RpcClientMockImpl extends RpcClient<String> {
         }
     }
 
+    private Object[] mockMulticallResponse(List<Object> args) throws IOException {
+        if (!multicallSupported) {
+            throw new RpcFaultException("-1 system.multicall: unknown method name");
+        }
+        if (failingMulticalls > 0) {
+            failingMulticalls--;
+            throw new IOException("No free connection available for port 2001");
+        }
+        List<?> calls = (List<?>) args.get(0);
+        Object[] results = new Object[calls.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = mockResponse();
+        }
+        return new Object[] { results };
+    }
+
     private Object[] mockResponse() {
         Object[] response = new Object[1];
         response[0] = new HashMap<>();
@@ -67,22 +93,7 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     @Override
     protected RpcRequest<String> createRpcRequest(String methodName) {
-        return new RpcRequest<String>() {
-
-            @Override
-            public void addArg(Object arg) {
-            }
-
-            @Override
-            public String createMessage() {
-                return null;
-            }
-
-            @Override
-            public String getMethodName() {
-                return methodName;
-            }
-        };
+        return new MockRpcRequest(methodName);
     }
 
     @Override
@@ -93,4 +104,28 @@ public class RpcClientMockImpl extends RpcClient<String> {
     protected String getRpcCallbackUrl() {
         return null;
     }
+
+    private static class MockRpcRequest implements RpcRequest<String> {
+        private final String methodName;
+        private final List<Object> args = new ArrayList<>();
+
+        public MockRpcRequest(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public void addArg(Object arg) {
+            args.add(arg);
+        }
+
+        @Override
+        public String createMessage() {
+            return null;
+        }
+
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
+    }
 }
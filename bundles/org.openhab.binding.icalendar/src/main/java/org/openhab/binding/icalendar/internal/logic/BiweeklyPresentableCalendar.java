@@ -20,14 +20,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.icalendar.internal.logic.EventTextFilter.Type;
+import org.openhab.binding.icalendar.internal.logic.OccurrenceIndex.Occurrence;
 
 import biweekly.ICalendar;
 import biweekly.component.VEvent;
@@ -59,10 +63,16 @@ import biweekly.util.com.google.ical.compat.javautil.DateIterator;
  * @author Andrew Fiddian-Green - Methods getJustBegunEvents() & getJustEndedEvents()
  * @author Michael Wodniok - Extension for filtered events
  * @author Michael Wodniok - Added logic for events moved with "RECURRENCE-ID" (issue 9647)
+ * @author openHAB Contributors - Occurrence index
  */
 @NonNullByDefault
 class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
     private final ICalendar usedCalendar;
+    private final boolean[] positiveEvents;
+    private final Map<@Nullable String, List<VEvent>> negativeEventsByUid = new HashMap<>();
+    private final @Nullable Duration[] eventLengths;
+    private final Duration shortestEventLength;
+    private final OccurrenceIndex index;
 
     BiweeklyPresentableCalendar(InputStream streamed) throws IOException, CalendarException {
         try (final ICalReader reader = new ICalReader(streamed)) {
@@ -72,6 +82,27 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
             }
             this.usedCalendar = currentCalendar;
         }
+
+        final List<VEvent> events = usedCalendar.getEvents();
+        positiveEvents = new boolean[events.size()];
+        eventLengths = new @Nullable Duration[events.size()];
+        Duration longest = Duration.ZERO;
+        // events without a length have no end, they are not relevant for the shortest length
+        Duration shortest = null;
+        for (int i = 0; i < events.size(); i++) {
+            final VEvent currentEvent = events.get(i);
+            positiveEvents[i] = classifyEvent(currentEvent);
+            final Duration length = getEventLength(currentEvent);
+            eventLengths[i] = length;
+            if (length != null) {
+                longest = length.compareTo(longest) > 0 ? length : longest;
+                shortest = shortest == null || length.compareTo(shortest) < 0 ? length : shortest;
+            }
+        }
+        shortestEventLength = shortest != null ? shortest : Duration.ZERO;
+        index = new OccurrenceIndex(this::expandOccurrences, longest);
+        // index the occurrences around now right away, that is what the handlers ask for
+        index.getPresentAt(Instant.now());
     }
 
     @Override
@@ -86,52 +117,40 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
 
     @Override
     public List<Event> getJustBegunEvents(Instant frameBegin, Instant frameEnd) {
-        final List<Event> eventList = new ArrayList<>();
-        // process all the events in the iCalendar
-        for (final VEvent event : usedCalendar.getEvents()) {
-            // iterate over all begin dates
-            final DateIterator begDates = getRecurredEventDateIterator(event);
-            while (begDates.hasNext()) {
-                final Instant begInst = begDates.next().toInstant();
-                if (begInst.isBefore(frameBegin)) {
-                    continue;
-                } else if (begInst.isAfter(frameEnd)) {
-                    break;
-                }
-                // fall through => means we are within the time frame
-                Duration duration = getEventLength(event);
-                if (duration == null) {
-                    duration = Duration.ofMinutes(1);
-                }
-                eventList.add(new VEventWPeriod(event, begInst, begInst.plus(duration)).toEvent());
-                break;
+        // the first begin of every event within the time frame, in the order of the calendar
+        final Map<Integer, Occurrence> firstPerEvent = new TreeMap<>();
+        for (final Occurrence occurrence : index.getStartingBetween(frameBegin, frameEnd.plusNanos(1))) {
+            firstPerEvent.putIfAbsent(occurrence.order, occurrence);
+        }
+        final List<Event> eventList = new ArrayList<>(firstPerEvent.size());
+        for (final Occurrence occurrence : firstPerEvent.values()) {
+            Duration duration = occurrence.duration;
+            if (duration == null) {
+                duration = Duration.ofMinutes(1);
             }
+            eventList.add(new VEventWPeriod(occurrence.vEvent, occurrence.start, occurrence.start.plus(duration))
+                    .toEvent());
         }
         return eventList;
     }
 
     @Override
     public List<Event> getJustEndedEvents(Instant frameBegin, Instant frameEnd) {
-        final List<Event> eventList = new ArrayList<>();
-        // process all the events in the iCalendar
-        for (final VEvent event : usedCalendar.getEvents()) {
-            final Duration duration = getEventLength(event);
-            if (duration == null) {
-                continue;
+        // the first end of every event within the time frame, in the order of the calendar
+        final Map<Integer, Occurrence> firstPerEvent = new TreeMap<>();
+        final Instant searchBegin = frameBegin.minus(index.getMaximumDuration());
+        final Instant searchEnd = frameEnd.minus(shortestEventLength).plusNanos(1);
+        for (final Occurrence occurrence : index.getStartingBetween(searchBegin, searchEnd)) {
+            final Instant endInst = occurrence.getEnd();
+            if (endInst != null && !endInst.isBefore(frameBegin) && !endInst.isAfter(frameEnd)) {
+                firstPerEvent.putIfAbsent(occurrence.order, occurrence);
             }
-            // iterate over all begin dates
-            final DateIterator begDates = getRecurredEventDateIterator(event);
-            while (begDates.hasNext()) {
-                final Instant begInst = begDates.next().toInstant();
-                final Instant endInst = begInst.plus(duration);
-                if (endInst.isBefore(frameBegin)) {
-                    continue;
-                } else if (endInst.isAfter(frameEnd)) {
-                    break;
-                }
-                // fall through => means we are within the time frame
-                eventList.add(new VEventWPeriod(event, begInst, endInst).toEvent());
-                break;
+        }
+        final List<Event> eventList = new ArrayList<>(firstPerEvent.size());
+        for (final Occurrence occurrence : firstPerEvent.values()) {
+            final Instant endInst = occurrence.getEnd();
+            if (endInst != null) {
+                eventList.add(new VEventWPeriod(occurrence.vEvent, occurrence.start, endInst).toEvent());
             }
         }
         return eventList;
@@ -139,34 +158,41 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
 
     @Override
     public @Nullable Event getNextEvent(Instant instant) {
-        final Collection<VEventWPeriod> candidates = new ArrayList<VEventWPeriod>();
-        final Collection<VEvent> negativeEvents = new ArrayList<VEvent>();
-        final Collection<VEvent> positiveEvents = new ArrayList<VEvent>();
-        classifyEvents(positiveEvents, negativeEvents);
-        for (final VEvent currentEvent : positiveEvents) {
-            final DateIterator startDates = this.getRecurredEventDateIterator(currentEvent);
-            final Duration duration = getEventLength(currentEvent);
-            if (duration == null) {
+        final Instant searchBeyond;
+        synchronized (index) {
+            for (final Occurrence occurrence : index.getStartingAfter(instant)) {
+                final Instant endInst = occurrence.getEnd();
+                if (occurrence.active && endInst != null) {
+                    return new VEventWPeriod(occurrence.vEvent, occurrence.start, endInst).toEvent();
+                }
+            }
+            searchBeyond = index.getWindowEnd();
+        }
+
+        // nothing within the indexed time frame, walk the recurrences beyond it
+        final List<VEvent> events = usedCalendar.getEvents();
+        VEventWPeriod earliestNextEvent = null;
+        for (int i = 0; i < events.size(); i++) {
+            final VEvent currentEvent = events.get(i);
+            final Duration duration = eventLengths[i];
+            if (!positiveEvents[i] || duration == null) {
                 continue;
             }
-            startDates.advanceTo(Date.from(instant));
+            final DateIterator startDates = this.getRecurredEventDateIterator(currentEvent);
+            startDates.advanceTo(Date.from(searchBeyond));
             while (startDates.hasNext()) {
                 final Instant startInstant = startDates.next().toInstant();
                 if (startInstant.isAfter(instant)) {
-                    final Uid currentEventUid = currentEvent.getUid();
-                    if (currentEventUid == null || !isCounteredBy(startInstant, currentEventUid, negativeEvents)) {
-                        candidates.add(new VEventWPeriod(currentEvent, startInstant, startInstant.plus(duration)));
+                    if (!isCountered(startInstant, currentEvent)) {
+                        if (earliestNextEvent == null || earliestNextEvent.start.isAfter(startInstant)) {
+                            earliestNextEvent = new VEventWPeriod(currentEvent, startInstant,
+                                    startInstant.plus(duration));
+                        }
                         break;
                     }
                 }
             }
         }
-        VEventWPeriod earliestNextEvent = null;
-        for (final VEventWPeriod positiveCandidate : candidates) {
-            if (earliestNextEvent == null || earliestNextEvent.start.isAfter(positiveCandidate.start)) {
-                earliestNextEvent = positiveCandidate;
-            }
-        }
 
         if (earliestNextEvent == null) {
             return null;
@@ -245,68 +271,69 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
      * @return All events which begin in the time frame.
      */
     private List<VEventWPeriod> getVEventWPeriodsBetween(Instant frameBegin, Instant frameEnd, int maximumPerSeries) {
-        final List<VEvent> positiveEvents = new ArrayList<>();
-        final List<VEvent> negativeEvents = new ArrayList<>();
-        classifyEvents(positiveEvents, negativeEvents);
-
+        final Map<Integer, Integer> foundPerSeries = new HashMap<>();
         final List<VEventWPeriod> eventList = new ArrayList<>();
-        for (final VEvent positiveEvent : positiveEvents) {
-            final DateIterator positiveBeginDates = getRecurredEventDateIterator(positiveEvent);
-            positiveBeginDates.advanceTo(Date.from(frameBegin));
-            int foundInSeries = 0;
-            while (positiveBeginDates.hasNext()) {
-                final Instant begInst = positiveBeginDates.next().toInstant();
-                if (begInst.isAfter(frameEnd) || begInst.equals(frameEnd)) {
-                    break;
-                }
-                Duration duration = getEventLength(positiveEvent);
-                if (duration == null) {
-                    duration = Duration.ZERO;
-                }
-
-                final VEventWPeriod resultingVEWP = new VEventWPeriod(positiveEvent, begInst, begInst.plus(duration));
-                final Uid eventUid = positiveEvent.getUid();
-                if (eventUid != null) {
-                    if (!isCounteredBy(begInst, eventUid, negativeEvents)) {
-                        eventList.add(resultingVEWP);
-                        foundInSeries++;
-                        if (maximumPerSeries != 0 && foundInSeries >= maximumPerSeries) {
-                            break;
-                        }
-                    }
-                } else {
-                    eventList.add(resultingVEWP);
-                    foundInSeries++;
-                    if (maximumPerSeries != 0 && foundInSeries >= maximumPerSeries) {
-                        break;
-                    }
-                }
+        for (final Occurrence occurrence : index.getStartingBetween(frameBegin, frameEnd)) {
+            if (!occurrence.active) {
+                continue;
+            }
+            final int foundInSeries = foundPerSeries.merge(occurrence.order, 1, Integer::sum);
+            if (maximumPerSeries != 0 && foundInSeries > maximumPerSeries) {
+                continue;
+            }
+            Duration duration = occurrence.duration;
+            if (duration == null) {
+                duration = Duration.ZERO;
             }
+            eventList.add(new VEventWPeriod(occurrence.vEvent, occurrence.start, occurrence.start.plus(duration)));
         }
 
         return eventList;
     }
 
     /**
-     * Classifies events into positive and negative ones.
+     * Classifies an event as positive or negative one. Negative ones are registered as counter events.
      *
-     * @param positiveEvents A List where to add positive ones.
-     * @param negativeEvents A List where to add negative ones.
+     * @param currentEvent The event to classify.
+     * @return True if the event is a positive one.
      */
-    private void classifyEvents(Collection<VEvent> positiveEvents, Collection<VEvent> negativeEvents) {
-        for (final VEvent currentEvent : usedCalendar.getEvents()) {
-            final Status eventStatus = currentEvent.getStatus();
-            boolean positive = (eventStatus == null || (eventStatus.isTentative() || eventStatus.isConfirmed()));
-            final RecurrenceId eventRecurrenceId = currentEvent.getRecurrenceId();
-            if (positive && eventRecurrenceId != null) {
-                // RecurrenceId moves an event. This blocks other events of series and creates a new single instance
-                positiveEvents.add(currentEvent);
-                negativeEvents.add(currentEvent);
-            } else {
-                final Collection<VEvent> positiveOrNegativeEvents = (positive ? positiveEvents : negativeEvents);
-                positiveOrNegativeEvents.add(currentEvent);
+    private boolean classifyEvent(VEvent currentEvent) {
+        final Status eventStatus = currentEvent.getStatus();
+        boolean positive = (eventStatus == null || (eventStatus.isTentative() || eventStatus.isConfirmed()));
+        final RecurrenceId eventRecurrenceId = currentEvent.getRecurrenceId();
+        // RecurrenceId moves an event. This blocks other events of series and creates a new single instance
+        if (!positive || eventRecurrenceId != null) {
+            final Uid eventUid = currentEvent.getUid();
+            negativeEventsByUid.computeIfAbsent(eventUid != null ? eventUid.getValue() : null, uid -> new ArrayList<>())
+                    .add(currentEvent);
+        }
+        return positive;
+    }
+
+    /**
+     * Expands the occurrences of all events which begin in the given frame.
+     *
+     * @param frameBegin Begin of the frame, inclusive.
+     * @param frameEnd End of the frame, exclusive.
+     * @return The occurrences in the order of the calendar.
+     */
+    private List<Occurrence> expandOccurrences(Instant frameBegin, Instant frameEnd) {
+        final List<VEvent> events = usedCalendar.getEvents();
+        final List<Occurrence> occurrences = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            final VEvent currentEvent = events.get(i);
+            final DateIterator begDates = getRecurredEventDateIterator(currentEvent);
+            begDates.advanceTo(Date.from(frameBegin));
+            while (begDates.hasNext()) {
+                final Instant begInst = begDates.next().toInstant();
+                if (!begInst.isBefore(frameEnd)) {
+                    break;
+                }
+                final boolean active = positiveEvents[i] && !isCountered(begInst, currentEvent);
+                occurrences.add(new Occurrence(currentEvent, i, begInst, eventLengths[i], active));
             }
         }
+        return occurrences;
     }
 
     /**
@@ -316,33 +343,18 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
      * @return A VEventWPeriod describing the event or null if there is none.
      */
     private @Nullable VEventWPeriod getCurrentComponentWPeriod(Instant instant) {
-        final List<VEvent> negativeEvents = new ArrayList<VEvent>();
-        final List<VEvent> positiveEvents = new ArrayList<VEvent>();
-        classifyEvents(positiveEvents, negativeEvents);
-
-        for (final VEvent currentEvent : positiveEvents) {
-            final DateIterator startDates = this.getRecurredEventDateIterator(currentEvent);
-            final Duration duration = getEventLength(currentEvent);
-            if (duration == null) {
-                continue;
-            }
-            startDates.advanceTo(Date.from(instant.minus(duration)));
-            while (startDates.hasNext()) {
-                final Instant startInstant = startDates.next().toInstant();
-                final Instant endInstant = startInstant.plus(duration);
-                if (startInstant.isBefore(instant) && endInstant.isAfter(instant)) {
-                    final Uid eventUid = currentEvent.getUid();
-                    if (eventUid == null || !isCounteredBy(startInstant, eventUid, negativeEvents)) {
-                        return new VEventWPeriod(currentEvent, startInstant, endInstant);
-                    }
-                }
-                if (startInstant.isAfter(instant.plus(duration))) {
-                    break;
-                }
+        // the first event of the calendar which is present
+        Occurrence current = null;
+        for (final Occurrence occurrence : index.getPresentAt(instant)) {
+            if (occurrence.active && (current == null || occurrence.order < current.order)) {
+                current = occurrence;
             }
         }
-
-        return null;
+        if (current == null) {
+            return null;
+        }
+        final Instant endInstant = current.getEnd();
+        return endInstant != null ? new VEventWPeriod(current.vEvent, current.start, endInstant) : null;
     }
 
     /**
@@ -385,6 +397,22 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
         return vEvent.getDateIterator(tz);
     }
 
+    /**
+     * Checks whether a counter event with the same uid blocks the event at given start.
+     *
+     * @param startInstant The start of the event.
+     * @param event The event.
+     * @return True if a counter event exists that matches uid and start, else false.
+     */
+    private boolean isCountered(Instant startInstant, VEvent event) {
+        final Uid eventUid = event.getUid();
+        if (eventUid == null) {
+            return false;
+        }
+        final List<VEvent> counterEvents = negativeEventsByUid.get(eventUid.getValue());
+        return counterEvents != null && isCounteredBy(startInstant, eventUid, counterEvents);
+    }
+
     /**
      * Checks whether an counter event blocks an event with given uid and start.
      *
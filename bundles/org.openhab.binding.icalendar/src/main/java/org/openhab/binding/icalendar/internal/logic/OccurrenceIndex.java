@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.icalendar.internal.logic;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import biweekly.component.VEvent;
+
+/**
+ * An index of the expanded occurrences of all events of a calendar within a sliding window of time.
+ * <p>
+ * Occurrences are expanded once by the given expander and kept sorted by their start, so that lookups only need a
+ * binary search instead of walking the recurrence of every event. The window is extended lazily when a lookup asks
+ * for a time outside of it. When the window moves forward, occurrences far behind the latest lookup are dropped.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+class OccurrenceIndex {
+    /** Time frame expanded in front of a lookup, so that subsequent lookups hit the window. */
+    static final Duration LOOKAHEAD = Duration.ofDays(14);
+    /** Time frame kept behind the start of the latest lookup. */
+    static final Duration RETENTION = Duration.ofDays(1);
+
+    private static final Comparator<Occurrence> BY_START_AND_ORDER = Comparator
+            .comparing((Occurrence occurrence) -> occurrence.start).thenComparingInt(occurrence -> occurrence.order);
+
+    private final BiFunction<Instant, Instant, List<Occurrence>> expander;
+    private final Duration maximumDuration;
+
+    private List<Occurrence> occurrences = Collections.emptyList();
+    private Instant[] maximumEnds = new Instant[0];
+    private @Nullable Instant windowStart;
+    private Instant windowEnd = Instant.MIN;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param expander Returns all occurrences which start within the given frame (begin inclusive, end exclusive).
+     * @param maximumDuration The longest duration of all events.
+     */
+    OccurrenceIndex(BiFunction<Instant, Instant, List<Occurrence>> expander, Duration maximumDuration) {
+        this.expander = expander;
+        this.maximumDuration = maximumDuration.isNegative() ? Duration.ZERO : maximumDuration;
+    }
+
+    /**
+     * Returns the longest duration of all events.
+     */
+    Duration getMaximumDuration() {
+        return maximumDuration;
+    }
+
+    /**
+     * Returns the end of the window. All occurrences starting before it are known to the index.
+     */
+    synchronized Instant getWindowEnd() {
+        return windowEnd;
+    }
+
+    /**
+     * Returns all occurrences starting within the given frame, ordered by start and order of the events.
+     *
+     * @param frameBegin Begin of the frame, inclusive.
+     * @param frameEnd End of the frame, exclusive.
+     */
+    synchronized List<Occurrence> getStartingBetween(Instant frameBegin, Instant frameEnd) {
+        if (!frameBegin.isBefore(frameEnd)) {
+            return Collections.emptyList();
+        }
+        ensureWindow(frameBegin, frameEnd);
+        int from = firstStartingAtOrAfter(frameBegin);
+        int to = firstStartingAtOrAfter(frameEnd);
+        return new ArrayList<>(occurrences.subList(from, to));
+    }
+
+    /**
+     * Returns all occurrences with a duration that started before and end after the given instant, ordered by start
+     * and order of the events.
+     */
+    synchronized List<Occurrence> getPresentAt(Instant instant) {
+        ensureWindow(instant.minus(maximumDuration), instant.plusNanos(1));
+        List<Occurrence> present = new ArrayList<>();
+        // maximumEnds is the running maximum of the ends, so no earlier occurrence can be present once it is reached
+        for (int i = firstStartingAtOrAfter(instant) - 1; i >= 0 && maximumEnds[i].isAfter(instant); i--) {
+            Occurrence occurrence = occurrences.get(i);
+            Instant end = occurrence.getEnd();
+            if (end != null && occurrence.start.isBefore(instant) && end.isAfter(instant)) {
+                present.add(occurrence);
+            }
+        }
+        Collections.reverse(present);
+        return present;
+    }
+
+    /**
+     * Returns the occurrences which start after the given instant and before the end of the window, ordered by start
+     * and order of the events. The window is extended to cover at least {@link #LOOKAHEAD}.
+     */
+    synchronized List<Occurrence> getStartingAfter(Instant instant) {
+        Instant frameBegin = instant.plusNanos(1);
+        ensureWindow(frameBegin, frameBegin.plus(LOOKAHEAD));
+        return new ArrayList<>(occurrences.subList(firstStartingAtOrAfter(frameBegin), occurrences.size()));
+    }
+
+    /**
+     * Makes sure that all occurrences starting within the given frame are known to the index.
+     */
+    private void ensureWindow(Instant frameBegin, Instant frameEnd) {
+        Instant currentStart = windowStart;
+        if (currentStart != null && !frameBegin.isBefore(currentStart) && !frameEnd.isAfter(windowEnd)) {
+            return;
+        }
+        if (currentStart == null || frameBegin.isAfter(windowEnd) || frameEnd.isBefore(currentStart)) {
+            // the frame is not connected to the window, start over
+            Instant newEnd = frameEnd.plus(LOOKAHEAD);
+            List<Occurrence> expanded = new ArrayList<>(expander.apply(frameBegin, newEnd));
+            expanded.sort(BY_START_AND_ORDER);
+            update(expanded, frameBegin, newEnd);
+            return;
+        }
+
+        Instant newEnd = frameEnd.isAfter(windowEnd) ? frameEnd.plus(LOOKAHEAD) : windowEnd;
+
+        Instant newStart = currentStart;
+        List<Occurrence> updated = new ArrayList<>();
+        if (frameBegin.isBefore(currentStart)) {
+            newStart = frameBegin;
+            List<Occurrence> before = new ArrayList<>(expander.apply(frameBegin, currentStart));
+            before.sort(BY_START_AND_ORDER);
+            updated.addAll(before);
+        } else if (frameBegin.minus(RETENTION).isAfter(currentStart)) {
+            // the window slides forward, forget what is far behind
+            newStart = frameBegin.minus(RETENTION);
+        }
+        updated.addAll(occurrences.subList(firstStartingAtOrAfter(newStart), occurrences.size()));
+        if (newEnd.isAfter(windowEnd)) {
+            List<Occurrence> after = new ArrayList<>(expander.apply(windowEnd, newEnd));
+            after.sort(BY_START_AND_ORDER);
+            updated.addAll(after);
+        }
+        update(updated, newStart, newEnd);
+    }
+
+    private void update(List<Occurrence> sorted, Instant newStart, Instant newEnd) {
+        Instant[] ends = new Instant[sorted.size()];
+        Instant maximum = Instant.MIN;
+        for (int i = 0; i < ends.length; i++) {
+            Instant end = sorted.get(i).getEnd();
+            if (end != null && end.isAfter(maximum)) {
+                maximum = end;
+            }
+            ends[i] = maximum;
+        }
+        occurrences = sorted;
+        maximumEnds = ends;
+        windowStart = newStart;
+        windowEnd = newEnd;
+    }
+
+    /**
+     * Binary search for the first occurrence which starts at or after the given instant.
+     */
+    private int firstStartingAtOrAfter(Instant instant) {
+        int low = 0;
+        int high = occurrences.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (occurrences.get(middle).start.isBefore(instant)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A single occurrence of an event.
+     */
+    static class Occurrence {
+        final VEvent vEvent;
+        /** Position of the event within the calendar. */
+        final int order;
+        final Instant start;
+        final @Nullable Duration duration;
+        /** Whether the event is neither cancelled nor countered by another event at this start. */
+        final boolean active;
+
+        Occurrence(VEvent vEvent, int order, Instant start, @Nullable Duration duration, boolean active) {
+            this.vEvent = vEvent;
+            this.order = order;
+            this.start = start;
+            this.duration = duration;
+            this.active = active;
+        }
+
+        @Nullable
+        Instant getEnd() {
+            Duration currentDuration = duration;
+            return currentDuration != null ? start.plus(currentDuration) : null;
+        }
+    }
+}
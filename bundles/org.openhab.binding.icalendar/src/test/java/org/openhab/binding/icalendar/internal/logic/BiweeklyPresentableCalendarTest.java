@@ -153,6 +153,30 @@ public class BiweeklyPresentableCalendarTest {
         assertEquals(0, Instant.parse("2019-12-01T10:00:00Z").compareTo(nextEventAfterCancelled.start));
     }
 
+    /**
+     * Tests that lookups give the same results when the indexed time frame of occurrences has to be moved back and
+     * forth between them.
+     */
+    @Test
+    public void testLookupsOutsideOfIndexedTimeFrame() {
+        assertTrue(calendar.isEventPresent(Instant.parse("2019-09-08T09:08:00Z")));
+        assertFalse(calendar.isEventPresent(Instant.parse("2023-09-08T09:08:00Z")));
+        assertNull(calendar.getNextEvent(Instant.parse("2023-09-08T09:08:00Z")));
+
+        Event currentEvent = calendar.getCurrentEvent(Instant.parse("2019-09-10T09:07:00Z"));
+        assertNotNull(currentEvent);
+        assertEquals(0, Instant.parse("2019-09-10T09:05:00Z").compareTo(currentEvent.start));
+
+        Event nextEventOutsideSeries = calendar.getNextEvent(Instant.parse("2019-09-12T09:07:00Z"));
+        assertNotNull(nextEventOutsideSeries);
+        assertEquals(0, Instant.parse("2019-09-14T08:00:00Z").compareTo(nextEventOutsideSeries.start));
+
+        // the next event is found beyond the indexed time frame
+        Event nextEventFarAhead = calendar2.getNextEvent(Instant.parse("2019-01-01T00:00:00Z"));
+        assertNotNull(nextEventFarAhead);
+        assertEquals(0, Instant.parse("2019-09-15T09:00:00Z").compareTo(nextEventFarAhead.start));
+    }
+
     /**
      * This test checks for Events that have just begun or ended, and if so it checks for Command Tags
      * and checks if these tags are valid
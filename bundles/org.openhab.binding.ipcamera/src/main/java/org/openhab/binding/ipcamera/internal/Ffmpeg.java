@@ -21,8 +21,6 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -96,7 +94,6 @@ public class Ffmpeg {
     }
 
     private class IpCameraFfmpegThread extends Thread {
-        private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(2);
         public int countOfMotions;
 
         IpCameraFfmpegThread() {
@@ -158,10 +155,12 @@ public class Ffmpeg {
             } finally {
                 switch (format) {
                     case GIF:
-                        threadPool.schedule(this::gifCreated, 800, TimeUnit.MILLISECONDS);
+                        ipCameraHandler.getSharedResources().getScheduler().schedule(this::gifCreated, 800,
+                                TimeUnit.MILLISECONDS);
                         break;
                     case RECORD:
-                        threadPool.schedule(this::mp4Created, 800, TimeUnit.MILLISECONDS);
+                        ipCameraHandler.getSharedResources().getScheduler().schedule(this::mp4Created, 800,
+                                TimeUnit.MILLISECONDS);
                         break;
                     default:
                         break;
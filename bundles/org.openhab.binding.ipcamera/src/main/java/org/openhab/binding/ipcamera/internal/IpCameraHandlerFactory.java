@@ -26,7 +26,10 @@ import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The {@link IpCameraHandlerFactory} is responsible for creating things and thing
@@ -37,8 +40,10 @@ import org.osgi.service.component.annotations.Reference;
 @Component(service = ThingHandlerFactory.class, configurationPid = "binding.ipcamera")
 @NonNullByDefault
 public class IpCameraHandlerFactory extends BaseThingHandlerFactory {
+    private final Logger logger = LoggerFactory.getLogger(IpCameraHandlerFactory.class);
     private final @Nullable String openhabIpAddress;
     private final GroupTracker groupTracker = new GroupTracker();
+    private final SharedResources sharedResources = new SharedResources();
     private final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
 
     @Activate
@@ -48,6 +53,11 @@ public class IpCameraHandlerFactory extends BaseThingHandlerFactory {
         this.stateDescriptionProvider = stateDescriptionProvider;
     }
 
+    @Deactivate
+    public void deactivate() {
+        sharedResources.shutdown();
+    }
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         if (SUPPORTED_THING_TYPES.contains(thingTypeUID) || GROUP_SUPPORTED_THING_TYPES.contains(thingTypeUID)) {
@@ -60,10 +70,13 @@ public class IpCameraHandlerFactory extends BaseThingHandlerFactory {
     protected @Nullable ThingHandler createHandler(Thing thing) {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
+        logger.debug("Creating handler for {}, shared resources: {}", thing.getUID(),
+                sharedResources.getDiagnostics());
         if (SUPPORTED_THING_TYPES.contains(thingTypeUID)) {
-            return new IpCameraHandler(thing, openhabIpAddress, groupTracker, stateDescriptionProvider);
+            return new IpCameraHandler(thing, openhabIpAddress, groupTracker, stateDescriptionProvider,
+                    sharedResources);
         } else if (GROUP_SUPPORTED_THING_TYPES.contains(thingTypeUID)) {
-            return new IpCameraGroupHandler(thing, openhabIpAddress, groupTracker);
+            return new IpCameraGroupHandler(thing, openhabIpAddress, groupTracker, sharedResources);
         }
         return null;
     }
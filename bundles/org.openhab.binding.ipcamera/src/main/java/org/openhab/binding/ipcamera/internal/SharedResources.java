@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.NamedThreadFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+/**
+ * The {@link SharedResources} holds the Netty event loops and the scheduler that are shared by all camera and group
+ * handlers, so that the number of threads does not grow with the number of cameras. Every camera still uses its own
+ * bootstraps and channel pipelines, only the threads serving them are shared.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class SharedResources {
+    private static final int SCHEDULER_THREADS = 4;
+
+    private final NioEventLoopGroup clientGroup = new NioEventLoopGroup(0,
+            new DefaultThreadFactory("ipcamera-client", true));
+    private final NioEventLoopGroup serverGroup = new NioEventLoopGroup(0,
+            new DefaultThreadFactory("ipcamera-server", true));
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(SCHEDULER_THREADS,
+            new NamedThreadFactory("ipcamera"));
+    // ChannelGroup is thread safe and forgets closed channels by itself
+    private final ChannelGroup clientChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final ChannelGroup serverChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+
+    /**
+     * Event loops for the connections to the cameras, including ONVIF.
+     */
+    public EventLoopGroup getClientGroup() {
+        return clientGroup;
+    }
+
+    /**
+     * Event loops for the stream servers and the connections of their clients.
+     */
+    public EventLoopGroup getServerGroup() {
+        return serverGroup;
+    }
+
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    public void trackClientChannel(Channel channel) {
+        clientChannels.add(channel);
+    }
+
+    public void trackServerChannel(Channel channel) {
+        serverChannels.add(channel);
+    }
+
+    public String getDiagnostics() {
+        return "clientThreads=" + clientGroup.executorCount() + ", serverThreads=" + serverGroup.executorCount()
+                + ", schedulerThreads=" + SCHEDULER_THREADS + ", cameraConnections=" + clientChannels.size()
+                + ", streamConnections=" + serverChannels.size();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        clientChannels.close();
+        serverChannels.close();
+        clientGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+        serverGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link SnapshotRingBuffer} keeps the most recent snapshots of a camera for the GIF preroll. It is a fixed size
+ * ring, so adding a snapshot to a full buffer overwrites the oldest one instead of allocating a list node.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class SnapshotRingBuffer {
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[][] snapshots;
+    private int oldest = 0;
+    private int size = 0;
+
+    public SnapshotRingBuffer(int capacity) {
+        snapshots = new byte[Math.max(0, capacity)][];
+        Arrays.fill(snapshots, EMPTY);
+    }
+
+    /**
+     * Changes the number of snapshots that are kept. When shrinking, the most recent snapshots are kept.
+     */
+    public synchronized void setCapacity(int capacity) {
+        int newCapacity = Math.max(0, capacity);
+        if (newCapacity == snapshots.length) {
+            return;
+        }
+        byte[][] resized = new byte[newCapacity][];
+        Arrays.fill(resized, EMPTY);
+        int kept = Math.min(size, newCapacity);
+        for (int i = 0; i < kept; i++) {
+            resized[i] = snapshots[(oldest + size - kept + i) % snapshots.length];
+        }
+        snapshots = resized;
+        oldest = 0;
+        size = kept;
+    }
+
+    public synchronized void add(byte[] snapshot) {
+        if (snapshots.length == 0) {
+            return;
+        }
+        if (size < snapshots.length) {
+            snapshots[(oldest + size++) % snapshots.length] = snapshot;
+        } else {
+            snapshots[oldest] = snapshot;
+            oldest = (oldest + 1) % snapshots.length;
+        }
+    }
+
+    /**
+     * Returns the stored snapshots, oldest first.
+     */
+    public synchronized List<byte[]> getSnapshots() {
+        List<byte[]> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(snapshots[(oldest + i) % snapshots.length]);
+        }
+        return list;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(snapshots, EMPTY);
+        oldest = 0;
+        size = 0;
+    }
+}
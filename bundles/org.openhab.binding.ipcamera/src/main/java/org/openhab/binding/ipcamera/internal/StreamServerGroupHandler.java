@@ -136,22 +136,17 @@ public class StreamServerGroupHandler extends ChannelInboundHandlerAdapter {
             return;
         }
         IpCameraHandler handler = ipCameraGroupHandler.cameraOrder.get(ipCameraGroupHandler.cameraIndex);
-        handler.lockCurrentSnapshot.lock();
-        try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(handler.currentSnapshot);
-            response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
-            response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
-            response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-            response.headers().add(HttpHeaderNames.CONTENT_LENGTH, snapshotData.readableBytes());
-            response.headers().add("Access-Control-Allow-Origin", "*");
-            response.headers().add("Access-Control-Expose-Headers", "*");
-            ctx.channel().write(response);
-            ctx.channel().write(snapshotData);
-            ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
-            ctx.channel().writeAndFlush(footerBbuf);
-        } finally {
-            handler.lockCurrentSnapshot.unlock();
-        }
+        ByteBuf snapshotData = Unpooled.wrappedBuffer(handler.currentSnapshot);
+        response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
+        response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        response.headers().add(HttpHeaderNames.CONTENT_LENGTH, snapshotData.readableBytes());
+        response.headers().add("Access-Control-Allow-Origin", "*");
+        response.headers().add("Access-Control-Expose-Headers", "*");
+        ctx.channel().write(response);
+        ctx.channel().write(snapshotData);
+        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
+        ctx.channel().writeAndFlush(footerBbuf);
     }
 
     private void sendFile(ChannelHandlerContext ctx, String fileUri, String contentType) throws IOException {
@@ -26,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -57,9 +58,8 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
     private IpCameraHandler ipCameraHandler;
     private boolean handlingMjpeg = false; // used to remove ctx from group when handler is removed.
     private boolean handlingSnapshotStream = false; // used to remove ctx from group when handler is removed.
-    private byte[] incomingJpeg = new byte[0];
+    private @Nullable ByteBuf incomingJpeg;
     private String whiteList = "";
-    private int recievedBytes = 0;
     private boolean updateSnapshot = false;
     private boolean onvifEvent = false;
 
@@ -176,27 +176,28 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
             }
             if (msg instanceof HttpContent) {
                 HttpContent content = (HttpContent) msg;
-                if (recievedBytes == 0) {
-                    incomingJpeg = new byte[content.content().readableBytes()];
-                    content.content().getBytes(0, incomingJpeg, 0, content.content().readableBytes());
-                } else {
-                    byte[] temp = incomingJpeg;
-                    incomingJpeg = new byte[recievedBytes + content.content().readableBytes()];
-                    System.arraycopy(temp, 0, incomingJpeg, 0, temp.length);
-                    content.content().getBytes(0, incomingJpeg, temp.length, content.content().readableBytes());
+                // The body is collected in a pooled buffer that grows as needed, instead of a new array per chunk.
+                ByteBuf localJpeg = incomingJpeg;
+                if (localJpeg == null) {
+                    localJpeg = ctx.alloc().buffer(content.content().readableBytes());
+                    incomingJpeg = localJpeg;
                 }
-                recievedBytes = incomingJpeg.length;
+                localJpeg.writeBytes(content.content());
                 if (content instanceof LastHttpContent) {
+                    incomingJpeg = null;
                     if (updateSnapshot) {
-                        ipCameraHandler.processSnapshot(incomingJpeg);
+                        ipCameraHandler.processSnapshot(ByteBufUtil.getBytes(localJpeg));
+                        localJpeg.release();
                     } else if (onvifEvent) {
-                        ipCameraHandler.onvifCamera.eventRecieved(new String(incomingJpeg, StandardCharsets.UTF_8));
-                    } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
-                        if (recievedBytes > 1000) {
-                            ipCameraHandler.sendMjpegFrame(incomingJpeg, ipCameraHandler.mjpegChannelGroup);
-                        }
+                        ipCameraHandler.onvifCamera.eventRecieved(localJpeg.toString(StandardCharsets.UTF_8));
+                        localJpeg.release();
+                    } else if (localJpeg.readableBytes() > 1000) {
+                        // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions. The buffer is
+                        // handed over to the streams of all clients and released once it was written to them.
+                        ipCameraHandler.sendMjpegFrame(localJpeg, ipCameraHandler.mjpegChannelGroup);
+                    } else {
+                        localJpeg.release();
                     }
-                    recievedBytes = 0;
                 }
             }
         } finally {
@@ -206,22 +207,17 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
 
     private void sendSnapshotImage(ChannelHandlerContext ctx, String contentType) {
         HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
-        ipCameraHandler.lockCurrentSnapshot.lock();
-        try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(ipCameraHandler.currentSnapshot);
-            response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
-            response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
-            response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-            response.headers().add(HttpHeaderNames.CONTENT_LENGTH, snapshotData.readableBytes());
-            response.headers().add("Access-Control-Allow-Origin", "*");
-            response.headers().add("Access-Control-Expose-Headers", "*");
-            ctx.channel().write(response);
-            ctx.channel().write(snapshotData);
-            ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
-            ctx.channel().writeAndFlush(footerBbuf);
-        } finally {
-            ipCameraHandler.lockCurrentSnapshot.unlock();
-        }
+        ByteBuf snapshotData = Unpooled.wrappedBuffer(ipCameraHandler.currentSnapshot);
+        response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
+        response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        response.headers().add(HttpHeaderNames.CONTENT_LENGTH, snapshotData.readableBytes());
+        response.headers().add("Access-Control-Allow-Origin", "*");
+        response.headers().add("Access-Control-Expose-Headers", "*");
+        ctx.channel().write(response);
+        ctx.channel().write(snapshotData);
+        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
+        ctx.channel().writeAndFlush(footerBbuf);
     }
 
     private void sendFile(ChannelHandlerContext ctx, String fileUri, String contentType) throws IOException {
@@ -284,6 +280,11 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
             return;
         }
         ctx.close();
+        ByteBuf localJpeg = incomingJpeg;
+        if (localJpeg != null) {
+            localJpeg.release();
+            incomingJpeg = null;
+        }
         if (handlingMjpeg) {
             ipCameraHandler.setupMjpegStreaming(false, ctx);
         } else if (handlingSnapshotStream) {
@@ -26,16 +26,14 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -55,6 +53,8 @@ import org.openhab.binding.ipcamera.internal.IpCameraActions;
 import org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.FFmpegFormat;
 import org.openhab.binding.ipcamera.internal.IpCameraDynamicStateDescriptionProvider;
 import org.openhab.binding.ipcamera.internal.MyNettyAuthHandler;
+import org.openhab.binding.ipcamera.internal.SharedResources;
+import org.openhab.binding.ipcamera.internal.SnapshotRingBuffer;
 import org.openhab.binding.ipcamera.internal.StreamServerHandler;
 import org.openhab.binding.ipcamera.internal.onvif.OnvifConnection;
 import org.openhab.core.library.types.DecimalType;
@@ -78,6 +78,7 @@ import org.slf4j.LoggerFactory;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -86,10 +87,8 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -125,9 +124,11 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 
 @NonNullByDefault
 public class IpCameraHandler extends BaseThingHandler {
+    private static final byte[] MJPEG_FRAME_FOOTER = "\r\n".getBytes(StandardCharsets.UTF_8);
     public final Logger logger = LoggerFactory.getLogger(getClass());
     public final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
-    private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(4);
+    private final SharedResources sharedResources;
+    private final ScheduledExecutorService threadPool;
     private GroupTracker groupTracker;
     public CameraConfig cameraConfig = new CameraConfig();
 
@@ -136,6 +137,7 @@ public class IpCameraHandler extends BaseThingHandler {
     private final ChannelGroup snapshotMjpegChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private final ChannelGroup autoSnapshotMjpegChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     public final ChannelGroup openChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final ChannelGroup serverChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     public @Nullable Ffmpeg ffmpegHLS = null;
     public @Nullable Ffmpeg ffmpegRecord = null;
     public @Nullable Ffmpeg ffmpegGIF = null;
@@ -151,8 +153,6 @@ public class IpCameraHandler extends BaseThingHandler {
     private @Nullable Bootstrap mainBootstrap;
     private @Nullable ServerBootstrap serverBootstrap;
 
-    private EventLoopGroup mainEventLoopGroup = new NioEventLoopGroup();
-    private EventLoopGroup serversLoopGroup = new NioEventLoopGroup();
     private FullHttpRequest putRequestWithBody = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, new HttpMethod("PUT"),
             "");
     private String gifFilename = "ipcamera";
@@ -163,7 +163,7 @@ public class IpCameraHandler extends BaseThingHandler {
     private String mp4Filename = "ipcamera";
     private int mp4RecordTime;
     private int gifRecordTime = 5;
-    private LinkedList<byte[]> fifoSnapshotBuffer = new LinkedList<byte[]>();
+    private final SnapshotRingBuffer snapshotHistory = new SnapshotRingBuffer(0);
     private int snapCount;
     private boolean updateImageChannel = false;
     private boolean updateAutoFps = false;
@@ -180,8 +180,10 @@ public class IpCameraHandler extends BaseThingHandler {
     public String mjpegUri = "";
     private @Nullable ChannelFuture serverFuture = null;
     private Object firstStreamedMsg = new Object();
-    public byte[] currentSnapshot = new byte[] { (byte) 0x00 };
-    public ReentrantLock lockCurrentSnapshot = new ReentrantLock();
+    // A snapshot array is never modified once it got published, so it can be shared without copying or locking.
+    public volatile byte[] currentSnapshot = new byte[] { (byte) 0x00 };
+    private final AtomicLong mjpegFramesSent = new AtomicLong();
+    private final AtomicLong mjpegFramesSkipped = new AtomicLong();
     public String rtspUri = "";
     public boolean audioAlarmUpdateSnapshot = false;
     private boolean motionAlarmUpdateSnapshot = false;
@@ -203,7 +205,7 @@ public class IpCameraHandler extends BaseThingHandler {
     private class CommonCameraHandler extends ChannelDuplexHandler {
         private int bytesToRecieve = 0;
         private int bytesAlreadyRecieved = 0;
-        private byte[] incomingJpeg = new byte[0];
+        private @Nullable ByteBuf incomingJpeg;
         private String incomingMessage = "";
         private String contentType = "empty";
         private String boundary = "";
@@ -260,11 +262,10 @@ public class IpCameraHandler extends BaseThingHandler {
                                     boundary = Helper.searchString(contentType, "boundary=");
                                 }
                             } else if (contentType.contains("image/jp")) {
-                                if (bytesToRecieve == 0) {
-                                    bytesToRecieve = 768000; // 0.768 Mbyte when no Content-Length is sent
-                                    logger.debug("Camera has no Content-Length header, we have to guess how much RAM.");
-                                }
-                                incomingJpeg = new byte[bytesToRecieve];
+                                releaseIncomingJpeg();
+                                // The pooled buffer grows as needed when no Content-Length is sent
+                                incomingJpeg = bytesToRecieve > 0 ? ctx.alloc().buffer(bytesToRecieve)
+                                        : ctx.alloc().buffer();
                             }
                         }
                     }
@@ -278,11 +279,16 @@ public class IpCameraHandler extends BaseThingHandler {
                         HttpContent content = (HttpContent) msg;
                         // Found some cameras use Content-Type: image/jpg instead of image/jpeg
                         if (contentType.contains("image/jp")) {
-                            for (int i = 0; i < content.content().capacity(); i++) {
-                                incomingJpeg[bytesAlreadyRecieved++] = content.content().getByte(i);
+                            ByteBuf localJpeg = incomingJpeg;
+                            if (localJpeg == null) {
+                                localJpeg = ctx.alloc().buffer();
+                                incomingJpeg = localJpeg;
                             }
+                            bytesAlreadyRecieved += content.content().readableBytes();
+                            localJpeg.writeBytes(content.content());
                             if (content instanceof LastHttpContent) {
-                                processSnapshot(incomingJpeg);
+                                processSnapshot(ByteBufUtil.getBytes(localJpeg));
+                                releaseIncomingJpeg();
                                 // testing next line and if works need to do a full cleanup of this function.
                                 closeConnection = true;
                                 if (closeConnection) {
@@ -368,6 +374,15 @@ public class IpCameraHandler extends BaseThingHandler {
 
         @Override
         public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+            releaseIncomingJpeg();
+        }
+
+        private void releaseIncomingJpeg() {
+            ByteBuf localJpeg = incomingJpeg;
+            if (localJpeg != null) {
+                localJpeg.release();
+                incomingJpeg = null;
+            }
         }
 
         @Override
@@ -375,13 +390,8 @@ public class IpCameraHandler extends BaseThingHandler {
             if (cause == null || ctx == null) {
                 return;
             }
-            if (cause instanceof ArrayIndexOutOfBoundsException) {
-                logger.debug("Camera sent {} bytes when the content-length header was {}.", bytesAlreadyRecieved,
-                        bytesToRecieve);
-            } else {
-                logger.warn("!!!! Camera possibly closed the channel on the binding, cause reported is: {}",
-                        cause.getMessage());
-            }
+            logger.warn("!!!! Camera possibly closed the channel on the binding, cause reported is: {}",
+                    cause.getMessage());
             ctx.close();
         }
 
@@ -419,9 +429,11 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public IpCameraHandler(Thing thing, @Nullable String ipAddress, GroupTracker groupTracker,
-            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider) {
+            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider, SharedResources sharedResources) {
         super(thing);
         this.stateDescriptionProvider = stateDescriptionProvider;
+        this.sharedResources = sharedResources;
+        this.threadPool = sharedResources.getScheduler();
         if (ipAddress != null) {
             hostIp = ipAddress;
         } else {
@@ -434,6 +446,10 @@ public class IpCameraHandler extends BaseThingHandler {
         return this;
     }
 
+    public SharedResources getSharedResources() {
+        return sharedResources;
+    }
+
     // false clears the stored user/pass hash, true creates the hash
     public boolean setBasicAuth(boolean useBasic) {
         if (!useBasic) {
@@ -527,7 +543,7 @@ public class IpCameraHandler extends BaseThingHandler {
 
         if (mainBootstrap == null) {
             mainBootstrap = new Bootstrap();
-            mainBootstrap.group(mainEventLoopGroup);
+            mainBootstrap.group(sharedResources.getClientGroup());
             mainBootstrap.channel(NioSocketChannel.class);
             mainBootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             mainBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 4500);
@@ -610,6 +626,7 @@ public class IpCameraHandler extends BaseThingHandler {
                         if (future.isDone() && future.isSuccess()) {
                             Channel ch = future.channel();
                             openChannels.add(ch);
+                            sharedResources.trackClientChannel(ch);
                             if (!isOnline) {
                                 bringCameraOnline();
                             }
@@ -642,17 +659,10 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void processSnapshot(byte[] incommingSnapshot) {
-        lockCurrentSnapshot.lock();
-        try {
-            currentSnapshot = incommingSnapshot;
-            if (cameraConfig.getGifPreroll() > 0) {
-                fifoSnapshotBuffer.add(incommingSnapshot);
-                if (fifoSnapshotBuffer.size() > (cameraConfig.getGifPreroll() + gifRecordTime)) {
-                    fifoSnapshotBuffer.removeFirst();
-                }
-            }
-        } finally {
-            lockCurrentSnapshot.unlock();
+        currentSnapshot = incommingSnapshot;
+        if (cameraConfig.getGifPreroll() > 0) {
+            snapshotHistory.setCapacity(cameraConfig.getGifPreroll() + gifRecordTime);
+            snapshotHistory.add(incommingSnapshot);
         }
 
         if (streamingSnapshotMjpeg) {
@@ -680,7 +690,13 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void stopStreamServer() {
-        serversLoopGroup.shutdownGracefully();
+        // The event loops are shared with the other cameras, so only the channels of this camera are closed.
+        ChannelFuture localServerFuture = serverFuture;
+        if (localServerFuture != null) {
+            localServerFuture.channel().close();
+            serverFuture = null;
+        }
+        serverChannels.close();
         serverBootstrap = null;
     }
 
@@ -688,15 +704,16 @@ public class IpCameraHandler extends BaseThingHandler {
     public void startStreamServer() {
         if (serverBootstrap == null) {
             try {
-                serversLoopGroup = new NioEventLoopGroup();
                 serverBootstrap = new ServerBootstrap();
-                serverBootstrap.group(serversLoopGroup);
+                serverBootstrap.group(sharedResources.getServerGroup());
                 serverBootstrap.channel(NioServerSocketChannel.class);
                 // IP "0.0.0.0" will bind the server to all network connections//
                 serverBootstrap.localAddress(new InetSocketAddress("0.0.0.0", cameraConfig.getServerPort()));
                 serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel socketChannel) throws Exception {
+                        serverChannels.add(socketChannel);
+                        sharedResources.trackServerChannel(socketChannel);
                         socketChannel.pipeline().addLast("idleStateHandler", new IdleStateHandler(0, 60, 0));
                         socketChannel.pipeline().addLast("HttpServerCodec", new HttpServerCodec());
                         socketChannel.pipeline().addLast("ChunkedWriteHandler", new ChunkedWriteHandler());
@@ -731,23 +748,14 @@ public class IpCameraHandler extends BaseThingHandler {
             sendMjpegFirstPacket(ctx);
             if (auto) {
                 autoSnapshotMjpegChannelGroup.add(ctx.channel());
-                lockCurrentSnapshot.lock();
-                try {
-                    sendMjpegFrame(currentSnapshot, autoSnapshotMjpegChannelGroup);
-                    // iOS uses a FIFO? and needs two frames to display a pic
-                    sendMjpegFrame(currentSnapshot, autoSnapshotMjpegChannelGroup);
-                } finally {
-                    lockCurrentSnapshot.unlock();
-                }
+                byte[] snapshot = currentSnapshot;
+                // Only the new client gets the current frame. iOS uses a FIFO? and needs two frames to display a pic
+                ctx.channel().write(createMjpegFrame(Unpooled.wrappedBuffer(snapshot)));
+                ctx.channel().writeAndFlush(createMjpegFrame(Unpooled.wrappedBuffer(snapshot)));
                 streamingAutoFps = true;
             } else {
                 snapshotMjpegChannelGroup.add(ctx.channel());
-                lockCurrentSnapshot.lock();
-                try {
-                    sendMjpegFrame(currentSnapshot, snapshotMjpegChannelGroup);
-                } finally {
-                    lockCurrentSnapshot.unlock();
-                }
+                ctx.channel().writeAndFlush(createMjpegFrame(Unpooled.wrappedBuffer(currentSnapshot)));
                 streamingSnapshotMjpeg = true;
                 startSnapshotPolling();
             }
@@ -869,16 +877,37 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void sendMjpegFrame(byte[] jpg, ChannelGroup channelGroup) {
+        sendMjpegFrame(Unpooled.wrappedBuffer(jpg), channelGroup);
+    }
+
+    /**
+     * Sends one JPEG as a MJPEG frame to all channels of the group and releases the buffer. The frame is written as
+     * one buffer that all channels share through retained duplicates, so the picture is never copied per client.
+     * A channel that is not writable, because a slow client has not received the previous frame yet, skips this frame
+     * instead of queuing it.
+     */
+    public void sendMjpegFrame(ByteBuf jpg, ChannelGroup channelGroup) {
+        int skipped = 0;
+        for (Channel channel : channelGroup) {
+            if (!channel.isWritable()) {
+                skipped++;
+            }
+        }
+        mjpegFramesSent.addAndGet(channelGroup.size() - skipped);
+        if (skipped > 0) {
+            mjpegFramesSkipped.addAndGet(skipped);
+            logger.trace("Skipped a MJPEG frame for {} slow clients, {} frames sent and {} skipped so far.", skipped,
+                    mjpegFramesSent.get(), mjpegFramesSkipped.get());
+        }
+        channelGroup.writeAndFlush(createMjpegFrame(jpg), Channel::isWritable);
+    }
+
+    private ByteBuf createMjpegFrame(ByteBuf jpg) {
         final String boundary = "thisMjpegStream";
-        ByteBuf imageByteBuf = Unpooled.copiedBuffer(jpg);
-        int length = imageByteBuf.readableBytes();
-        String header = "--" + boundary + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: " + length
-                + "\r\n\r\n";
-        ByteBuf headerBbuf = Unpooled.copiedBuffer(header, 0, header.length(), StandardCharsets.UTF_8);
-        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
-        streamToGroup(headerBbuf, channelGroup, false);
-        streamToGroup(imageByteBuf, channelGroup, false);
-        streamToGroup(footerBbuf, channelGroup, true);
+        String header = "--" + boundary + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: "
+                + jpg.readableBytes() + "\r\n\r\n";
+        return Unpooled.wrappedBuffer(Unpooled.copiedBuffer(header, StandardCharsets.UTF_8), jpg,
+                Unpooled.wrappedBuffer(MJPEG_FRAME_FOOTER));
     }
 
     public void streamToGroup(Object msg, ChannelGroup channelGroup, boolean flush) {
@@ -890,24 +919,18 @@ public class IpCameraHandler extends BaseThingHandler {
 
     private void storeSnapshots() {
         int count = 0;
-        // Need to lock as fifoSnapshotBuffer is not thread safe and new snapshots can be incoming.
-        lockCurrentSnapshot.lock();
-        try {
-            for (byte[] foo : fifoSnapshotBuffer) {
-                File file = new File(cameraConfig.getFfmpegOutput() + "snapshot" + count + ".jpg");
-                count++;
-                try {
-                    OutputStream fos = new FileOutputStream(file);
-                    fos.write(foo);
-                    fos.close();
-                } catch (FileNotFoundException e) {
-                    logger.warn("FileNotFoundException {}", e.getMessage());
-                } catch (IOException e) {
-                    logger.warn("IOException {}", e.getMessage());
-                }
+        for (byte[] foo : snapshotHistory.getSnapshots()) {
+            File file = new File(cameraConfig.getFfmpegOutput() + "snapshot" + count + ".jpg");
+            count++;
+            try {
+                OutputStream fos = new FileOutputStream(file);
+                fos.write(foo);
+                fos.close();
+            } catch (FileNotFoundException e) {
+                logger.warn("FileNotFoundException {}", e.getMessage());
+            } catch (IOException e) {
+                logger.warn("IOException {}", e.getMessage());
             }
-        } finally {
-            lockCurrentSnapshot.unlock();
         }
     }
 
@@ -1484,6 +1507,7 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     void pollingCameraConnection() {
+        logger.trace("Shared resources: {}", sharedResources.getDiagnostics());
         if (thing.getThingTypeUID().getId().equals(GENERIC_THING)) {
             if (rtspUri.isEmpty()) {
                 logger.warn("Binding has not been supplied with a FFmpeg Input URL, so some features will not work.");
@@ -1767,8 +1791,6 @@ public class IpCameraHandler extends BaseThingHandler {
         if (localFuture != null) {
             localFuture.cancel(true);
         }
-        threadPool.shutdown();
-        threadPool = Executors.newScheduledThreadPool(4);
 
         groupTracker.listOfOnlineCameraHandlers.remove(this);
         groupTracker.listOfOnlineCameraUID.remove(getThing().getUID().getId());
@@ -1776,6 +1798,7 @@ public class IpCameraHandler extends BaseThingHandler {
         for (IpCameraGroupHandler handle : groupTracker.listOfGroupHandlers) {
             handle.cameraOffline(this);
         }
+        snapshotHistory.clear();
         basicAuth = ""; // clear out stored Password hash
         useDigestAuth = false;
         stopStreamServer();
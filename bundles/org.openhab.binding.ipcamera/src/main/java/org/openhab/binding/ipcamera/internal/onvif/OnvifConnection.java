@@ -27,7 +27,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.TimeZone;
-import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -47,8 +46,8 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
@@ -59,6 +58,7 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
 /**
  * The {@link OnvifConnection} This is a basic Netty implementation for connecting and communicating to ONVIF cameras.
@@ -111,7 +111,7 @@ public class OnvifConnection {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private @Nullable Bootstrap bootstrap;
-    private EventLoopGroup mainEventLoopGroup = new NioEventLoopGroup();
+    private final ChannelGroup openChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private String ipAddress = "";
     private String user = "";
     private String password = "";
@@ -497,7 +497,7 @@ public class OnvifConnection {
     public void sendOnvifRequest(HttpRequest request) {
         if (bootstrap == null) {
             bootstrap = new Bootstrap();
-            bootstrap.group(mainEventLoopGroup);
+            bootstrap.group(ipCameraHandler.getSharedResources().getClientGroup());
             bootstrap.channel(NioSocketChannel.class);
             bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000);
@@ -523,6 +523,8 @@ public class OnvifConnection {
                 }
                 if (future.isDone() && future.isSuccess()) {
                     Channel ch = future.channel();
+                    openChannels.add(ch);
+                    ipCameraHandler.getSharedResources().trackClientChannel(ch);
                     ch.writeAndFlush(request);
                 } else { // an error occured
                     logger.debug("Camera is not reachable on ONVIF port:{} or the port may be wrong.", onvifPort);
@@ -834,15 +836,8 @@ public class OnvifConnection {
         isConnected = false;
         presetTokens.clear();
         mediaProfileTokens.clear();
-        if (!mainEventLoopGroup.isShutdown()) {
-            try {
-                mainEventLoopGroup.awaitTermination(3, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                logger.info("Onvif was not shutdown correctly due to being interrupted");
-            } finally {
-                mainEventLoopGroup = new NioEventLoopGroup();
-                bootstrap = null;
-            }
-        }
+        // The event loops are shared with the other cameras, so only the channels of this connection are closed.
+        openChannels.close();
+        bootstrap = null;
     }
 }
@@ -190,6 +190,18 @@ public abstract class KNXChannelType {
                 .filter(spec -> !spec.getGroupAddresses().isEmpty()).collect(toList());
     }
 
+    /**
+     * Returns the listen specs of all configured group address keys, in the order of the keys.
+     *
+     * @param configuration the channel configuration
+     * @return the listen specs, each with at least one group address
+     */
+    public final List<InboundSpec> getListenSpecs(Configuration configuration) {
+        return getAllGAKeys().stream()
+                .map(key -> new ListenSpecImpl(parse((String) configuration.get(key)), getDefaultDPT(key)))
+                .filter(spec -> !spec.getGroupAddresses().isEmpty()).collect(toList());
+    }
+
     public final @Nullable InboundSpec getListenSpec(Configuration configuration, GroupAddress groupAddress) {
         Optional<ListenSpecImpl> result = getAllGAKeys().stream()
                 .map(key -> new ListenSpecImpl(parse((String) configuration.get(key)), getDefaultDPT(key)))
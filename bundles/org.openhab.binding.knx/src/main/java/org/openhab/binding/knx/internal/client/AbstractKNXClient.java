@@ -12,9 +12,11 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -72,7 +74,6 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private final int responseTimeout;
     private final int readingPause;
     private final int autoReconnectPeriod;
-    private final int readRetriesLimit;
     private final StatusUpdateCallback statusUpdateCallback;
     private final ScheduledExecutorService knxScheduler;
 
@@ -85,8 +86,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> groupAddressListeners = new HashMap<>();
+    private final Map<GroupAddress, Set<GroupAddressListener>> groupAddressIndex = new ConcurrentHashMap<>();
+    private final ReadScheduler readScheduler;
+    private long nextReadAt;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -129,7 +132,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
         this.readingPause = readingPause;
-        this.readRetriesLimit = readRetriesLimit;
+        this.readScheduler = new ReadScheduler(readRetriesLimit, readingPause);
+        this.nextReadAt = System.nanoTime();
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
     }
@@ -224,7 +228,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     @SuppressWarnings("null")
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
-        readDatapoints.clear();
+        readScheduler.clear();
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -252,7 +256,11 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
+        Set<GroupAddressListener> listeners = groupAddressIndex.get(destination);
+        if (listeners == null) {
+            return;
+        }
+        for (GroupAddressListener listener : listeners) {
             if (listener.listensTo(destination)) {
                 knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
             }
@@ -280,15 +288,20 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         if (processCommunicator == null) {
             return;
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
+        // the bus job runs every readingPause, reads are skipped while the scheduler backs off
+        if (System.nanoTime() - nextReadAt < 0) {
+            return;
+        }
+        ReadDatapoint datapoint = readScheduler.poll();
         if (datapoint != null) {
             datapoint.incrementRetries();
             try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
+                logger.trace("Sending a Group Read Request telegram for {} ({})",
+                        datapoint.getDatapoint().getMainAddress(), datapoint.getPriority());
                 processCommunicator.read(datapoint.getDatapoint());
+                readScheduler.readSucceeded(datapoint);
             } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
+                if (readScheduler.readFailed(datapoint)) {
                     logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
                             datapoint.getDatapoint().getMainAddress(), e.getMessage());
                 } else {
@@ -299,6 +312,11 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
                 logger.debug("Interrupted sending KNX read request");
                 return;
             }
+            long pause = readScheduler.getPauseMillis();
+            nextReadAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, pause - readingPause));
+            if (readScheduler.size() == 0) {
+                logger.debug("Bridge {} has read all queued datapoints: {}", thingUID, readScheduler);
+            }
         }
     }
 
@@ -367,23 +385,45 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        if (!readScheduler.add(datapoint, priority)) {
+            logger.trace("Read request for {} merged into a pending request", datapoint.getMainAddress());
         }
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = Set.copyOf(listener.getGroupAddresses());
+            Set<GroupAddress> previousGroupAddresses = groupAddressListeners.put(listener, groupAddresses);
+            if (previousGroupAddresses != null) {
+                removeFromIndex(listener, previousGroupAddresses);
+            }
+            for (GroupAddress groupAddress : groupAddresses) {
+                groupAddressIndex.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(listener);
+            }
+            return previousGroupAddresses == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = groupAddressListeners.remove(listener);
+            if (groupAddresses != null) {
+                removeFromIndex(listener, groupAddresses);
+            }
+            return groupAddresses != null;
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            groupAddressIndex.computeIfPresent(groupAddress, (ga, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
     }
 
     @Override
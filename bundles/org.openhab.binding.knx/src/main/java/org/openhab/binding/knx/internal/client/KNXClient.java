@@ -81,7 +81,17 @@ public interface KNXClient {
      *
      * @param datapoint the datapoint
      */
-    void readDatapoint(Datapoint datapoint);
+    default void readDatapoint(Datapoint datapoint) {
+        readDatapoint(datapoint, ReadPriority.PERIODIC);
+    }
+
+    /**
+     * Schedule the given data point for asynchronous reading. Pending requests for the same group address are merged.
+     *
+     * @param datapoint the datapoint
+     * @param priority the priority of the request
+     */
+    void readDatapoint(Datapoint datapoint, ReadPriority priority);
 
     /**
      * Write a command to the KNX bus.
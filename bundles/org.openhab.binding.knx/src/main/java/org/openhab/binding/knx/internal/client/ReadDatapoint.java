@@ -24,11 +24,19 @@ public class ReadDatapoint {
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private final ReadPriority priority;
+    private final long requestedAt;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
+        this(datapoint, limit, ReadPriority.PERIODIC, System.nanoTime());
+    }
+
+    public ReadDatapoint(Datapoint datapoint, int limit, ReadPriority priority, long requestedAt) {
         this.datapoint = datapoint;
         this.retries = 0;
         this.limit = limit;
+        this.priority = priority;
+        this.requestedAt = requestedAt;
     }
 
     public Datapoint getDatapoint() {
@@ -47,6 +55,17 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public ReadPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns when the value of the datapoint was first requested, in {@link System#nanoTime()} units.
+     */
+    public long getRequestedAt() {
+        return requestedAt;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
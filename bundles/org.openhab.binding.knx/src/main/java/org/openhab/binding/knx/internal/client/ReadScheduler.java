@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Queue of pending read requests which are sent one by one to the KNX bus.
+ * <p>
+ * Requests are kept per group address, a request for an address that is already pending is merged into the pending
+ * one and only raises its priority if needed. Requests are served in {@link ReadPriority} order, first come first
+ * served within the same priority.
+ * <p>
+ * The pause between two reads adapts to the bus: it starts at the configured reading pause, doubles whenever a read is
+ * not acknowledged and recovers towards the configured pause again with every successful read.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ReadScheduler {
+
+    private static final long MAX_PAUSE_MILLIS = 5000;
+
+    private final int retriesLimit;
+    private final long minPauseMillis;
+    private final long maxPauseMillis;
+
+    private final Map<GroupAddress, ReadDatapoint> pending = new HashMap<>();
+    private final Map<ReadPriority, Queue<ReadDatapoint>> queues = new EnumMap<>(ReadPriority.class);
+    private long pauseMillis;
+
+    private long requested;
+    private long merged;
+    private long read;
+    private long failed;
+    private long givenUp;
+    private int maxQueueLength;
+    private long totalTimeToValueNanos;
+    private long maxTimeToValueNanos;
+
+    public ReadScheduler(int retriesLimit, long readingPause) {
+        this.retriesLimit = retriesLimit;
+        this.minPauseMillis = Math.max(0, readingPause);
+        this.maxPauseMillis = Math.max(minPauseMillis, MAX_PAUSE_MILLIS);
+        this.pauseMillis = minPauseMillis;
+        for (ReadPriority priority : ReadPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Adds a read request.
+     *
+     * @param datapoint the datapoint to read
+     * @param priority the priority of the request
+     * @return {@code true} if the request got queued, {@code false} if it was merged into a pending request
+     */
+    public synchronized boolean add(Datapoint datapoint, ReadPriority priority) {
+        requested++;
+        GroupAddress groupAddress = datapoint.getMainAddress();
+        ReadDatapoint current = pending.get(groupAddress);
+        if (current != null) {
+            merged++;
+            if (priority.compareTo(current.getPriority()) < 0) {
+                // the entry in the lower priority queue becomes stale and is skipped by poll()
+                enqueue(new ReadDatapoint(current.getDatapoint(), retriesLimit, priority, current.getRequestedAt()));
+            }
+            return false;
+        }
+        enqueue(new ReadDatapoint(datapoint, retriesLimit, priority, System.nanoTime()));
+        return true;
+    }
+
+    /**
+     * Removes the next request to be sent to the bus.
+     *
+     * @return the request with the highest priority, or {@code null} if there is none
+     */
+    public synchronized @Nullable ReadDatapoint poll() {
+        for (Queue<ReadDatapoint> queue : queues.values()) {
+            ReadDatapoint datapoint;
+            while ((datapoint = queue.poll()) != null) {
+                GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+                if (pending.get(groupAddress) == datapoint) {
+                    pending.remove(groupAddress);
+                    return datapoint;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records that the bus answered a read request.
+     *
+     * @param datapoint the request
+     */
+    public synchronized void readSucceeded(ReadDatapoint datapoint) {
+        read++;
+        long timeToValue = System.nanoTime() - datapoint.getRequestedAt();
+        totalTimeToValueNanos += timeToValue;
+        maxTimeToValueNanos = Math.max(maxTimeToValueNanos, timeToValue);
+        pauseMillis = Math.max(minPauseMillis, pauseMillis / 2);
+    }
+
+    /**
+     * Records that a read request failed and queues it again unless its retries are exhausted or a new request for the
+     * same group address is already pending.
+     *
+     * @param datapoint the request
+     * @return {@code true} if the request will be retried
+     */
+    public synchronized boolean readFailed(ReadDatapoint datapoint) {
+        failed++;
+        pauseMillis = Math.min(maxPauseMillis, Math.max(2 * pauseMillis, 100));
+        if (datapoint.getRetries() >= datapoint.getLimit()) {
+            givenUp++;
+            return false;
+        }
+        if (!pending.containsKey(datapoint.getDatapoint().getMainAddress())) {
+            enqueue(datapoint);
+        }
+        return true;
+    }
+
+    private void enqueue(ReadDatapoint datapoint) {
+        pending.put(datapoint.getDatapoint().getMainAddress(), datapoint);
+        queues.get(datapoint.getPriority()).add(datapoint);
+        maxQueueLength = Math.max(maxQueueLength, pending.size());
+    }
+
+    /**
+     * Drops all pending requests, e.g. when the connection got lost.
+     */
+    public synchronized void clear() {
+        pending.clear();
+        queues.values().forEach(Queue::clear);
+        pauseMillis = minPauseMillis;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the pause to keep before the next request is sent.
+     *
+     * @return the pause in milliseconds
+     */
+    public synchronized long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ReadScheduler [queueLength=" + pending.size() + ", maxQueueLength=" + maxQueueLength + ", requested="
+                + requested + ", merged=" + merged + ", read=" + read + ", failed=" + failed + ", givenUp=" + givenUp
+                + ", avgTimeToValue=" + (read == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalTimeToValueNanos / read))
+                + "ms, maxTimeToValue=" + TimeUnit.NANOSECONDS.toMillis(maxTimeToValueNanos) + "ms, pause="
+                + pauseMillis + "ms]";
+    }
+}
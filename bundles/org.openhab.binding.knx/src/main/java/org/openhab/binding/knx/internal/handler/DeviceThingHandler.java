@@ -15,6 +15,8 @@ package org.openhab.binding.knx.internal.handler;
 import static org.openhab.binding.knx.internal.KNXBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -34,6 +36,7 @@ import org.openhab.binding.knx.internal.channel.KNXChannelTypes;
 import org.openhab.binding.knx.internal.client.AbstractKNXClient;
 import org.openhab.binding.knx.internal.client.InboundSpec;
 import org.openhab.binding.knx.internal.client.OutboundSpec;
+import org.openhab.binding.knx.internal.client.ReadPriority;
 import org.openhab.binding.knx.internal.config.DeviceConfig;
 import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
 import org.openhab.core.config.core.Configuration;
@@ -66,10 +69,28 @@ import tuwien.auto.calimero.datapoint.Datapoint;
 @NonNullByDefault
 public class DeviceThingHandler extends AbstractKNXThingHandler {
 
+    /**
+     * A channel that listens to a group address, with the spec that applies to telegrams for that address
+     */
+    private static class ChannelBinding {
+        final Channel channel;
+        final KNXChannelType selector;
+        final InboundSpec listenSpec;
+        final boolean control;
+
+        ChannelBinding(Channel channel, KNXChannelType selector, InboundSpec listenSpec, boolean control) {
+            this.channel = channel;
+            this.selector = selector;
+            this.listenSpec = listenSpec;
+            this.control = control;
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(DeviceThingHandler.class);
 
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
-    private final Set<GroupAddress> groupAddresses = new HashSet<>();
+    private volatile Set<GroupAddress> groupAddresses = Collections.emptySet();
+    private volatile Map<GroupAddress, List<ChannelBinding>> channelBindings = Collections.emptyMap();
     private final Set<GroupAddress> groupAddressesWriteBlockedOnce = new HashSet<>();
     private final Set<OutboundSpec> groupAddressesRespondingSpec = new HashSet<>();
     private final Map<GroupAddress, ScheduledFuture<?>> readFutures = new HashMap<>();
@@ -82,18 +103,41 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
 
     @Override
     public void initialize() {
-        super.initialize();
         DeviceConfig config = getConfigAs(DeviceConfig.class);
         readInterval = config.getReadInterval().intValue();
+        // the group addresses must be known before the handler registers itself at the client
         initializeGroupAddresses();
+        super.initialize();
     }
 
+    /**
+     * Collects the group addresses of all channels and indexes the channels by the group addresses they listen to,
+     * so that incoming telegrams are dispatched to the affected channels without parsing every channel configuration.
+     */
     private void initializeGroupAddresses() {
-        forAllChannels((selector, channelConfiguration) -> {
-            groupAddresses.addAll(selector.getReadAddresses(channelConfiguration));
-            groupAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
-            groupAddresses.addAll(selector.getListenAddresses(channelConfiguration));
-        });
+        Set<GroupAddress> addresses = new HashSet<>();
+        Map<GroupAddress, List<ChannelBinding>> bindings = new HashMap<>();
+        for (Channel channel : getThing().getChannels()) {
+            withKNXType(channel, (selector, channelConfiguration) -> {
+                addresses.addAll(selector.getReadAddresses(channelConfiguration));
+                addresses.addAll(selector.getWriteAddresses(channelConfiguration));
+                addresses.addAll(selector.getListenAddresses(channelConfiguration));
+
+                boolean control = isControl(channel.getUID());
+                Set<GroupAddress> boundAddresses = new HashSet<>();
+                for (InboundSpec listenSpec : selector.getListenSpecs(channelConfiguration)) {
+                    for (GroupAddress groupAddress : listenSpec.getGroupAddresses()) {
+                        // like getListenSpec(), the first spec containing the address applies
+                        if (boundAddresses.add(groupAddress)) {
+                            bindings.computeIfAbsent(groupAddress, ga -> new ArrayList<>())
+                                    .add(new ChannelBinding(channel, selector, listenSpec, control));
+                        }
+                    }
+                }
+            });
+        }
+        groupAddresses = addresses;
+        channelBindings = bindings;
     }
 
     @Override
@@ -113,7 +157,8 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
     }
 
     private void freeGroupAdresses() {
-        groupAddresses.clear();
+        groupAddresses = Collections.emptySet();
+        channelBindings = Collections.emptyMap();
         groupAddressesWriteBlockedOnce.clear();
         groupAddressesRespondingSpec.clear();
     }
@@ -151,17 +196,11 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         }
     }
 
-    private void forAllChannels(ChannelFunction function) {
-        for (Channel channel : getThing().getChannels()) {
-            withKNXType(channel, function);
-        }
-    }
-
     @Override
     public void channelLinked(ChannelUID channelUID) {
         if (!isControl(channelUID)) {
             withKNXType(channelUID, (selector, configuration) -> {
-                scheduleRead(selector, configuration);
+                scheduleRead(selector, configuration, ReadPriority.INITIAL);
             });
         }
     }
@@ -172,42 +211,50 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         for (Channel channel : getThing().getChannels()) {
             if (isLinked(channel.getUID().getId()) && !isControl(channel.getUID())) {
                 withKNXType(channel, (selector, configuration) -> {
-                    scheduleRead(selector, configuration);
+                    scheduleRead(selector, configuration, ReadPriority.INITIAL);
                 });
             }
         }
     }
 
-    private void scheduleRead(KNXChannelType selector, Configuration configuration) throws KNXFormatException {
+    private void scheduleRead(KNXChannelType selector, Configuration configuration, ReadPriority priority)
+            throws KNXFormatException {
         List<InboundSpec> readSpecs = selector.getReadSpec(configuration);
         for (InboundSpec readSpec : readSpecs) {
             for (GroupAddress groupAddress : readSpec.getGroupAddresses()) {
-                scheduleReadJob(groupAddress, readSpec.getDPT());
+                scheduleReadJob(groupAddress, readSpec.getDPT(), priority);
             }
         }
     }
 
-    private void scheduleReadJob(GroupAddress groupAddress, String dpt) {
+    private void scheduleReadJob(GroupAddress groupAddress, String dpt, ReadPriority priority) {
+        // a REFRESH is always read right away, initial reads only if the periodic job is not running yet
+        boolean readNow = priority == ReadPriority.REFRESH;
         if (readInterval > 0) {
             ScheduledFuture<?> future = readFutures.get(groupAddress);
             if (future == null || future.isDone() || future.isCancelled()) {
-                future = getScheduler().scheduleWithFixedDelay(() -> readDatapoint(groupAddress, dpt), 0, readInterval,
+                future = getScheduler().scheduleWithFixedDelay(
+                        () -> readDatapoint(groupAddress, dpt, ReadPriority.PERIODIC), readInterval, readInterval,
                         TimeUnit.SECONDS);
                 readFutures.put(groupAddress, future);
+                readNow = true;
             }
         } else {
-            getScheduler().submit(() -> readDatapoint(groupAddress, dpt));
+            readNow = true;
+        }
+        if (readNow) {
+            getScheduler().submit(() -> readDatapoint(groupAddress, dpt, priority));
         }
     }
 
-    private void readDatapoint(GroupAddress groupAddress, String dpt) {
+    private void readDatapoint(GroupAddress groupAddress, String dpt, ReadPriority priority) {
         if (getClient().isConnected()) {
             if (!isDPTSupported(dpt)) {
                 logger.warn("DPT '{}' is not supported by the KNX binding", dpt);
                 return;
             }
             Datapoint datapoint = new CommandDP(groupAddress, getThing().getUID().toString(), 0, dpt);
-            getClient().readDatapoint(datapoint);
+            getClient().readDatapoint(datapoint, priority);
         }
     }
 
@@ -216,6 +263,11 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         return groupAddresses.contains(destination);
     }
 
+    @Override
+    public Set<GroupAddress> getGroupAddresses() {
+        return groupAddresses;
+    }
+
     /** KNXIO remember controls, removeIf may be null */
     @SuppressWarnings("null")
     private void rememberRespondingSpec(OutboundSpec commandSpec, boolean add) {
@@ -235,7 +287,7 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         if (command instanceof RefreshType && !isControl(channelUID)) {
             logger.debug("Refreshing channel '{}'", channelUID);
             withKNXType(channelUID, (selector, configuration) -> {
-                scheduleRead(selector, configuration);
+                scheduleRead(selector, configuration, ReadPriority.REFRESH);
             });
         } else {
             switch (channelUID.getId()) {
@@ -307,8 +359,9 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
     public void onGroupRead(AbstractKNXClient client, IndividualAddress source, GroupAddress destination, byte[] asdu) {
         logger.trace("onGroupRead Thing '{}' received a GroupValueRead telegram from '{}' for destination '{}'",
                 getThing().getUID(), source, destination);
-        for (Channel channel : getThing().getChannels()) {
-            if (isControl(channel.getUID())) {
+        for (ChannelBinding binding : channelBindings.getOrDefault(destination, List.of())) {
+            if (binding.control) {
+                Channel channel = binding.channel;
                 withKNXType(channel, (selector, configuration) -> {
                     OutboundSpec responseSpec = selector.getResponseSpec(configuration, destination,
                             RefreshType.REFRESH);
@@ -345,31 +398,33 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         logger.debug("onGroupWrite Thing '{}' received a GroupValueWrite telegram from '{}' for destination '{}'",
                 getThing().getUID(), source, destination);
 
-        for (Channel channel : getThing().getChannels()) {
-            withKNXType(channel, (selector, configuration) -> {
-                InboundSpec listenSpec = selector.getListenSpec(configuration, destination);
-                if (listenSpec != null) {
-                    logger.trace(
-                            "onGroupWrite Thing '{}' processes a GroupValueWrite telegram for destination '{}' for channel '{}'",
-                            getThing().getUID(), destination, channel.getUID());
-                    /**
-                     * Remember current KNXIO outboundSpec only if it is a control channel.
-                     */
-                    if (isControl(channel.getUID())) {
-                        logger.trace("onGroupWrite isControl");
-                        Type type = typeHelper.toType(
-                                new CommandDP(destination, getThing().getUID().toString(), 0, listenSpec.getDPT()),
-                                asdu);
-                        if (type != null) {
-                            OutboundSpec commandSpec = selector.getCommandSpec(configuration, typeHelper, type);
-                            if (commandSpec != null) {
-                                rememberRespondingSpec(commandSpec, true);
-                            }
+        for (ChannelBinding binding : channelBindings.getOrDefault(destination, List.of())) {
+            Channel channel = binding.channel;
+            InboundSpec listenSpec = binding.listenSpec;
+            logger.trace(
+                    "onGroupWrite Thing '{}' processes a GroupValueWrite telegram for destination '{}' for channel '{}'",
+                    getThing().getUID(), destination, channel.getUID());
+            /**
+             * Remember current KNXIO outboundSpec only if it is a control channel.
+             */
+            if (binding.control) {
+                logger.trace("onGroupWrite isControl");
+                Type type = typeHelper.toType(
+                        new CommandDP(destination, getThing().getUID().toString(), 0, listenSpec.getDPT()), asdu);
+                if (type != null) {
+                    try {
+                        OutboundSpec commandSpec = binding.selector.getCommandSpec(channel.getConfiguration(),
+                                typeHelper, type);
+                        if (commandSpec != null) {
+                            rememberRespondingSpec(commandSpec, true);
                         }
+                    } catch (KNXException e) {
+                        logger.warn("An error occurred on channel {}: {}", channel.getUID(), e.getMessage(), e);
+                        continue;
                     }
-                    processDataReceived(destination, asdu, listenSpec, channel.getUID());
                 }
-            });
+            }
+            processDataReceived(destination, asdu, listenSpec, channel.getUID());
         }
     }
 
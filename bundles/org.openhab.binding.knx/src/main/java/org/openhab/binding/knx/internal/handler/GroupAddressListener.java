@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -33,4 +35,12 @@ public interface GroupAddressListener extends BusMessageListener {
      * @param destination
      */
     public boolean listensTo(GroupAddress destination);
+
+    /**
+     * Returns all Group Addresses the GroupAddressListener has an interest in. The client indexes the listener by
+     * these addresses when it gets registered, so they must be known at that time.
+     *
+     * @return the group addresses
+     */
+    public Set<GroupAddress> getGroupAddresses();
 }
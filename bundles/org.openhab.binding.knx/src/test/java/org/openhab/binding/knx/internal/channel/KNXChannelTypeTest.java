@@ -14,12 +14,17 @@ package org.openhab.binding.knx.internal.channel;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openhab.binding.knx.internal.client.InboundSpec;
+import org.openhab.core.config.core.Configuration;
+
+import tuwien.auto.calimero.GroupAddress;
 
 /**
  *
@@ -95,14 +100,36 @@ public class KNXChannelTypeTest {
         assertEquals(2, res.getReadGAs().size());
     }
 
+    @Test
+    public void testGetListenSpecs() throws Exception {
+        KNXChannelType type = new MyKNXChannelType("", "ga", "position");
+        Configuration configuration = new Configuration(
+                Map.of("ga", "1.001:<1/3/22+0/3/22", "position", "5.001:1/3/23"));
+
+        List<InboundSpec> specs = type.getListenSpecs(configuration);
+
+        assertEquals(2, specs.size());
+        for (InboundSpec spec : specs) {
+            InboundSpec listenSpec = type.getListenSpec(configuration, spec.getGroupAddresses().get(0));
+            assertEquals(spec.getGroupAddresses(), listenSpec.getGroupAddresses());
+            assertEquals(spec.getDPT(), listenSpec.getDPT());
+        }
+        assertEquals(List.of(new GroupAddress("1/3/22"), new GroupAddress("0/3/22")),
+                type.getListenSpec(configuration, new GroupAddress("0/3/22")).getGroupAddresses());
+        assertEquals("5.001", type.getListenSpec(configuration, new GroupAddress("1/3/23")).getDPT());
+    }
+
     private static class MyKNXChannelType extends KNXChannelType {
-        public MyKNXChannelType(String channelTypeID) {
+        private final Set<String> gaKeys;
+
+        public MyKNXChannelType(String channelTypeID, String... gaKeys) {
             super(channelTypeID);
+            this.gaKeys = Set.of(gaKeys);
         }
 
         @Override
         protected @NonNull Set<@NonNull String> getAllGAKeys() {
-            return Collections.emptySet();
+            return gaKeys;
         }
 
         @Override
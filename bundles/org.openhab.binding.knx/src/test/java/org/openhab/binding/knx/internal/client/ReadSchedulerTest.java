@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXFormatException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Tests for {@link ReadScheduler}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ReadSchedulerTest {
+
+    private final ReadScheduler scheduler = new ReadScheduler(2, 50);
+
+    private static Datapoint datapoint(String groupAddress) throws KNXFormatException {
+        return new CommandDP(new GroupAddress(groupAddress), "test", 0, "1.001");
+    }
+
+    private static String nextAddress(ReadScheduler scheduler) {
+        ReadDatapoint next = scheduler.poll();
+        assertNotNull(next);
+        return next.getDatapoint().getMainAddress().toString();
+    }
+
+    @Test
+    public void testPriorityOrder() throws KNXFormatException {
+        scheduler.add(datapoint("1/0/1"), ReadPriority.PERIODIC);
+        scheduler.add(datapoint("1/0/2"), ReadPriority.INITIAL);
+        scheduler.add(datapoint("1/0/3"), ReadPriority.REFRESH);
+        scheduler.add(datapoint("1/0/4"), ReadPriority.INITIAL);
+
+        assertEquals("1/0/3", nextAddress(scheduler));
+        assertEquals("1/0/2", nextAddress(scheduler));
+        assertEquals("1/0/4", nextAddress(scheduler));
+        assertEquals("1/0/1", nextAddress(scheduler));
+        assertNull(scheduler.poll());
+    }
+
+    @Test
+    public void testRequestsAreMerged() throws KNXFormatException {
+        assertTrue(scheduler.add(datapoint("1/0/1"), ReadPriority.PERIODIC));
+        assertTrue(scheduler.add(datapoint("1/0/2"), ReadPriority.INITIAL));
+        assertFalse(scheduler.add(datapoint("1/0/1"), ReadPriority.PERIODIC));
+        assertFalse(scheduler.add(datapoint("1/0/1"), ReadPriority.REFRESH));
+        assertEquals(2, scheduler.size());
+
+        ReadDatapoint first = scheduler.poll();
+        assertNotNull(first);
+        assertEquals("1/0/1", first.getDatapoint().getMainAddress().toString());
+        assertEquals(ReadPriority.REFRESH, first.getPriority());
+        assertEquals("1/0/2", nextAddress(scheduler));
+        // the stale periodic entry must not be served again
+        assertNull(scheduler.poll());
+    }
+
+    @Test
+    public void testRetriesAndBackoff() throws KNXFormatException {
+        scheduler.add(datapoint("1/0/1"), ReadPriority.INITIAL);
+        assertEquals(50, scheduler.getPauseMillis());
+
+        ReadDatapoint datapoint = scheduler.poll();
+        assertNotNull(datapoint);
+        datapoint.incrementRetries();
+        assertTrue(scheduler.readFailed(datapoint));
+        assertEquals(100, scheduler.getPauseMillis());
+
+        assertSame(datapoint, scheduler.poll());
+        datapoint.incrementRetries();
+        assertFalse(scheduler.readFailed(datapoint));
+        assertEquals(200, scheduler.getPauseMillis());
+        assertNull(scheduler.poll());
+
+        scheduler.readSucceeded(datapoint);
+        assertEquals(100, scheduler.getPauseMillis());
+        scheduler.readSucceeded(datapoint);
+        scheduler.readSucceeded(datapoint);
+        assertEquals(50, scheduler.getPauseMillis());
+    }
+}
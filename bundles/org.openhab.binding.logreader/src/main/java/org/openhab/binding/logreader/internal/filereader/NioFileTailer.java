@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
+import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NIO based log file reader implementation. The reader waits for changes of the file announced by a
+ * {@link WatchService} and reads new data with a reusable {@link ByteBuffer}. As not every file system delivers
+ * watch events, the file is checked at least with the given refresh rate as well.
+ * <p>
+ * Log rotation is detected if the file got shorter or was replaced by a new file. The new file is read from its
+ * beginning.
+ * <p>
+ * The state of a run is kept in a {@link Tail}, so that a run which is still finishing after {@link #stop()} can't
+ * interfere with the run of the next {@link #start(String, long)}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class NioFileTailer extends AbstractLogFileReader implements LogFileReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long STOP_TIMEOUT_MS = 5000;
+
+    private final Logger logger = LoggerFactory.getLogger(NioFileTailer.class);
+
+    private @Nullable ExecutorService executor;
+    private @Nullable Tail tail;
+
+    @Override
+    public void start(String filePath, long refreshRate) throws FileReaderException {
+        Path file = Paths.get(filePath).toAbsolutePath();
+        Path directory = file.getParent();
+        try {
+            WatchService watchService = file.getFileSystem().newWatchService();
+            if (directory != null && Files.isDirectory(directory)) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            Tail tail = new Tail(file, watchService, refreshRate);
+            this.tail = tail;
+            ExecutorService executor = Executors.newSingleThreadExecutor(new NamedThreadFactory("logreader"));
+            this.executor = executor;
+            logger.debug("Start executor");
+            executor.execute(tail);
+        } catch (IOException | RuntimeException e) {
+            throw new FileReaderException(e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        logger.debug("Shutdown");
+        Tail tail = this.tail;
+        if (tail != null) {
+            tail.stop();
+            this.tail = null;
+        }
+        ExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.shutdown();
+            this.executor = null;
+            try {
+                if (!executor.awaitTermination(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    logger.debug("Reader did not stop in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.debug("Shutdown complete");
+    }
+
+    /**
+     * A single run of the reader with the open file and the read position.
+     */
+    private class Tail implements Runnable {
+        private final Path file;
+        private final WatchService watchService;
+        private final long refreshRate;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private byte[] lineBuffer = new byte[1024];
+        private int lineLength;
+
+        private volatile boolean running = true;
+
+        private @Nullable FileChannel channel;
+        private @Nullable Object fileKey;
+        private long position;
+
+        private Tail(Path file, WatchService watchService, long refreshRate) {
+            this.file = file;
+            this.watchService = watchService;
+            this.refreshRate = refreshRate;
+        }
+
+        private void stop() {
+            running = false;
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Closing watch service failed: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void run() {
+            // Existing content is skipped, once the file was opened a new file is read from its beginning
+            boolean opened = open(false);
+            try {
+                while (running) {
+                    WatchKey key = watchService.poll(refreshRate, TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        // The events are only used as a wake up, the file is checked anyway
+                        key.pollEvents();
+                        key.reset();
+                    }
+                    if (!running) {
+                        break;
+                    }
+                    if (channel == null) {
+                        opened |= open(opened);
+                        continue;
+                    }
+                    checkRotation();
+                    readNewData();
+                }
+            } catch (ClosedWatchServiceException e) {
+                // stopped
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                sendExceptionToListeners(e);
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Opens the file.
+         *
+         * @param rotated true if the file is a new file after a rotation, which is read from its beginning. Otherwise
+         *            the current content of the file is skipped.
+         * @return false if the file does not exist.
+         */
+        private boolean open(boolean rotated) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                this.channel = channel;
+                fileKey = attributes.fileKey();
+                position = rotated ? 0 : channel.size();
+                lineLength = 0;
+                if (rotated) {
+                    sendFileRotationToListeners();
+                }
+                return true;
+            } catch (NoSuchFileException e) {
+                sendFileNotFoundToListeners();
+            } catch (IOException e) {
+                sendExceptionToListeners(e);
+            }
+            return false;
+        }
+
+        private void close() {
+            FileChannel channel = this.channel;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    logger.debug("Closing file failed: {}", e.getMessage());
+                }
+                this.channel = null;
+            }
+        }
+
+        /**
+         * Checks if the file was truncated or replaced by a new file. The remaining data of a replaced file is read
+         * before the new file is opened.
+         */
+        private void checkRotation() throws IOException {
+            FileChannel channel = Objects.requireNonNull(this.channel);
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                // Rotated away, the new file is not yet created
+                readNewData();
+                close();
+                return;
+            }
+            Object newFileKey = attributes.fileKey();
+            if (newFileKey != null && !newFileKey.equals(fileKey)) {
+                readNewData();
+                close();
+                open(true);
+            } else if (attributes.size() < position || channel.size() < position) {
+                logger.debug("File was truncated");
+                position = 0;
+                lineLength = 0;
+                sendFileRotationToListeners();
+            }
+        }
+
+        /**
+         * Reads the data appended to the file since the last call and passes complete lines to the listeners.
+         */
+        private void readNewData() throws IOException {
+            FileChannel channel = this.channel;
+            if (channel == null) {
+                return;
+            }
+            while (running) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    return;
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        int length = lineLength > 0 && lineBuffer[lineLength - 1] == '\r' ? lineLength - 1
+                                : lineLength;
+                        lineLength = 0;
+                        sendLineToListeners(new String(lineBuffer, 0, length, StandardCharsets.UTF_8));
+                    } else {
+                        if (lineLength == lineBuffer.length) {
+                            lineBuffer = Arrays.copyOf(lineBuffer, lineLength * 2);
+                        }
+                        lineBuffer[lineLength++] = b;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.regex.PatternSyntaxException;
 import org.openhab.binding.logreader.internal.config.LogReaderConfiguration;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.openhab.binding.logreader.internal.searchengine.MultiPatternMatcher;
 import org.openhab.binding.logreader.internal.searchengine.SearchEngine;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.DecimalType;
@@ -52,6 +53,7 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
     private SearchEngine errorEngine;
     private SearchEngine warningEngine;
     private SearchEngine customEngine;
+    private MultiPatternMatcher matcher;
 
     public LogHandler(Thing thing, LogFileReader fileReader) {
         super(thing);
@@ -98,6 +100,7 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
             warningEngine = new SearchEngine(configuration.warningPatterns, configuration.warningBlacklistingPatterns);
             errorEngine = new SearchEngine(configuration.errorPatterns, configuration.errorBlacklistingPatterns);
             customEngine = new SearchEngine(configuration.customPatterns, configuration.customBlacklistingPatterns);
+            matcher = new MultiPatternMatcher(errorEngine, warningEngine, customEngine);
 
         } catch (PatternSyntaxException e) {
             logger.debug("Illegal search pattern syntax '{}'. ", e.getMessage(), e);
@@ -180,17 +183,18 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
             updateStatus(ThingStatus.ONLINE);
         }
 
-        if (errorEngine.isMatching(line)) {
+        boolean[] matches = matcher.match(line);
+        if (matches[0]) {
             updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
             triggerChannel(CHANNEL_NEWERROR, line);
         }
-        if (warningEngine.isMatching(line)) {
+        if (matches[1]) {
             updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
             triggerChannel(CHANNEL_NEWWARNING, line);
         }
-        if (customEngine.isMatching(line)) {
+        if (matches[2]) {
             updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
             triggerChannel(CHANNEL_NEWCUSTOM, line);
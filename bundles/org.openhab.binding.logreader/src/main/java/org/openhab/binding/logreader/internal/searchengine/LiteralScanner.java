@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Finds a set of literals in a text with a single pass over the text (Aho-Corasick automaton). The automaton is built
+ * as a state transition table for ASCII characters. Literals containing other characters are searched with
+ * {@link String#indexOf(String)}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+class LiteralScanner {
+    private static final int ALPHABET = 128;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final List<String> otherLiterals = new ArrayList<>();
+    private final List<Integer> otherIndexes = new ArrayList<>();
+
+    /**
+     * Build the automaton.
+     *
+     * @param literals the literals to search, the index in the list is the index in the result of {@link #scan}.
+     */
+    LiteralScanner(List<String> literals) {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<int[]> outputTable = new ArrayList<>();
+        gotoTable.add(newState());
+        outputTable.add(NO_OUTPUT);
+
+        for (int index = 0; index < literals.size(); index++) {
+            String literal = literals.get(index);
+            if (literal.isEmpty() || literal.chars().anyMatch(c -> c >= ALPHABET)) {
+                otherLiterals.add(literal);
+                otherIndexes.add(index);
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                int c = literal.charAt(i);
+                int next = gotoTable.get(state)[c];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.add(newState());
+                    outputTable.add(NO_OUTPUT);
+                    gotoTable.get(state)[c] = next;
+                }
+                state = next;
+            }
+            outputTable.set(state, append(outputTable.get(state), index));
+        }
+
+        // Resolve the failure links into a complete transition table (breadth first)
+        int[] failure = new int[gotoTable.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = gotoTable.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            int[] row = gotoTable.get(state);
+            outputTable.set(state, merge(outputTable.get(state), outputTable.get(failure[state])));
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = row[c];
+                int fallback = gotoTable.get(failure[state])[c];
+                if (next < 0) {
+                    row[c] = fallback;
+                } else {
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+        transitions = gotoTable.toArray(new int[0][]);
+        outputs = outputTable.toArray(new int[0][]);
+    }
+
+    /**
+     * Scan the text for the literals.
+     *
+     * @param text the text to scan.
+     * @param found result, the entry of each literal found is set to true, all others to false.
+     */
+    void scan(String text, boolean[] found) {
+        Arrays.fill(found, false);
+        int[][] transitions = this.transitions;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            state = c < ALPHABET ? transitions[state][c] : 0;
+            for (int index : outputs[state]) {
+                found[index] = true;
+            }
+        }
+        for (int i = 0; i < otherLiterals.size(); i++) {
+            if (text.contains(otherLiterals.get(i))) {
+                found[otherIndexes.get(i)] = true;
+            }
+        }
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static int[] merge(int[] values, int[] other) {
+        int[] result = values;
+        for (int value : other) {
+            if (Arrays.stream(result).noneMatch(v -> v == value)) {
+                result = append(result, value);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches lines against several {@link SearchEngine}s at once. The literals required by the search and blacklisting
+ * patterns of all engines are found with a single pass over the line. Only patterns whose literal is contained in
+ * the line (or patterns without a literal) are evaluated as regular expressions.
+ * <p>
+ * Instances are not thread safe, lines must be matched by one thread at a time.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class MultiPatternMatcher {
+    private final SearchEngine[] engines;
+    private final LiteralScanner scanner;
+    private final boolean[] literalsFound;
+    private final boolean[] matches;
+
+    public MultiPatternMatcher(SearchEngine... engines) {
+        this.engines = engines;
+        this.matches = new boolean[engines.length];
+
+        List<String> literals = new ArrayList<>();
+        Map<String, Integer> indexes = new HashMap<>();
+        for (SearchEngine engine : engines) {
+            for (SearchPattern pattern : engine.getPatterns()) {
+                String literal = pattern.getLiteral();
+                if (literal != null) {
+                    pattern.literalIndex = indexes.computeIfAbsent(literal, l -> {
+                        literals.add(l);
+                        return literals.size() - 1;
+                    });
+                }
+            }
+        }
+        scanner = new LiteralScanner(literals);
+        literalsFound = new boolean[literals.size()];
+    }
+
+    /**
+     * Check the line against all engines. The match counts of the engines are updated.
+     *
+     * @param line the line to check.
+     * @return for each engine in the order given to the constructor if the line matches. The array is reused by the
+     *         next call.
+     */
+    public boolean[] match(String line) {
+        scanner.scan(line, literalsFound);
+        for (int i = 0; i < engines.length; i++) {
+            matches[i] = engines[i].isMatching(line, literalsFound);
+        }
+        return matches;
+    }
+}
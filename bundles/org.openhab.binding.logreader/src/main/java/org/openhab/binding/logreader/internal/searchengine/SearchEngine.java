@@ -14,21 +14,20 @@ package org.openhab.binding.logreader.internal.searchengine;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
- * This class implements logic for regular expression based searching.
+ * This class implements logic for regular expression based searching. Patterns are only evaluated if the line contains
+ * the literal text required by the pattern, see {@link SearchPattern}.
  *
  * @author Pauli Anttila - Initial contribution
  */
 public class SearchEngine {
 
-    private List<Pattern> matchers;
-    private List<Pattern> blacklistingMatchers;
+    private List<SearchPattern> matchers;
+    private List<SearchPattern> blacklistingMatchers;
 
     private long matchCount;
 
@@ -51,8 +50,19 @@ public class SearchEngine {
      * @return true if one of the search patterns found.
      */
     public boolean isMatching(String data) {
-        if (isMatching(matchers, data)) {
-            if (notBlacklisted(data)) {
+        return isMatching(data, null);
+    }
+
+    /**
+     * Check if data is matching to one of the provided search patterns.
+     *
+     * @param data data against search will be done.
+     * @param literalsFound literals found in the data by the {@link LiteralScanner} of a {@link MultiPatternMatcher}.
+     * @return true if one of the search patterns found.
+     */
+    boolean isMatching(String data, boolean @Nullable [] literalsFound) {
+        if (isMatching(matchers, data, literalsFound)) {
+            if (!isMatching(blacklistingMatchers, data, literalsFound)) {
                 matchCount++;
                 return true;
             }
@@ -72,35 +82,40 @@ public class SearchEngine {
         setMatchCount(0);
     }
 
+    /**
+     * Returns the search and blacklisting patterns.
+     */
+    List<SearchPattern> getPatterns() {
+        List<SearchPattern> patterns = new ArrayList<>(matchers);
+        patterns.addAll(blacklistingMatchers);
+        return patterns;
+    }
+
     /**
      * Split pattern string and precompile search patterns.
      *
      * @param patterns patterns which will handled.
      * @return list of precompiled patterns. If pattern parameter is null, empty list is returned.
      */
-    private List<Pattern> compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
-        List<Pattern> patternsList = new ArrayList<>();
+    private List<SearchPattern> compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
+        List<SearchPattern> patternsList = new ArrayList<>();
 
         if (patterns != null && !patterns.isEmpty()) {
             String list[] = patterns.split("\\|");
             if (list.length > 0) {
                 for (String patternStr : list) {
-                    patternsList.add(Pattern.compile(patternStr));
+                    patternsList.add(new SearchPattern(patternStr));
                 }
             }
         }
         return patternsList;
     }
 
-    private boolean notBlacklisted(String data) {
-        return !isMatching(blacklistingMatchers, data);
-    }
-
-    private boolean isMatching(@Nullable List<Pattern> patterns, String data) {
+    private boolean isMatching(@Nullable List<SearchPattern> patterns, String data,
+            boolean @Nullable [] literalsFound) {
         if (patterns != null) {
-            for (Pattern pattern : patterns) {
-                Matcher matcher = pattern.matcher(data);
-                if (matcher.find()) {
+            for (SearchPattern pattern : patterns) {
+                if (pattern.isMatching(data, literalsFound)) {
                     return true;
                 }
             }
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A single search pattern with the literal text every match must contain. Lines which do not contain the literal are
+ * rejected without running the regular expression. If the pattern is a plain text the regular expression is not used
+ * at all.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+class SearchPattern {
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final Pattern pattern;
+    private final @Nullable Matcher matcher;
+    private final @Nullable String literal;
+    private final boolean literalOnly;
+
+    /**
+     * Index of the literal in the {@link LiteralScanner} of a {@link MultiPatternMatcher}, -1 if not scanned.
+     */
+    int literalIndex = -1;
+
+    SearchPattern(String regex) throws PatternSyntaxException {
+        pattern = Pattern.compile(regex);
+        literalOnly = !regex.isEmpty() && regex.chars().noneMatch(c -> META_CHARACTERS.indexOf(c) >= 0);
+        literal = literalOnly ? regex : requiredLiteral(regex);
+        matcher = literalOnly ? null : pattern.matcher("");
+    }
+
+    @Nullable
+    String getLiteral() {
+        return literal;
+    }
+
+    /**
+     * Check if the data matches the pattern.
+     *
+     * @param data data against search will be done.
+     * @param literalsFound literals found by a {@link LiteralScanner}, or null to search the literal in the data.
+     * @return true if the pattern is found.
+     */
+    boolean isMatching(String data, boolean @Nullable [] literalsFound) {
+        String literal = this.literal;
+        if (literal != null) {
+            boolean found = literalsFound != null && literalIndex >= 0 ? literalsFound[literalIndex]
+                    : data.contains(literal);
+            if (!found || literalOnly) {
+                return found;
+            }
+        }
+        Matcher matcher = this.matcher;
+        return matcher != null ? matcher.reset(data).find() : pattern.matcher(data).find();
+    }
+
+    /**
+     * Determines the longest literal text which is part of every match of the regular expression. The analysis is
+     * conservative: alternatives, groups, character classes and optional characters are not part of the literal.
+     *
+     * @param regex the regular expression.
+     * @return the literal or null if none could be determined.
+     */
+    static @Nullable String requiredLiteral(String regex) {
+        if (regex.contains("(?") || regex.contains("\\Q")) {
+            // Flags and quoting change how characters are matched
+            return null;
+        }
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        int length = regex.length();
+        for (int i = 0; i < length; i++) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 < length && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                        run.append(regex.charAt(++i));
+                        continue;
+                    }
+                    // Predefined character class, boundary, back reference or an escape with arguments
+                    i = skipEscape(regex, i + 1);
+                    break;
+                case '|':
+                    // Alternatives on top level, nothing is required
+                    return null;
+                case '*':
+                case '?':
+                    // The preceding character is optional
+                    if (run.length() > 0) {
+                        run.setLength(run.length() - 1);
+                    }
+                    break;
+                case '{':
+                    if (run.length() > 0) {
+                        run.setLength(run.length() - 1);
+                    }
+                    i = regex.indexOf('}', i);
+                    if (i < 0) {
+                        i = length;
+                    }
+                    break;
+                case '(':
+                    i = skipGroup(regex, i);
+                    break;
+                case '[':
+                    i = skipCharacterClass(regex, i);
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                    break;
+                default:
+                    run.append(c);
+                    continue;
+            }
+            if (run.length() > best.length()) {
+                best = run.toString();
+            }
+            run.setLength(0);
+        }
+        if (run.length() > best.length()) {
+            best = run.toString();
+        }
+        return best.isEmpty() ? null : best;
+    }
+
+    /**
+     * Skips an escape sequence starting with a letter or digit including its arguments, like the hex digits of
+     * {@code \x41} or the name of {@code \p{Alpha}}.
+     *
+     * @param regex the regular expression.
+     * @param start the index of the character following the backslash.
+     * @return the index of the last character of the escape sequence.
+     */
+    private static int skipEscape(String regex, int start) {
+        if (start >= regex.length()) {
+            return start;
+        }
+        switch (regex.charAt(start)) {
+            case 'x':
+                return regex.startsWith("{", start + 1) ? closing(regex, start, '}') : start + 2;
+            case 'u':
+                return start + 4;
+            case 'c':
+                return start + 1;
+            case 'p':
+            case 'P':
+                return regex.startsWith("{", start + 1) ? closing(regex, start, '}') : start + 1;
+            case 'N':
+                return closing(regex, start, '}');
+            case 'k':
+                return closing(regex, start, '>');
+            default:
+                // Octal escapes (\0nnn) and back references are followed by digits
+                int i = start;
+                while (Character.isDigit(regex.charAt(start)) && i + 1 < regex.length()
+                        && Character.isDigit(regex.charAt(i + 1))) {
+                    i++;
+                }
+                return i;
+        }
+    }
+
+    private static int closing(String regex, int start, char c) {
+        int i = regex.indexOf(c, start);
+        return i < 0 ? regex.length() : i;
+    }
+
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipCharacterClass(regex, i);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return regex.length();
+    }
+
+    private static int skipCharacterClass(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        for (; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipCharacterClass(regex, i);
+            } else if (c == ']') {
+                return i;
+            }
+        }
+        return regex.length();
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Tests cases for {@link NioFileTailer}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class NioFileTailerTest {
+    private static final long REFRESH_RATE = 50;
+
+    public @TempDir @NonNullByDefault({}) Path directory;
+    private @NonNullByDefault({}) Path file;
+
+    private final NioFileTailer tailer = new NioFileTailer();
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private final List<Exception> exceptions = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blocking = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = directory.resolve("test.log");
+        Files.write(file, "existing\n".getBytes(StandardCharsets.UTF_8));
+        tailer.registerListener(new FileReaderListener() {
+            @Override
+            public void fileNotFound() {
+            }
+
+            @Override
+            public void fileRotated() {
+            }
+
+            @Override
+            public void handle(String line) {
+                if ("block".equals(line)) {
+                    blocking.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                lines.add(line);
+            }
+
+            @Override
+            public void handle(Exception ex) {
+                exceptions.add(ex);
+            }
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tailer.stop();
+    }
+
+    @Test
+    public void readsAppendedLines() throws Exception {
+        tailer.start(file.toString(), REFRESH_RATE);
+        awaitOpened();
+
+        append("first\r\nsecond\n");
+
+        assertEquals("first", lines.poll(5, TimeUnit.SECONDS));
+        assertEquals("second", lines.poll(5, TimeUnit.SECONDS));
+        assertTrue(exceptions.isEmpty());
+    }
+
+    @Test
+    public void restartDoesNotAffectTheNewRun() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            tailer.start(file.toString(), REFRESH_RATE);
+            tailer.stop();
+        }
+        tailer.start(file.toString(), REFRESH_RATE);
+        awaitOpened();
+
+        append("after restart\n");
+
+        assertEquals("after restart", lines.poll(5, TimeUnit.SECONDS));
+        assertTrue(exceptions.isEmpty(), () -> "Unexpected exceptions: " + exceptions);
+    }
+
+    @Test
+    public void finishingRunDoesNotAffectTheNewRun() throws Exception {
+        tailer.start(file.toString(), REFRESH_RATE);
+        awaitOpened();
+
+        // Keep the first run busy in a listener while the reader is restarted
+        append("block\n");
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+        new Thread(() -> {
+            try {
+                Thread.sleep(4 * REFRESH_RATE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+        tailer.stop();
+        assertEquals("block", lines.poll());
+
+        tailer.start(file.toString(), REFRESH_RATE);
+        awaitOpened();
+        append("first\nsecond\n");
+
+        assertEquals("first", lines.poll(5, TimeUnit.SECONDS));
+        assertEquals("second", lines.poll(5, TimeUnit.SECONDS));
+        Thread.sleep(3 * REFRESH_RATE);
+        assertTrue(lines.isEmpty(), () -> "Lines read twice: " + lines);
+        assertTrue(exceptions.isEmpty(), () -> "Unexpected exceptions: " + exceptions);
+    }
+
+    private void awaitOpened() throws InterruptedException {
+        // The existing content is skipped, give the reader time to open the file first
+        Thread.sleep(3 * REFRESH_RATE);
+    }
+
+    private void append(String data) throws IOException {
+        Files.write(file, data.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
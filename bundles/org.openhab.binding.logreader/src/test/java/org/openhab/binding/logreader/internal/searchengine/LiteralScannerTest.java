@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link LiteralScanner}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class LiteralScannerTest {
+
+    private boolean[] scan(List<String> literals, String text) {
+        boolean[] found = new boolean[literals.size()];
+        new LiteralScanner(literals).scan(text, found);
+        return found;
+    }
+
+    @Test
+    public void findsAllLiterals() {
+        assertArrayEquals(new boolean[] { true, false, true },
+                scan(List.of("ERROR", "WARN", "failed"), "[ERROR] connection failed"));
+    }
+
+    @Test
+    public void findsOverlappingLiterals() {
+        // "she" and "he" end at the same position, "hers" starts within "she"
+        assertArrayEquals(new boolean[] { true, true, true, false },
+                scan(List.of("he", "she", "hers", "his"), "ushers"));
+    }
+
+    @Test
+    public void findsLiteralsAfterPartialMatches() {
+        assertArrayEquals(new boolean[] { true }, scan(List.of("aab"), "aaab"));
+        assertArrayEquals(new boolean[] { false }, scan(List.of("aab"), "abab"));
+    }
+
+    @Test
+    public void findsNonAsciiLiterals() {
+        assertArrayEquals(new boolean[] { true, false }, scan(List.of("Störung", "Fehler"), "Störung: Heizung"));
+        assertArrayEquals(new boolean[] { true }, scan(List.of("Heizung"), "Störung: Heizung"));
+    }
+
+    @Test
+    public void resetsPreviousResults() {
+        LiteralScanner scanner = new LiteralScanner(List.of("ERROR"));
+        boolean[] found = new boolean[1];
+        scanner.scan("ERROR", found);
+        assertTrue(found[0]);
+        scanner.scan("INFO", found);
+        assertFalse(found[0]);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link MultiPatternMatcher}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MultiPatternMatcherTest {
+
+    @Test
+    public void matchesLikeTheEngines() {
+        String[] lines = { "2021-01-01 [ERROR] Connection failed", "2021-01-01 [WARN ] Connection timed out",
+                "2021-01-01 [ERROR] java.io.IOException: broken pipe", "2021-01-01 [INFO ] started",
+                "2021-01-01 [WARN ] Item 'x' not found" };
+        String[][] configs = { { ".*ERROR.*", "broken pipe" }, { "\\[WARN\\s*\\]", "" },
+                { "Exception|timed out", "" }, { "\\x49tem", "" } };
+
+        SearchEngine[] engines = new SearchEngine[configs.length];
+        SearchEngine[] references = new SearchEngine[configs.length];
+        for (int i = 0; i < configs.length; i++) {
+            engines[i] = new SearchEngine(configs[i][0], configs[i][1]);
+            references[i] = new SearchEngine(configs[i][0], configs[i][1]);
+        }
+        MultiPatternMatcher matcher = new MultiPatternMatcher(engines);
+
+        for (String line : lines) {
+            boolean[] matches = matcher.match(line);
+            for (int i = 0; i < configs.length; i++) {
+                assertEquals(references[i].isMatching(line), matches[i], line + " / " + configs[i][0]);
+            }
+        }
+        for (int i = 0; i < configs.length; i++) {
+            assertEquals(references[i].getMatchCount(), engines[i].getMatchCount());
+        }
+    }
+
+    @Test
+    public void countsMatches() {
+        SearchEngine errors = new SearchEngine("ERROR", "ignored");
+        SearchEngine warnings = new SearchEngine("WARN", "");
+        MultiPatternMatcher matcher = new MultiPatternMatcher(errors, warnings);
+
+        assertArrayEquals(new boolean[] { true, false }, matcher.match("[ERROR] failed"));
+        assertArrayEquals(new boolean[] { false, false }, matcher.match("[ERROR] ignored"));
+        assertArrayEquals(new boolean[] { false, true }, matcher.match("[WARN ] slow"));
+        assertEquals(1, errors.getMatchCount());
+        assertEquals(1, warnings.getMatchCount());
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link SearchPattern}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class SearchPatternTest {
+
+    @Test
+    public void plainTextIsTheLiteral() {
+        SearchPattern pattern = new SearchPattern("ERROR");
+        assertEquals("ERROR", pattern.getLiteral());
+        assertTrue(pattern.isMatching("2021-01-01 [ERROR] failed", null));
+        assertFalse(pattern.isMatching("2021-01-01 [WARN ] failed", null));
+    }
+
+    @Test
+    public void longestRequiredLiteral() {
+        assertEquals("Exception", SearchPattern.requiredLiteral(".*Exception.*"));
+        assertEquals(" handler", SearchPattern.requiredLiteral("[a-z]+ handler\\d+"));
+        assertEquals(" failed", SearchPattern.requiredLiteral("(foo|bar) failed"));
+        assertEquals("a.b", SearchPattern.requiredLiteral("a\\.b"));
+        assertEquals("colo", SearchPattern.requiredLiteral("colou?r"));
+        assertEquals("ab", SearchPattern.requiredLiteral("abc{2}"));
+    }
+
+    @Test
+    public void noLiteral() {
+        assertNull(SearchPattern.requiredLiteral(".*"));
+        assertNull(SearchPattern.requiredLiteral("(?i)error"));
+        assertNull(SearchPattern.requiredLiteral("\\Qa.b\\E"));
+        assertNull(SearchPattern.requiredLiteral("\\d+\\s\\w"));
+    }
+
+    @Test
+    public void argumentsOfEscapesAreNotLiteral() {
+        assertEquals("BC", SearchPattern.requiredLiteral("\\x41BC"));
+        assertEquals("BC", SearchPattern.requiredLiteral("\\x{41}BC"));
+        assertEquals("BC", SearchPattern.requiredLiteral("\\u0041BC"));
+        assertEquals("BC", SearchPattern.requiredLiteral("\\0101BC"));
+        assertEquals("BC", SearchPattern.requiredLiteral("\\cABC"));
+        assertEquals("BC", SearchPattern.requiredLiteral("\\p{Lu}BC"));
+        assertEquals("BC", SearchPattern.requiredLiteral("\\pLBC"));
+        assertEquals("BC", SearchPattern.requiredLiteral("(a)\\1BC"));
+    }
+
+    @Test
+    public void escapesMatchWithTheirLiteral() {
+        SearchPattern pattern = new SearchPattern("\\x41BC");
+        assertTrue(pattern.isMatching("xABCx", null));
+        assertFalse(pattern.isMatching("x41BCx", null));
+    }
+}
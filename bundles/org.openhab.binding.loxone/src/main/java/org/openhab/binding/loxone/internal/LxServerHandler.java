@@ -42,7 +42,8 @@ import org.openhab.binding.loxone.internal.types.LxConfig.LxServerInfo;
 import org.openhab.binding.loxone.internal.types.LxErrorCode;
 import org.openhab.binding.loxone.internal.types.LxResponse;
 import org.openhab.binding.loxone.internal.types.LxState;
-import org.openhab.binding.loxone.internal.types.LxStateUpdate;
+import org.openhab.binding.loxone.internal.types.LxStateTable;
+import org.openhab.binding.loxone.internal.types.LxStateUpdateBatch;
 import org.openhab.binding.loxone.internal.types.LxUuid;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.thing.Channel;
@@ -88,6 +89,8 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     // the state. It must be ensured that updates received for this state UUID are passed to all controls that have this
     // state UUID configured.
     private Map<LxUuid, Map<LxUuid, LxState>> states = new HashMap<>();
+    // Index of the above map used to match binary state updates, rebuilt on each change of the states
+    private volatile LxStateTable stateTable = LxStateTable.EMPTY;
 
     private LxWebSocket socket;
     private WebSocketClient wsClient;
@@ -100,7 +103,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     // Data structures
     private final Map<LxUuid, LxControl> controls = new HashMap<>();
     private final Map<ChannelUID, LxControl> channels = new HashMap<>();
-    private final BlockingQueue<LxStateUpdate> stateUpdateQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<LxStateUpdateBatch> stateUpdateQueue = new LinkedBlockingQueue<>();
 
     private LxDynamicStateDescriptionProvider dynamicStateDescriptionProvider;
     private final Logger logger = LoggerFactory.getLogger(LxServerHandler.class);
@@ -251,6 +254,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     @Override
     public void addControl(LxControl control) {
         addControlStructures(control);
+        stateTable = LxStateTable.build(states);
         addThingChannels(control.getChannelsWithSubcontrols(), false);
     }
 
@@ -276,6 +280,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
                 }
             }
         });
+        stateTable = LxStateTable.build(states);
 
         ThingBuilder builder = editThing();
         control.getChannels().forEach(channel -> {
@@ -370,6 +375,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
         controls.clear();
         channels.clear();
         states.clear();
+        stateTable = LxStateTable.EMPTY;
         dynamicStateDescriptionProvider.removeAllDescriptions();
     }
 
@@ -405,6 +411,8 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
         } else {
             logger.warn("[{}] no controls received in Miniserver configuration.", debugId);
         }
+        stateTable = LxStateTable.build(states);
+        logger.debug("[{}] indexed {} state UUIDs.", debugId, stateTable.size());
         addThingChannels(list, true);
         updateStatus(ThingStatus.ONLINE);
     }
@@ -462,37 +470,21 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     }
 
     /**
-     * Put a new state update event to the queue for processing and signal thread to process it
+     * Gets the index of all configured states, used to match state updates received from the Miniserver.
      *
-     * @param uuid state uuid (null indicates websocket session should be closed)
-     * @param value new state value
+     * @return current state table
      */
-    void queueStateUpdate(LxUuid uuid, Object value) {
-        stateUpdateQueue.add(new LxStateUpdate(uuid, value));
+    LxStateTable getStateTable() {
+        return stateTable;
     }
 
     /**
-     * Update to the new value of a state received from Miniserver. This method will go through all instances of this
-     * state UUID and update their value, which will trigger corresponding control state update method in each control
-     * that has this state.
+     * Put a batch of state updates to the queue for processing and signal thread to process it
      *
-     * @param update Miniserver's update event
+     * @param updates state updates matched to the configured states
      */
-    private void updateStateValue(LxStateUpdate update) {
-        Map<LxUuid, LxState> perStateUuid = states.get(update.getUuid());
-        if (perStateUuid != null) {
-            perStateUuid.forEach((controlUuid, state) -> {
-                logger.debug("[{}] State update (UUID={}, value={}) dispatched to control UUID={}, state name={}",
-                        debugId, update.getUuid(), update.getValue(), controlUuid, state.getName());
-
-                state.setStateValue(update.getValue());
-            });
-            if (perStateUuid.size() == 0) {
-                logger.debug("[{}] State update UUID={} has empty controls table", debugId, update.getUuid());
-            }
-        } else {
-            logger.debug("[{}] State update UUID={} has no controls table", debugId, update.getUuid());
-        }
+    void queueStateUpdates(LxStateUpdateBatch updates) {
+        stateUpdateQueue.add(updates);
     }
 
     /**
@@ -703,14 +695,15 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
         private void processStateUpdates() throws InterruptedException {
             while (sessionActive.get()) {
                 logger.debug("[{}] Sleeping for {} seconds.", debugId, bindingConfig.keepAlivePeriod - elapsed);
-                LxStateUpdate update = stateUpdateQueue.poll(bindingConfig.keepAlivePeriod - elapsed, TimeUnit.SECONDS);
+                LxStateUpdateBatch updates = stateUpdateQueue.poll(bindingConfig.keepAlivePeriod - elapsed,
+                        TimeUnit.SECONDS);
                 elapsed = Duration.between(lastKeepAlive, Instant.now()).getSeconds();
-                if (update == null || elapsed >= bindingConfig.keepAlivePeriod) {
+                if (updates == null || elapsed >= bindingConfig.keepAlivePeriod) {
                     sendKeepAlive();
                     elapsed = 0;
                 }
-                if (update != null) {
-                    updateStateValue(update);
+                if (updates != null) {
+                    updates.apply();
                 }
             }
         }
@@ -39,6 +39,9 @@ import org.openhab.binding.loxone.internal.security.LxWsSecurity;
 import org.openhab.binding.loxone.internal.types.LxConfig;
 import org.openhab.binding.loxone.internal.types.LxErrorCode;
 import org.openhab.binding.loxone.internal.types.LxResponse;
+import org.openhab.binding.loxone.internal.types.LxState;
+import org.openhab.binding.loxone.internal.types.LxStateTable;
+import org.openhab.binding.loxone.internal.types.LxStateUpdateBatch;
 import org.openhab.binding.loxone.internal.types.LxUuid;
 import org.openhab.binding.loxone.internal.types.LxWsBinaryHeader;
 import org.openhab.binding.loxone.internal.types.LxWsSecurityType;
@@ -238,24 +241,10 @@ public class LxWebSocket {
                 switch (header.getType()) {
                     case EVENT_TABLE_OF_VALUE_STATES:
                         stopResponseTimeout();
-                        while (length > 0) {
-                            Double value = ByteBuffer.wrap(data, offset + 16, 8).order(ByteOrder.LITTLE_ENDIAN)
-                                    .getDouble();
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
-                            offset += 24;
-                            length -= 24;
-                        }
+                        queueValueStates(data, offset, length);
                         break;
                     case EVENT_TABLE_OF_TEXT_STATES:
-                        while (length > 0) {
-                            // unused today at (offset + 16): iconUuid
-                            int textLen = ByteBuffer.wrap(data, offset + 32, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
-                            String value = new String(data, offset + 36, textLen);
-                            int size = 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
-                            offset += size;
-                            length -= size;
-                        }
+                        queueTextStates(data, offset, length);
                         break;
                     case KEEPALIVE_RESPONSE:
                     case TEXT_MESSAGE:
@@ -272,6 +261,67 @@ public class LxWebSocket {
         }
     }
 
+    /**
+     * Decodes an event table of value states in one pass and queues the updates of all configured states as a single
+     * batch. Each entry consists of the 16-byte state UUID and a little endian double value.
+     *
+     * @param data buffer with the binary message
+     * @param offset offset of the event table in the buffer
+     * @param length length of the event table
+     */
+    private void queueValueStates(byte[] data, int offset, int length) {
+        LxStateTable table = thingHandler.getStateTable();
+        LxStateUpdateBatch updates = new LxStateUpdateBatch(length / 24);
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int entry = offset; entry + 24 <= offset + length; entry += 24) {
+                LxState[] states = table.get(data, entry);
+                if (states != null) {
+                    updates.addValue(states, buffer.getDouble(entry + 16));
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("[{}] State update UUID={} has no controls table", debugId, new LxUuid(data, entry));
+                }
+            }
+        } finally {
+            if (updates.size() > 0) {
+                thingHandler.queueStateUpdates(updates);
+            }
+        }
+    }
+
+    /**
+     * Decodes an event table of text states and queues the updates of all configured states as a single batch. Each
+     * entry consists of the 16-byte state UUID, the 16-byte icon UUID, a little endian text length and the text padded
+     * to a multiple of 4 bytes.
+     *
+     * @param data buffer with the binary message
+     * @param offset offset of the event table in the buffer
+     * @param length length of the event table
+     */
+    private void queueTextStates(byte[] data, int offset, int length) {
+        LxStateTable table = thingHandler.getStateTable();
+        LxStateUpdateBatch updates = new LxStateUpdateBatch(16);
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int entry = offset;
+            while (entry < offset + length) {
+                // unused today at (entry + 16): iconUuid
+                int textLen = buffer.getInt(entry + 32);
+                LxState[] states = table.get(data, entry);
+                if (states != null) {
+                    updates.addText(states, new String(data, entry + 36, textLen));
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("[{}] State update UUID={} has no controls table", debugId, new LxUuid(data, entry));
+                }
+                entry += 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
+            }
+        } finally {
+            if (updates.size() > 0) {
+                thingHandler.queueStateUpdates(updates);
+            }
+        }
+    }
+
     @OnWebSocketMessage
     public void onMessage(String msg) {
         webSocketLock.lock();
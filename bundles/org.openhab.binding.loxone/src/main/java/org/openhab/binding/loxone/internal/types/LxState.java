@@ -64,8 +64,10 @@ public class LxState {
      * @param value current state's value to set
      */
     public void setStateValue(Object value) {
-        logger.debug("State set ({},{}) control ({},{}) value={}", uuid, name, control.getUuid(), control.getName(),
-                value);
+        if (logger.isDebugEnabled()) {
+            logger.debug("State set ({},{}) control ({},{}) value={}", uuid, name, control.getUuid(),
+                    control.getName(), value);
+        }
         if (value != null && !value.equals(this.stateValue)) {
             this.stateValue = value;
             control.onStateChange(this);
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * An immutable index of state UUIDs to the states configured with these UUIDs.
+ * <p>
+ * The Miniserver sends state updates in binary event tables, where each state is identified by its 128-bit UUID.
+ * This table is an open-addressing hash table keyed directly by the two 64-bit halves of that UUID, so that an event
+ * table can be matched against the configured states without creating an {@link LxUuid} for each entry.
+ * <p>
+ * The table is built from the handler's state structures whenever the configuration changes and is never modified
+ * afterwards, so it can be safely read by the websocket thread while a new table is being built.
+ *
+ * @author openHAB Contributors - Initial contribution
+ *
+ */
+public class LxStateTable {
+    public static final LxStateTable EMPTY = new LxStateTable(1);
+
+    private final long[] keys;
+    private final LxState[][] values;
+    private final int mask;
+    private int size;
+
+    private LxStateTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1;
+        keys = new long[capacity * 2];
+        values = new LxState[capacity][];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Builds a table from a map of state UUID to a map of control UUID and state objects. States with a UUID that
+     * can't be represented in a binary event table are skipped.
+     *
+     * @param states map of state UUID to the states of all controls that have this state UUID configured
+     * @return a new state table
+     */
+    public static LxStateTable build(Map<LxUuid, ? extends Map<LxUuid, LxState>> states) {
+        LxStateTable table = new LxStateTable(states.size());
+        states.forEach((uuid, perUuid) -> {
+            if (!perUuid.isEmpty()) {
+                table.put(uuid, perUuid.values());
+            }
+        });
+        return table;
+    }
+
+    /**
+     * Gets the states with the UUID stored in a binary event table at the given offset.
+     *
+     * @param data buffer with the binary message
+     * @param offset offset of the 16-byte UUID in the buffer
+     * @return states with this UUID or null if the UUID is not configured
+     */
+    public LxState[] get(byte[] data, int offset) {
+        return get(getHighBits(data, offset), getLowBits(data, offset));
+    }
+
+    /**
+     * Gets the states with the given UUID.
+     *
+     * @param high higher 64 bits of the UUID
+     * @param low lower 64 bits of the UUID
+     * @return states with this UUID or null if the UUID is not configured
+     */
+    public LxState[] get(long high, long low) {
+        int slot = hash(high, low) & mask;
+        LxState[] states;
+        while ((states = values[slot]) != null) {
+            if (keys[slot * 2] == high && keys[slot * 2 + 1] == low) {
+                return states;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of indexed state UUIDs.
+     *
+     * @return number of state UUIDs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the higher 64 bits of a UUID stored in a binary message. The first three fields of the UUID are stored
+     * as little endian 32-bit and 16-bit integers.
+     *
+     * @param data buffer with the binary message
+     * @param offset offset of the 16-byte UUID in the buffer
+     * @return higher 64 bits of the UUID
+     */
+    static long getHighBits(byte[] data, int offset) {
+        long data1 = (data[offset] & 0xFFL) | (data[offset + 1] & 0xFFL) << 8 | (data[offset + 2] & 0xFFL) << 16
+                | (data[offset + 3] & 0xFFL) << 24;
+        long data2 = (data[offset + 4] & 0xFFL) | (data[offset + 5] & 0xFFL) << 8;
+        long data3 = (data[offset + 6] & 0xFFL) | (data[offset + 7] & 0xFFL) << 8;
+        return data1 << 32 | data2 << 16 | data3;
+    }
+
+    /**
+     * Returns the lower 64 bits of a UUID stored in a binary message. The last field of the UUID is stored as an
+     * array of bytes.
+     *
+     * @param data buffer with the binary message
+     * @param offset offset of the 16-byte UUID in the buffer
+     * @return lower 64 bits of the UUID
+     */
+    static long getLowBits(byte[] data, int offset) {
+        long bits = 0;
+        for (int i = 8; i < 16; i++) {
+            bits = bits << 8 | (data[offset + i] & 0xFFL);
+        }
+        return bits;
+    }
+
+    private void put(LxUuid uuid, Collection<LxState> states) {
+        // UUID of a state in a binary message is formatted as xxxxxxxx-xxxx-xxxx-xxxxxxxxxxxxxxxx
+        String id = uuid.toString();
+        if (id.length() != 35 || id.charAt(8) != '-' || id.charAt(13) != '-' || id.charAt(18) != '-') {
+            return;
+        }
+        long high;
+        long low;
+        try {
+            high = Long.parseUnsignedLong(id.substring(0, 8) + id.substring(9, 13) + id.substring(14, 18), 16);
+            low = Long.parseUnsignedLong(id.substring(19), 16);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        int slot = hash(high, low) & mask;
+        while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot * 2] = high;
+        keys[slot * 2 + 1] = low;
+        values[slot] = states.toArray(new LxState[states.size()]);
+        size++;
+    }
+
+    private static int hash(long high, long low) {
+        // the lower half is often shared by many states of a Miniserver, mix all bits into the index
+        long h = (high ^ Long.rotateLeft(low, 29)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
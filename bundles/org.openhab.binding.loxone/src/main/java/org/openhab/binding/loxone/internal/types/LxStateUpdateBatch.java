@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import java.util.Arrays;
+
+/**
+ * A batch of state update events. It is used to defer and queue processing of Loxone state updates, so they are not
+ * processed in the websocket thread.
+ * <p>
+ * A batch is filled with all updates of one event table received from the Miniserver. Updates are already matched to
+ * the configured states and numeric values are kept unboxed until the batch is applied.
+ *
+ * @author openHAB Contributors - Initial contribution
+ *
+ */
+public class LxStateUpdateBatch {
+    private LxState[][] states;
+    private double[] values;
+    private String[] texts;
+    private int size;
+
+    /**
+     * Create an empty batch.
+     *
+     * @param capacity expected number of updates
+     */
+    public LxStateUpdateBatch(int capacity) {
+        int initial = Math.max(capacity, 1);
+        states = new LxState[initial][];
+        values = new double[initial];
+        texts = new String[initial];
+    }
+
+    /**
+     * Adds an update of a numeric value.
+     *
+     * @param states states to update
+     * @param value new value of the states
+     */
+    public void addValue(LxState[] states, double value) {
+        ensureCapacity();
+        this.states[size] = states;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Adds an update of a text value.
+     *
+     * @param states states to update
+     * @param text new value of the states
+     */
+    public void addText(LxState[] states, String text) {
+        ensureCapacity();
+        this.states[size] = states;
+        texts[size] = text;
+        size++;
+    }
+
+    /**
+     * Gets the number of updates in the batch.
+     *
+     * @return number of updates
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the new values of all states in the batch, in the order the updates were received.
+     */
+    public void apply() {
+        for (int i = 0; i < size; i++) {
+            Object value = texts[i] != null ? texts[i] : Double.valueOf(values[i]);
+            for (LxState state : states[i]) {
+                state.setStateValue(value);
+            }
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == states.length) {
+            int capacity = size * 2;
+            states = Arrays.copyOf(states, capacity);
+            values = Arrays.copyOf(values, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for (@link LxStateTable}
+ *
+ * @author openHAB Contributors - Initial contribution
+ *
+ */
+public class LxStateTableTest {
+    private Map<LxUuid, Map<LxUuid, LxState>> states;
+
+    @BeforeEach
+    public void setup() {
+        states = new HashMap<>();
+    }
+
+    @Test
+    public void testLookupOfBinaryUuid() {
+        LxState state = addState("0b734138-038c-035e-ffff403fb0c34b9e", "0e3684cc-026e-28e0-ffff403fb0c34b9e");
+        addState("0b734138-033e-02d8-ffff403fb0c34b9e", "0e3684cc-026e-28e0-ffff403fb0c34b9e");
+        LxStateTable table = LxStateTable.build(states);
+        assertEquals(2, table.size());
+
+        byte[] data = toBinary(state.getUuid());
+        assertEquals(state.getUuid(), new LxUuid(data, 0));
+        LxState[] found = table.get(data, 0);
+        assertNotNull(found);
+        assertEquals(1, found.length);
+        assertSame(state, found[0]);
+    }
+
+    @Test
+    public void testStateSharedByControls() {
+        LxState first = addState("f0a1b2c3-d4e5-f607-8899aabbccddeeff", "0e3684cc-026e-28e0-ffff403fb0c34b9e");
+        LxState second = addState("f0a1b2c3-d4e5-f607-8899aabbccddeeff", "0e3684cc-026e-28e1-ffff403fb0c34b9e");
+        LxStateTable table = LxStateTable.build(states);
+        assertEquals(1, table.size());
+
+        LxState[] found = table.get(toBinary(first.getUuid()), 0);
+        assertNotNull(found);
+        assertEquals(2, found.length);
+        assertTrue(found[0] == first || found[1] == first);
+        assertTrue(found[0] == second || found[1] == second);
+    }
+
+    @Test
+    public void testUnknownAndNonBinaryUuids() {
+        addState("0b734138-038c-035e-ffff403fb0c34b9e", "0e3684cc-026e-28e0-ffff403fb0c34b9e");
+        addState("0b734138-038c-035e-ffff403fb0c34b9e/AI1", "0e3684cc-026e-28e0-ffff403fb0c34b9e");
+        LxStateTable table = LxStateTable.build(states);
+        assertEquals(1, table.size());
+
+        assertNull(table.get(toBinary(new LxUuid("0b734138-038c-035e-ffff403fb0c34b9f")), 0));
+        assertNull(LxStateTable.EMPTY.get(toBinary(new LxUuid("0b734138-038c-035e-ffff403fb0c34b9e")), 0));
+    }
+
+    @Test
+    public void testManyStates() {
+        Map<LxUuid, LxState> all = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            LxState state = addState(String.format("%08x-%04x-%04x-ffff403fb0c34b9e", i * 7919, i & 0xffff, i >> 3),
+                    "0e3684cc-026e-28e0-ffff403fb0c34b9e");
+            all.put(state.getUuid(), state);
+        }
+        LxStateTable table = LxStateTable.build(states);
+        assertEquals(5000, table.size());
+
+        // entries at an offset within a larger event table
+        byte[] data = new byte[24 * all.size()];
+        int offset = 0;
+        for (LxUuid uuid : all.keySet()) {
+            System.arraycopy(toBinary(uuid), 0, data, offset, 16);
+            offset += 24;
+        }
+        for (offset = 0; offset < data.length; offset += 24) {
+            LxState[] found = table.get(data, offset);
+            assertNotNull(found);
+            assertSame(all.get(new LxUuid(data, offset)), found[0]);
+        }
+    }
+
+    private LxState addState(String stateUuid, String controlUuid) {
+        LxState state = new LxState(new LxUuid(stateUuid), "value", null);
+        states.computeIfAbsent(state.getUuid(), uuid -> new HashMap<>()).put(new LxUuid(controlUuid), state);
+        return state;
+    }
+
+    private byte[] toBinary(LxUuid uuid) {
+        String id = uuid.toString().replace("-", "");
+        byte[] data = new byte[16];
+        for (int i = 0; i < 16; i++) {
+            data[i] = (byte) Integer.parseInt(id.substring(i * 2, i * 2 + 2), 16);
+        }
+        // first three fields are little endian
+        reverse(data, 0, 4);
+        reverse(data, 4, 2);
+        reverse(data, 6, 2);
+        return data;
+    }
+
+    private void reverse(byte[] data, int offset, int length) {
+        for (int i = 0; i < length / 2; i++) {
+            byte b = data[offset + i];
+            data[offset + i] = data[offset + length - 1 - i];
+            data[offset + length - 1 - i] = b;
+        }
+    }
+}
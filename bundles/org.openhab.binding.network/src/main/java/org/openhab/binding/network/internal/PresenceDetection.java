@@ -12,18 +12,21 @@
  */
 package org.openhab.binding.network.internal;
 
-import java.io.IOException;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -31,6 +34,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.network.internal.dhcp.DHCPListenService;
 import org.openhab.binding.network.internal.dhcp.IPRequestReceivedCallback;
 import org.openhab.binding.network.internal.toberemoved.cache.ExpiringCacheAsync;
+import org.openhab.binding.network.internal.utils.NetworkProber;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
 import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
 import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
@@ -53,6 +57,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
 
     NetworkUtils networkUtils = new NetworkUtils();
+    NetworkProber prober = NetworkProber.getInstance();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
@@ -68,6 +73,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private long refreshIntervalInMS = 60000;
     private int timeoutInMS = 5000;
     private long lastSeenInMS;
+    private long detectionStartInMS;
 
     private @NonNullByDefault({}) String hostname;
     private @NonNullByDefault({}) ExpiringCache<@Nullable InetAddress> destination;
@@ -79,14 +85,16 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     ExpiringCacheAsync<PresenceDetectionValue> cache;
     private final PresenceDetectionListener updateListener;
     private @Nullable ScheduledFuture<?> refreshJob;
-    protected @Nullable ExecutorService executorService;
+    protected @Nullable CompletableFuture<Void> detection;
     private String dhcpState = "off";
-    Integer currentCheck = 0;
     int detectionChecks;
+    // Checks of other presence detections for the same host that are not older than this are reused
+    private final long sharedResultTimeInMS;
 
     public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
             throws IllegalArgumentException {
         this.updateListener = updateListener;
+        this.sharedResultTimeInMS = cacheDeviceStateTimeInMS;
         cache = new ExpiringCacheAsync<>(cacheDeviceStateTimeInMS, () -> {
             performPresenceDetection(false);
         });
@@ -279,14 +287,11 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
-    public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
-    }
-
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The checks are handed over to the {@link NetworkProber} of the
+     * binding, which shares the checks of the same host between presence detections. No thread is blocked while
+     * waiting for the checks, unless waitForDetectionToFinish is set.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -300,74 +305,50 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * @return Return true if a presence detection is performed and false otherwise.
      */
     public boolean performPresenceDetection(boolean waitForDetectionToFinish) {
-        if (executorService != null) {
-            logger.debug(
-                    "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
-                    hostname, tcpPorts);
-            return false;
-        }
-
-        if (!cache.isExpired()) {
-            return false;
-        }
-
-        Set<String> interfaceNames = null;
-
-        currentCheck = 0;
-        detectionChecks = tcpPorts.size();
-        if (pingMethod != null) {
-            detectionChecks += 1;
-        }
-        if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
-            interfaceNames = networkUtils.getInterfaceNames();
-            detectionChecks += interfaceNames.size();
-        }
-
-        if (detectionChecks == 0) {
-            return false;
-        }
+        synchronized (this) {
+            if (detection != null) {
+                logger.debug(
+                        "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
+                        hostname, tcpPorts);
+                return false;
+            }
 
-        final ExecutorService executorService = getThreadsFor(detectionChecks);
-        this.executorService = executorService;
+            if (!cache.isExpired()) {
+                return false;
+            }
 
-        for (Integer tcpPort : tcpPorts) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
-                performServicePing(tcpPort);
-                checkIfFinished();
-            });
-        }
+            List<CompletableFuture<?>> checks = new ArrayList<>();
+            for (Integer tcpPort : tcpPorts) {
+                checks.add(performServicePing(tcpPort));
+            }
 
-        // ARP ping for IPv4 addresses. Use single executor for Windows tool and
-        // each own executor for each network interface for other tools
-        if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionARP_" + hostname + " ");
+            // ARP ping for IPv4 addresses. Use a single check for the Windows tool and
+            // one check for each network interface for other tools
+            if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
                 // arp-ping.exe tool capable of handling multiple interfaces by itself
-                performARPping("");
-                checkIfFinished();
-            });
-        } else if (interfaceNames != null) {
-            for (final String interfaceName : interfaceNames) {
-                executorService.execute(() -> {
-                    Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
-                    performARPping(interfaceName);
-                    checkIfFinished();
-                });
+                checks.add(performARPping(""));
+            } else if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
+                for (final String interfaceName : networkUtils.getInterfaceNames()) {
+                    checks.add(performARPping(interfaceName));
+                }
             }
-        }
 
-        // ICMP ping
-        if (pingMethod != null) {
-            executorService.execute(() -> {
-                if (pingMethod != IpPingMethodEnum.JAVA_PING) {
-                    Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
-                    performSystemPing();
-                } else {
-                    performJavaPing();
-                }
-                checkIfFinished();
-            });
+            // ICMP ping
+            if (pingMethod != null) {
+                checks.add(pingMethod != IpPingMethodEnum.JAVA_PING ? performSystemPing() : performJavaPing());
+            }
+
+            if (checks.isEmpty()) {
+                return false;
+            }
+            detectionChecks = checks.size();
+
+            // The final result is submitted as soon as all checks are done. The prober completes every check within
+            // the timeout after the check started, even if it had to wait for a thread first.
+            CompletableFuture<Void> detection = CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[0]));
+            detectionStartInMS = System.currentTimeMillis();
+            this.detection = detection;
+            detection.whenComplete((result, e) -> submitFinalResult());
         }
 
         if (waitForDetectionToFinish) {
@@ -380,25 +361,25 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
-     * the presence detection process is finished and all threads are forcefully
-     * shut down.
+     * the presence detection process is finished. Checks that are still running are not
+     * cancelled, as other presence detections might share them.
      */
     private synchronized void submitFinalResult() {
         // Do nothing if we are not in a detection process
-        ExecutorService service = executorService;
-        if (service == null) {
+        if (detection == null) {
             return;
         }
         // Finish the detection process
-        service.shutdownNow();
-        executorService = null;
+        detection = null;
         detectionChecks = 0;
+        logger.trace("Presence detection for {} finished, {}", hostname, prober);
 
         PresenceDetectionValue v;
 
         // The cache will be expired by now if cache_time < timeoutInMS. But the device might be actually reachable.
-        // Therefore use lastSeenInMS here and not cache.isExpired() to determine if we got a ping response.
-        if (lastSeenInMS + timeoutInMS + 100 < System.currentTimeMillis()) {
+        // Therefore use lastSeenInMS here and not cache.isExpired() to determine if we got a ping response, either
+        // during this detection, which may have taken longer than the timeout, or within the timeout.
+        if (lastSeenInMS < Math.min(detectionStartInMS, System.currentTimeMillis() - timeoutInMS - 100)) {
             // We haven't seen the device in the detection process
             v = new PresenceDetectionValue(hostname, -1);
         } else {
@@ -415,37 +396,22 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     }
 
     /**
-     * This method is called after each individual check and increases a check counter.
-     * If the counter equals the total checks,the final result is submitted. This will
-     * happen way before the "timeoutInMS", if all checks were successful.
-     * Thread safe.
-     */
-    private synchronized void checkIfFinished() {
-        currentCheck += 1;
-        if (currentCheck < detectionChecks) {
-            return;
-        }
-        submitFinalResult();
-    }
-
-    /**
-     * Waits for the presence detection threads to finish. Returns immediately
+     * Waits for the presence detection to finish. Returns immediately
      * if no presence detection is performed right now.
      */
     public void waitForPresenceDetection() {
-        ExecutorService service = executorService;
-        if (service == null) {
+        CompletableFuture<Void> detection = this.detection;
+        if (detection == null) {
             return;
         }
         try {
             // We may get interrupted here by cancelRefreshJob().
-            service.awaitTermination(timeoutInMS + 100, TimeUnit.MILLISECONDS);
-            submitFinalResult();
+            detection.get(timeoutInMS + 100, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Reset interrupt flag
-            service.shutdownNow();
-            executorService = null;
+        } catch (ExecutionException | TimeoutException ignored) {
         }
+        submitFinalResult();
     }
 
     /**
@@ -473,24 +439,30 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return v;
     }
 
-    protected void performServicePing(int tcpPort) {
+    protected CompletableFuture<?> performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
-        try {
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress != null) {
-                networkUtils.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS).ifPresent(o -> {
-                    if (o.isSuccess()) {
-                        PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
-                                getLatency(o, preferResponseTimeAsLatency));
-                        v.addReachableTcpService(tcpPort);
-                        updateListener.partialDetectionResult(v);
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return prober.servicePing(destinationAddress, tcpPort, timeoutInMS, sharedResultTimeInMS)
+                .handle((result, e) -> {
+                    if (e != null) {
+                        // This should not happen and might be a user configuration issue, we log a warning message
+                        // therefore.
+                        logger.warn("Could not create a socket connection", e);
+                    } else {
+                        result.ifPresent(o -> {
+                            if (o.isSuccess()) {
+                                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
+                                        getLatency(o, preferResponseTimeAsLatency));
+                                v.addReachableTcpService(tcpPort);
+                                updateListener.partialDetectionResult(v);
+                            }
+                        });
                     }
+                    return null;
                 });
-            }
-        } catch (IOException e) {
-            // This should not happen and might be a user configuration issue, we log a warning message therefore.
-            logger.warn("Could not create a socket connection", e);
-        }
     }
 
     /**
@@ -501,31 +473,26 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * @param interfaceName The interface name. You can request a list of interface names
      *            from {@see NetworkUtils.getInterfaceNames()} for example.
      */
-    protected void performARPping(String interfaceName) {
-        try {
-            logger.trace("Perform ARP ping presence detection for {} on interface: {}", hostname, interfaceName);
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress == null) {
-                return;
-            }
-            if (iosDevice) {
-                networkUtils.wakeUpIOS(destinationAddress);
-                Thread.sleep(50);
-            }
-
-            networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName,
-                    destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
-                        if (o.isSuccess()) {
-                            PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING,
-                                    getLatency(o, preferResponseTimeAsLatency));
-                            updateListener.partialDetectionResult(v);
-                        }
-                    });
-        } catch (IOException e) {
-            logger.trace("Failed to execute an arp ping for ip {}", hostname, e);
-        } catch (InterruptedException ignored) {
-            // This can be ignored, the thread will end anyway
+    protected CompletableFuture<?> performARPping(String interfaceName) {
+        logger.trace("Perform ARP ping presence detection for {} on interface: {}", hostname, interfaceName);
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        final ArpPingUtilEnum arpPingMethod = this.arpPingMethod;
+        final String arpPingUtilPath = this.arpPingUtilPath;
+        final boolean iosDevice = this.iosDevice;
+        return handleResult(PresenceDetectionType.ARP_PING,
+                prober.nativeProbe("arp " + interfaceName + " " + destinationAddress.getHostAddress(), timeoutInMS,
+                        sharedResultTimeInMS, () -> {
+                            if (iosDevice) {
+                                networkUtils.wakeUpIOS(destinationAddress);
+                                Thread.sleep(50);
+                            }
+                            return networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName,
+                                    destinationAddress.getHostAddress(), timeoutInMS);
+                        }),
+                "Failed to execute an arp ping for ip {}");
     }
 
     /**
@@ -534,43 +501,50 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * the TCP echo service on port 7 which barely no device or server supports nowadays.
      * (http://docs.oracle.com/javase/7/docs/api/java/net/InetAddress.html#isReachable%28int%29)
      */
-    protected void performJavaPing() {
+    protected CompletableFuture<?> performJavaPing() {
         logger.trace("Perform java ping presence detection for {}", hostname);
 
         InetAddress destinationAddress = destination.getValue();
         if (destinationAddress == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        networkUtils.javaPing(timeoutInMS, destinationAddress).ifPresent(o -> {
-            if (o.isSuccess()) {
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
-                        getLatency(o, preferResponseTimeAsLatency));
-                updateListener.partialDetectionResult(v);
-            }
-        });
+        return handleResult(PresenceDetectionType.ICMP_PING,
+                prober.nativeProbe("java " + destinationAddress.getHostAddress(), timeoutInMS, sharedResultTimeInMS,
+                        () -> networkUtils.javaPing(timeoutInMS, destinationAddress)),
+                "Failed to execute a java ping for ip {}");
     }
 
-    protected void performSystemPing() {
-        try {
-            logger.trace("Perform native ping presence detection for {}", hostname);
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress == null) {
-                return;
-            }
-
-            networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
-                if (o.isSuccess()) {
-                    PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
-                            getLatency(o, preferResponseTimeAsLatency));
-                    updateListener.partialDetectionResult(v);
-                }
-            });
-        } catch (IOException e) {
-            logger.trace("Failed to execute a native ping for ip {}", hostname, e);
-        } catch (InterruptedException e) {
-            // This can be ignored, the thread will end anyway
+    protected CompletableFuture<?> performSystemPing() {
+        logger.trace("Perform native ping presence detection for {}", hostname);
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
         }
+
+        final IpPingMethodEnum pingMethod = this.pingMethod;
+        return handleResult(PresenceDetectionType.ICMP_PING,
+                prober.nativeProbe("icmp " + destinationAddress.getHostAddress(), timeoutInMS, sharedResultTimeInMS,
+                        () -> networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS)),
+                "Failed to execute a native ping for ip {}");
+    }
+
+    private CompletableFuture<?> handleResult(PresenceDetectionType type,
+            CompletableFuture<Optional<PingResult>> check, String failureMessage) {
+        return check.handle((result, e) -> {
+            if (e != null) {
+                logger.trace(failureMessage, hostname, e);
+            } else {
+                result.ifPresent(o -> {
+                    if (o.isSuccess()) {
+                        PresenceDetectionValue v = updateReachableValue(type,
+                                getLatency(o, preferResponseTimeAsLatency));
+                        updateListener.partialDetectionResult(v);
+                    }
+                });
+            }
+            return null;
+        });
     }
 
     private double getLatency(PingResult pingResult, boolean preferResponseTimeAsLatency) {
@@ -602,7 +576,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         if (future != null && !future.isDone()) {
             future.cancel(true);
         }
-        refreshJob = scheduledExecutorService.scheduleWithFixedDelay(() -> performPresenceDetection(true), 0,
+        refreshJob = scheduledExecutorService.scheduleWithFixedDelay(() -> performPresenceDetection(false), 0,
                 refreshIntervalInMS, TimeUnit.MILLISECONDS);
     }
 
@@ -14,17 +14,14 @@ package org.openhab.binding.network.internal.discovery;
 
 import static org.openhab.binding.network.internal.NetworkBindingConstants.*;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -33,6 +30,7 @@ import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.config.discovery.AbstractDiscoveryService;
 import org.openhab.core.config.discovery.DiscoveryResultBuilder;
@@ -49,6 +47,9 @@ import org.slf4j.LoggerFactory;
  * The {@link NetworkDiscoveryService} is responsible for discovering devices on
  * the current Network. It uses every Network Interface which is connected to a network.
  * It tries common TCP ports to connect to, ICMP pings and ARP pings.
+ * The TCP ports are swept by a single {@link ServiceSweep} thread with many non-blocking connection attempts in
+ * flight, the pings are performed by the shared prober of the {@link PresenceDetection}. Only a few ping checks are
+ * pending at the same time, so that the presence checks of the Things are not delayed by a scan.
  *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
@@ -58,23 +59,50 @@ import org.slf4j.LoggerFactory;
 public class NetworkDiscoveryService extends AbstractDiscoveryService implements PresenceDetectionListener {
     static final int PING_TIMEOUT_IN_MS = 500;
     static final int MAXIMUM_IPS_PER_INTERFACE = 255;
+    // The number of addresses of a /16 network, scanned if the maximum is set to 0
+    static final int MAXIMUM_IPS_FOR_FULL_SCAN = 65534;
+    static final int MAX_PENDING_PING_CHECKS = 8;
+    static final int DEFAULT_SCAN_RATE = 200;
+    static final String CONFIG_MAXIMUM_IPS_PER_INTERFACE = "maxHostsPerInterface";
+    static final String CONFIG_SCAN_RATE = "scanRate";
     private static final long DISCOVERY_RESULT_TTL = TimeUnit.MINUTES.toSeconds(10);
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
 
     // TCP port 548 (Apple Filing Protocol (AFP))
     // TCP port 554 (Windows share / Linux samba)
     // TCP port 1025 (Xbox / MS-RPC)
-    private Set<Integer> tcpServicePorts = Collections
-            .unmodifiableSet(Stream.of(80, 548, 554, 1025).collect(Collectors.toSet()));
-    private AtomicInteger scannedIPcount = new AtomicInteger(0);
-    private @Nullable ExecutorService executorService = null;
+    private List<Integer> tcpServicePorts = List.of(80, 548, 554, 1025);
+    private final NamedThreadFactory threadFactory = new NamedThreadFactory("network-discovery", true);
+    private @Nullable ServiceSweep sweep = null;
+    private int maximumIPsPerInterface = MAXIMUM_IPS_PER_INTERFACE;
+    private int scanRate = DEFAULT_SCAN_RATE;
+    private int hostCount = -1;
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
     private final NetworkUtils networkUtils = new NetworkUtils();
 
     public NetworkDiscoveryService() {
-        super(SUPPORTED_THING_TYPES_UIDS, (int) Math.round(
-                new NetworkUtils().getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE).size() * (PING_TIMEOUT_IN_MS / 1000.0)),
-                false);
+        super(SUPPORTED_THING_TYPES_UIDS, 0, false);
+    }
+
+    /**
+     * Every host costs one connection attempt per TCP port, which are started with the configured scan rate, and one
+     * ping check, of which only a few are pending at the same time. The number of hosts is determined by the last
+     * scan.
+     */
+    @Override
+    public synchronized int getScanTimeout() {
+        if (hostCount < 0) {
+            hostCount = getNetworkIPs().size();
+        }
+        double sweepSeconds = (double) hostCount * tcpServicePorts.size() / scanRate;
+        double pingSeconds = Math.ceil((double) hostCount / MAX_PENDING_PING_CHECKS) * (PING_TIMEOUT_IN_MS + 100)
+                / 1000.0;
+        return (int) Math.ceil(Math.max(sweepSeconds, pingSeconds) + PING_TIMEOUT_IN_MS * 4 / 1000.0);
+    }
+
+    private Set<String> getNetworkIPs() {
+        return networkUtils.getNetworkIPs(
+                maximumIPsPerInterface == 0 ? MAXIMUM_IPS_FOR_FULL_SCAN : maximumIPsPerInterface);
     }
 
     @Override
@@ -92,14 +120,30 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         // configuration, the values are automatically available in all handlers. Because they all
         // share the same instance.
         configuration.update(new Configuration(config).as(NetworkBindingConfiguration.class));
+        maximumIPsPerInterface = getIntValue(config, CONFIG_MAXIMUM_IPS_PER_INTERFACE, MAXIMUM_IPS_PER_INTERFACE, 0);
+        scanRate = getIntValue(config, CONFIG_SCAN_RATE, DEFAULT_SCAN_RATE, 1);
+        synchronized (this) {
+            hostCount = -1;
+        }
+    }
+
+    private int getIntValue(@Nullable Map<String, Object> config, String key, int defaultValue, int minimum) {
+        Object value = config != null ? config.get(key) : null;
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(minimum, new BigDecimal(value.toString().trim()).intValue());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for discovery setting {}, using {}", value, key, defaultValue);
+            return defaultValue;
+        }
     }
 
     @Override
     @Deactivate
     protected void deactivate() {
-        if (executorService != null) {
-            executorService.shutdown();
-        }
+        stopScan();
         super.deactivate();
     }
 
@@ -121,62 +165,105 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Starts the sweep over every IP on each interface on the network and pings them. Reachable services and pingable
+     * devices are reported as soon as they are found.
      */
     @Override
-    protected void startScan() {
-        if (executorService == null) {
-            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
-        }
-        final ExecutorService service = executorService;
-        if (service == null) {
+    protected synchronized void startScan() {
+        if (sweep != null) {
             return;
         }
         removeOlderResults(getTimestampOfLastScan(), null);
         logger.trace("Starting Network Device Discovery");
 
-        final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
-        scannedIPcount.set(0);
+        final Set<String> networkIPs = getNetworkIPs();
+        hostCount = networkIPs.size();
+        final ServiceSweep serviceSweep = new ServiceSweep(networkIPs.iterator(), tcpServicePorts, PING_TIMEOUT_IN_MS,
+                scanRate, ServiceSweep.MAX_PENDING_CONNECTIONS);
+        sweep = serviceSweep;
 
-        for (String ip : networkIPs) {
-            final PresenceDetection s = new PresenceDetection(this, 2000);
-            s.setHostname(ip);
-            s.setIOSDevice(true);
-            s.setUseDhcpSniffing(false);
-            s.setTimeout(PING_TIMEOUT_IN_MS);
-            // Ping devices
-            s.setUseIcmpPing(true);
-            s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
-            // TCP devices
-            s.setServicePorts(tcpServicePorts);
-
-            service.execute(() -> {
-                Thread.currentThread().setName("Discovery thread " + ip);
-                s.performPresenceDetection(true);
-                int count = scannedIPcount.incrementAndGet();
-                if (count == networkIPs.size()) {
-                    logger.trace("Scan of {} IPs successful", scannedIPcount);
+        final Thread sweepThread = threadFactory.newThread(() -> {
+            try {
+                serviceSweep.run(this::newServiceDevice);
+            } catch (IOException e) {
+                logger.warn("Network discovery failed: {}", e.getMessage());
+            }
+        });
+        sweepThread.start();
+
+        threadFactory.newThread(() -> {
+            try {
+                pingAll(networkIPs, serviceSweep);
+                sweepThread.join();
+                logger.trace("Scan of {} IPs done", networkIPs.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                if (sweep == serviceSweep) {
                     stopScan();
                 }
-            });
+            }
+        }).start();
+    }
+
+    /**
+     * Starts a ping check for every IP as soon as one of the pending checks is done, and waits for the last checks.
+     * Finished checks are not referenced any longer.
+     */
+    private void pingAll(Set<String> networkIPs, ServiceSweep serviceSweep) throws InterruptedException {
+        final Semaphore pendingChecks = new Semaphore(MAX_PENDING_PING_CHECKS);
+        final PresenceDetectionListener pingListener = new PresenceDetectionListener() {
+            @Override
+            public void partialDetectionResult(PresenceDetectionValue value) {
+                NetworkDiscoveryService.this.partialDetectionResult(value);
+            }
+
+            @Override
+            public void finalDetectionResult(PresenceDetectionValue value) {
+                pendingChecks.release();
+            }
+        };
+
+        for (String ip : networkIPs) {
+            pendingChecks.acquire();
+            if (!isScanning(serviceSweep)) {
+                return;
+            }
+            if (!startPingCheck(ip, pingListener)) {
+                pendingChecks.release();
+            }
         }
+        // Every check is completed by the prober within the timeout after it started
+        pendingChecks.tryAcquire(MAX_PENDING_PING_CHECKS, PING_TIMEOUT_IN_MS * 4, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean isScanning(ServiceSweep serviceSweep) {
+        return sweep == serviceSweep;
+    }
+
+    private boolean startPingCheck(String ip, PresenceDetectionListener pingListener) {
+        final PresenceDetection s = new PresenceDetection(pingListener, 2000);
+        s.setHostname(ip);
+        s.setIOSDevice(true);
+        s.setUseDhcpSniffing(false);
+        s.setTimeout(PING_TIMEOUT_IN_MS);
+        // Ping devices, the TCP services are covered by the sweep
+        s.setUseIcmpPing(true);
+        s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
+        s.setServicePorts(Set.of());
+        return s.performPresenceDetection(false);
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        final ExecutorService service = executorService;
-        if (service == null) {
+        final ServiceSweep serviceSweep = sweep;
+        if (serviceSweep == null) {
             return;
         }
-
-        try {
-            service.awaitTermination(PING_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Reset interrupt flag
-        }
-        service.shutdown();
-        executorService = null;
+        serviceSweep.stop();
+        sweep = null;
     }
 
     public static ThingUID createServiceUID(String ip, int tcpPort) {
@@ -185,7 +272,7 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Submit newly discovered devices. This method is called by the spawned threads in {@link startScan}.
+     * Submit newly discovered devices. This method is called by the {@link ServiceSweep} in {@link startScan}.
      *
      * @param ip The device IP
      * @param tcpPort The TCP port
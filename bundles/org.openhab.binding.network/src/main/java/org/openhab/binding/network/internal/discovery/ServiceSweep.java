@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ServiceSweep} tries to connect to a list of TCP ports on a list of hosts. All connection attempts are
+ * non-blocking and served by the selector of the thread that calls {@link #run(Listener)}, so that many attempts can be
+ * in flight at the same time. New attempts are started with a fixed rate, to not flood the network. Every reachable
+ * service is reported as soon as the connection got established.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ServiceSweep {
+    static final int MAX_PENDING_CONNECTIONS = 512;
+
+    private final Logger logger = LoggerFactory.getLogger(ServiceSweep.class);
+
+    private final Iterator<String> hosts;
+    private final List<Integer> ports;
+    private final int timeoutInMS;
+    private final long intervalInNanos;
+    private final int maxPendingConnections;
+
+    private volatile boolean stopped = false;
+    private @Nullable Selector selector;
+
+    private @Nullable String currentHost;
+    private Iterator<Integer> currentPorts = Collections.emptyIterator();
+    private int pendingConnections = 0;
+    private long attempts = 0;
+    private long found = 0;
+
+    /**
+     * Called by the sweep thread. Implementations must not block.
+     */
+    public interface Listener {
+        /**
+         * Called for each port that accepted a connection.
+         */
+        void serviceReachable(String host, int port);
+    }
+
+    private static class PendingConnect {
+        final String host;
+        final int port;
+        final long deadline;
+
+        PendingConnect(String host, int port, long deadline) {
+            this.host = host;
+            this.port = port;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Creates a new sweep.
+     *
+     * @param hosts The IP addresses to sweep
+     * @param ports The TCP ports to try on each host
+     * @param timeoutInMS The time after which a connection attempt is given up
+     * @param attemptsPerSecond How many connection attempts are started per second
+     * @param maxPendingConnections How many connection attempts may be in flight at the same time
+     */
+    public ServiceSweep(Iterator<String> hosts, List<Integer> ports, int timeoutInMS, int attemptsPerSecond,
+            int maxPendingConnections) {
+        this.hosts = hosts;
+        this.ports = ports;
+        this.timeoutInMS = timeoutInMS;
+        this.intervalInNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, attemptsPerSecond);
+        this.maxPendingConnections = Math.max(1, maxPendingConnections);
+    }
+
+    /**
+     * Performs the sweep and returns when all connection attempts are done or the sweep got stopped.
+     */
+    public void run(Listener listener) throws IOException {
+        try (Selector selector = Selector.open()) {
+            this.selector = selector;
+            long nextAttemptAt = System.nanoTime();
+            while (!stopped) {
+                long now = System.nanoTime();
+                // Start as many attempts as the rate allows, but do not catch up on a backlog in one burst
+                nextAttemptAt = Math.max(nextAttemptAt, now - intervalInNanos);
+                while (nextAttemptAt - now <= 0 && pendingConnections < maxPendingConnections && hasNext()) {
+                    startNext(selector, listener, now);
+                    nextAttemptAt += intervalInNanos;
+                }
+
+                boolean moreAttempts = hasNext();
+                if (!moreAttempts && pendingConnections == 0) {
+                    break;
+                }
+
+                long wakeUpAt = moreAttempts && pendingConnections < maxPendingConnections ? nextAttemptAt
+                        : now + TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+                for (SelectionKey key : selector.keys()) {
+                    PendingConnect pending = (PendingConnect) key.attachment();
+                    if (!key.isValid() || pending == null) {
+                        continue;
+                    }
+                    if (pending.deadline - now <= 0) {
+                        finish(key, pending, false, listener);
+                    } else if (pending.deadline - wakeUpAt < 0) {
+                        wakeUpAt = pending.deadline;
+                    }
+                }
+
+                selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wakeUpAt - now)));
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    PendingConnect pending = (PendingConnect) key.attachment();
+                    if (pending == null || !key.isValid()) {
+                        continue;
+                    }
+                    boolean success;
+                    try {
+                        success = ((SocketChannel) key.channel()).finishConnect();
+                    } catch (IOException e) {
+                        success = false;
+                    }
+                    finish(key, pending, success, listener);
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        } finally {
+            selector = null;
+            logger.debug("Service sweep finished after {} connection attempts, {} services found", attempts, found);
+        }
+    }
+
+    /**
+     * Stops the sweep. Connection attempts in flight are abandoned.
+     */
+    public void stop() {
+        stopped = true;
+        Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public long getFound() {
+        return found;
+    }
+
+    private boolean hasNext() {
+        return currentPorts.hasNext() || hosts.hasNext();
+    }
+
+    private void startNext(Selector selector, Listener listener, long now) {
+        String host = currentHost;
+        if (host == null || !currentPorts.hasNext()) {
+            host = hosts.next();
+            currentHost = host;
+            currentPorts = ports.iterator();
+            if (!currentPorts.hasNext()) {
+                return;
+            }
+        }
+        int port = currentPorts.next();
+        attempts++;
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            PendingConnect pending = new PendingConnect(host, port,
+                    now + TimeUnit.MILLISECONDS.toNanos(timeoutInMS));
+            if (channel.connect(new InetSocketAddress(host, port))) {
+                channel.close();
+                found++;
+                listener.serviceReachable(host, port);
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, pending);
+                pendingConnections++;
+            }
+        } catch (IOException e) {
+            // Refused or unreachable right away
+            logger.trace("Connection attempt to {}:{} failed: {}", host, port, e.getMessage());
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void finish(SelectionKey key, PendingConnect pending, boolean success, Listener listener) {
+        key.cancel();
+        pendingConnections--;
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+        if (success) {
+            found++;
+            listener.serviceReachable(pending.host, pending.port);
+        }
+    }
+}
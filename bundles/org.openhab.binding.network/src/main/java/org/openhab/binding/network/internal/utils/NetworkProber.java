@@ -0,0 +1,325 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link NetworkProber} performs the reachability checks of all presence detections of the binding.
+ * <p>
+ * TCP connection attempts are non-blocking connects that are all served by a single selector thread. The native ping
+ * and arping tools need a blocking thread each, they are executed on a bounded thread pool. Both the selector thread
+ * and the pool threads end when there is nothing to do.
+ * <p>
+ * If more native checks are requested than there are threads, the checks wait in the queue of the pool. The timeout of
+ * a check therefore starts when the check is executed, not when it is requested, so that a reachable host is not
+ * reported as unreachable only because its check had to wait for a thread.
+ * <p>
+ * Checks are shared by key, for example the ICMP ping of one host: a check that is still running or that completed
+ * less than the given maximum age ago is reused instead of performing it again. Things that target the same host do
+ * therefore not multiply the number of pings and processes.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class NetworkProber {
+    private static final int MAX_NATIVE_PROBES = 32;
+    private static final int TIMEOUT_GRACE_IN_MS = 100;
+    private static @Nullable NetworkProber instance;
+
+    private final Logger logger = LoggerFactory.getLogger(NetworkProber.class);
+    private final ThreadPoolExecutor nativeExecutor;
+    private final NamedThreadFactory selectorThreadFactory = new NamedThreadFactory("network-connect", true);
+    private final Map<String, CachedProbe> probes = new ConcurrentHashMap<>();
+
+    private final Object selectorLock = new Object();
+    private final Queue<PendingConnect> pendingConnects = new ConcurrentLinkedQueue<>();
+    private @Nullable Selector selector;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong nativeProbes = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+
+    private static class CachedProbe {
+        final CompletableFuture<Optional<PingResult>> result;
+        volatile long completedAt;
+
+        CachedProbe(CompletableFuture<Optional<PingResult>> result) {
+            this.result = result;
+        }
+
+        boolean isUsable(long now, long maxAgeInNanos) {
+            return !result.isDone() || now - completedAt <= maxAgeInNanos;
+        }
+    }
+
+    private static class PendingConnect {
+        final SocketChannel channel;
+        final CompletableFuture<Optional<PingResult>> result;
+        final double startTimeInMS;
+        final long deadline;
+
+        PendingConnect(SocketChannel channel, CompletableFuture<Optional<PingResult>> result, double startTimeInMS,
+                long deadline) {
+            this.channel = channel;
+            this.result = result;
+            this.startTimeInMS = startTimeInMS;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Returns the prober that is shared by all presence detections of the binding.
+     */
+    public static synchronized NetworkProber getInstance() {
+        NetworkProber instance = NetworkProber.instance;
+        if (instance == null) {
+            instance = new NetworkProber(MAX_NATIVE_PROBES);
+            NetworkProber.instance = instance;
+        }
+        return instance;
+    }
+
+    public NetworkProber(int maxNativeProbes) {
+        nativeExecutor = new ThreadPoolExecutor(maxNativeProbes, maxNativeProbes, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("network-prober", true));
+        nativeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Tries to establish a TCP connection to the given port without blocking a thread.
+     *
+     * @param address The destination address
+     * @param port The tcp port. Must be not 0.
+     * @param timeoutInMS Timeout in ms
+     * @param maxAgeInMS How old a shared result may be
+     * @return A future with the ping result. It completes exceptionally if no socket could be created.
+     */
+    public CompletableFuture<Optional<PingResult>> servicePing(InetAddress address, int port, int timeoutInMS,
+            long maxAgeInMS) {
+        return shared("tcp " + address.getHostAddress() + ":" + port, maxAgeInMS,
+                () -> connect(new InetSocketAddress(address, port), timeoutInMS));
+    }
+
+    /**
+     * Executes a blocking check, for example a native ping, on the bounded thread pool.
+     *
+     * @param key The key under which the check is shared, for example the check type and the host address
+     * @param timeoutInMS Timeout of the check in ms, counted from the start of its execution
+     * @param maxAgeInMS How old a shared result may be
+     * @param probe The check
+     * @return A future with the ping result. It completes with an empty result if the check did not return within
+     *         the timeout, and exceptionally if the check threw an exception.
+     */
+    public CompletableFuture<Optional<PingResult>> nativeProbe(String key, int timeoutInMS, long maxAgeInMS,
+            Callable<Optional<PingResult>> probe) {
+        return shared(key, maxAgeInMS, () -> {
+            CompletableFuture<Optional<PingResult>> result = new CompletableFuture<>();
+            nativeExecutor.execute(() -> {
+                nativeProbes.incrementAndGet();
+                // The native tools have their own timeout, this only guards against tools that hang
+                result.completeOnTimeout(Optional.empty(), timeoutInMS + TIMEOUT_GRACE_IN_MS, TimeUnit.MILLISECONDS);
+                try {
+                    result.complete(probe.call());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return result;
+        });
+    }
+
+    private CompletableFuture<Optional<PingResult>> shared(String key, long maxAgeInMS,
+            Supplier<CompletableFuture<Optional<PingResult>>> probe) {
+        requested.incrementAndGet();
+        long now = System.nanoTime();
+        long maxAgeInNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeInMS);
+        CachedProbe[] created = new CachedProbe[1];
+        CachedProbe cached = probes.compute(key, (k, existing) -> {
+            if (existing != null && existing.isUsable(now, maxAgeInNanos)) {
+                return existing;
+            }
+            CachedProbe newProbe = new CachedProbe(probe.get());
+            created[0] = newProbe;
+            return newProbe;
+        });
+        CachedProbe newProbe = created[0];
+        if (newProbe == null) {
+            reused.incrementAndGet();
+            return cached.result;
+        }
+        newProbe.result.whenComplete((result, e) -> newProbe.completedAt = System.nanoTime());
+        // Forget results that nobody can reuse anymore
+        probes.values().removeIf(p -> p.result.isDone() && now - p.completedAt > maxAgeInNanos);
+        return newProbe.result;
+    }
+
+    private CompletableFuture<Optional<PingResult>> connect(InetSocketAddress address, int timeoutInMS) {
+        connects.incrementAndGet();
+        CompletableFuture<Optional<PingResult>> result = new CompletableFuture<>();
+        double startTimeInMS = System.currentTimeMillis();
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            if (channel.connect(address)) {
+                closeQuietly(channel);
+                result.complete(Optional.of(new PingResult(true, System.currentTimeMillis() - startTimeInMS)));
+                return result;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+            register(new PendingConnect(channel, result, startTimeInMS, deadline));
+        } catch (ConnectException | NoRouteToHostException e) {
+            closeQuietly(channel);
+            result.complete(Optional.of(new PingResult(false, System.currentTimeMillis() - startTimeInMS)));
+        } catch (IOException e) {
+            closeQuietly(channel);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void register(PendingConnect connect) throws IOException {
+        synchronized (selectorLock) {
+            pendingConnects.add(connect);
+            Selector selector = this.selector;
+            if (selector == null) {
+                Selector newSelector = Selector.open();
+                this.selector = newSelector;
+                selectorThreadFactory.newThread(() -> select(newSelector)).start();
+            } else {
+                selector.wakeup();
+            }
+        }
+    }
+
+    private void select(Selector selector) {
+        while (true) {
+            PendingConnect connect;
+            while ((connect = pendingConnects.poll()) != null) {
+                try {
+                    connect.channel.register(selector, SelectionKey.OP_CONNECT, connect);
+                } catch (IOException e) {
+                    finish(connect, false);
+                }
+            }
+
+            long now = System.nanoTime();
+            long nextDeadline = Long.MAX_VALUE;
+            for (SelectionKey key : selector.keys()) {
+                PendingConnect pending = (PendingConnect) key.attachment();
+                if (!key.isValid() || pending == null) {
+                    continue;
+                }
+                if (pending.deadline - now <= 0) {
+                    key.cancel();
+                    finish(pending, false);
+                } else {
+                    nextDeadline = Math.min(nextDeadline, pending.deadline);
+                }
+            }
+
+            if (nextDeadline == Long.MAX_VALUE) {
+                synchronized (selectorLock) {
+                    if (pendingConnects.isEmpty()) {
+                        this.selector = null;
+                        try {
+                            selector.close();
+                        } catch (IOException ignored) {
+                        }
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            try {
+                selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadline - now)));
+            } catch (IOException e) {
+                logger.debug("Selecting pending connections failed: {}", e.getMessage());
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                PendingConnect pending = (PendingConnect) key.attachment();
+                if (pending == null) {
+                    continue;
+                }
+                key.cancel();
+                boolean success;
+                try {
+                    success = pending.channel.finishConnect();
+                } catch (IOException e) {
+                    success = false;
+                }
+                finish(pending, success);
+            }
+        }
+    }
+
+    private void finish(PendingConnect connect, boolean success) {
+        closeQuietly(connect.channel);
+        PingResult pingResult = new PingResult(success, System.currentTimeMillis() - connect.startTimeInMS);
+        // Do not run the callbacks of the presence detections on the selector thread, and do not queue them behind
+        // the native checks either
+        CompletableFuture.runAsync(() -> connect.result.complete(Optional.of(pingResult)));
+    }
+
+    private void closeQuietly(@Nullable SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkProber{requested=" + requested + ", reused=" + reused + ", nativeProbes=" + nativeProbes
+                + ", connects=" + connects + ", activeThreads=" + nativeExecutor.getActiveCount() + ", queued="
+                + nativeExecutor.getQueue().size() + "}";
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests cases for {@link ServiceSweep} against services on the loopback interface.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ServiceSweepTest {
+    private final List<String> reachable = new CopyOnWriteArrayList<>();
+
+    private final ServiceSweep.Listener listener = new ServiceSweep.Listener() {
+        @Override
+        public void serviceReachable(String host, int port) {
+            reachable.add(host + ":" + port);
+        }
+    };
+
+    private int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    public void reportsOnlyOpenServices() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            int openPort = server.getLocalPort();
+            int closedPort = closedPort();
+
+            ServiceSweep sweep = new ServiceSweep(List.of("127.0.0.1").iterator(), List.of(closedPort, openPort), 500,
+                    1000, 16);
+            sweep.run(listener);
+
+            assertEquals(List.of("127.0.0.1:" + openPort), reachable);
+            assertEquals(2, sweep.getAttempts());
+            assertEquals(1, sweep.getFound());
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    public void keepsManyAttemptsInFlight() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 500, InetAddress.getLoopbackAddress())) {
+            int openPort = server.getLocalPort();
+            List<String> hosts = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                hosts.add("127.0.0.1");
+            }
+
+            ServiceSweep sweep = new ServiceSweep(hosts.iterator(), List.of(openPort), 2000, 100000,
+                    ServiceSweep.MAX_PENDING_CONNECTIONS);
+            sweep.run(listener);
+
+            assertEquals(200, sweep.getAttempts());
+            assertEquals(200, reachable.size());
+            assertEquals(200, sweep.getFound());
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    public void respectsTheScanRate() throws IOException {
+        int closedPort = closedPort();
+        List<String> hosts = List.of("127.0.0.1", "127.0.0.1", "127.0.0.1", "127.0.0.1", "127.0.0.1",
+                "127.0.0.1");
+
+        // 6 hosts with one port each are 6 attempts, at 10 attempts per second that takes about half a second
+        ServiceSweep sweep = new ServiceSweep(hosts.iterator(), List.of(closedPort), 500, 10, 16);
+        long start = System.nanoTime();
+        sweep.run(listener);
+        long durationInMS = (System.nanoTime() - start) / 1000000;
+
+        assertTrue(durationInMS >= 400, "Sweep took only " + durationInMS + " ms");
+        assertEquals(6, sweep.getAttempts());
+        assertTrue(reachable.isEmpty());
+    }
+
+    @Test
+    @Timeout(10)
+    public void stopAbandonsTheSweep() throws Exception {
+        List<String> hosts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            hosts.add("127.0.0.1");
+        }
+        ServiceSweep sweep = new ServiceSweep(hosts.iterator(), List.of(closedPort()), 500, 10, 16);
+        Thread thread = new Thread(() -> {
+            try {
+                sweep.run(listener);
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+        thread.start();
+        Thread.sleep(200);
+        sweep.stop();
+        thread.join(2000);
+
+        assertFalse(thread.isAlive());
+        assertTrue(sweep.getAttempts() < 1000);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link NetworkProber}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class NetworkProberTest {
+
+    @Test
+    public void queuedProbeTimeoutStartsWhenProbeRuns() throws Exception {
+        NetworkProber prober = new NetworkProber(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Occupy the only thread for longer than the timeout of the next probe
+        CompletableFuture<Optional<PingResult>> blocking = prober.nativeProbe("icmp 10.0.0.1", 2000, 0, () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new PingResult(false, 1000));
+        });
+        CompletableFuture<Optional<PingResult>> queued = prober.nativeProbe("icmp 10.0.0.2", 100, 0,
+                () -> Optional.of(new PingResult(true, 1)));
+
+        Thread.sleep(300);
+        assertFalse(queued.isDone());
+        release.countDown();
+
+        Optional<PingResult> result = queued.get(5, TimeUnit.SECONDS);
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isSuccess());
+        assertFalse(blocking.get(5, TimeUnit.SECONDS).get().isSuccess());
+    }
+
+    @Test
+    public void hangingProbeTimesOutAfterItStarted() throws Exception {
+        NetworkProber prober = new NetworkProber(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Optional<PingResult>> hanging = prober.nativeProbe("icmp 10.0.0.3", 100, 0, () -> {
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.of(new PingResult(true, 1));
+            });
+            assertEquals(Optional.empty(), hanging.get(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void saturatedPoolSharesProbesOfTheSameHost() throws Exception {
+        NetworkProber prober = new NetworkProber(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        CompletableFuture<?>[] results = new CompletableFuture<?>[50];
+        for (int i = 0; i < results.length; i++) {
+            // 10 hosts, every host is requested 5 times while all threads are busy
+            results[i] = prober.nativeProbe("icmp 10.0.1." + (i % 10), 1000, 60000, () -> {
+                executions.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.of(new PingResult(true, 1));
+            });
+        }
+        release.countDown();
+        CompletableFuture.allOf(results).get(10, TimeUnit.SECONDS);
+
+        assertEquals(10, executions.get());
+        for (CompletableFuture<?> result : results) {
+            assertEquals(Optional.of(true), ((Optional<?>) result.get()).map(r -> ((PingResult) r).isSuccess()));
+        }
+    }
+
+    @Test
+    public void servicePingToListeningPortSucceeds() throws Exception {
+        NetworkProber prober = new NetworkProber(1);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Optional<PingResult> result = prober
+                    .servicePing(InetAddress.getLoopbackAddress(), server.getLocalPort(), 1000, 0)
+                    .get(5, TimeUnit.SECONDS);
+            assertTrue(result.isPresent());
+            assertTrue(result.get().isSuccess());
+        }
+    }
+
+    @Test
+    public void servicePingToClosedPortFails() throws Exception {
+        NetworkProber prober = new NetworkProber(1);
+        int port;
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            port = server.getLocalPort();
+        }
+        Optional<PingResult> result = prober.servicePing(InetAddress.getLoopbackAddress(), port, 1000, 0).get(5,
+                TimeUnit.SECONDS);
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isSuccess());
+    }
+
+    @Test
+    public void servicePingsAreNotDelayedBySaturatedPool() throws Exception {
+        NetworkProber prober = new NetworkProber(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            prober.nativeProbe("icmp 10.0.2.1", 5000, 0, () -> {
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.empty();
+            });
+            Optional<PingResult> result = prober
+                    .servicePing(InetAddress.getLoopbackAddress(), server.getLocalPort(), 1000, 0)
+                    .get(2, TimeUnit.SECONDS);
+            assertTrue(result.get().isSuccess());
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_TAG_GENERIC;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensor;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * The {@link ShellyCoIoTStatusDecoder} decodes the "G" array of CoIoT status messages, e.g.
+ * {"G":[[0,111,0.0],[0,112,1],[0,9103,"wifi"]]}
+ * directly from the JSON stream into a table of the last value per sensor id. The sensor objects are reused from
+ * packet to packet, so that only the sensors which changed since the previous packet need to be processed.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ShellyCoIoTStatusDecoder {
+    private int[] ids = new int[32];
+    private CoIotSensor[] sensors = new CoIotSensor[32];
+    private int size = 0;
+
+    private final List<CoIotSensor> current = new ArrayList<>();
+    private final List<CoIotSensor> changed = new ArrayList<>();
+    private final List<Object> arrayValue = new ArrayList<>();
+
+    /**
+     * Decode a status message. Malformed JSON as sent by some firmware releases is fixed up.
+     *
+     * @param payload The CoIoT status message
+     * @return false if the message does not contain a sensor list
+     * @throws JsonSyntaxException if the message could not be decoded
+     */
+    public boolean decode(String payload) {
+        try {
+            return decodeJson(payload);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // The values decoded so far may already be stored, force a full update
+            reset();
+            try {
+                return decodeJson(fixJSON(payload));
+            } catch (IOException | IllegalStateException | NumberFormatException e2) {
+                reset();
+                throw new JsonSyntaxException(e2);
+            }
+        }
+    }
+
+    /**
+     * Returns all sensors of the last message in the order of the message
+     */
+    public List<CoIotSensor> getSensors() {
+        return current;
+    }
+
+    /**
+     * Returns the sensors of the last message which value differs from the previous message
+     */
+    public List<CoIotSensor> getChangedSensors() {
+        return changed;
+    }
+
+    /**
+     * Forget the last values, the next message will report all sensors as changed
+     */
+    public void reset() {
+        Arrays.fill(sensors, 0, size, null);
+        size = 0;
+        current.clear();
+        changed.clear();
+    }
+
+    private boolean decodeJson(String payload) throws IOException {
+        current.clear();
+        changed.clear();
+        boolean found = false;
+        JsonReader in = new JsonReader(new StringReader(payload));
+        // Be as tolerant as Gson.fromJson(), which was used before
+        in.setLenient(true);
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!COIOT_TAG_GENERIC.equals(in.nextName())) {
+                in.skipValue();
+                continue;
+            }
+            found = true;
+            in.beginArray();
+            while (in.hasNext()) {
+                in.beginArray();
+                in.nextInt(); // always 0
+                int id = in.nextInt();
+                CoIotSensor sensor = getSensor(id, current.size());
+                boolean isNew = sensor.valueStr == null;
+                if (readValue(in, sensor) || isNew) {
+                    changed.add(sensor);
+                }
+                current.add(sensor);
+                while (in.hasNext()) {
+                    in.skipValue();
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+        in.endObject();
+        return found;
+    }
+
+    /**
+     * Reads the value into the sensor
+     *
+     * @return true if the value has changed
+     */
+    private boolean readValue(JsonReader in, CoIotSensor sensor) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.STRING) {
+            String value = in.nextString();
+            boolean modified = !value.equals(sensor.valueStr) || sensor.valueArray != null;
+            sensor.valueStr = value;
+            sensor.value = -1;
+            sensor.valueArray = null;
+            return modified;
+        } else if (token == JsonToken.NUMBER) {
+            double value = in.nextDouble();
+            boolean modified = Double.compare(value, sensor.value) != 0 || !"".equals(sensor.valueStr)
+                    || sensor.valueArray != null;
+            sensor.value = value;
+            sensor.valueStr = "";
+            sensor.valueArray = null;
+            return modified;
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            arrayValue.clear();
+            in.beginArray();
+            while (in.hasNext()) {
+                if (in.peek() == JsonToken.STRING) {
+                    arrayValue.add(in.nextString());
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endArray();
+            boolean modified = !Objects.equals(arrayValue, sensor.valueArray);
+            if (modified) {
+                sensor.valueArray = new ArrayList<>(arrayValue);
+            }
+            if (sensor.valueStr == null) {
+                sensor.valueStr = "";
+            }
+            return modified;
+        }
+        in.skipValue();
+        return false;
+    }
+
+    /**
+     * Returns the table entry for a sensor id. Devices send their sensors in the same order with every message, so
+     * the position in the message is checked first.
+     */
+    private CoIotSensor getSensor(int id, int position) {
+        if (position < size && ids[position] == id) {
+            return sensors[position];
+        }
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return sensors[i];
+            }
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            sensors = Arrays.copyOf(sensors, size * 2);
+        }
+        CoIotSensor sensor = new CoIotSensor();
+        sensor.id = Integer.toString(id);
+        ids[size] = id;
+        sensors[size] = sensor;
+        size++;
+        return sensor;
+    }
+
+    /**
+     * Fix malformed JSON - stupid, but the devices sometimes return malformed JSON with then causes a
+     * JsonSyntaxException
+     *
+     * @param json to be checked/fixed
+     */
+    static String fixJSON(String payload) {
+        String json = payload;
+        json = json.replace("}{", "},{");
+        json = json.replace("][", "],[");
+        json = json.replace("],,[", "],[");
+        return json;
+    }
+}
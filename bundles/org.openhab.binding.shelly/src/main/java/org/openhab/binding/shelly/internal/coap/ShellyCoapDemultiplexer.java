@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_OPTION_GLOBAL_DEVID;
+import static org.openhab.binding.shelly.internal.util.ShellyUtils.substringBetween;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.californium.core.coap.Option;
+import org.eclipse.californium.core.coap.Response;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ShellyCoapDemultiplexer} dispatches inbound CoIoT packets to the listener of the sending device. Listeners
+ * are indexed by device IP and MAC address. A packet is matched by the IP of its sender first, the global device id
+ * option (format: &lt;device type&gt;#&lt;mac address&gt;#&lt;coap version&gt;) is only decoded if the IP is unknown,
+ * e.g. when the thing is configured with a host name. A device found by its id is then indexed by its IP as well.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ShellyCoapDemultiplexer {
+    private final Logger logger = LoggerFactory.getLogger(ShellyCoapDemultiplexer.class);
+
+    private final Map<String, ShellyCoapListener> listenersByIp = new ConcurrentHashMap<>();
+    private final Map<String, ShellyCoapListener> listenersByMac = new ConcurrentHashMap<>();
+    private final Map<String, DeviceCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Packet counters for a sending device
+     */
+    public static class DeviceCounters {
+        public final AtomicLong packets = new AtomicLong();
+        public final AtomicLong drops = new AtomicLong();
+
+        @Override
+        public String toString() {
+            return "packets=" + packets.get() + ", drops=" + drops.get();
+        }
+    }
+
+    /**
+     * Registers a listener for a device.
+     *
+     * @param deviceIp IP address of the device
+     * @param mac MAC address of the device, empty if not known yet
+     * @param listener The listener, which receives the device's packets
+     */
+    public void register(String deviceIp, String mac, ShellyCoapListener listener) {
+        unregister(listener);
+        listenersByIp.put(deviceIp, listener);
+        String key = normalizeMac(mac);
+        if (!key.isEmpty()) {
+            listenersByMac.put(key, listener);
+        }
+    }
+
+    public void unregister(ShellyCoapListener listener) {
+        listenersByIp.values().removeIf(l -> l == listener);
+        listenersByMac.values().removeIf(l -> l == listener);
+    }
+
+    public boolean isEmpty() {
+        return listenersByIp.isEmpty();
+    }
+
+    public void clear() {
+        listenersByIp.clear();
+        listenersByMac.clear();
+    }
+
+    /**
+     * Passes the packet to the listener of the sending device.
+     *
+     * @param response The CoIoT packet
+     * @return true if a listener was found
+     */
+    public boolean dispatch(Response response) {
+        InetSocketAddress peer = response.getSourceContext().getPeerAddress();
+        String ip = peer.getAddress() != null ? peer.getAddress().getHostAddress() : peer.getHostString();
+        DeviceCounters deviceCounters = counters.computeIfAbsent(ip, k -> new DeviceCounters());
+        deviceCounters.packets.incrementAndGet();
+
+        ShellyCoapListener listener = listenersByIp.get(ip);
+        if (listener == null) {
+            listener = findByDeviceId(response);
+            if (listener != null) {
+                logger.debug("CoIoT packets from {} are routed by device id", ip);
+                listenersByIp.put(ip, listener);
+            }
+        }
+        if (listener == null) {
+            if (deviceCounters.drops.getAndIncrement() == 0) {
+                logger.debug("CoIoT packet from {} ignored, no thing is configured for this device", ip);
+            }
+            return false;
+        }
+        listener.processResponse(response);
+        return true;
+    }
+
+    /**
+     * Returns the counters by IP address of the sending devices
+     */
+    public Map<String, DeviceCounters> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    public @Nullable DeviceCounters getCounters(String deviceIp) {
+        return counters.get(deviceIp);
+    }
+
+    private @Nullable ShellyCoapListener findByDeviceId(Response response) {
+        if (listenersByMac.isEmpty()) {
+            return null;
+        }
+        for (Option opt : response.getOptions().getOthers()) {
+            if (opt.getNumber() == COIOT_OPTION_GLOBAL_DEVID) {
+                String devid = opt.getStringValue();
+                if (!devid.contains("#")) {
+                    return null;
+                }
+                String macid = normalizeMac(substringBetween(devid, "#", "#"));
+                if (macid.isEmpty()) {
+                    return null;
+                }
+                ShellyCoapListener listener = listenersByMac.get(macid);
+                if (listener == null) {
+                    // some devices report only a part of the MAC
+                    for (Map.Entry<String, ShellyCoapListener> entry : listenersByMac.entrySet()) {
+                        if (entry.getKey().contains(macid)) {
+                            return entry.getValue();
+                        }
+                    }
+                }
+                return listener;
+            }
+        }
+        return null;
+    }
+
+    private static String normalizeMac(String mac) {
+        return mac.replace(":", "").toUpperCase();
+    }
+}
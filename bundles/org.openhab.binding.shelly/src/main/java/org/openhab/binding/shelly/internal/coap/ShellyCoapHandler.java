@@ -65,6 +65,7 @@ import com.google.gson.JsonSyntaxException;
 @NonNullByDefault
 public class ShellyCoapHandler implements ShellyCoapListener {
     private static final byte[] EMPTY_BYTE = new byte[0];
+    private static final long FULL_UPDATE_INTERVAL_MS = 60 * 1000;
 
     private final Logger logger = LoggerFactory.getLogger(ShellyCoapHandler.class);
     private final ShellyBaseHandler thingHandler;
@@ -88,6 +89,8 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     private long coiotErrors = 0;
     private int lastSerial = -1;
     private String lastPayload = "";
+    private long lastFullUpdate = 0;
+    private final ShellyCoIoTStatusDecoder statusDecoder = new ShellyCoIoTStatusDecoder();
     private Map<String, CoIotDescrBlk> blkMap = new LinkedHashMap<>();
     private Map<String, CoIotDescrSen> sensorMap = new LinkedHashMap<>();
     private ShellyDeviceProfile profile;
@@ -128,7 +131,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                 String ps = substringAfter(profile.coiotEndpoint, ":");
                 coiotPort = Integer.parseInt(ps);
             }
-            coapServer.start(config.localIp, coiotPort, this);
+            coapServer.start(config.localIp, coiotPort, config.deviceIp, profile.mac, this);
             statusClient = new CoapClient(completeUrl(config.deviceIp, coiotPort, COLOIT_URI_DEVSTATUS))
                     .setTimeout((long) SHELLY_API_TIMEOUT_MS).useNONs().setEndpoint(coapServer.getEndpoint());
             @Nullable
@@ -175,30 +178,8 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             return;
         }
 
+        // The ShellyCoapServer passes only packets sent by this device
         List<Option> options = response.getOptions().asSortedList();
-        String ip = response.getSourceContext().getPeerAddress().toString();
-        boolean match = ip.contains(config.deviceIp);
-        if (!match) {
-            // We can't identify device by IP, so we need to check the CoAP header's Global Device ID
-            for (Option opt : options) {
-                if (opt.getNumber() == COIOT_OPTION_GLOBAL_DEVID) {
-                    String devid = opt.getStringValue();
-                    if (devid.contains("#")) {
-                        // Format: <device type>#<mac address>#<coap version>
-                        String macid = substringBetween(devid, "#", "#");
-                        if (profile.mac.toUpperCase().contains(macid.toUpperCase())) {
-                            match = true;
-                            break;
-                        }
-                    }
-                }
-            }
-        }
-        if (!match) {
-            // other instance
-            return;
-        }
-
         String payload = "";
         String devId = "";
         String uri = "";
@@ -272,12 +253,9 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                 return;
             }
 
-            // fixed malformed JSON :-(
-            payload = fixJSON(payload);
-
             try {
                 if (uri.equalsIgnoreCase(COLOIT_URI_DEVDESC) || (uri.isEmpty() && payload.contains(COIOT_TAG_BLK))) {
-                    handleDeviceDescription(devId, payload);
+                    handleDeviceDescription(devId, ShellyCoIoTStatusDecoder.fixJSON(payload));
                 } else if (uri.equalsIgnoreCase(COLOIT_URI_DEVSTATUS)
                         || (uri.isEmpty() && payload.contains(COIOT_TAG_GENERIC))) {
                     handleStatusUpdate(devId, payload, serial);
@@ -428,49 +406,66 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             handleDeviceDescription(devId, savedDescr);
         }
 
-        // Parse Json,
-        CoIotGenericSensorList list = fromJson(gson, fixJSON(payload), CoIotGenericSensorList.class);
-        if (list.generic == null) {
-            logger.debug("{}: Sensor list has invalid format! Payload: {}", devId, payload);
-            return;
-        }
-
-        List<CoIotSensor> sensorUpdates = list.generic;
         Map<String, State> updates = new TreeMap<String, State>();
-        logger.debug("{}: {} CoAP sensor updates received", thingName, sensorUpdates.size());
-        int failed = 0;
         ShellyColorUtils col = new ShellyColorUtils();
-        for (int i = 0; i < sensorUpdates.size(); i++) {
-            try {
-                CoIotSensor s = sensorUpdates.get(i);
-                CoIotDescrSen sen = sensorMap.get(s.id);
-                if (sen == null) {
-                    logger.debug("{}: Unable to sensor definition for id={}, payload={}", thingName, s.id, payload);
-                    continue;
-                }
-                // find matching sensor definition from device description, use the Link ID as index
-                CoIotDescrBlk element = null;
-                sen = coiot.fixDescription(sen, blkMap);
-                element = blkMap.get(sen.links);
-                if (element == null) {
-                    logger.debug("{}: Unable to find BLK for link {} from sen.id={}, payload={}", thingName, sen.links,
-                            sen.id, payload);
-                    continue;
-                }
-                logger.trace("{}:  Sensor value[{}]: id={}, Value={} ({}, Type={}, Range={}, Link={}: {})", thingName,
-                        i, s.id, getString(s.valueStr).isEmpty() ? s.value : s.valueStr, sen.desc, sen.type, sen.range,
-                        sen.links, element.desc);
+        int failed = 0;
+        int sensorCount;
+        // Messages are delivered by the CoAP server and by the observer of the status request, possibly at the same
+        // time. The decoder reuses its sensor objects and lists, so decoding and processing must not overlap.
+        synchronized (statusDecoder) {
+            // Decode the sensor values, the decoder keeps the values of the previous message
+            if (!statusDecoder.decode(payload)) {
+                logger.debug("{}: Sensor list has invalid format! Payload: {}", devId, payload);
+                return;
+            }
+
+            // Lights and dimmers need all values to update combined channels (e.g. color and brightness), battery
+            // devices report after a wake-up. All other devices process only changed values, e.g. the power meters
+            // of a Shelly EM/3EM. A full update is still done once a minute in case a channel was updated by other
+            // means.
+            List<CoIotSensor> allSensors = statusDecoder.getSensors();
+            List<CoIotSensor> sensorUpdates = statusDecoder.getChangedSensors();
+            long now = System.currentTimeMillis();
+            if (profile.isLight || profile.isDimmer || profile.hasBattery
+                    || (now - lastFullUpdate > FULL_UPDATE_INTERVAL_MS)) {
+                sensorUpdates = allSensors;
+                lastFullUpdate = now;
+            }
+            logger.debug("{}: {} of {} CoAP sensor values changed", thingName, sensorUpdates.size(), allSensors.size());
+            for (int i = 0; i < sensorUpdates.size(); i++) {
+                try {
+                    CoIotSensor s = sensorUpdates.get(i);
+                    CoIotDescrSen sen = sensorMap.get(s.id);
+                    if (sen == null) {
+                        logger.debug("{}: Unable to sensor definition for id={}, payload={}", thingName, s.id,
+                                payload);
+                        continue;
+                    }
+                    // find matching sensor definition from device description, use the Link ID as index
+                    CoIotDescrBlk element = null;
+                    sen = coiot.fixDescription(sen, blkMap);
+                    element = blkMap.get(sen.links);
+                    if (element == null) {
+                        logger.debug("{}: Unable to find BLK for link {} from sen.id={}, payload={}", thingName,
+                                sen.links, sen.id, payload);
+                        continue;
+                    }
+                    logger.trace("{}:  Sensor value[{}]: id={}, Value={} ({}, Type={}, Range={}, Link={}: {})",
+                            thingName, i, s.id, getString(s.valueStr).isEmpty() ? s.value : s.valueStr, sen.desc,
+                            sen.type, sen.range, sen.links, element.desc);
 
-                if (!coiot.handleStatusUpdate(sensorUpdates, sen, serial, s, updates, col)) {
-                    logger.debug("{}: CoIoT data for id {}, type {}/{} not processed, value={}; payload={}", thingName,
-                            sen.id, sen.type, sen.desc, s.value, payload);
+                    if (!coiot.handleStatusUpdate(allSensors, sen, serial, s, updates, col)) {
+                        logger.debug("{}: CoIoT data for id {}, type {}/{} not processed, value={}; payload={}",
+                                thingName, sen.id, sen.type, sen.desc, s.value, payload);
+                    }
+                } catch (NullPointerException | IllegalArgumentException e) {
+                    // even the processing of one value failed we continue with the next one (sometimes this is caused
+                    // by buggy formats provided by the device
+                    logger.debug("{}: Unable to process data from sensor[{}], devId={}, payload={}", thingName, i,
+                            devId, payload, e);
                 }
-            } catch (NullPointerException | IllegalArgumentException e) {
-                // even the processing of one value failed we continue with the next one (sometimes this is caused by
-                // buggy formats provided by the device
-                logger.debug("{}: Unable to process data from sensor[{}], devId={}, payload={}", thingName, i, devId,
-                        payload, e);
             }
+            sensorCount = allSensors.size();
         }
 
         if (!updates.isEmpty()) {
@@ -529,7 +524,8 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                 thingHandler.requestUpdates(1, false);
             }
         } else {
-            if (failed == sensorUpdates.size()) {
+            // All sensors of the message, not only the changed ones, failed to map
+            if (failed == sensorCount) {
                 logger.debug("{}: Device description problem detected, re-discover", thingName);
                 coiotBound = false;
                 discover();
@@ -560,20 +556,6 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         reqDescription = sendRequest(reqDescription, config.deviceIp, COLOIT_URI_DEVDESC, Type.CON);
     }
 
-    /**
-     * Fix malformed JSON - stupid, but the devices sometimes return malformed JSON with then causes a
-     * JsonSyntaxException
-     *
-     * @param json to be checked/fixed
-     */
-    private static String fixJSON(String payload) {
-        String json = payload;
-        json = json.replace("}{", "},{");
-        json = json.replace("][", "],[");
-        json = json.replace("],,[", "],[");
-        return json;
-    }
-
     /**
      * Send a new request (Discovery to get Device Description). Before a pending
      * request will be canceled.
@@ -638,6 +620,9 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     private void resetSerial() {
         lastSerial = -1;
         lastPayload = "";
+        synchronized (statusDecoder) {
+            statusDecoder.reset();
+        }
     }
 
     public int getVersion() {
@@ -18,8 +18,6 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.californium.core.CoapResource;
 import org.eclipse.californium.core.CoapServer;
@@ -38,7 +36,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The {@link ShellyCoapServer} implements the UDP listener and status event processor (for /cit/s messages)
+ * The {@link ShellyCoapServer} implements the UDP listener and status event processor (for /cit/s messages). Each
+ * packet is passed to the listener of the sending device only, see {@link ShellyCoapDemultiplexer}.
  *
  * @author Markus Michels - Initial contribution
  */
@@ -50,7 +49,7 @@ public class ShellyCoapServer {
     private CoapEndpoint statusEndpoint = new CoapEndpoint.Builder().build();
     private @Nullable UdpMulticastConnector statusConnector;
     private CoapServer server = new CoapServer(NetworkConfig.getStandard(), COIOT_PORT);
-    private final Set<ShellyCoapListener> coapListeners = ConcurrentHashMap.newKeySet();
+    private final ShellyCoapDemultiplexer coapListeners = new ShellyCoapDemultiplexer();
 
     protected class ShellyStatusListener extends CoapResource {
         private ShellyCoapServer listener;
@@ -78,8 +77,17 @@ public class ShellyCoapServer {
         }
     }
 
-    public synchronized void start(String localIp, int port, ShellyCoapListener listener)
-            throws UnknownHostException, SocketException {
+    /**
+     * Start the listener (if not already running) and register a device
+     *
+     * @param localIp Local IP the listener binds to
+     * @param port CoIoT port
+     * @param deviceIp IP address or host name of the device
+     * @param mac MAC address of the device, empty if unknown
+     * @param listener Listener receiving the packets of this device
+     */
+    public synchronized void start(String localIp, int port, String deviceIp, String mac,
+            ShellyCoapListener listener) throws UnknownHostException, SocketException {
         if (!started) {
             logger.debug("Initializing CoIoT listener (local IP={}:{})", localIp, port);
             NetworkConfig nc = NetworkConfig.getStandard();
@@ -98,13 +106,15 @@ public class ShellyCoapServer {
             started = true;
         }
 
-        if (!coapListeners.contains(listener)) {
-            coapListeners.add(listener);
-        }
+        coapListeners.register(InetAddress.getByName(deviceIp).getHostAddress(), mac, listener);
     }
 
     protected void processResponse(Response response) {
-        coapListeners.forEach(listener -> listener.processResponse(response));
+        coapListeners.dispatch(response);
+    }
+
+    public ShellyCoapDemultiplexer getDemultiplexer() {
+        return coapListeners;
     }
 
     public static Response createResponse(Request request) {
@@ -126,7 +136,7 @@ public class ShellyCoapServer {
      * Cancel pending requests and shutdown the client
      */
     public void stop(ShellyCoapListener listener) {
-        coapListeners.remove(listener);
+        coapListeners.unregister(listener);
         if (coapListeners.isEmpty()) {
             stop();
         }
@@ -139,7 +149,7 @@ public class ShellyCoapServer {
             statusEndpoint.stop();
             coapListeners.clear();
             started = false;
-            logger.debug("CoAP Listener stopped");
+            logger.debug("CoAP Listener stopped, packets by device: {}", coapListeners.getCounters());
         }
     }
 
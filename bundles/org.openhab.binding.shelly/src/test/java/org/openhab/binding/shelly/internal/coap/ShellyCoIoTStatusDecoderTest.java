@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensor;
+
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * Tests for {@link ShellyCoIoTStatusDecoder}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ShellyCoIoTStatusDecoderTest {
+    private final ShellyCoIoTStatusDecoder decoder = new ShellyCoIoTStatusDecoder();
+
+    private static List<String> ids(List<CoIotSensor> sensors) {
+        List<String> ids = new ArrayList<>();
+        for (CoIotSensor sensor : sensors) {
+            ids.add(sensor.id);
+        }
+        return ids;
+    }
+
+    @Test
+    public void decodesNumbersAndStrings() {
+        assertTrue(decoder.decode("{\"G\":[[0,111,0.5],[0,112,1],[0,9103,\"wifi\"]]}"));
+
+        List<CoIotSensor> sensors = decoder.getSensors();
+        assertEquals(List.of("111", "112", "9103"), ids(sensors));
+        assertEquals(0.5, sensors.get(0).value);
+        assertEquals("", sensors.get(0).valueStr);
+        assertEquals(1.0, sensors.get(1).value);
+        assertEquals("wifi", sensors.get(2).valueStr);
+        assertEquals(-1.0, sensors.get(2).value);
+    }
+
+    @Test
+    public void messageWithoutSensorList() {
+        assertFalse(decoder.decode("{\"blk\":[]}"));
+        assertTrue(decoder.getSensors().isEmpty());
+    }
+
+    @Test
+    public void fixesMalformedJson() {
+        assertTrue(decoder.decode("{\"G\":[[0,111,1][0,112,0],,[0,113,\"x\"]]}"));
+        assertEquals(List.of("111", "112", "113"), ids(decoder.getSensors()));
+        assertEquals(List.of("111", "112", "113"), ids(decoder.getChangedSensors()));
+    }
+
+    @Test
+    public void fixJSON() {
+        assertEquals("{\"G\":[[0,1,2],[0,3,4],[0,5,6]]}",
+                ShellyCoIoTStatusDecoder.fixJSON("{\"G\":[[0,1,2][0,3,4],,[0,5,6]]}"));
+        assertEquals("[{},{}]", ShellyCoIoTStatusDecoder.fixJSON("[{}{}]"));
+    }
+
+    @Test
+    public void parsesLeniently() {
+        assertTrue(decoder.decode("{G:[[0,111,1],[0,9103,wifi]]}"));
+        assertEquals("wifi", decoder.getSensors().get(1).valueStr);
+    }
+
+    @Test
+    public void invalidMessage() {
+        decoder.decode("{\"G\":[[0,111,1]]}");
+
+        assertThrows(JsonSyntaxException.class, () -> decoder.decode("{\"G\":[[0,111,1"));
+        assertTrue(decoder.getSensors().isEmpty());
+
+        // the table was reset, the next message reports every value
+        decoder.decode("{\"G\":[[0,111,1]]}");
+        assertEquals(List.of("111"), ids(decoder.getChangedSensors()));
+    }
+
+    @Test
+    public void decodesArrayValues() {
+        decoder.decode("{\"G\":[[0,118,[\"S\",2,\"L\"]]]}");
+
+        CoIotSensor sensor = decoder.getSensors().get(0);
+        assertEquals(List.of("S", "L"), sensor.valueArray);
+        assertEquals("", sensor.valueStr);
+        assertEquals(List.of("118"), ids(decoder.getChangedSensors()));
+
+        decoder.decode("{\"G\":[[0,118,[\"S\",2,\"L\"]]]}");
+        assertTrue(decoder.getChangedSensors().isEmpty());
+
+        decoder.decode("{\"G\":[[0,118,[\"S\"]]]}");
+        assertEquals(List.of("118"), ids(decoder.getChangedSensors()));
+        assertEquals(List.of("S"), decoder.getSensors().get(0).valueArray);
+    }
+
+    @Test
+    public void reportsOnlyChangedValues() {
+        decoder.decode("{\"G\":[[0,111,0.5],[0,112,1],[0,9103,\"wifi\"]]}");
+        assertEquals(List.of("111", "112", "9103"), ids(decoder.getChangedSensors()));
+        CoIotSensor power = decoder.getSensors().get(0);
+
+        decoder.decode("{\"G\":[[0,111,0.7],[0,112,1],[0,9103,\"wifi\"]]}");
+        assertEquals(List.of("111", "112", "9103"), ids(decoder.getSensors()));
+        assertEquals(List.of("111"), ids(decoder.getChangedSensors()));
+        assertSame(power, decoder.getSensors().get(0));
+        assertEquals(0.7, power.value);
+
+        // a value changing its type is a change, even if the number is the same
+        decoder.decode("{\"G\":[[0,111,0.7],[0,112,\"1\"],[0,9103,\"wifi\"]]}");
+        assertEquals(List.of("112"), ids(decoder.getChangedSensors()));
+
+        // sensors in a different order and a new sensor
+        decoder.decode("{\"G\":[[0,9103,\"lan\"],[0,120,0],[0,111,0.7]]}");
+        assertEquals(List.of("9103", "120", "111"), ids(decoder.getSensors()));
+        assertEquals(List.of("9103", "120"), ids(decoder.getChangedSensors()));
+    }
+
+    @Test
+    public void resetReportsAllValuesAgain() {
+        decoder.decode("{\"G\":[[0,111,0.5],[0,112,1]]}");
+        decoder.decode("{\"G\":[[0,111,0.5],[0,112,1]]}");
+        assertTrue(decoder.getChangedSensors().isEmpty());
+
+        decoder.reset();
+        assertTrue(decoder.getSensors().isEmpty());
+        assertTrue(decoder.getChangedSensors().isEmpty());
+
+        decoder.decode("{\"G\":[[0,111,0.5],[0,112,1]]}");
+        assertEquals(List.of("111", "112"), ids(decoder.getChangedSensors()));
+    }
+}
@@ -13,12 +13,14 @@
 package org.openhab.binding.sonos.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,6 +60,30 @@ public class SonosXMLParser {
                     + "<desc id=\"cdudn\" nameSpace=\"urn:schemas-rinconnetworks-com:metadata-1-0/\">" + "{4}</desc>"
                     + "</item></DIDL-Lite>");
 
+    private static final int METADATA_CACHE_SIZE = 64;
+
+    /**
+     * Parsed DIDL-Lite meta data, keyed by the raw XML. The cache is shared by all zone players, so that the identical
+     * track meta data evented by all members of a group is only parsed once.
+     */
+    private static final Map<String, SonosMetaData> METADATA_CACHE = new LinkedHashMap<String, SonosMetaData>(
+            METADATA_CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, SonosMetaData> eldest) {
+            return size() > METADATA_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * SAX readers are expensive to create and are therefore kept per thread and reused. A reader is taken out of the
+     * pool while it is in use, so that a handler which parses nested XML gets a reader of its own.
+     */
+    private static final ThreadLocal<@Nullable XMLReader> READERS = new ThreadLocal<>();
+    private static final ThreadLocal<@Nullable XMLReader> RESTRICTED_READERS = new ThreadLocal<>();
+    private static final DefaultHandler NO_CONTENT_HANDLER = new DefaultHandler();
+
     private enum Element {
         TITLE,
         CLASS,
@@ -83,6 +109,45 @@ public class SonosXMLParser {
         desc
     }
 
+    private static void parse(String xml, DefaultHandler handler) throws IOException, SAXException {
+        parse(new InputSource(new StringReader(xml)), handler, false);
+    }
+
+    /**
+     * Parses the given input with a pooled SAX reader.
+     *
+     * @param source the input to parse
+     * @param handler the handler receiving the SAX events
+     * @param disallowDoctype true to use a reader that rejects DOCTYPE declarations
+     * @throws IOException
+     * @throws SAXException
+     */
+    private static void parse(InputSource source, DefaultHandler handler, boolean disallowDoctype)
+            throws IOException, SAXException {
+        ThreadLocal<@Nullable XMLReader> pool = disallowDoctype ? RESTRICTED_READERS : READERS;
+        XMLReader reader = pool.get();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+            if (disallowDoctype) {
+                reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            }
+        } else {
+            pool.remove();
+        }
+        reader.setContentHandler(handler);
+        boolean reusable = false;
+        try {
+            reader.parse(source);
+            reusable = true;
+        } finally {
+            // Do not keep the handler reachable, and only reuse readers which completed their parse
+            reader.setContentHandler(NO_CONTENT_HANDLER);
+            if (reusable) {
+                pool.set(reader);
+            }
+        }
+    }
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -92,9 +157,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -112,9 +175,7 @@ public class SonosXMLParser {
     public static List<SonosEntry> getEntriesFromString(String xml) {
         EntryHandler handler = new EntryHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
@@ -133,12 +194,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static @Nullable SonosResourceMetaData getResourceMetaData(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
-        reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
         ResourceMetaDataHandler handler = new ResourceMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(new InputSource(new StringReader(xml)), handler, true);
         } catch (IOException e) {
             LOGGER.error("Could not parse Resource MetaData from String '{}'", xml);
         } catch (SAXException s) {
@@ -157,9 +215,7 @@ public class SonosXMLParser {
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
@@ -173,9 +229,7 @@ public class SonosXMLParser {
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -189,9 +243,7 @@ public class SonosXMLParser {
     public static Map<String, String> getRenderingControlFromXML(String xml) {
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
@@ -204,9 +256,7 @@ public class SonosXMLParser {
     public static Map<String, String> getAVTransportFromXML(String xml) {
         AVTransportEventHandler handler = new AVTransportEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
@@ -216,28 +266,44 @@ public class SonosXMLParser {
         return handler.getChanges();
     }
 
+    /**
+     * Returns the meta data of the given DIDL-Lite xml. The result is immutable and may be served from a cache of
+     * recently parsed meta data.
+     *
+     * @param xml
+     * @return the meta data from the given xml
+     */
     public static SonosMetaData getMetaDataFromXML(String xml) {
+        synchronized (METADATA_CACHE) {
+            SonosMetaData metaData = METADATA_CACHE.get(xml);
+            if (metaData != null) {
+                return metaData;
+            }
+        }
+
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
+            return handler.getMetaData();
         } catch (SAXException s) {
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
+            return handler.getMetaData();
         }
 
-        return handler.getMetaData();
+        SonosMetaData metaData = handler.getMetaData();
+        synchronized (METADATA_CACHE) {
+            METADATA_CACHE.put(xml, metaData);
+        }
+        return metaData;
     }
 
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -936,10 +1002,10 @@ public class SonosXMLParser {
     public static @Nullable String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            try (InputStream stream = url.openStream()) {
+                parse(new InputSource(stream), roomNameHandler, false);
+            }
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -975,10 +1041,10 @@ public class SonosXMLParser {
     public static @Nullable String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            try (InputStream stream = url.openStream()) {
+                parse(new InputSource(stream), modelNameHandler, false);
+            }
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
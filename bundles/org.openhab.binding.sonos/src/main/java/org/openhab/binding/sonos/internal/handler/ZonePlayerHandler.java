@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -181,6 +182,11 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
     private final Map<String, String> stateMap = Collections.synchronizedMap(new HashMap<>());
 
+    /**
+     * Last parsed meta data per state variable, so that unchanged meta data is not parsed again
+     */
+    private final Map<String, ParsedMetaData> parsedMetaData = new ConcurrentHashMap<>();
+
     private @Nullable ScheduledFuture<?> pollingJob;
     private @Nullable SonosZonePlayerState savedState;
 
@@ -1380,18 +1386,38 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     public @Nullable SonosMetaData getCurrentURIMetadata() {
-        String metaData = getCurrentURIMetadataAsString();
-        return metaData != null && !metaData.isEmpty() ? SonosXMLParser.getMetaDataFromXML(metaData) : null;
+        return getMetaData("CurrentURIMetaData");
     }
 
     public @Nullable SonosMetaData getTrackMetadata() {
-        String metaData = stateMap.get("CurrentTrackMetaData");
-        return metaData != null && !metaData.isEmpty() ? SonosXMLParser.getMetaDataFromXML(metaData) : null;
+        return getMetaData("CurrentTrackMetaData");
     }
 
     public @Nullable SonosMetaData getEnqueuedTransportURIMetaData() {
-        String metaData = stateMap.get("EnqueuedTransportURIMetaData");
-        return metaData != null && !metaData.isEmpty() ? SonosXMLParser.getMetaDataFromXML(metaData) : null;
+        return getMetaData("EnqueuedTransportURIMetaData");
+    }
+
+    private @Nullable SonosMetaData getMetaData(String variable) {
+        String metaData = stateMap.get(variable);
+        if (metaData == null || metaData.isEmpty()) {
+            return null;
+        }
+        ParsedMetaData parsed = parsedMetaData.get(variable);
+        if (parsed == null || !parsed.xml.equals(metaData)) {
+            parsed = new ParsedMetaData(metaData, SonosXMLParser.getMetaDataFromXML(metaData));
+            parsedMetaData.put(variable, parsed);
+        }
+        return parsed.metaData;
+    }
+
+    private static class ParsedMetaData {
+        private final String xml;
+        private final SonosMetaData metaData;
+
+        private ParsedMetaData(String xml, SonosMetaData metaData) {
+            this.xml = xml;
+            this.metaData = metaData;
+        }
     }
 
     public @Nullable String getMACAddress() {
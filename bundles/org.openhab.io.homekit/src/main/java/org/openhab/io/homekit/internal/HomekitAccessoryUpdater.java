@@ -12,10 +12,16 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.StateChangeListener;
@@ -31,11 +37,38 @@ import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
  * HomeKit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * State changes are coalesced per characteristic: the first change within the configured notification delay
+ * schedules a single notification, further changes within that window are folded into it. As HomeKit reads the
+ * current item state when it is notified, clients always receive the latest value. Lock and security system
+ * characteristics bypass the coalescing and are notified immediately. There is no additional limit per accessory, an
+ * accessory with several changing characteristics sends one notification per characteristic and window.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitAccessoryUpdater {
+    private static final Set<String> PRIORITY_CHARACTERISTICS = Set.of(
+            HomekitCharacteristicType.LOCK_CURRENT_STATE.getTag(), HomekitCharacteristicType.LOCK_TARGET_STATE.getTag(),
+            HomekitCharacteristicType.SECURITY_SYSTEM_CURRENT_STATE.getTag(),
+            HomekitCharacteristicType.SECURITY_SYSTEM_TARGET_STATE.getTag());
+
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile long notificationDelayMs;
+
+    /**
+     * @param scheduler scheduler used to send coalesced notifications
+     * @param notificationDelayMs time window in milliseconds in which changes of a characteristic are coalesced. 0
+     *            disables coalescing.
+     */
+    public HomekitAccessoryUpdater(ScheduledExecutorService scheduler, long notificationDelayMs) {
+        this.scheduler = scheduler;
+        this.notificationDelayMs = Math.max(0, notificationDelayMs);
+    }
+
+    public void setNotificationDelay(long notificationDelayMs) {
+        this.notificationDelayMs = Math.max(0, notificationDelayMs);
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -57,7 +90,8 @@ public class HomekitAccessoryUpdater {
                 unsubscribe(item, key);
             }
             logger.trace("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(itemKey, callback,
+                    key != null && PRIORITY_CHARACTERISTICS.contains(key));
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -74,21 +108,56 @@ public class HomekitAccessoryUpdater {
         subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
             logger.trace("Removing existing subscription for {} / {}", item, key);
             item.removeStateChangeListener(v);
+            v.cancel();
             return null;
         });
     }
 
-    @FunctionalInterface
     @NonNullByDefault
-    private interface Subscription extends StateChangeListener {
+    private class Subscription implements StateChangeListener {
+        private final ItemKey itemKey;
+        private final HomekitCharacteristicChangeCallback callback;
+        private final boolean priority;
+        private final AtomicBoolean pending = new AtomicBoolean(false);
+        private @Nullable ScheduledFuture<?> notificationJob;
+
+        Subscription(ItemKey itemKey, HomekitCharacteristicChangeCallback callback, boolean priority) {
+            this.itemKey = itemKey;
+            this.callback = callback;
+            this.priority = priority;
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            long delay = notificationDelayMs;
+            if (priority || delay == 0) {
+                callback.changed();
+            } else if (pending.compareAndSet(false, true)) {
+                notificationJob = scheduler.schedule(this::notifyClients, delay, TimeUnit.MILLISECONDS);
+            } else {
+                logger.trace("Coalescing state change of {} / {}", itemKey.item, itemKey.key);
+            }
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
+
+        private void notifyClients() {
+            if (pending.compareAndSet(true, false)) {
+                callback.changed();
+            }
+        }
+
+        void cancel() {
+            pending.set(false);
+            ScheduledFuture<?> job = notificationJob;
+            if (job != null) {
+                job.cancel(false);
+                notificationJob = null;
+            }
+        }
     }
 
     private static class ItemKey {
@@ -58,7 +58,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final MetadataRegistry metadataRegistry;
     private final Storage<String> storage;
     private final RegistryChangeListener<Metadata> metadataChangeListener;
-    private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
+    private HomekitAccessoryUpdater updater;
     private HomekitSettings settings;
     private int lastAccessoryCount;
 
@@ -83,6 +83,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.settings = settings;
         this.metadataRegistry = metadataRegistry;
         storage = storageService.getStorage(HomekitAuthInfoImpl.STORAGE_KEY);
+        this.updater = new HomekitAccessoryUpdater(scheduler, settings.notificationDelay);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
         metadataChangeListener = new RegistryChangeListener<Metadata>() {
@@ -241,6 +242,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationDelay(settings.notificationDelay);
     }
 
     public void stop() {
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.StateChangeListener;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.types.UnDefType;
+
+import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
+
+/**
+ * Tests cases for {@link HomekitAccessoryUpdater}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitAccessoryUpdaterTest {
+    private static final long DELAY = 250;
+
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private final HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater(scheduler, DELAY);
+
+    private final List<StateChangeListener> listeners = new ArrayList<>();
+    private final NumberItem item = new NumberItem("Item") {
+        @Override
+        public void addStateChangeListener(StateChangeListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeStateChangeListener(StateChangeListener listener) {
+            listeners.remove(listener);
+        }
+    };
+
+    private final AtomicInteger notifications = new AtomicInteger();
+    private final HomekitCharacteristicChangeCallback callback = notifications::incrementAndGet;
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void changesAreCoalescedWithinTheWindow() {
+        updater.subscribe(item, HomekitCharacteristicType.CURRENT_TEMPERATURE.getTag(), callback);
+
+        changeState(1);
+        changeState(2);
+        changeState(3);
+
+        assertEquals(0, notifications.get());
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(List.of(TimeUnit.MILLISECONDS.toNanos(DELAY)), scheduler.delays);
+
+        scheduler.runTasks();
+        assertEquals(1, notifications.get());
+
+        // The next change opens a new window
+        changeState(4);
+        assertEquals(1, scheduler.tasks.size());
+        scheduler.runTasks();
+        assertEquals(2, notifications.get());
+    }
+
+    @Test
+    public void characteristicsAreCoalescedSeparately() {
+        updater.subscribe(item, HomekitCharacteristicType.CURRENT_TEMPERATURE.getTag(), callback);
+        updater.subscribe(item, HomekitCharacteristicType.TARGET_TEMPERATURE.getTag(), callback);
+
+        changeState(1);
+        changeState(2);
+
+        assertEquals(2, scheduler.tasks.size());
+        scheduler.runTasks();
+        assertEquals(2, notifications.get());
+    }
+
+    @Test
+    public void lockAndSecuritySystemStatesAreNotifiedImmediately() {
+        updater.subscribe(item, HomekitCharacteristicType.LOCK_CURRENT_STATE.getTag(), callback);
+
+        changeState(1);
+        changeState(2);
+
+        assertEquals(2, notifications.get());
+        assertTrue(scheduler.tasks.isEmpty());
+
+        updater.unsubscribe(item, HomekitCharacteristicType.LOCK_CURRENT_STATE.getTag());
+        updater.subscribe(item, HomekitCharacteristicType.SECURITY_SYSTEM_TARGET_STATE.getTag(), callback);
+        changeState(3);
+
+        assertEquals(3, notifications.get());
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void noDelayDisablesCoalescing() {
+        updater.setNotificationDelay(0);
+        updater.subscribe(item, HomekitCharacteristicType.CURRENT_TEMPERATURE.getTag(), callback);
+
+        changeState(1);
+        changeState(2);
+
+        assertEquals(2, notifications.get());
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void unsubscribeCancelsPendingNotification() {
+        updater.subscribe(item, HomekitCharacteristicType.CURRENT_TEMPERATURE.getTag(), callback);
+        changeState(1);
+
+        updater.unsubscribe(item, HomekitCharacteristicType.CURRENT_TEMPERATURE.getTag());
+
+        assertTrue(listeners.isEmpty());
+        assertTrue(scheduler.futures.get(0).isCancelled());
+        scheduler.runTasks();
+        assertEquals(0, notifications.get());
+    }
+
+    private void changeState(int value) {
+        for (StateChangeListener listener : new ArrayList<>(listeners)) {
+            listener.stateChanged(item, UnDefType.NULL, new DecimalType(value));
+        }
+    }
+
+    /**
+     * Records the scheduled tasks, which are run by the test instead of after their delay.
+     */
+    private static class FakeScheduler extends ScheduledThreadPoolExecutor {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> delays = new ArrayList<>();
+        private final List<ScheduledFuture<?>> futures = new ArrayList<>();
+
+        private FakeScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tasks.add(command);
+            delays.add(unit.toNanos(delay));
+            // never runs on its own, but can be cancelled like a real job
+            ScheduledFuture<?> future = super.schedule(() -> {
+            }, 1, TimeUnit.DAYS);
+            futures.add(future);
+            return future;
+        }
+
+        private void runTasks() {
+            List<Runnable> scheduled = new ArrayList<>(tasks);
+            tasks.clear();
+            delays.clear();
+            scheduled.forEach(Runnable::run);
+        }
+    }
+}
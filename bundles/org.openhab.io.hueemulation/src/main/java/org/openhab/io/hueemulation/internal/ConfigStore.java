@@ -99,6 +99,13 @@ public class ConfigStore {
             .registerTypeAdapter(HueSuccessResponseStateChanged.class, new HueSuccessResponseStateChanged.Serializer())
             .registerTypeAdapter(HueGroupEntry.class, new HueGroupEntry.Serializer(this)).create();
 
+    /**
+     * Serialized snapshots of the lights and groups. Must be invalidated whenever those change.
+     */
+    public final JsonSnapshotCache snapshots = new JsonSnapshotCache(this);
+
+    public final RequestStatistics requestStatistics = new RequestStatistics();
+
     @Reference
     protected @NonNullByDefault({}) ConfigurationAdmin configAdmin;
 
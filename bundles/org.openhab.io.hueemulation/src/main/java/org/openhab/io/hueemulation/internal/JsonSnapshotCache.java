@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.hueemulation.internal.dto.HueDataStore;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Keeps serialized JSON snapshots of the lights and groups of the {@link HueDataStore}, so that the frequently
+ * polled endpoints do not need to serialize every entry on each request.
+ * <p>
+ * Every light is serialized on its own and only serialized again after it got invalidated, for example because its
+ * item changed state. The lights snapshot is then assembled from those fragments. Groups do not depend on item states
+ * and are cached as a whole until the group structure changes.
+ * <p>
+ * Each snapshot carries a version based entity tag, so that clients can be answered with "304 Not Modified".
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class JsonSnapshotCache {
+    /**
+     * An immutable serialized JSON document with its entity tag.
+     */
+    public static class Snapshot {
+        public final String json;
+        public final String etag;
+        final long version;
+
+        Snapshot(String json, String etag, long version) {
+            this.json = json;
+            this.etag = etag;
+            this.version = version;
+        }
+    }
+
+    private final ConfigStore cs;
+    private final Gson gsonWithoutLightsAndGroups;
+    private final String instanceTag = Long.toHexString(System.currentTimeMillis());
+
+    private final Map<String, String> lightFragments = new ConcurrentHashMap<>();
+    private final Map<String, String> lightIDsByItemName = new ConcurrentHashMap<>();
+    private final AtomicLong lightsVersion = new AtomicLong();
+    private final AtomicLong groupsVersion = new AtomicLong();
+    private volatile @Nullable Snapshot lights;
+    private volatile @Nullable Snapshot groups;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong serializedLights = new AtomicLong();
+
+    public JsonSnapshotCache(ConfigStore cs) {
+        this.cs = cs;
+        this.gsonWithoutLightsAndGroups = cs.gson.newBuilder().setExclusionStrategies(new ExclusionStrategy() {
+            @Override
+            public boolean shouldSkipField(@Nullable FieldAttributes f) {
+                return f != null && f.getDeclaringClass() == HueDataStore.class
+                        && ("lights".equals(f.getName()) || "groups".equals(f.getName()));
+            }
+
+            @Override
+            public boolean shouldSkipClass(@Nullable Class<?> clazz) {
+                return false;
+            }
+        }).create();
+    }
+
+    /**
+     * Invalidates the light that is backed by the given item, if any. Called for item state changes.
+     *
+     * @param itemName The item name
+     */
+    public void invalidateItem(String itemName) {
+        String hueID = lightIDsByItemName.get(itemName);
+        if (hueID != null) {
+            invalidateLight(hueID);
+        }
+    }
+
+    /**
+     * Invalidates a single light, for example after a light state change request.
+     *
+     * @param hueID The hue ID of the light
+     */
+    public void invalidateLight(String hueID) {
+        // Increment first, a fragment that is serialized concurrently is then either removed or not cached at all
+        lightsVersion.incrementAndGet();
+        lightFragments.remove(hueID);
+    }
+
+    /**
+     * Invalidates the groups snapshot, for example after a group action request.
+     */
+    public void invalidateGroups() {
+        groupsVersion.incrementAndGet();
+    }
+
+    /**
+     * Invalidates all snapshots. Must be called whenever lights or groups are added, removed or replaced.
+     */
+    public void invalidateAll() {
+        lightsVersion.incrementAndGet();
+        groupsVersion.incrementAndGet();
+        lightFragments.clear();
+    }
+
+    /**
+     * Returns the serialized lights map. Only lights that got invalidated since the last call are serialized again.
+     */
+    public Snapshot getLights() {
+        Snapshot snapshot = lights;
+        if (snapshot != null && snapshot.version == lightsVersion.get()) {
+            cacheHits.incrementAndGet();
+            return snapshot;
+        }
+        synchronized (this) {
+            long version = lightsVersion.get();
+            snapshot = lights;
+            if (snapshot != null && snapshot.version == version) {
+                cacheHits.incrementAndGet();
+                return snapshot;
+            }
+            cacheMisses.incrementAndGet();
+            snapshot = new Snapshot(serializeLights(), instanceTag + "-l" + version, version);
+            lights = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the serialized groups map.
+     */
+    public Snapshot getGroups() {
+        Snapshot snapshot = groups;
+        if (snapshot != null && snapshot.version == groupsVersion.get()) {
+            cacheHits.incrementAndGet();
+            return snapshot;
+        }
+        synchronized (this) {
+            long version = groupsVersion.get();
+            snapshot = groups;
+            if (snapshot != null && snapshot.version == version) {
+                cacheHits.incrementAndGet();
+                return snapshot;
+            }
+            cacheMisses.incrementAndGet();
+            snapshot = new Snapshot(cs.gson.toJson(cs.ds.groups), instanceTag + "-g" + version, version);
+            groups = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the serialized full data store. The remaining parts of the data store are small and change
+     * without notice, they are therefore serialized on each call. The lights and groups are taken from the
+     * cached snapshots. The entity tag is derived from the content.
+     */
+    public Snapshot getFullState() {
+        String lightsJson = getLights().json;
+        String groupsJson = getGroups().json;
+        JsonObject tree = gsonWithoutLightsAndGroups.toJsonTree(cs.ds).getAsJsonObject();
+
+        StringWriter stringWriter = new StringWriter(lightsJson.length() + groupsJson.length() + 4096);
+        try {
+            JsonWriter writer = new JsonWriter(stringWriter);
+            writer.setHtmlSafe(true);
+            writer.beginObject();
+            for (Map.Entry<String, JsonElement> entry : tree.entrySet()) {
+                writer.name(entry.getKey());
+                cs.gson.toJson(entry.getValue(), writer);
+                // Keep the field order of the data store: config, lights, groups, ...
+                if ("config".equals(entry.getKey())) {
+                    writer.name("lights").jsonValue(lightsJson);
+                    writer.name("groups").jsonValue(groupsJson);
+                }
+            }
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            // A StringWriter does not throw
+            throw new IllegalStateException(e);
+        }
+        String json = stringWriter.toString();
+        return new Snapshot(json, instanceTag + "-f" + Integer.toHexString(json.hashCode()), 0);
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public long getSerializedLights() {
+        return serializedLights.get();
+    }
+
+    private String serializeLights() {
+        Map<String, HueLightEntry> entries = cs.ds.lights;
+        StringWriter stringWriter = new StringWriter(entries.size() * 512 + 2);
+        try {
+            JsonWriter writer = new JsonWriter(stringWriter);
+            writer.setHtmlSafe(true);
+            writer.beginObject();
+            for (Map.Entry<String, HueLightEntry> entry : entries.entrySet()) {
+                HueLightEntry light = entry.getValue();
+                String fragment = lightFragments.get(entry.getKey());
+                if (fragment == null) {
+                    fragment = serializeLight(entry.getKey(), light);
+                }
+                if (light.item != null) {
+                    lightIDsByItemName.put(light.item.getName(), entry.getKey());
+                }
+                writer.name(entry.getKey()).jsonValue(fragment);
+            }
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            // A StringWriter does not throw
+            throw new IllegalStateException(e);
+        }
+        lightFragments.keySet().retainAll(entries.keySet());
+        lightIDsByItemName.values().retainAll(entries.keySet());
+        return stringWriter.toString();
+    }
+
+    /**
+     * Serializes a single light. The fragment is only cached if no light got invalidated in the meantime, as the
+     * fragment might contain the state from before the invalidation.
+     */
+    private String serializeLight(String hueID, HueLightEntry light) {
+        long version = lightsVersion.get();
+        String fragment = cs.gson.toJson(light);
+        serializedLights.incrementAndGet();
+        lightFragments.compute(hueID,
+                (id, cached) -> cached != null ? cached : lightsVersion.get() == version ? fragment : null);
+        return fragment;
+    }
+}
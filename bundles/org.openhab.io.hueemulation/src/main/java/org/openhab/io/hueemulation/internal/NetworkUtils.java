@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -116,6 +118,23 @@ public class NetworkUtils {
         return Response.status(httpCode).entity(str).build();
     }
 
+    /**
+     * Creates a json response for the given snapshot, or a "304 Not Modified" response if the client already
+     * has the current version.
+     *
+     * @param request The request, used to evaluate the preconditions
+     * @param snapshot A serialized snapshot
+     * @return A response
+     */
+    public static Response snapshotResponse(Request request, JsonSnapshotCache.Snapshot snapshot) {
+        EntityTag etag = new EntityTag(snapshot.etag);
+        ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(snapshot.json).tag(etag).build();
+    }
+
     public static Response singleSuccess(Gson gson, String message, String uriPart) {
         List<HueResponse> responses = new ArrayList<>();
         responses.add(new HueResponse(new HueSuccessGeneric(message, uriPart)));
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Collects request counts and latencies of the polled REST endpoints. Shown on the status page.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class RequestStatistics {
+    /**
+     * Statistics of a single endpoint
+     */
+    public static class Entry {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getNotModified() {
+            return notModified.sum();
+        }
+
+        public double getAverageMillis() {
+            long count = requests.sum();
+            return count == 0 ? 0 : totalNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new TreeMap<>());
+
+    /**
+     * Records a finished request.
+     *
+     * @param endpoint The endpoint name, e.g. "lights"
+     * @param startNanos The {@link System#nanoTime()} at the start of the request
+     * @param notModified True if the request was answered with "304 Not Modified"
+     */
+    public void record(String endpoint, long startNanos, boolean notModified) {
+        long duration = System.nanoTime() - startNanos;
+        Entry entry = entries.computeIfAbsent(endpoint, e -> new Entry());
+        entry.requests.increment();
+        entry.totalNanos.add(duration);
+        entry.maxNanos.accumulateAndGet(duration, Math::max);
+        if (notModified) {
+            entry.notModified.increment();
+        }
+    }
+
+    public Map<String, Entry> getEntries() {
+        synchronized (entries) {
+            return new TreeMap<>(entries);
+        }
+    }
+}
@@ -27,18 +27,24 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.common.registry.RegistryChangeListener;
+import org.openhab.core.events.Event;
+import org.openhab.core.events.EventFilter;
 import org.openhab.core.events.EventPublisher;
+import org.openhab.core.events.EventSubscriber;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.events.GroupItemStateChangedEvent;
 import org.openhab.core.items.events.ItemEventFactory;
+import org.openhab.core.items.events.ItemStateChangedEvent;
 import org.openhab.core.library.CoreItemFactory;
 import org.openhab.core.types.Command;
 import org.openhab.io.hueemulation.internal.ConfigStore;
@@ -91,23 +97,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
  * </p>
  *
  * <p>
+ * The lights and groups endpoints are served from serialized snapshots kept in the {@link ConfigStore}. Item state
+ * changes of exposed items are received as events and invalidate the affected light.
  * </p>
  *
  * @author David Graeff - Initial contribution
  * @author Florian Schmidt - Removed base type restriction from Group items
  */
-@Component(immediate = false, service = LightsAndGroups.class)
+@Component(immediate = false, service = { LightsAndGroups.class, EventSubscriber.class })
 @JaxrsResource
 @JaxrsApplicationSelect("(" + JaxrsWhiteboardConstants.JAX_RS_NAME + "=" + HueEmulationService.REST_APP_NAME + ")")
 @NonNullByDefault
 @Path("")
 @Produces(MediaType.APPLICATION_JSON)
-public class LightsAndGroups implements RegistryChangeListener<Item> {
+public class LightsAndGroups implements RegistryChangeListener<Item>, EventSubscriber {
     public static final String EXPOSE_AS_DEVICE_TAG = "huelight";
     private final Logger logger = LoggerFactory.getLogger(LightsAndGroups.class);
     private static final String ITEM_TYPE_GROUP = "Group";
     private static final Set<String> ALLOWED_ITEM_TYPES = Stream.of(CoreItemFactory.COLOR, CoreItemFactory.DIMMER,
             CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.SWITCH, ITEM_TYPE_GROUP).collect(Collectors.toSet());
+    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateChangedEvent.TYPE,
+            GroupItemStateChangedEvent.TYPE);
 
     @Reference
     protected @NonNullByDefault({}) ConfigStore cs;
@@ -124,6 +134,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Activate
     protected void activate() {
         cs.ds.resetGroupsAndLights();
+        cs.snapshots.invalidateAll();
 
         itemRegistry.removeRegistryChangeListener(this);
         itemRegistry.addRegistryChangeListener(this);
@@ -141,6 +152,23 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         itemRegistry.removeRegistryChangeListener(this);
     }
 
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    @Override
+    public @Nullable EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        if (event instanceof ItemStateChangedEvent) {
+            cs.snapshots.invalidateItem(((ItemStateChangedEvent) event).getItemName());
+        }
+    }
+
     @Override
     public synchronized void added(Item newElement) {
         if (!(newElement instanceof GenericItem)) {
@@ -185,6 +213,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             cs.ds.lights.put(hueID, device);
             updateGroup0();
         }
+        cs.snapshots.invalidateAll();
     }
 
     /**
@@ -202,6 +231,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         cs.ds.lights.remove(hueID);
         cs.ds.groups.remove(hueID);
         updateGroup0();
+        cs.snapshots.invalidateAll();
     }
 
     /**
@@ -217,6 +247,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
 
         String hueID = cs.mapItemUIDtoHueID(element);
 
+        cs.snapshots.invalidateAll();
+
         HueGroupEntry hueGroup = cs.ds.groups.get(hueID);
         if (hueGroup != null) {
             DeviceType t = StateUtils.determineTargetType(cs, element);
@@ -247,12 +279,16 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @GET
     @Path("{username}/lights")
     @Operation(summary = "Return all lights", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @Parameter(description = "username") String username) {
+        long start = System.nanoTime();
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        Response response = NetworkUtils.snapshotResponse(request, cs.snapshots.getLights());
+        cs.requestStatistics.record("lights", start,
+                response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode());
+        return response;
     }
 
     @GET
@@ -383,6 +419,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             }
             hueDevice.lastCommand = command;
             hueDevice.lastHueChange = newState;
+            cs.snapshots.invalidateLight(id);
         }
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
@@ -414,6 +451,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
 
         // First synchronize the internal state information with the framework
         hueDevice.action = StateUtils.colorStateFromItemState(groupItem.getState(), hueDevice.deviceType);
+        cs.snapshots.invalidateGroups();
 
         List<HueResponse> responses = new ArrayList<>();
         Command command = StateUtils.computeCommandByState(responses, "/groups/" + id + "/state/", hueDevice.action,
@@ -438,12 +476,16 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @GET
     @Path("{username}/groups")
     @Operation(summary = "Return all groups", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllGroupsApi(@Context UriInfo uri,
+    public Response getAllGroupsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @Parameter(description = "username") String username) {
+        long start = System.nanoTime();
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups)).build();
+        Response response = NetworkUtils.snapshotResponse(request, cs.snapshots.getGroups());
+        cs.requestStatistics.record("groups", start,
+                response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode());
+        return response;
     }
 
     @GET
@@ -148,7 +148,12 @@ public class StatusResource implements RegistryListener {
                 "<h2>Reachability test</h2>" + //
                 "<table style='border:1px solid black'><tr><td>URL</td><td>Responds?</td><td>Ours?</td></tr>%s</table>"
                 + //
-                "<h2>Users</h2><ul>%s</ul></body></html>";
+                "<h2>Users</h2><ul>%s</ul>" + //
+                "<h2>Request statistics</h2>" + //
+                "<p>Snapshot cache: %d hits, %d misses, %d lights serialized</p>" + //
+                "<table style='border:1px solid black'><tr><td>Endpoint</td><td>Requests</td><td>Not modified</td><td>Avg ms</td><td>Max ms</td></tr>%s</table>"
+                + //
+                "</body></html>";
 
         String users = cs.ds.config.whitelist.entrySet().stream().map(user -> "<li>" + user.getKey() + " <b>"
                 + user.getValue().name + "</b> <small>" + user.getValue().lastUseDate + "</small>")
@@ -170,6 +175,13 @@ public class StatusResource implements RegistryListener {
             upnps = TR(TD("service not available") + TD(""));
         }
 
+        String requests = cs.requestStatistics.getEntries().entrySet().stream()
+                .map(entry -> TR(TD(entry.getKey()) + TD(String.valueOf(entry.getValue().getRequests()))
+                        + TD(String.valueOf(entry.getValue().getNotModified()))
+                        + TD(String.format("%.2f", entry.getValue().getAverageMillis()))
+                        + TD(String.format("%.2f", entry.getValue().getMaxMillis()))))
+                .collect(Collectors.joining("\n"));
+
         if (!localDiscovery.upnpAnnouncementThreadRunning()) {
             selfTestUpnpFound = upnpStatus.upnp_announcement_thread_not_running;
         }
@@ -178,7 +190,9 @@ public class StatusResource implements RegistryListener {
                 cs.getConfig().temporarilyEmulateV1bridge ? "V1" : "V2", url, url, //
                 cs.ds.lights.size(), url, url, cs.ds.sensors.size(), url, url, //
                 selfTestUpnpFound.name().replace('_', ' '), //
-                upnps, reachable, users);
+                upnps, reachable, users, //
+                cs.snapshots.getCacheHits(), cs.snapshots.getCacheMisses(), cs.snapshots.getSerializedLights(),
+                requests);
     }
 
     @NonNullByDefault({})
@@ -31,7 +31,7 @@ import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Request.FailureListener;
 import org.eclipse.jetty.client.api.Response;
-import org.eclipse.jetty.client.api.Response.ContentListener;
+import org.eclipse.jetty.client.api.Response.AsyncContentListener;
 import org.eclipse.jetty.client.api.Response.HeadersListener;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
@@ -40,6 +40,7 @@ import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.URIUtil;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -65,6 +66,16 @@ import io.socket.engineio.client.Transport;
  * @author Kai Kreuzer - migrated code to new Jetty client and ESH APIs
  */
 public class CloudClient {
+    /*
+     * Maximum number of proxied requests that wait for a running request to finish
+     */
+    private static final int MAX_QUEUED_REQUESTS = 200;
+
+    /*
+     * Amount of proxied response content that may wait to be written to the openHAB Cloud
+     */
+    private static final long MAX_BUFFERED_CONTENT_BYTES = 1024 * 1024;
+
     /*
      * Logger for this class
      */
@@ -100,6 +111,16 @@ public class CloudClient {
      */
     private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<>();
 
+    /*
+     * This queue limits the number of HTTP requests to local openHAB which run at the same time
+     */
+    private final ProxyRequestQueue proxyRequests;
+
+    /*
+     * This buffer holds back proxied responses while their content is not yet written to the openHAB Cloud
+     */
+    private final UplinkBuffer<Callback> uplinkBuffer = new UplinkBuffer<>(MAX_BUFFERED_CONTENT_BYTES);
+
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
      */
@@ -136,9 +157,11 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param maxConcurrentRequests Maximum number of requests proxied to openHAB at the same time
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
-            boolean remoteAccessEnabled, Set<String> exposedItems) {
+            boolean remoteAccessEnabled, Set<String> exposedItems, int maxConcurrentRequests) {
+        this.proxyRequests = new ProxyRequestQueue(maxConcurrentRequests, MAX_QUEUED_REQUESTS);
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
@@ -180,6 +203,13 @@ public class CloudClient {
                         headers.put("remoteaccess", List.of(((Boolean) remoteAccessEnabled).toString()));
                     }
                 });
+                transport.on(Transport.EVENT_DRAIN, new Emitter.Listener() {
+                    @Override
+                    public void call(Object... args) {
+                        logger.trace("Transport.EVENT_DRAIN");
+                        uplinkBuffer.drained().forEach(Callback::succeeded);
+                    }
+                });
             }
         });
         socket.on(Socket.EVENT_CONNECT, new Emitter.Listener() {
@@ -244,6 +274,10 @@ public class CloudClient {
         isConnected = false;
         // And clean up the list of running requests
         runningRequests.clear();
+        proxyRequests.clear();
+        IOException disconnected = new IOException("Disconnected from the openHAB Cloud");
+        uplinkBuffer.clear().forEach(callback -> callback.failed(disconnected));
+        logger.debug("Proxied requests: {}", proxyRequests);
     }
 
     /**
@@ -333,10 +367,18 @@ public class CloudClient {
                 return;
             }
             ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
+            request.onResponseHeaders(listener).onResponseContentAsync(listener).onRequestFailure(listener);
+            // Add the request to the list of currently running requests to be able to cancel it if needed,
+            // it is sent to the http client as soon as the number of concurrent requests allows it
             runningRequests.put(requestId, request);
+            if (!proxyRequests.submit(requestId, () -> listener.send(request))) {
+                runningRequests.remove(requestId);
+                logger.debug("Rejecting request {}, too many requests are pending: {}", requestId, proxyRequests);
+                JSONObject responseJson = new JSONObject();
+                responseJson.put("id", requestId);
+                responseJson.put("responseStatusText", "openHAB connection error: too many concurrent requests");
+                socket.emit("responseError", responseJson);
+            }
         } catch (JSONException | IOException | URISyntaxException e) {
             logger.debug("{}", e.getMessage());
         }
@@ -365,10 +407,9 @@ public class CloudClient {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
             // Find and abort running request
-            Request request = runningRequests.get(requestId);
-            if (request != null) {
+            Request request = runningRequests.remove(requestId);
+            if (request != null && !proxyRequests.cancel(requestId)) {
                 request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
             }
         } catch (JSONException e) {
             logger.debug("{}", e.getMessage());
@@ -516,16 +557,23 @@ public class CloudClient {
      * An internal class which forwards response headers and data back to the openHAB Cloud
      */
     private class ResponseListener
-            implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
+            implements Response.CompleteListener, HeadersListener, AsyncContentListener, FailureListener {
 
         private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
+        private long mStartTime;
+        private long mContentBytes;
 
         public ResponseListener(int requestId) {
             mRequestId = requestId;
         }
 
+        public void send(Request request) {
+            mStartTime = System.nanoTime();
+            request.send(this);
+        }
+
         private JSONObject getJSONHeaders(HttpFields httpFields) {
             JSONObject headersJSON = new JSONObject();
             try {
@@ -542,6 +590,10 @@ public class CloudClient {
         public void onComplete(Result result) {
             // Remove this request from list of running requests
             runningRequests.remove(mRequestId);
+            long latency = System.nanoTime() - mStartTime;
+            logger.debug("Request {} completed in {} ms with {} bytes of content", mRequestId,
+                    TimeUnit.NANOSECONDS.toMillis(latency), mContentBytes);
+            proxyRequests.finished(latency, mContentBytes, result == null || result.isSucceeded());
             if ((result != null && result.isFailed())
                     && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                 if (result.getFailure() != null) {
@@ -585,8 +637,10 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
-            logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
+        public void onContent(Response response, ByteBuffer content, Callback callback) {
+            int size = content.remaining();
+            logger.debug("Jetty received response content of size {}", size);
+            mContentBytes += size;
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
@@ -596,6 +650,11 @@ public class CloudClient {
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
+            // Jetty only reads the next chunk once the callback succeeded, which is held back while too much content
+            // waits to be written to the openHAB Cloud
+            if (uplinkBuffer.sent(size, callback)) {
+                callback.succeeded();
+            }
         }
 
         @Override
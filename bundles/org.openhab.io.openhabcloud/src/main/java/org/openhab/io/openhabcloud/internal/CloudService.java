@@ -27,6 +27,7 @@ import java.util.Set;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.events.Event;
 import org.openhab.core.events.EventFilter;
@@ -73,11 +74,15 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_WINDOW = "itemUpdateWindow";
+    private static final String CFG_MAX_CONCURRENT_REQUESTS = "maxConcurrentRequests";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
     private static final int DEFAULT_LOCAL_OPENHAB_REQUEST_TIMEOUT = 30000;
+    private static final int DEFAULT_MAX_CONCURRENT_PROXY_REQUESTS = 50;
     private static final String HTTPCLIENT_NAME = "openhabcloud";
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
     private static final String CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
     private static final SecureRandom SR = new SecureRandom();
 
@@ -85,6 +90,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     public static String clientVersion = null;
     private CloudClient cloudClient;
+    private ItemUpdateUplink itemUpdateUplink;
     private String cloudBaseUrl = null;
     private final HttpClient httpClient;
     protected final ItemRegistry itemRegistry;
@@ -185,6 +191,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     @Deactivate
     protected void deactivate() {
         logger.debug("openHAB Cloud connector deactivated");
+        if (itemUpdateUplink != null) {
+            itemUpdateUplink.shutdown();
+        }
         cloudClient.shutdown();
         try {
             httpClient.stop();
@@ -226,8 +235,32 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        long itemUpdateWindow = 0;
+        Object windowCfg = config.get(CFG_ITEM_UPDATE_WINDOW);
+        if (windowCfg != null) {
+            try {
+                itemUpdateWindow = Math.max(0, Long.parseLong(windowCfg.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid item update window '{}', sending item updates immediately", windowCfg);
+            }
+        }
+
+        int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_PROXY_REQUESTS;
+        Object maxRequestsCfg = config.get(CFG_MAX_CONCURRENT_REQUESTS);
+        if (maxRequestsCfg != null) {
+            try {
+                maxConcurrentRequests = Math.max(1, Integer.parseInt(maxRequestsCfg.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid maximum number of concurrent requests '{}', using {}", maxRequestsCfg,
+                        DEFAULT_MAX_CONCURRENT_PROXY_REQUESTS);
+            }
+        }
+
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
+        if (itemUpdateUplink != null) {
+            itemUpdateUplink.shutdown();
+        }
         if (cloudClient != null) {
             cloudClient.shutdown();
         }
@@ -242,10 +275,12 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
-                remoteAccessEnabled, exposedItems);
+                remoteAccessEnabled, exposedItems, maxConcurrentRequests);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
+        itemUpdateUplink = new ItemUpdateUplink(cloudClient,
+                ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD), itemUpdateWindow);
         NotificationAction.cloudService = this;
     }
 
@@ -366,7 +401,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     public void receive(Event event) {
         ItemStateEvent ise = (ItemStateEvent) event;
         if (exposedItems != null && exposedItems.contains(ise.getItemName())) {
-            cloudClient.sendItemUpdate(ise.getItemName(), ise.getItemState().toString());
+            itemUpdateUplink.itemUpdated(ise.getItemName(), ise.getItemState().toString());
         }
     }
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forwards the state updates of exposed items to the openHAB Cloud. Within a configurable window only the latest
+ * state of every item is kept, all states collected in a window are then sent in one go. Items that change faster
+ * than the window therefore only cause one update per window.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ItemUpdateUplink {
+
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdateUplink.class);
+
+    private final CloudClient cloudClient;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+
+    private final Map<String, String> pendingUpdates = new LinkedHashMap<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+
+    /**
+     * @param cloudClient the client to send the updates with
+     * @param scheduler the scheduler to run the flushes on
+     * @param windowMillis the coalescing window in milliseconds, updates are sent immediately if it is 0
+     */
+    public ItemUpdateUplink(CloudClient cloudClient, ScheduledExecutorService scheduler, long windowMillis) {
+        this.cloudClient = cloudClient;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Queues a state update. A pending update of the same item is replaced.
+     *
+     * @param itemName the item name
+     * @param itemState the new state
+     */
+    public void itemUpdated(String itemName, String itemState) {
+        received.incrementAndGet();
+        if (windowMillis <= 0) {
+            send(itemName, itemState);
+            return;
+        }
+        synchronized (pendingUpdates) {
+            if (pendingUpdates.put(itemName, itemState) != null) {
+                coalesced.incrementAndGet();
+            }
+            if (flushJob == null) {
+                flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Sends all pending updates.
+     */
+    public void flush() {
+        Map<String, String> updates;
+        synchronized (pendingUpdates) {
+            flushJob = null;
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            updates = new LinkedHashMap<>(pendingUpdates);
+            pendingUpdates.clear();
+        }
+        updates.forEach(this::send);
+        logger.trace("Sent {} item updates, {} received, {} coalesced, {} sent in total", updates.size(),
+                received.get(), coalesced.get(), sent.get());
+    }
+
+    private void send(String itemName, String itemState) {
+        if (cloudClient.isConnected()) {
+            cloudClient.sendItemUpdate(itemName, itemState);
+            sent.incrementAndGet();
+        } else {
+            logger.debug("No connection, Item update is not sent");
+        }
+    }
+
+    /**
+     * Stops the uplink, pending updates are sent before.
+     */
+    public void shutdown() {
+        ScheduledFuture<?> job;
+        synchronized (pendingUpdates) {
+            job = flushJob;
+        }
+        if (job != null) {
+            job.cancel(false);
+        }
+        flush();
+        logger.debug("Item update uplink stopped: {} received, {} coalesced, {} sent", received.get(),
+                coalesced.get(), sent.get());
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Limits the number of requests that are proxied concurrently from the openHAB Cloud to the local openHAB instance.
+ * Requests beyond the limit wait in a bounded queue and are started in arrival order as running requests finish.
+ * It also keeps statistics about the latency and the size of the proxied responses.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyRequestQueue {
+
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+
+    private final Map<Integer, Runnable> waitingRequests = new LinkedHashMap<>();
+    private int runningRequests;
+
+    private long started;
+    private long rejected;
+    private long finished;
+    private long failed;
+    private long totalBytes;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    /**
+     * @param maxConcurrentRequests the maximum number of requests running at the same time
+     * @param maxQueuedRequests the maximum number of requests waiting to be started
+     */
+    public ProxyRequestQueue(int maxConcurrentRequests, int maxQueuedRequests) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.maxQueuedRequests = Math.max(0, maxQueuedRequests);
+    }
+
+    /**
+     * Starts the request right away if the limit allows it, otherwise queues it.
+     *
+     * @param requestId the id of the request
+     * @param start starts the request, the request must report {@link #finished(long, long, boolean)} once it is done
+     * @return {@code false} if the request was rejected because the queue is full
+     */
+    public boolean submit(int requestId, Runnable start) {
+        synchronized (this) {
+            if (runningRequests >= maxConcurrentRequests) {
+                if (waitingRequests.size() >= maxQueuedRequests) {
+                    rejected++;
+                    return false;
+                }
+                waitingRequests.put(requestId, start);
+                return true;
+            }
+            runningRequests++;
+            started++;
+        }
+        start.run();
+        return true;
+    }
+
+    /**
+     * Removes a request that is still waiting to be started.
+     *
+     * @param requestId the id of the request
+     * @return {@code true} if the request was waiting and will not be started anymore
+     */
+    public synchronized boolean cancel(int requestId) {
+        return waitingRequests.remove(requestId) != null;
+    }
+
+    /**
+     * Records a finished request and starts the next waiting one.
+     *
+     * @param latencyNanos the time from starting the request until it completed
+     * @param bytes the number of response content bytes that were relayed
+     * @param success whether the request completed successfully
+     */
+    public void finished(long latencyNanos, long bytes, boolean success) {
+        Runnable next = null;
+        synchronized (this) {
+            runningRequests--;
+            finished++;
+            if (!success) {
+                failed++;
+            }
+            totalBytes += bytes;
+            totalLatencyNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+
+            Iterator<Runnable> iterator = waitingRequests.values().iterator();
+            if (iterator.hasNext()) {
+                next = iterator.next();
+                iterator.remove();
+                runningRequests++;
+                started++;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    /**
+     * Drops all waiting requests, e.g. after the connection to the openHAB Cloud got lost.
+     */
+    public synchronized void clear() {
+        waitingRequests.clear();
+    }
+
+    public synchronized int getRunningRequests() {
+        return runningRequests;
+    }
+
+    public synchronized int getWaitingRequests() {
+        return waitingRequests.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ProxyRequestQueue [running=" + runningRequests + ", waiting=" + waitingRequests.size() + ", started="
+                + started + ", rejected=" + rejected + ", finished=" + finished + ", failed=" + failed + ", bytes="
+                + totalBytes + ", avgLatency="
+                + (finished == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos / finished))
+                + "ms, maxLatency=" + TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos) + "ms]";
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Limits the amount of response content that was passed to the Socket.IO client but is not yet written to the
+ * connection to the openHAB Cloud. Each proxied response waits with its next chunk until the buffered content drops
+ * below the limit again, so slow uplinks do not pile up response content in memory.
+ * <p>
+ * The transport of the Socket.IO client reports when it has written everything that was handed to it. As content
+ * emitted in the meantime is written with the next write, up to about twice the limit can be buffered.
+ *
+ * @param <T> the type of the waiting responses
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class UplinkBuffer<T> {
+
+    private final long maxBufferedBytes;
+
+    private final List<T> waiting = new ArrayList<>();
+    private long bufferedBytes;
+
+    /**
+     * @param maxBufferedBytes the number of buffered bytes from which on responses have to wait
+     */
+    public UplinkBuffer(long maxBufferedBytes) {
+        this.maxBufferedBytes = Math.max(1, maxBufferedBytes);
+    }
+
+    /**
+     * Records content that was passed to the Socket.IO client.
+     *
+     * @param bytes the size of the content
+     * @param response the response that sent the content
+     * @return {@code true} if the response may send its next chunk right away, otherwise it is returned by
+     *         {@link #drained()} or {@link #clear()} later on
+     */
+    public synchronized boolean sent(long bytes, T response) {
+        bufferedBytes += bytes;
+        if (bufferedBytes < maxBufferedBytes && waiting.isEmpty()) {
+            return true;
+        }
+        waiting.add(response);
+        return false;
+    }
+
+    /**
+     * Records that the transport has written the buffered content.
+     *
+     * @return the responses that may send their next chunk, in the order they started to wait
+     */
+    public synchronized List<T> drained() {
+        bufferedBytes = 0;
+        List<T> released = new ArrayList<>(waiting);
+        waiting.clear();
+        return released;
+    }
+
+    /**
+     * Drops the buffered content, e.g. after the connection to the openHAB Cloud got lost.
+     *
+     * @return the responses that were waiting and have to be aborted
+     */
+    public synchronized List<T> clear() {
+        return drained();
+    }
+
+    public synchronized long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    public synchronized int getWaitingResponses() {
+        return waiting.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "UplinkBuffer [buffered=" + bufferedBytes + ", waiting=" + waiting.size() + "]";
+    }
+}
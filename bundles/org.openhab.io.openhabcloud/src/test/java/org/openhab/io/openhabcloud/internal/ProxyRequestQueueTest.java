@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link ProxyRequestQueue}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyRequestQueueTest {
+
+    private final List<Integer> started = new ArrayList<>();
+    private final ProxyRequestQueue queue = new ProxyRequestQueue(2, 3);
+
+    private boolean submit(int requestId) {
+        return queue.submit(requestId, () -> started.add(requestId));
+    }
+
+    @Test
+    public void requestsStartRightAwayBelowTheLimit() {
+        assertTrue(submit(1));
+        assertTrue(submit(2));
+
+        assertEquals(List.of(1, 2), started);
+        assertEquals(2, queue.getRunningRequests());
+        assertEquals(0, queue.getWaitingRequests());
+    }
+
+    @Test
+    public void waitingRequestsStartInArrivalOrder() {
+        for (int requestId = 1; requestId <= 5; requestId++) {
+            assertTrue(submit(requestId));
+        }
+        assertEquals(List.of(1, 2), started);
+        assertEquals(3, queue.getWaitingRequests());
+
+        queue.finished(0, 0, true);
+        assertEquals(List.of(1, 2, 3), started);
+        queue.finished(0, 0, true);
+        queue.finished(0, 0, true);
+        assertEquals(List.of(1, 2, 3, 4, 5), started);
+        assertEquals(2, queue.getRunningRequests());
+        assertEquals(0, queue.getWaitingRequests());
+
+        queue.finished(0, 0, true);
+        queue.finished(0, 0, true);
+        assertEquals(0, queue.getRunningRequests());
+    }
+
+    @Test
+    public void requestsBeyondTheQueueLimitAreRejected() {
+        for (int requestId = 1; requestId <= 5; requestId++) {
+            assertTrue(submit(requestId));
+        }
+        assertFalse(submit(6));
+        assertEquals(List.of(1, 2), started);
+        assertEquals(3, queue.getWaitingRequests());
+
+        // A finished request makes room for another waiting request
+        queue.finished(0, 0, true);
+        assertTrue(submit(7));
+        assertEquals(3, queue.getWaitingRequests());
+    }
+
+    @Test
+    public void cancelledRequestsAreNotStarted() {
+        for (int requestId = 1; requestId <= 4; requestId++) {
+            submit(requestId);
+        }
+        assertTrue(queue.cancel(3));
+        assertFalse(queue.cancel(3));
+        // Running requests can't be cancelled in the queue, they have to be aborted
+        assertFalse(queue.cancel(1));
+
+        queue.finished(0, 0, true);
+        assertEquals(List.of(1, 2, 4), started);
+        assertEquals(0, queue.getWaitingRequests());
+    }
+
+    @Test
+    public void clearDropsWaitingRequests() {
+        for (int requestId = 1; requestId <= 4; requestId++) {
+            submit(requestId);
+        }
+        queue.clear();
+        queue.finished(0, 0, false);
+
+        assertEquals(List.of(1, 2), started);
+        assertEquals(1, queue.getRunningRequests());
+        assertEquals(0, queue.getWaitingRequests());
+    }
+
+    @Test
+    public void limitsAreAtLeastOneRunningAndNoWaitingRequest() {
+        ProxyRequestQueue queue = new ProxyRequestQueue(0, -1);
+        assertTrue(queue.submit(1, () -> started.add(1)));
+        assertFalse(queue.submit(2, () -> started.add(2)));
+        assertEquals(List.of(1), started);
+    }
+
+    @Test
+    public void statistics() {
+        submit(1);
+        submit(2);
+        queue.finished(2_000_000, 100, true);
+        queue.finished(4_000_000, 50, false);
+
+        String statistics = queue.toString();
+        assertTrue(statistics.contains("finished=2"), statistics);
+        assertTrue(statistics.contains("failed=1"), statistics);
+        assertTrue(statistics.contains("bytes=150"), statistics);
+        assertTrue(statistics.contains("avgLatency=3ms"), statistics);
+        assertTrue(statistics.contains("maxLatency=4ms"), statistics);
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link UplinkBuffer}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class UplinkBufferTest {
+
+    private final UplinkBuffer<String> buffer = new UplinkBuffer<>(100);
+
+    @Test
+    public void responsesContinueBelowTheLimit() {
+        assertTrue(buffer.sent(40, "a"));
+        assertTrue(buffer.sent(40, "b"));
+        assertEquals(80, buffer.getBufferedBytes());
+        assertEquals(0, buffer.getWaitingResponses());
+    }
+
+    @Test
+    public void responsesWaitFromTheLimitOnUntilDrained() {
+        assertTrue(buffer.sent(60, "a"));
+        assertFalse(buffer.sent(60, "b"));
+        assertFalse(buffer.sent(10, "a"));
+        assertEquals(2, buffer.getWaitingResponses());
+
+        assertEquals(List.of("b", "a"), buffer.drained());
+        assertEquals(0, buffer.getBufferedBytes());
+        assertEquals(0, buffer.getWaitingResponses());
+        assertTrue(buffer.sent(10, "c"));
+    }
+
+    @Test
+    public void chunkLargerThanTheLimitWaitsForDrain() {
+        assertFalse(buffer.sent(500, "a"));
+        assertEquals(List.of("a"), buffer.drained());
+    }
+
+    @Test
+    public void responsesDoNotOvertakeWaitingResponses() {
+        assertFalse(buffer.sent(100, "a"));
+        // Even a small chunk waits, otherwise a waiting response could starve
+        assertFalse(buffer.sent(0, "b"));
+        assertEquals(List.of("a", "b"), buffer.drained());
+    }
+
+    @Test
+    public void drainWithoutWaitingResponses() {
+        assertTrue(buffer.sent(10, "a"));
+        assertEquals(List.of(), buffer.drained());
+        assertEquals(0, buffer.getBufferedBytes());
+    }
+
+    @Test
+    public void clearReturnsWaitingResponses() {
+        buffer.sent(100, "a");
+        buffer.sent(10, "b");
+
+        assertEquals(List.of("a", "b"), buffer.clear());
+        assertEquals(0, buffer.getBufferedBytes());
+        assertEquals(0, buffer.getWaitingResponses());
+        assertTrue(buffer.sent(10, "c"));
+    }
+}
@@ -15,10 +15,12 @@ package org.openhab.persistence.dynamodb.internal;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -41,23 +43,38 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public abstract class AbstractBufferedPersistenceService<T> implements PersistenceService {
 
-    private static final long BUFFER_OFFER_TIMEOUT_MILLIS = 500;
+    private static final int MIN_BUFFER_CAPACITY = 100;
 
     private final Logger logger = LoggerFactory.getLogger(AbstractBufferedPersistenceService.class);
     protected @Nullable BlockingQueue<T> buffer;
 
-    private boolean writeImmediately;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong droppedItems = new AtomicLong();
+    private @Nullable Executor flushExecutor;
+    private int flushThreshold = 1;
 
-    protected void resetWithBufferSize(int bufferSize) {
-        int capacity = Math.max(1, bufferSize);
-        buffer = new ArrayBlockingQueue<>(capacity, true);
-        writeImmediately = bufferSize == 0;
+    /**
+     * Reset the buffer. A flush is requested as soon as the buffer holds bufferSize items, or on every store if
+     * bufferSize is zero. The buffer can hold twice as many items, so that nothing is dropped while a flush is
+     * in progress.
+     *
+     * @param bufferSize number of buffered items triggering a flush
+     * @param flushExecutor executor running the flushes requested by {@link #store(Item, String)}
+     */
+    protected void resetWithBufferSize(int bufferSize, Executor flushExecutor) {
+        int capacity = Math.max(MIN_BUFFER_CAPACITY, 2 * bufferSize);
+        buffer = new ArrayBlockingQueue<>(capacity);
+        flushThreshold = Math.max(1, bufferSize);
+        this.flushExecutor = flushExecutor;
     }
 
     protected abstract T persistenceItemFromState(String name, State state, ZonedDateTime time);
 
     protected abstract boolean isReadyToStore();
 
+    /**
+     * Write the buffered data. Never called on the thread calling {@link #store(Item, String)}.
+     */
     protected abstract void flushBufferedData();
 
     @Override
@@ -65,10 +82,11 @@ public abstract class AbstractBufferedPersistenceService<T> implements Persisten
         store(item, null);
     }
 
+    /**
+     * Buffers the item state. Never blocks: if the buffer is full, the state is dropped.
+     */
     @Override
     public void store(Item item, @Nullable String alias) {
-        long storeStart = System.currentTimeMillis();
-        String uuid = UUID.randomUUID().toString();
         if (item.getState() instanceof UnDefType) {
             logger.debug("Undefined item state received. Not storing item {}.", item.getName());
             return;
@@ -76,54 +94,64 @@ public abstract class AbstractBufferedPersistenceService<T> implements Persisten
         if (!isReadyToStore()) {
             return;
         }
-        if (buffer == null) {
+        BlockingQueue<T> currentBuffer = buffer;
+        if (currentBuffer == null) {
             throw new IllegalStateException("Buffer not initialized with resetWithBufferSize. Bug?");
         }
-        ZonedDateTime time = ZonedDateTime.ofInstant(Instant.ofEpochMilli(storeStart), ZoneId.systemDefault());
+        ZonedDateTime time = ZonedDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
         String realName = item.getName();
         String name = (alias != null) ? alias : realName;
         State state = item.getState();
         T persistenceItem = persistenceItemFromState(name, state, time);
-        logger.trace("store() called with item {}, which was converted to {} [{}]", item, persistenceItem, uuid);
-        if (writeImmediately) {
-            logger.debug("Writing immediately item {} [{}]", realName, uuid);
-            // We want to write everything immediately
-            // Synchronous behavior to ensure buffer does not get full.
-            synchronized (this) {
-                boolean buffered = addToBuffer(persistenceItem);
-                assert buffered;
-                flushBufferedData();
+        logger.trace("store() called with item {}, which was converted to {}", item, persistenceItem);
+        if (currentBuffer.offer(persistenceItem)) {
+            logger.trace("Buffered item {}, buffer size {}", realName, currentBuffer.size());
+            if (currentBuffer.size() >= flushThreshold) {
+                requestFlush();
             }
         } else {
-            long bufferStart = System.currentTimeMillis();
-            boolean buffered = addToBuffer(persistenceItem);
-            if (buffered) {
-                logger.debug("Buffered item {} in {} ms. Total time for store(): {} [{}]", realName,
-                        System.currentTimeMillis() - bufferStart, System.currentTimeMillis() - storeStart, uuid);
-            } else {
-                logger.debug(
-                        "Buffer is full. Writing buffered data immediately and trying again. Consider increasing bufferSize");
-                // Buffer is full, commit it immediately
-                flushBufferedData();
-                boolean buffered2 = addToBuffer(persistenceItem);
-                if (buffered2) {
-                    logger.debug("Buffered item in {} ms (2nd try, flushed buffer in-between) [{}]",
-                            System.currentTimeMillis() - bufferStart, uuid);
-                } else {
-                    // The unlikely case happened -- buffer got full again immediately
-                    logger.warn("Buffering failed for the second time -- Too small bufferSize? Discarding data [{}]",
-                            uuid);
-                }
-            }
+            long dropped = droppedItems.incrementAndGet();
+            logger.warn("Buffer is full, discarding state of item {} ({} states discarded in total). "
+                    + "Consider increasing bufferSize or write capacity", realName, dropped);
+            requestFlush();
         }
     }
 
-    protected boolean addToBuffer(T persistenceItem) {
+    /**
+     * Request an asynchronous flush of the buffer. Requests made while a flush is pending are merged.
+     */
+    protected void requestFlush() {
+        Executor executor = flushExecutor;
+        if (executor == null || !flushRequested.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            return buffer != null && buffer.offer(persistenceItem, BUFFER_OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            logger.warn("Interrupted when trying to buffer data! Dropping data");
-            return false;
+            executor.execute(() -> {
+                flushRequested.set(false);
+                try {
+                    flushBufferedData();
+                } catch (RuntimeException e) {
+                    logger.warn("Flushing buffered data failed unexpectedly", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+            logger.debug("Flush rejected, service is shutting down");
         }
     }
+
+    /**
+     * @return number of states currently waiting in the buffer
+     */
+    public int getBufferedItems() {
+        BlockingQueue<T> currentBuffer = buffer;
+        return currentBuffer == null ? 0 : currentBuffer.size();
+    }
+
+    /**
+     * @return number of states discarded because the buffer was full
+     */
+    public long getDroppedItems() {
+        return droppedItems.get();
+    }
 }
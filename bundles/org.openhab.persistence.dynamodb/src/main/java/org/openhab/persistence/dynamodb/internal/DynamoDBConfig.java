@@ -39,6 +39,7 @@ public class DynamoDBConfig {
     public static final long DEFAULT_WRITE_CAPACITY_UNITS = 1;
     public static final long DEFAULT_BUFFER_COMMIT_INTERVAL_MILLIS = 1000;
     public static final int DEFAULT_BUFFER_SIZE = 1000;
+    public static final int DEFAULT_WRITE_THREADS = 2;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBConfig.class);
 
@@ -50,6 +51,7 @@ public class DynamoDBConfig {
     private long writeCapacityUnits = DEFAULT_WRITE_CAPACITY_UNITS;
     private long bufferCommitIntervalMillis = DEFAULT_BUFFER_COMMIT_INTERVAL_MILLIS;
     private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int writeThreads = DEFAULT_WRITE_THREADS;
 
     /**
      *
@@ -141,8 +143,21 @@ public class DynamoDBConfig {
                 bufferSize = Integer.parseInt(bufferSizeParam);
             }
 
+            final int writeThreads;
+            String writeThreadsParam = (String) config.get("writeThreads");
+            if (writeThreadsParam == null || writeThreadsParam.isBlank()) {
+                LOGGER.debug("Write threads: {}", DEFAULT_WRITE_THREADS);
+                writeThreads = DEFAULT_WRITE_THREADS;
+            } else {
+                writeThreads = Integer.parseInt(writeThreadsParam);
+                if (writeThreads < 1) {
+                    LOGGER.error("writeThreads must be at least 1, got {}", writeThreads);
+                    return null;
+                }
+            }
+
             return new DynamoDBConfig(region, credentials, table, createTable, readCapacityUnits, writeCapacityUnits,
-                    bufferCommitIntervalMillis, bufferSize);
+                    bufferCommitIntervalMillis, bufferSize, writeThreads);
         } catch (Exception e) {
             LOGGER.error("Error with configuration", e);
             return null;
@@ -150,7 +165,8 @@ public class DynamoDBConfig {
     }
 
     public DynamoDBConfig(Regions region, AWSCredentials credentials, String table, boolean createTable,
-            long readCapacityUnits, long writeCapacityUnits, long bufferCommitIntervalMillis, int bufferSize) {
+            long readCapacityUnits, long writeCapacityUnits, long bufferCommitIntervalMillis, int bufferSize,
+            int writeThreads) {
         this.region = region;
         this.credentials = credentials;
         this.tablePrefix = table;
@@ -159,6 +175,7 @@ public class DynamoDBConfig {
         this.writeCapacityUnits = writeCapacityUnits;
         this.bufferCommitIntervalMillis = bufferCommitIntervalMillis;
         this.bufferSize = bufferSize;
+        this.writeThreads = writeThreads;
     }
 
     public AWSCredentials getCredentials() {
@@ -192,4 +209,8 @@ public class DynamoDBConfig {
     public int getBufferSize() {
         return bufferSize;
     }
+
+    public int getWriteThreads() {
+        return writeThreads;
+    }
 }
@@ -13,21 +13,21 @@
 package org.openhab.persistence.dynamodb.internal;
 
 import java.time.ZonedDateTime;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -57,6 +57,7 @@ import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.DefaultBatchWriteRetryStrategy;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
@@ -92,77 +93,90 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
 
     protected static final String CONFIG_URI = "persistence:dynamodb";
 
+    /**
+     * Writes unprocessed items again with exponential back-off. Instead of sleeping, every attempt is scheduled
+     * after the back-off delay and executed by the writer threads.
+     */
     private class ExponentialBackoffRetry implements Runnable {
         private int retry;
         private Map<String, List<WriteRequest>> unprocessedItems;
         private @Nullable Exception lastException;
 
-        public ExponentialBackoffRetry(Map<String, List<WriteRequest>> unprocessedItems) {
+        public ExponentialBackoffRetry(Map<String, List<WriteRequest>> unprocessedItems,
+                @Nullable Exception lastException) {
             this.unprocessedItems = unprocessedItems;
+            this.lastException = lastException;
         }
 
-        @Override
-        public void run() {
-            logger.debug("Error storing object to dynamo, unprocessed items: {}. Retrying with exponential back-off",
-                    unprocessedItems);
-            lastException = null;
-            while (!unprocessedItems.isEmpty() && retry < WAIT_MILLIS_IN_RETRIES.length) {
-                if (!sleep()) {
-                    // Interrupted
-                    return;
-                }
-                retry++;
-                try {
-                    BatchWriteItemOutcome outcome = DynamoDBPersistenceService.this.db.getDynamoDB()
-                            .batchWriteItemUnprocessed(unprocessedItems);
-                    unprocessedItems = outcome.getUnprocessedItems();
-                    lastException = null;
-                } catch (AmazonServiceException e) {
-                    if (e instanceof ResourceNotFoundException) {
-                        logger.debug(
-                                "DynamoDB query raised unexpected exception: {}. This might happen if table was recently created",
-                                e.getMessage());
-                    } else {
-                        logger.debug("DynamoDB query raised unexpected exception: {}.", e.getMessage());
-                    }
-                    lastException = e;
-                    continue;
-                }
-            }
-            if (unprocessedItems.isEmpty()) {
+        /**
+         * Schedule the next attempt, or give up if all retries are used
+         */
+        public void schedule() {
+            int remaining = countWriteRequests(unprocessedItems);
+            if (remaining == 0) {
                 logger.debug("After {} retries successfully wrote all unprocessed items", retry);
-            } else {
+                return;
+            }
+            if (retry >= WAIT_MILLIS_IN_RETRIES.length) {
+                Exception e = lastException;
                 logger.warn(
                         "Even after retries failed to write some items. Last exception: {} {}, unprocessed items: {}",
-                        lastException == null ? "null" : lastException.getClass().getName(),
-                        lastException == null ? "null" : lastException.getMessage(), unprocessedItems);
+                        e == null ? "null" : e.getClass().getName(), e == null ? "null" : e.getMessage(),
+                        unprocessedItems);
+                statistics.itemsFailed(remaining);
+                inFlightItems.addAndGet(-remaining);
+                return;
+            }
+            long delay = retry == 0 && lastException instanceof ResourceNotFoundException
+                    ? WAIT_ON_FIRST_RESOURCE_NOT_FOUND_MILLIS
+                    : WAIT_MILLIS_IN_RETRIES[retry];
+            retry++;
+            try {
+                scheduler.schedule(() -> executeWrite(this, remaining), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                discard(remaining);
             }
         }
 
-        private boolean sleep() {
+        @Override
+        public void run() {
+            logger.debug("Error storing object to dynamo, unprocessed items: {}. Retrying with exponential back-off",
+                    unprocessedItems);
+            int before = countWriteRequests(unprocessedItems);
+            DynamoDBClient localDb = db;
+            if (localDb == null) {
+                discard(before);
+                return;
+            }
             try {
-                long sleepTime;
-                if (retry == 1 && lastException != null && lastException instanceof ResourceNotFoundException) {
-                    sleepTime = WAIT_ON_FIRST_RESOURCE_NOT_FOUND_MILLIS;
+                BatchWriteItemOutcome outcome = localDb.getDynamoDB().batchWriteItemUnprocessed(unprocessedItems);
+                unprocessedItems = outcome.getUnprocessedItems();
+                lastException = null;
+            } catch (AmazonServiceException e) {
+                if (e instanceof ResourceNotFoundException) {
+                    logger.debug(
+                            "DynamoDB query raised unexpected exception: {}. This might happen if table was recently created",
+                            e.getMessage());
                 } else {
-                    sleepTime = WAIT_MILLIS_IN_RETRIES[retry];
+                    logger.debug("DynamoDB query raised unexpected exception: {}.", e.getMessage());
                 }
-                Thread.sleep(sleepTime);
-                return true;
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted while writing data!");
-                return false;
+                lastException = e;
             }
-        }
-
-        public Map<String, List<WriteRequest>> getUnprocessedItems() {
-            return unprocessedItems;
+            int written = before - countWriteRequests(unprocessedItems);
+            statistics.itemsWritten(written);
+            inFlightItems.addAndGet(-written);
+            schedule();
         }
     }
 
     private static final int WAIT_ON_FIRST_RESOURCE_NOT_FOUND_MILLIS = 5000;
     private static final int[] WAIT_MILLIS_IN_RETRIES = new int[] { 100, 100, 200, 300, 500 };
     private static final String DYNAMODB_THREADPOOL_NAME = "dynamodbPersistenceService";
+    private static final String DYNAMODB_WRITER_THREADPOOL_NAME = "dynamodbPersistenceService-writer";
+    private static final int MAX_BATCH_WRITE_ITEMS = 25;
+    // DynamoDB retains up to five minutes of unused write capacity for bursts
+    private static final long BURST_CAPACITY_SECONDS = 300;
+    private static final long WRITERS_SHUTDOWN_TIMEOUT_SECONDS = 10;
 
     private final ItemRegistry itemRegistry;
     private @Nullable DynamoDBClient db;
@@ -173,6 +187,10 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(DYNAMODB_THREADPOOL_NAME));
     private @Nullable ScheduledFuture<?> writeBufferedDataFuture;
+    private @Nullable ExecutorService writers;
+    private @Nullable TokenBucket writeCapacity;
+    private final AtomicInteger inFlightItems = new AtomicInteger();
+    private final WriteStatistics statistics = new WriteStatistics();
 
     @Activate
     public DynamoDBPersistenceService(final @Reference ItemRegistry itemRegistry) {
@@ -211,7 +229,11 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
         }
 
         writeBufferedDataFuture = null;
-        resetWithBufferSize(dbConfig.getBufferSize());
+        writers = Executors.newFixedThreadPool(dbConfig.getWriteThreads(),
+                new NamedThreadFactory(DYNAMODB_WRITER_THREADPOOL_NAME));
+        writeCapacity = new TokenBucket(dbConfig.getWriteCapacityUnits(),
+                dbConfig.getWriteCapacityUnits() * BURST_CAPACITY_SECONDS);
+        resetWithBufferSize(dbConfig.getBufferSize(), scheduler);
         long commitIntervalMillis = dbConfig.getBufferCommitIntervalMillis();
         if (commitIntervalMillis > 0) {
             writeBufferedDataFuture = scheduler.scheduleWithFixedDelay(new Runnable() {
@@ -242,9 +264,59 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
             writeBufferedDataFuture.cancel(false);
             writeBufferedDataFuture = null;
         }
+        ExecutorService currentWriters = writers;
+        if (currentWriters != null) {
+            // Hand the remaining buffered data to the writers before shutting them down
+            if (isProperlyConfigured) {
+                flushBufferedData(true);
+            }
+            currentWriters.shutdown();
+            try {
+                if (!currentWriters.awaitTermination(WRITERS_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Pending writes did not complete in {} seconds", WRITERS_SHUTDOWN_TIMEOUT_SECONDS);
+                    currentWriters.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                currentWriters.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            writers = null;
+            logger.debug("Write statistics: {}", getStatisticsSummary());
+        }
         resetClient();
     }
 
+    /**
+     * For testing. Waits until all stored data has been written or given up on.
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return whether all pending writes completed in time
+     */
+    boolean awaitPendingWrites(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        requestFlush();
+        while (getBufferedItems() > 0 || inFlightItems.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            if (getBufferedItems() > 0) {
+                // Items kept buffered because of the write capacity
+                requestFlush();
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    public WriteStatistics getStatistics() {
+        return statistics;
+    }
+
+    private String getStatisticsSummary() {
+        return "buffered=" + getBufferedItems() + ", inFlight=" + inFlightItems.get() + ", dropped="
+                + getDroppedItems() + ", " + statistics;
+    }
+
     /**
      * Initializes DynamoDBClient (db field)
      *
@@ -360,7 +432,9 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
         try {
             DynamoDBMapperConfig mapperConfig = new DynamoDBMapperConfig.Builder()
                     .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride(tableName))
-                    .withPaginationLoadingStrategy(PaginationLoadingStrategy.LAZY_LOADING).build();
+                    .withPaginationLoadingStrategy(PaginationLoadingStrategy.LAZY_LOADING)
+                    // unprocessed items are retried asynchronously by ExponentialBackoffRetry
+                    .withBatchWriteRetryStrategy(new DefaultBatchWriteRetryStrategy(0)).build();
             return new DynamoDBMapper(db.getDynamoClient(), mapperConfig);
         } catch (AmazonClientException e) {
             logger.error("Error getting db mapper: {}", e.getMessage());
@@ -388,100 +462,171 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
         return Collections.emptySet();
     }
 
+    /**
+     * Drain the buffer into batches of at most {@value #MAX_BATCH_WRITE_ITEMS} items per table, which are written
+     * concurrently by the writer threads as the write capacity allows. Items exceeding the write capacity stay in the
+     * buffer, so that a sustained overload fills the buffer and new states are discarded.
+     */
     @Override
     protected void flushBufferedData() {
-        if (buffer != null && buffer.isEmpty()) {
+        flushBufferedData(false);
+    }
+
+    /**
+     * @param ignoreCapacity whether to drain the whole buffer regardless of the write capacity, used on shutdown
+     */
+    private void flushBufferedData(boolean ignoreCapacity) {
+        BlockingQueue<DynamoDBItem<?>> currentBuffer = buffer;
+        if (currentBuffer == null || currentBuffer.isEmpty()) {
             return;
         }
-        logger.debug("Writing buffered data. Buffer size: {}", buffer.size());
-
-        for (;;) {
-            Map<String, Deque<DynamoDBItem<?>>> itemsByTable = readBuffer();
-            // Write batch of data, one table at a time
-            for (Entry<String, Deque<DynamoDBItem<?>>> entry : itemsByTable.entrySet()) {
-                String tableName = entry.getKey();
-                Deque<DynamoDBItem<?>> batch = entry.getValue();
-                if (!batch.isEmpty()) {
-                    flushBatch(getDBMapper(tableName), batch);
-                }
+        logger.debug("Writing buffered data. Buffer size: {}", currentBuffer.size());
+
+        TokenBucket bucket = ignoreCapacity ? null : writeCapacity;
+        Map<String, PendingBatch> batchesByTable = new HashMap<>(2);
+        // Only drain what is buffered now, so that a steady stream of stores does not keep the flush going
+        for (int remaining = currentBuffer.size(); remaining > 0; remaining--) {
+            long delayNanos = bucket == null ? 0 : bucket.reserve(1);
+            if (delayNanos == TokenBucket.NOT_AVAILABLE) {
+                logger.debug("Write capacity exhausted, keeping {} items buffered", currentBuffer.size());
+                break;
             }
-            if (buffer != null && buffer.isEmpty()) {
+            // Count the item as in flight before it leaves the buffer
+            inFlightItems.incrementAndGet();
+            DynamoDBItem<?> dynamoItem = currentBuffer.poll();
+            if (dynamoItem == null) {
+                inFlightItems.decrementAndGet();
+                if (bucket != null) {
+                    bucket.release(1);
+                }
                 break;
             }
+            String tableName = tableNameResolver.fromItem(dynamoItem);
+            PendingBatch batch = batchesByTable.computeIfAbsent(tableName, t -> new PendingBatch());
+            batch.items.add(dynamoItem);
+            // Tokens are reserved in order, the last item of a batch has the longest delay
+            batch.delayNanos = delayNanos;
+            if (batch.items.size() == MAX_BATCH_WRITE_ITEMS) {
+                submitBatch(tableName, batch);
+                batchesByTable.remove(tableName);
+            }
         }
+        batchesByTable.forEach(this::submitBatch);
+        logger.debug("Write statistics: {}", getStatisticsSummary());
     }
 
-    private Map<String, Deque<DynamoDBItem<?>>> readBuffer() {
-        Map<String, Deque<DynamoDBItem<?>>> batchesByTable = new HashMap<>(2);
-        // Get batch of data
-        while (!buffer.isEmpty()) {
-            DynamoDBItem<?> dynamoItem = buffer.poll();
-            if (dynamoItem == null) {
-                break;
+    private static class PendingBatch {
+        private final List<DynamoDBItem<?>> items = new ArrayList<>(MAX_BATCH_WRITE_ITEMS);
+        private long delayNanos;
+    }
+
+    private void submitBatch(String tableName, PendingBatch pending) {
+        List<DynamoDBItem<?>> batch = pending.items;
+        long delayNanos = pending.delayNanos;
+        Runnable write = () -> writeBatch(tableName, batch);
+        if (delayNanos > 0) {
+            logger.trace("Delaying write of {} items by {} ms to honor the write capacity", batch.size(),
+                    TimeUnit.NANOSECONDS.toMillis(delayNanos));
+            try {
+                scheduler.schedule(() -> executeWrite(write, batch.size()), delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                discard(batch.size());
             }
-            String tableName = tableNameResolver.fromItem(dynamoItem);
-            Deque<DynamoDBItem<?>> batch = batchesByTable.computeIfAbsent(tableName, new Function<>() {
-                @Override
-                public @Nullable Deque<DynamoDBItem<?>> apply(@Nullable String t) {
-                    return new ArrayDeque<>();
-                }
-            });
-            batch.add(dynamoItem);
+        } else {
+            executeWrite(write, batch.size());
         }
-        return batchesByTable;
+    }
+
+    private void executeWrite(Runnable write, int itemCount) {
+        ExecutorService currentWriters = writers;
+        if (currentWriters == null) {
+            discard(itemCount);
+            return;
+        }
+        try {
+            currentWriters.execute(write);
+        } catch (RejectedExecutionException e) {
+            discard(itemCount);
+        }
+    }
+
+    private void discard(int itemCount) {
+        logger.warn("Service is shutting down. Discarding {} items that were not written yet", itemCount);
+        statistics.itemsFailed(itemCount);
+        inFlightItems.addAndGet(-itemCount);
     }
 
     /**
-     * Flush batch of data to DynamoDB
+     * Write batch of data to DynamoDB. Failed parts are retried asynchronously.
      *
-     * @param mapper mapper associated with the batch
+     * @param tableName table the batch is written to
      * @param batch batch of data to write to DynamoDB
      */
-    private void flushBatch(DynamoDBMapper mapper, Deque<DynamoDBItem<?>> batch) {
-        long currentTimeMillis = System.currentTimeMillis();
-        List<FailedBatch> failed = mapper.batchSave(batch);
-        for (FailedBatch failedBatch : failed) {
-            if (failedBatch.getException() instanceof ResourceNotFoundException) {
-                // Table did not exist. Try again after creating table
-                retryFlushAfterCreatingTable(mapper, batch, failedBatch);
+    private void writeBatch(String tableName, List<DynamoDBItem<?>> batch) {
+        long start = System.nanoTime();
+        int unprocessed = 0;
+        try {
+            DynamoDBMapper mapper = getDBMapper(tableName);
+            List<FailedBatch> failed = mapper.batchSave(batch);
+            for (FailedBatch failedBatch : failed) {
+                Map<String, List<WriteRequest>> unprocessedItems = failedBatch.getUnprocessedItems();
+                unprocessed += countWriteRequests(unprocessedItems);
+                Exception exception = failedBatch.getException();
+                if (exception instanceof ResourceNotFoundException) {
+                    // Table did not exist. Try again after creating table
+                    retryFlushAfterCreatingTable(mapper, batch, failedBatch);
+                } else {
+                    logger.debug("Batch failed with {}. Retrying next with exponential back-off",
+                            exception == null ? "unprocessed items" : exception.getMessage());
+                    new ExponentialBackoffRetry(unprocessedItems, exception).schedule();
+                }
+            }
+            if (failed.isEmpty()) {
+                logger.debug("writeBatch ended with {} items in {} ms: {}", batch.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), batch);
             } else {
-                logger.debug("Batch failed with {}. Retrying next with exponential back-off",
-                        failedBatch.getException().getMessage());
-                new ExponentialBackoffRetry(failedBatch.getUnprocessedItems()).run();
+                logger.debug("writeBatch ended with {} items in {} ms, {} items are retried: {}", batch.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), unprocessed, batch);
             }
+        } catch (AmazonClientException e) {
+            logger.warn("Writing batch of {} items failed: {}", batch.size(), e.getMessage());
+            statistics.itemsFailed(batch.size() - unprocessed);
+            inFlightItems.addAndGet(unprocessed - batch.size());
+            return;
+        } finally {
+            statistics.batchCompleted(System.nanoTime() - start);
         }
-        if (failed.isEmpty()) {
-            logger.debug("flushBatch ended with {} items in {} ms: {}", batch.size(),
-                    System.currentTimeMillis() - currentTimeMillis, batch);
-        } else {
-            logger.warn(
-                    "flushBatch ended with {} items in {} ms: {}. There were some failed batches that were retried -- check logs for ERRORs to see if writes were successful",
-                    batch.size(), System.currentTimeMillis() - currentTimeMillis, batch);
+        statistics.itemsWritten(batch.size() - unprocessed);
+        inFlightItems.addAndGet(unprocessed - batch.size());
+    }
+
+    private static int countWriteRequests(Map<String, List<WriteRequest>> writeRequests) {
+        int count = 0;
+        for (List<WriteRequest> requests : writeRequests.values()) {
+            count += requests.size();
         }
+        return count;
     }
 
     /**
-     * Retry flushing data after creating table associated with mapper
+     * Retry writing data after creating table associated with mapper
      *
      * @param mapper mapper associated with the batch
      * @param batch original batch of data. Used for logging and to determine table name
      * @param failedBatch failed batch that should be retried
      */
-    private void retryFlushAfterCreatingTable(DynamoDBMapper mapper, Deque<DynamoDBItem<?>> batch,
+    private void retryFlushAfterCreatingTable(DynamoDBMapper mapper, List<DynamoDBItem<?>> batch,
             FailedBatch failedBatch) {
         logger.debug("Table was not found. Trying to create table and try saving again");
-        if (createTable(mapper, batch.peek().getClass())) {
+        if (createTable(mapper, batch.get(0).getClass())) {
             logger.debug("Table creation successful, trying to save again");
-            if (!failedBatch.getUnprocessedItems().isEmpty()) {
-                ExponentialBackoffRetry retry = new ExponentialBackoffRetry(failedBatch.getUnprocessedItems());
-                retry.run();
-                if (retry.getUnprocessedItems().isEmpty()) {
-                    logger.debug("Successfully saved items after table creation");
-                }
-            }
+            new ExponentialBackoffRetry(failedBatch.getUnprocessedItems(), null).schedule();
         } else {
+            int unprocessed = countWriteRequests(failedBatch.getUnprocessedItems());
             logger.warn("Table creation failed. Not storing some parts of batch: {}. Unprocessed items: {}", batch,
                     failedBatch.getUnprocessedItems());
+            statistics.itemsFailed(unprocessed);
+            inFlightItems.addAndGet(-unprocessed);
         }
     }
 
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Token bucket limiting writes to the write capacity of the tables. Reserving tokens never blocks, instead the time
+ * until the reserved tokens are available is returned, so that the caller can schedule the write accordingly.
+ * <p>
+ * The bucket goes into debt by at most its capacity. Reservations beyond that are refused, so that the caller keeps
+ * the data buffered instead of scheduling writes further and further into the future.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class TokenBucket {
+    /**
+     * Returned by {@link #reserve(int)} if the tokens are not available now
+     */
+    public static final long NOT_AVAILABLE = -1;
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param tokensPerSecond rate at which the bucket is refilled
+     * @param capacity maximum number of tokens, i.e. the size of a burst. The bucket starts full.
+     */
+    public TokenBucket(double tokensPerSecond, double capacity) {
+        this(tokensPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double tokensPerSecond, double capacity, LongSupplier nanoClock) {
+        if (tokensPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Reserve tokens. The reservation may go into debt that later reservations have to wait for, but the debt never
+     * exceeds the capacity of the bucket.
+     *
+     * @param count number of tokens to reserve
+     * @return nanoseconds to wait before the reserved tokens may be used, 0 if they can be used immediately, or
+     *         {@link #NOT_AVAILABLE} if the reservation would exceed the maximum debt. Nothing is reserved then.
+     */
+    public synchronized long reserve(int count) {
+        refill();
+        if (tokens - count < -capacity) {
+            return NOT_AVAILABLE;
+        }
+        tokens -= count;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    /**
+     * Return tokens of a reservation that was not used.
+     *
+     * @param count number of tokens to return
+     */
+    public synchronized void release(int count) {
+        refill();
+        tokens = Math.min(capacity, tokens + count);
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
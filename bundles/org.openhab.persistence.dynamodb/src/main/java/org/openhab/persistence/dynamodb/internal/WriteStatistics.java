@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Counters of the write pipeline of {@link DynamoDBPersistenceService}
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class WriteStatistics {
+    private final AtomicLong writtenItems = new AtomicLong();
+    private final AtomicLong failedItems = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    void itemsWritten(int count) {
+        writtenItems.addAndGet(count);
+    }
+
+    void itemsFailed(int count) {
+        failedItems.addAndGet(count);
+    }
+
+    void batchCompleted(long latencyNanos) {
+        batches.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    public long getWrittenItems() {
+        return writtenItems.get();
+    }
+
+    public long getFailedItems() {
+        return failedItems.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getAverageLatencyMillis() {
+        long count = batches.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / count);
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "written=" + getWrittenItems() + ", failed=" + getFailedItems() + ", batches=" + getBatches()
+                + ", avgLatency=" + getAverageLatencyMillis() + "ms, maxLatency=" + getMaxLatencyMillis() + "ms";
+    }
+}
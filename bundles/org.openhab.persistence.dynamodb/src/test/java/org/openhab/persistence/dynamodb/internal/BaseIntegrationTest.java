@@ -21,6 +21,7 @@ import java.util.stream.Stream;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.openhab.core.common.registry.RegistryChangeListener;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -200,6 +201,17 @@ public class BaseIntegrationTest {
         clearData();
     }
 
+    /**
+     * Stores are written asynchronously, wait for them before querying
+     */
+    @BeforeEach
+    public void awaitPendingWrites() throws InterruptedException {
+        DynamoDBPersistenceService localService = service;
+        if (localService != null && !localService.awaitPendingWrites(30000)) {
+            LOGGER.warn("Pending writes did not complete in time");
+        }
+    }
+
     protected static void clearData() {
         // Clear data
         for (String table : new String[] { "dynamodb-integration-tests-bigdecimal",
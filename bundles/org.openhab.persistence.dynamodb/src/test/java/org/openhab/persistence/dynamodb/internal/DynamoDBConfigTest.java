@@ -78,6 +78,7 @@ public class DynamoDBConfigTest {
         assertEquals(1, fromConfig.getWriteCapacityUnits());
         assertEquals(1000L, fromConfig.getBufferCommitIntervalMillis());
         assertEquals(1000, fromConfig.getBufferSize());
+        assertEquals(2, fromConfig.getWriteThreads());
     }
 
     @Test
@@ -218,4 +219,18 @@ public class DynamoDBConfigTest {
         assertEquals(501L, fromConfig.getBufferCommitIntervalMillis());
         assertEquals(112, fromConfig.getBufferSize());
     }
+
+    @Test
+    public void testRegionWithAccessKeysWithWriteThreads() throws Exception {
+        DynamoDBConfig fromConfig = DynamoDBConfig.fromConfig(
+                mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey", "secret1", "writeThreads", "4"));
+        assertEquals(Regions.EU_WEST_1, fromConfig.getRegion());
+        assertEquals(4, fromConfig.getWriteThreads());
+    }
+
+    @Test
+    public void testRegionWithAccessKeysWithInvalidWriteThreads() throws Exception {
+        assertNull(DynamoDBConfig.fromConfig(
+                mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey", "secret1", "writeThreads", "0")));
+    }
 }
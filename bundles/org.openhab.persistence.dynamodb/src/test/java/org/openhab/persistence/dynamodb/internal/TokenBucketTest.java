@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author openHAB Contributors - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class TokenBucketTest {
+
+    private long now;
+
+    @Test
+    public void testBurstWithinCapacityIsNotDelayed() {
+        TokenBucket bucket = new TokenBucket(1, 50, () -> now);
+        assertEquals(0, bucket.reserve(25));
+        assertEquals(0, bucket.reserve(25));
+    }
+
+    @Test
+    public void testReservationBeyondCapacityIsDelayed() {
+        TokenBucket bucket = new TokenBucket(10, 25, () -> now);
+        assertEquals(0, bucket.reserve(25));
+        // 5 tokens missing at 10 tokens per second
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), bucket.reserve(5));
+        // the debt of the previous reservation has to be paid first
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), bucket.reserve(5));
+    }
+
+    @Test
+    public void testBucketRefillsUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 25, () -> now);
+        assertEquals(0, bucket.reserve(25));
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, bucket.reserve(10));
+        now += TimeUnit.SECONDS.toNanos(60);
+        assertEquals(0, bucket.reserve(25));
+        assertTrue(bucket.reserve(1) > 0);
+    }
+
+    @Test
+    public void testDebtIsLimitedToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 25, () -> now);
+        assertEquals(0, bucket.reserve(25));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2500), bucket.reserve(25));
+        assertEquals(TokenBucket.NOT_AVAILABLE, bucket.reserve(1));
+        // a refused reservation does not add to the debt
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2500), bucket.reserve(1));
+    }
+
+    @Test
+    public void testReleaseReturnsTokens() {
+        TokenBucket bucket = new TokenBucket(10, 25, () -> now);
+        assertEquals(0, bucket.reserve(25));
+        bucket.release(5);
+        assertEquals(0, bucket.reserve(5));
+        bucket.release(100);
+        assertEquals(0, bucket.reserve(25));
+    }
+
+    @Test
+    public void testSustainedOverload() {
+        // 1 write capacity unit with five minutes of burst capacity, offered 25 items every 100 ms for one hour
+        double rate = 1;
+        double capacity = 300;
+        TokenBucket bucket = new TokenBucket(rate, capacity, () -> now);
+        long step = TimeUnit.MILLISECONDS.toNanos(100);
+        long duration = TimeUnit.HOURS.toNanos(1);
+        long reserved = 0;
+        long refused = 0;
+        long maxDelay = 0;
+        for (long elapsed = 0; elapsed < duration; elapsed += step) {
+            for (int i = 0; i < 25; i++) {
+                long delay = bucket.reserve(1);
+                if (delay == TokenBucket.NOT_AVAILABLE) {
+                    refused++;
+                } else {
+                    reserved++;
+                    maxDelay = Math.max(maxDelay, delay);
+                }
+            }
+            now += step;
+        }
+        // the scheduled writes never reach further ahead than the capacity allows
+        assertTrue(maxDelay <= TimeUnit.SECONDS.toNanos((long) (capacity / rate)));
+        // only the rate plus the initial burst and the maximum debt is reserved, the rest is kept back
+        assertTrue(reserved <= rate * TimeUnit.NANOSECONDS.toSeconds(duration) + 2 * capacity);
+        assertTrue(reserved >= rate * TimeUnit.NANOSECONDS.toSeconds(duration));
+        assertTrue(refused > 0);
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.persistence.influxdb;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -23,9 +24,11 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.registry.RegistryChangeListener;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.Metadata;
 import org.openhab.core.items.MetadataRegistry;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -95,6 +98,56 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
     private @NonNullByDefault({}) ItemToStorePointCreator itemToStorePointCreator;
     private @NonNullByDefault({}) InfluxDBRepository influxDBRepository;
 
+    // Keep the cached point templates of itemToStorePointCreator up to date
+    private final RegistryChangeListener<Metadata> metadataChangeListener = new RegistryChangeListener<>() {
+        @Override
+        public void added(Metadata element) {
+            invalidate(element);
+        }
+
+        @Override
+        public void removed(Metadata element) {
+            invalidate(element);
+        }
+
+        @Override
+        public void updated(Metadata oldElement, Metadata element) {
+            invalidate(oldElement);
+            invalidate(element);
+        }
+
+        private void invalidate(Metadata metadata) {
+            ItemToStorePointCreator creator = itemToStorePointCreator;
+            if (creator != null && SERVICE_NAME.equals(metadata.getUID().getNamespace())) {
+                creator.invalidate(metadata.getUID().getItemName());
+            }
+        }
+    };
+
+    private final RegistryChangeListener<Item> itemChangeListener = new RegistryChangeListener<>() {
+        @Override
+        public void added(Item element) {
+            invalidate(element);
+        }
+
+        @Override
+        public void removed(Item element) {
+            invalidate(element);
+        }
+
+        @Override
+        public void updated(Item oldElement, Item element) {
+            invalidate(element);
+        }
+
+        private void invalidate(Item item) {
+            ItemToStorePointCreator creator = itemToStorePointCreator;
+            if (creator != null) {
+                creator.invalidate(item.getName());
+            }
+        }
+    };
+
     @Activate
     public InfluxDBPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference MetadataRegistry metadataRegistry) {
@@ -111,6 +164,8 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
         if (loadConfiguration(config)) {
             itemToStorePointCreator = new ItemToStorePointCreator(configuration, metadataRegistry);
+            metadataRegistry.addRegistryChangeListener(metadataChangeListener);
+            itemRegistry.addRegistryChangeListener(itemChangeListener);
             influxDBRepository = createInfluxDBRepository();
             influxDBRepository.connect();
         } else {
@@ -136,6 +191,8 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             influxDBRepository = null;
         }
         if (itemToStorePointCreator != null) {
+            metadataRegistry.removeRegistryChangeListener(metadataChangeListener);
+            itemRegistry.removeRegistryChangeListener(itemChangeListener);
             itemToStorePointCreator = null;
         }
     }
@@ -228,8 +285,9 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             String query = RepositoryFactory.createQueryCreator(configuration, metadataRegistry).createQuery(filter,
                     configuration.getRetentionPolicy());
             logger.trace("Query {}", query);
-            List<InfluxRow> results = influxDBRepository.query(query);
-            return results.stream().map(this::mapRow2HistoricItem).collect(Collectors.toList());
+            List<HistoricItem> results = new ArrayList<>();
+            influxDBRepository.query(query, row -> results.add(mapRow2HistoricItem(row)));
+            return results;
         } else {
             logger.debug("query ignored, InfluxDB is not yet connected");
             return Collections.emptyList();
@@ -12,6 +12,9 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.persistence.FilterCriteria;
 
@@ -31,6 +34,31 @@ public interface FilterCriteriaQueryCreator {
      */
     String createQuery(FilterCriteria criteria, String retentionPolicy);
 
+    /**
+     * Calculate the window length a query has to be downsampled with, so that it returns at most the given number of
+     * points. Only range queries of a single item without state filter are downsampled, and only if the requested
+     * page does not already bound the number of returned points.
+     *
+     * @param criteria Criteria the query is created from
+     * @param maxQueryPoints Maximum number of points the query should return, 0 disables downsampling
+     * @return Window length in milliseconds, or 0 if the query does not need to be downsampled
+     */
+    default long calculateDownsamplingWindow(FilterCriteria criteria, int maxQueryPoints) {
+        ZonedDateTime beginDate = criteria.getBeginDate();
+        if (maxQueryPoints <= 0 || beginDate == null || criteria.getItemName() == null
+                || (criteria.getState() != null && criteria.getOperator() != null)
+                || criteria.getPageSize() <= maxQueryPoints || criteria.getPageNumber() != 0) {
+            return 0;
+        }
+        ZonedDateTime endDate = criteria.getEndDate();
+        long rangeMillis = Duration.between(beginDate, endDate != null ? endDate : ZonedDateTime.now()).toMillis();
+        if (rangeMillis <= maxQueryPoints) {
+            // windows of less than a millisecond would not reduce anything
+            return 0;
+        }
+        return (rangeMillis + maxQueryPoints - 1) / maxQueryPoints;
+    }
+
     default String getOperationSymbol(FilterCriteria.Operator operator, InfluxDBVersion version) {
         switch (operator) {
             case EQ:
@@ -32,4 +32,7 @@ public class InfluxDBConstants {
     public static final String TAG_CATEGORY_NAME = "category";
     public static final String TAG_TYPE_NAME = "type";
     public static final String TAG_LABEL_NAME = "label";
+
+    public static final int QUERY_CHUNK_SIZE = 1000;
+    public static final long QUERY_TIMEOUT_SECONDS = 60;
 }
@@ -12,8 +12,8 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
-import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 
@@ -58,12 +58,13 @@ public interface InfluxDBRepository {
     Map<String, Integer> getStoredItemsCount();
 
     /**
-     * Executes Flux query
+     * Executes a query and passes the returned rows to the consumer while the response is received, so that the
+     * complete result is never held in an intermediate representation
      *
      * @param query Query
-     * @return Query results
+     * @param consumer Consumer the returned rows are passed to, in the order they are received
      */
-    List<InfluxRow> query(String query);
+    void query(String query, Consumer<InfluxRow> consumer);
 
     /**
      * Write point to database
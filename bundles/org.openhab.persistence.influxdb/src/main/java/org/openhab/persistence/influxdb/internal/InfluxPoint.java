@@ -64,6 +64,7 @@ public class InfluxPoint {
         private Instant time;
         private Object value;
         private Map<String, String> tags = new HashMap<>();
+        private boolean sharedTags = false;
 
         private Builder(String measurementName) {
             this.measurementName = measurementName;
@@ -80,10 +81,27 @@ public class InfluxPoint {
         }
 
         public Builder withTag(String name, String value) {
+            if (sharedTags) {
+                tags = new HashMap<>(tags);
+                sharedTags = false;
+            }
             tags.put(name, value);
             return this;
         }
 
+        /**
+         * Uses the given immutable map as tags without copying it. Tags added afterwards are added to a copy.
+         */
+        public Builder withTags(Map<String, String> val) {
+            if (tags.isEmpty()) {
+                tags = val;
+                sharedTags = true;
+            } else {
+                val.forEach(this::withTag);
+            }
+            return this;
+        }
+
         public InfluxPoint build() {
             return new InfluxPoint(this);
         }
@@ -15,7 +15,11 @@ package org.openhab.persistence.influxdb.internal;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -30,12 +34,18 @@ import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
 /**
  * Logic to create an InfluxDB {@link InfluxPoint} from an openHAB {@link Item}
  *
+ * The measurement name, the tags and the type conversion of an item only depend on the item, its metadata and the
+ * configuration. They are computed once per item into an {@link ItemTemplate}, so storing a value only needs to fill
+ * in the value and the time. Templates have to be invalidated with {@link #invalidate(String)} when the item or its
+ * metadata changes.
+ *
  * @author Joan Pujol Espinar - Initial contribution
  */
 @NonNullByDefault
 public class ItemToStorePointCreator {
     private final InfluxDBConfiguration configuration;
     private final @Nullable MetadataRegistry metadataRegistry;
+    private final Map<String, ItemTemplate> templates = new ConcurrentHashMap<>();
 
     public ItemToStorePointCreator(InfluxDBConfiguration configuration, @Nullable MetadataRegistry metadataRegistry) {
         this.configuration = configuration;
@@ -47,18 +57,47 @@ public class ItemToStorePointCreator {
             return null;
         }
 
-        String measurementName = calculateMeasurementName(item, storeAlias);
-        String itemName = item.getName();
-        State state = getItemState(item);
+        ItemTemplate template = getTemplate(item, storeAlias);
+        State state = getItemState(item, template.desiredConversion);
 
         Object value = InfluxDBStateConvertUtils.stateToObject(state);
 
-        InfluxPoint.Builder point = InfluxPoint.newBuilder(measurementName).withTime(Instant.now()).withValue(value)
-                .withTag(TAG_ITEM_NAME, itemName);
+        return InfluxPoint.newBuilder(template.measurementName).withTime(Instant.now()).withValue(value)
+                .withTags(template.tags).build();
+    }
+
+    /**
+     * Drops the cached template of the given item, e.g. because the item or its metadata changed.
+     *
+     * @param itemName the item name
+     */
+    public void invalidate(String itemName) {
+        templates.remove(itemName);
+    }
 
-        addPointTags(item, point);
+    /**
+     * Drops all cached templates.
+     */
+    public void invalidateAll() {
+        templates.clear();
+    }
 
-        return point.build();
+    private ItemTemplate getTemplate(Item item, @Nullable String storeAlias) {
+        ItemTemplate template = templates.get(item.getName());
+        // An item instance is replaced when the item is updated in the registry
+        if (template == null || template.item != item || !Objects.equals(template.storeAlias, storeAlias)) {
+            template = createTemplate(item, storeAlias);
+            templates.put(item.getName(), template);
+        }
+        return template;
+    }
+
+    private ItemTemplate createTemplate(Item item, @Nullable String storeAlias) {
+        Map<String, String> tags = new HashMap<>();
+        tags.put(TAG_ITEM_NAME, item.getName());
+        addPointTags(item, tags);
+        return new ItemTemplate(item, storeAlias, calculateMeasurementName(item, storeAlias), Map.copyOf(tags),
+                calculateDesiredTypeConversionToStore(item));
     }
 
     private String calculateMeasurementName(Item item, @Nullable String storeAlias) {
@@ -74,9 +113,8 @@ public class ItemToStorePointCreator {
         return name;
     }
 
-    private State getItemState(Item item) {
+    private State getItemState(Item item, Optional<Class<? extends State>> desiredConversion) {
         final State state;
-        final Optional<Class<? extends State>> desiredConversion = calculateDesiredTypeConversionToStore(item);
         if (desiredConversion.isPresent()) {
             State convertedState = item.getStateAs(desiredConversion.get());
             if (convertedState != null) {
@@ -95,17 +133,17 @@ public class ItemToStorePointCreator {
                 .findFirst().map(commandType -> commandType.asSubclass(State.class));
     }
 
-    private void addPointTags(Item item, InfluxPoint.Builder point) {
+    private void addPointTags(Item item, Map<String, String> tags) {
         if (configuration.isAddCategoryTag()) {
             String categoryName = item.getCategory();
             if (categoryName == null) {
                 categoryName = "n/a";
             }
-            point.withTag(TAG_CATEGORY_NAME, categoryName);
+            tags.put(TAG_CATEGORY_NAME, categoryName);
         }
 
         if (configuration.isAddTypeTag()) {
-            point.withTag(TAG_TYPE_NAME, item.getType());
+            tags.put(TAG_TYPE_NAME, item.getType());
         }
 
         if (configuration.isAddLabelTag()) {
@@ -113,7 +151,7 @@ public class ItemToStorePointCreator {
             if (labelName == null) {
                 labelName = "n/a";
             }
-            point.withTag(TAG_LABEL_NAME, labelName);
+            tags.put(TAG_LABEL_NAME, labelName);
         }
 
         final MetadataRegistry currentMetadataRegistry = metadataRegistry;
@@ -122,9 +160,29 @@ public class ItemToStorePointCreator {
             Metadata metadata = currentMetadataRegistry.get(key);
             if (metadata != null) {
                 metadata.getConfiguration().forEach((tagName, tagValue) -> {
-                    point.withTag(tagName, tagValue.toString());
+                    tags.put(tagName, tagValue.toString());
                 });
             }
         }
     }
+
+    /**
+     * Precomputed, immutable part of the points of an item
+     */
+    private static class ItemTemplate {
+        final Item item;
+        final @Nullable String storeAlias;
+        final String measurementName;
+        final Map<String, String> tags;
+        final Optional<Class<? extends State>> desiredConversion;
+
+        ItemTemplate(Item item, @Nullable String storeAlias, String measurementName, Map<String, String> tags,
+                Optional<Class<? extends State>> desiredConversion) {
+            this.item = item;
+            this.storeAlias = storeAlias;
+            this.measurementName = measurementName;
+            this.tags = tags;
+            this.desiredConversion = desiredConversion;
+        }
+    }
 }
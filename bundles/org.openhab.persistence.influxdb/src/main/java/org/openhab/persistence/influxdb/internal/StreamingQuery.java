@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.QUERY_TIMEOUT_SECONDS;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connects the callbacks of a streaming query of the client libraries to the consumer of the rows and waits for the
+ * query to complete.
+ * <p>
+ * Once {@link #await(String)} returned, the consumer is never called again, even if the query timed out and the client
+ * library still delivers rows. The query is cancelled then.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class StreamingQuery {
+    private final Logger logger = LoggerFactory.getLogger(StreamingQuery.class);
+
+    private final Consumer<InfluxRow> consumer;
+    private final long timeoutMillis;
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    private @Nullable Runnable cancel;
+    private @Nullable Throwable failure;
+    private boolean closed;
+
+    public StreamingQuery(Consumer<InfluxRow> consumer) {
+        this(consumer, TimeUnit.SECONDS.toMillis(QUERY_TIMEOUT_SECONDS));
+    }
+
+    StreamingQuery(Consumer<InfluxRow> consumer, long timeoutMillis) {
+        this.consumer = consumer;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Passes a row to the consumer, called by the client library for every received row.
+     *
+     * @param cancel cancels the query
+     * @param row received row
+     */
+    public synchronized void onRow(Runnable cancel, InfluxRow row) {
+        this.cancel = cancel;
+        if (closed) {
+            cancel.run();
+            return;
+        }
+        try {
+            consumer.accept(row);
+        } catch (RuntimeException e) {
+            cancel.run();
+            onFailure(e);
+        }
+    }
+
+    /**
+     * Fails the query, called by the client library for errors of the query.
+     *
+     * @param error cause of the failure
+     */
+    public synchronized void onFailure(Throwable error) {
+        if (failure == null) {
+            failure = error;
+        }
+        completed.countDown();
+    }
+
+    /**
+     * Completes the query, called by the client library after the last row.
+     */
+    public void onComplete() {
+        completed.countDown();
+    }
+
+    /**
+     * Waits for the query to complete, by default for at most {@value InfluxDBConstants#QUERY_TIMEOUT_SECONDS}
+     * seconds. A query that didn't complete in time is cancelled and the rows received so far are kept.
+     *
+     * @param query the query, for logging
+     * @throws UnnexpectedConditionException if the query failed
+     */
+    public void await(String query) {
+        boolean done = false;
+        try {
+            done = completed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (!done) {
+                logger.warn("Query didn't complete within {} ms, returning partial result: {}", timeoutMillis, query);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable error;
+        synchronized (this) {
+            closed = true;
+            Runnable currentCancel = cancel;
+            if (!done && currentCancel != null) {
+                currentCancel.run();
+            }
+            error = failure;
+        }
+        if (error != null) {
+            throw new UnnexpectedConditionException("Query failed: " + error.getMessage(), error);
+        }
+    }
+}
@@ -55,10 +55,18 @@ public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
         boolean hasCriteriaName = itemName != null;
 
         tableName = calculateTableName(itemName);
+        long downsamplingWindow = calculateDownsamplingWindow(criteria, configuration.getMaxQueryPoints());
 
-        Select select = select().column("\"" + COLUMN_VALUE_NAME_V1 + "\"::field")
-                .column("\"" + TAG_ITEM_NAME + "\"::tag")
-                .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        Select select;
+        if (downsamplingWindow > 0) {
+            // the item tag can't be selected together with a selector function, it's returned as series tag instead
+            select = select().column("last(\"" + COLUMN_VALUE_NAME_V1 + "\") AS \"" + COLUMN_VALUE_NAME_V1 + "\"")
+                    .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        } else {
+            select = select().column("\"" + COLUMN_VALUE_NAME_V1 + "\"::field")
+                    .column("\"" + TAG_ITEM_NAME + "\"::tag")
+                    .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        }
 
         Where where = select.where();
 
@@ -81,6 +89,10 @@ public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
                     stateToObject(criteria.getState())));
         }
 
+        if (downsamplingWindow > 0) {
+            select = select.groupBy(time(downsamplingWindow, "ms"), TAG_ITEM_NAME);
+        }
+
         if (criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING) {
             select = select.orderBy(desc());
         } else if (criteria.getOrdering() == FilterCriteria.Ordering.ASCENDING) {
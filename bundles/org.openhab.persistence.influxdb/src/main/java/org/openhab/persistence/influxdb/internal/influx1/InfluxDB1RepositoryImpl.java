@@ -15,14 +15,15 @@ package org.openhab.persistence.influxdb.internal.influx1;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.COLUMN_TIME_NAME_V1;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.COLUMN_VALUE_NAME_V1;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_VALUE_NAME;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.QUERY_CHUNK_SIZE;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -36,6 +37,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
+import org.openhab.persistence.influxdb.internal.StreamingQuery;
 import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -145,21 +147,42 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
         }
     }
 
+    /**
+     * Executes a chunked query, the rows of every chunk are passed to the consumer as soon as the chunk is received
+     *
+     * @param query Query
+     * @param consumer Consumer of the returned rows
+     */
     @Override
-    public List<InfluxRow> query(String query) {
+    public void query(String query, Consumer<InfluxRow> consumer) {
         final InfluxDB currentClient = client;
         if (currentClient != null) {
             Query parsedQuery = new Query(query, configuration.getDatabaseName());
-            List<QueryResult.Result> results = currentClient.query(parsedQuery, TimeUnit.MILLISECONDS).getResults();
-            return convertClientResutToRepository(results);
+            StreamingQuery streamingQuery = new StreamingQuery(consumer);
+            currentClient.query(parsedQuery, QUERY_CHUNK_SIZE, (cancellable, queryResult) -> {
+                try {
+                    String error = queryResult.getError();
+                    if (error == null) {
+                        List<QueryResult.Result> results = queryResult.getResults();
+                        if (results != null) {
+                            convertClientResultToRepository(results,
+                                    row -> streamingQuery.onRow(cancellable::cancel, row));
+                        }
+                    } else if (!"DONE".equals(error)) {
+                        throw new UnnexpectedConditionException(error);
+                    }
+                } catch (RuntimeException e) {
+                    cancellable.cancel();
+                    streamingQuery.onFailure(e);
+                }
+            }, streamingQuery::onComplete, streamingQuery::onFailure);
+            streamingQuery.await(query);
         } else {
-            logger.warn("Returning empty list because queryAPI isn't present");
-            return Collections.emptyList();
+            logger.warn("Returning empty result because queryAPI isn't present");
         }
     }
 
-    private List<InfluxRow> convertClientResutToRepository(List<QueryResult.Result> results) {
-        List<InfluxRow> rows = new ArrayList<>();
+    private void convertClientResultToRepository(List<QueryResult.Result> results, Consumer<InfluxRow> consumer) {
         for (QueryResult.Result result : results) {
             List<QueryResult.Series> seriess = result.getSeries();
             if (result.getError() != null) {
@@ -172,6 +195,11 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                 for (QueryResult.Series series : seriess) {
                     logger.trace("series {}", series.toString());
                     String itemName = series.getName();
+                    // downsampled queries are grouped by item and return it as series tag
+                    Map<String, String> tags = series.getTags();
+                    if (tags != null && tags.containsKey(TAG_ITEM_NAME)) {
+                        itemName = tags.get(TAG_ITEM_NAME);
+                    }
                     List<List<Object>> valuess = series.getValues();
                     if (valuess == null) {
                         logger.debug("query returned no values");
@@ -196,21 +224,32 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                                 throw new IllegalStateException("missing column");
                             }
                             for (int i = 0; i < valuess.size(); i++) {
-                                Double rawTime = (Double) valuess.get(i).get(timestampColumn);
-                                Instant time = Instant.ofEpochMilli(rawTime.longValue());
+                                Instant time = parseTime(valuess.get(i).get(timestampColumn));
                                 Object value = valuess.get(i).get(valueColumn);
+                                if (value == null) {
+                                    // empty window of a downsampled query
+                                    continue;
+                                }
                                 if (itemNameColumn != null) {
                                     itemName = (String) valuess.get(i).get(itemNameColumn);
                                 }
                                 logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
-                                rows.add(new InfluxRow(time, itemName, value));
+                                consumer.accept(new InfluxRow(time, itemName, value));
                             }
                         }
                     }
                 }
             }
         }
-        return rows;
+    }
+
+    private Instant parseTime(Object rawTime) {
+        // chunked responses return RFC3339 strings, non chunked ones epoch milliseconds
+        if (rawTime instanceof Number) {
+            return Instant.ofEpochMilli(((Number) rawTime).longValue());
+        } else {
+            return Instant.parse((String) rawTime);
+        }
     }
 
     @Override
@@ -79,6 +79,12 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
             flux = flux.filter(restrictions);
         }
 
+        long downsamplingWindow = calculateDownsamplingWindow(criteria, configuration.getMaxQueryPoints());
+        if (downsamplingWindow > 0) {
+            flux = flux.expression(
+                    "aggregateWindow(every: " + downsamplingWindow + "ms, fn: last, createEmpty: false)");
+        }
+
         if (criteria.getOrdering() != null) {
             boolean desc = criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING;
             flux = flux.sort().withDesc(desc).withColumns(new String[] { COLUMN_TIME_NAME_V2 });
@@ -12,7 +12,9 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -117,6 +119,41 @@ public class InfluxFilterCriteriaQueryCreatorImplTest {
         assertThat(queryV2, equalTo(expectedQueryV2));
     }
 
+    @Test
+    public void testDownsampledRangeCriteria() {
+        when(influxDBConfiguration.getMaxQueryPoints()).thenReturn(1000);
+        FilterCriteria criteria = createBaseCriteria();
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime tomorrow = now.plus(1, ChronoUnit.DAYS);
+        criteria.setBeginDate(now);
+        criteria.setEndDate(tomorrow);
+
+        String queryV1 = instanceV1.createQuery(criteria, RETENTION_POLICY);
+        assertThat(queryV1, containsString("SELECT last(\"value\") AS \"value\" FROM origin.sampleItem WHERE"));
+        assertThat(queryV1, containsString("GROUP BY time(86400ms)"));
+
+        String queryV2 = instanceV2.createQuery(criteria, RETENTION_POLICY);
+        String expectedQueryV2 = String.format("from(bucket:\"origin\")\n\t" + "|> range(start:%s, stop:%s)\n\t"
+                + "|> filter(fn: (r) => r[\"_measurement\"] == \"sampleItem\")\n\t"
+                + "|> aggregateWindow(every: 86400ms, fn: last, createEmpty: false)",
+                INFLUX2_DATE_FORMATTER.format(now.toInstant()), INFLUX2_DATE_FORMATTER.format(tomorrow.toInstant()));
+        assertThat(queryV2, equalTo(expectedQueryV2));
+    }
+
+    @Test
+    public void testNoDownsamplingWhenPageIsBounded() {
+        when(influxDBConfiguration.getMaxQueryPoints()).thenReturn(1000);
+        FilterCriteria criteria = createBaseCriteria();
+        criteria.setBeginDate(ZonedDateTime.now().minus(1, ChronoUnit.DAYS));
+        criteria.setPageSize(100);
+
+        String queryV1 = instanceV1.createQuery(criteria, RETENTION_POLICY);
+        assertThat(queryV1, not(containsString("GROUP BY")));
+
+        String queryV2 = instanceV2.createQuery(criteria, RETENTION_POLICY);
+        assertThat(queryV2, not(containsString("aggregateWindow")));
+    }
+
     @Test
     public void testValueOperator() {
         FilterCriteria criteria = createBaseCriteria();
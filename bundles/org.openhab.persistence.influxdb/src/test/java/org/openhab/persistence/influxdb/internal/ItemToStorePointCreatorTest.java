@@ -14,6 +14,8 @@ package org.openhab.persistence.influxdb.internal;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
@@ -97,6 +99,7 @@ public class ItemToStorePointCreatorTest {
         assertThat(point.getTags(), hasEntry(InfluxDBConstants.TAG_CATEGORY_NAME, "categoryValue"));
 
         when(influxDBConfiguration.isAddCategoryTag()).thenReturn(false);
+        instance.invalidateAll();
         point = instance.convert(item, null);
         assertThat(point.getTags(), not(hasKey(InfluxDBConstants.TAG_CATEGORY_NAME)));
     }
@@ -110,6 +113,7 @@ public class ItemToStorePointCreatorTest {
         assertThat(point.getTags(), hasEntry(InfluxDBConstants.TAG_TYPE_NAME, "Number"));
 
         when(influxDBConfiguration.isAddTypeTag()).thenReturn(false);
+        instance.invalidateAll();
         point = instance.convert(item, null);
         assertThat(point.getTags(), not(hasKey(InfluxDBConstants.TAG_TYPE_NAME)));
     }
@@ -124,6 +128,7 @@ public class ItemToStorePointCreatorTest {
         assertThat(point.getTags(), hasEntry(InfluxDBConstants.TAG_LABEL_NAME, "ItemLabel"));
 
         when(influxDBConfiguration.isAddLabelTag()).thenReturn(false);
+        instance.invalidateAll();
         point = instance.convert(item, null);
         assertThat(point.getTags(), not(hasKey(InfluxDBConstants.TAG_LABEL_NAME)));
     }
@@ -156,6 +161,7 @@ public class ItemToStorePointCreatorTest {
         when(metadataRegistry.get(metadataKey))
                 .thenReturn(new Metadata(metadataKey, "measurementName", Map.of("key1", "val1", "key2", "val2")));
 
+        instance.invalidate(item.getName());
         point = instance.convert(item, null);
         assertThat(point.getMeasurementName(), equalTo("measurementName"));
         assertThat(point.getTags(), hasEntry("item", item.getName()));
@@ -163,8 +169,34 @@ public class ItemToStorePointCreatorTest {
         when(metadataRegistry.get(metadataKey))
                 .thenReturn(new Metadata(metadataKey, "", Map.of("key1", "val1", "key2", "val2")));
 
+        instance.invalidate(item.getName());
         point = instance.convert(item, null);
         assertThat(point.getMeasurementName(), equalTo(item.getName()));
         assertThat(point.getTags(), hasEntry("item", item.getName()));
     }
+
+    @Test
+    public void shouldReuseTemplateUntilInvalidated() {
+        NumberItem item = ItemTestHelper.createNumberItem("myitem", 5);
+        MetadataKey metadataKey = new MetadataKey(InfluxDBPersistenceService.SERVICE_NAME, item.getName());
+        when(metadataRegistry.get(metadataKey)).thenReturn(null);
+
+        instance.convert(item, null);
+        InfluxPoint point = instance.convert(item, null);
+        assertThat(point.getMeasurementName(), equalTo(item.getName()));
+        verify(metadataRegistry, times(2)).get(metadataKey);
+
+        instance.invalidate(item.getName());
+        instance.convert(item, null);
+        verify(metadataRegistry, times(4)).get(metadataKey);
+
+        // A different alias needs a new measurement name
+        point = instance.convert(item, "aliasName");
+        assertThat(point.getMeasurementName(), is("aliasName"));
+        verify(metadataRegistry, times(6)).get(metadataKey);
+
+        // A replaced item instance needs a new template
+        instance.convert(ItemTestHelper.createNumberItem("myitem", 6), "aliasName");
+        verify(metadataRegistry, times(8)).get(metadataKey);
+    }
 }
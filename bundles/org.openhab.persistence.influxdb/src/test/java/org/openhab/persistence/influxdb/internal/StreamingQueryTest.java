@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class StreamingQueryTest {
+
+    private final List<InfluxRow> rows = new ArrayList<>();
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final Runnable cancel = cancelled::incrementAndGet;
+
+    @Test
+    public void completedQueryReturnsAllRows() {
+        StreamingQuery query = new StreamingQuery(rows::add, 1000);
+        query.onRow(cancel, row(1));
+        query.onRow(cancel, row(2));
+        query.onComplete();
+        query.await("query");
+
+        assertThat(rows.size(), is(2));
+        assertThat(cancelled.get(), is(0));
+    }
+
+    @Test
+    public void timedOutQueryIsCancelledAndConsumerIsClosed() {
+        StreamingQuery query = new StreamingQuery(rows::add, 10);
+        query.onRow(cancel, row(1));
+        query.await("query");
+
+        assertThat(rows.size(), is(1));
+        assertThat(cancelled.get(), is(1));
+
+        // rows still delivered by the client library are not passed to the consumer anymore
+        query.onRow(cancel, row(2));
+        assertThat(rows.size(), is(1));
+        assertThat(cancelled.get(), is(2));
+    }
+
+    @Test
+    public void failedQueryThrows() {
+        StreamingQuery query = new StreamingQuery(rows::add, 1000);
+        query.onRow(cancel, row(1));
+        query.onFailure(new IllegalStateException("connection refused"));
+
+        UnnexpectedConditionException e = assertThrows(UnnexpectedConditionException.class,
+                () -> query.await("query"));
+        assertThat(e.getMessage(), containsString("connection refused"));
+    }
+
+    @Test
+    public void failingConsumerCancelsQuery() {
+        StreamingQuery query = new StreamingQuery(row -> {
+            throw new IllegalArgumentException("unexpected value");
+        }, 1000);
+        query.onRow(cancel, row(1));
+
+        assertThrows(UnnexpectedConditionException.class, () -> query.await("query"));
+        assertThat(cancelled.get(), is(1));
+    }
+
+    private InfluxRow row(int value) {
+        return new InfluxRow(Instant.ofEpochSecond(value), "item", value);
+    }
+}
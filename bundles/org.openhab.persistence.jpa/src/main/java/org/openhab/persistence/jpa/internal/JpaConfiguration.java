@@ -32,6 +32,11 @@ public class JpaConfiguration {
     private static final String CFG_USERNAME = "user";
     private static final String CFG_PASSWORD = "password";
     private static final String CFG_SYNCMAPPING = "syncmappings";
+    private static final String CFG_BATCH_SIZE = "batchSize";
+    private static final String CFG_BATCH_INTERVAL = "batchInterval";
+
+    private static final int DEFAULT_BATCH_SIZE = 0;
+    private static final long DEFAULT_BATCH_INTERVAL = 1000;
 
     public static boolean isInitialized = false;
 
@@ -40,6 +45,8 @@ public class JpaConfiguration {
     public final String dbUserName;
     public final String dbPassword;
     public final String dbSyncMapping;
+    public final int batchSize;
+    public final long batchInterval;
 
     public JpaConfiguration(final Map<String, Object> properties) {
         logger.debug("Update config...");
@@ -77,7 +84,30 @@ public class JpaConfiguration {
         }
         dbSyncMapping = (String) properties.get(CFG_SYNCMAPPING);
 
+        batchSize = (int) parseLong(properties.get(CFG_BATCH_SIZE), CFG_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        logger.debug("batchSize: {}", batchSize);
+        batchInterval = parseLong(properties.get(CFG_BATCH_INTERVAL), CFG_BATCH_INTERVAL, DEFAULT_BATCH_INTERVAL);
+        logger.debug("batchInterval: {}", batchInterval);
+
         isInitialized = true;
         logger.debug("Update config... done");
     }
+
+    private long parseLong(Object param, String name, long defaultValue) {
+        long value = defaultValue;
+        if (param instanceof Number) {
+            value = ((Number) param).longValue();
+        } else if (param instanceof String && !((String) param).isBlank()) {
+            try {
+                value = Long.parseLong(((String) param).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} '{}' in jpa.cfg, using {}", name, param, defaultValue);
+            }
+        }
+        if (value < 0) {
+            logger.warn("Negative {} in jpa.cfg, using {}", name, defaultValue);
+            return defaultValue;
+        }
+        return value;
+    }
 }
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jpa.internal;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -19,14 +20,24 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
-import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
@@ -65,6 +76,15 @@ public class JpaPersistenceService implements QueryablePersistenceService {
 
     private @NonNullByDefault({}) JpaConfiguration config;
 
+    private static final String THREAD_POOL_NAME = "jpaPersistenceService";
+    private static final int MIN_QUEUE_CAPACITY = 1000;
+    private static final long WRITE_TIMEOUT_SECONDS = 10;
+
+    // write-behind batching, only used if batchSize is configured
+    private @Nullable ScheduledExecutorService writer;
+    private @Nullable BlockingQueue<JpaPersistentItem> pendingItems;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
     @Activate
     public JpaPersistenceService(final @Reference ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
@@ -86,6 +106,15 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     public void activate(BundleContext context, Map<String, Object> properties) {
         logger.debug("Activating jpa persistence service");
         config = new JpaConfiguration(properties);
+        if (config.batchSize > 0) {
+            pendingItems = new ArrayBlockingQueue<>(Math.max(MIN_QUEUE_CAPACITY, 10 * config.batchSize));
+            ScheduledExecutorService newWriter = Executors
+                    .newSingleThreadScheduledExecutor(new NamedThreadFactory(THREAD_POOL_NAME));
+            long interval = config.batchInterval > 0 ? config.batchInterval : 1000;
+            newWriter.scheduleWithFixedDelay(this::flushPendingItems, interval, interval, TimeUnit.MILLISECONDS);
+            writer = newWriter;
+            logger.debug("Writing batches of up to {} items every {} ms", config.batchSize, interval);
+        }
     }
 
     /**
@@ -94,6 +123,23 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     @Deactivate
     public void deactivate() {
         logger.debug("Deactivating jpa persistence service");
+        ScheduledExecutorService currentWriter = writer;
+        if (currentWriter != null) {
+            writer = null;
+            // write what is still pending before the EntityManagerFactory is closed
+            currentWriter.execute(this::flushAllPendingItems);
+            currentWriter.shutdown();
+            try {
+                if (!currentWriter.awaitTermination(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Pending items were not written within {} seconds", WRITE_TIMEOUT_SECONDS);
+                    currentWriter.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                currentWriter.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            pendingItems = null;
+        }
         closeEntityManagerFactory();
     }
 
@@ -142,22 +188,102 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         pItem.setRealName(item.getName());
         pItem.setTimestamp(new Date());
 
+        BlockingQueue<JpaPersistentItem> queue = pendingItems;
+        if (queue == null) {
+            persist(List.of(pItem));
+        } else if (queue.offer(pItem)) {
+            if (queue.size() >= config.batchSize) {
+                requestFlush();
+            }
+        } else {
+            logger.warn("Too many items waiting to be written, discarding state of item {}", name);
+            requestFlush();
+        }
+
+        logger.debug("Storing item...done");
+    }
+
+    private void requestFlush() {
+        ScheduledExecutorService currentWriter = writer;
+        if (currentWriter != null && flushRequested.compareAndSet(false, true)) {
+            try {
+                currentWriter.execute(this::flushPendingItems);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending items in batches of at most batchSize items, one transaction per batch
+     */
+    private void flushPendingItems() {
+        flushRequested.set(false);
+        BlockingQueue<JpaPersistentItem> queue = pendingItems;
+        if (queue == null) {
+            return;
+        }
+        // only write what is pending now, so that a steady stream of stores does not keep the writer busy
+        int remaining = queue.size();
+        List<JpaPersistentItem> batch = new ArrayList<>(Math.min(remaining, config.batchSize));
+        while (remaining > 0) {
+            batch.clear();
+            remaining -= queue.drainTo(batch, Math.min(remaining, config.batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            persist(batch);
+        }
+    }
+
+    private void flushAllPendingItems() {
+        BlockingQueue<JpaPersistentItem> queue = pendingItems;
+        while (queue != null && !queue.isEmpty()) {
+            flushPendingItems();
+        }
+    }
+
+    /**
+     * Writes the pending items before a query, so that queries see all stored states
+     */
+    private void awaitPendingItems() {
+        BlockingQueue<JpaPersistentItem> queue = pendingItems;
+        ScheduledExecutorService currentWriter = writer;
+        if (queue == null || queue.isEmpty() || currentWriter == null) {
+            return;
+        }
+        try {
+            currentWriter.submit(this::flushPendingItems).get(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            logger.debug("Pending items could not be written before query: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Persists the items in a single transaction. With JDBC batching enabled the inserts are sent to the database
+     * as one batch.
+     *
+     * @param items the items to persist
+     */
+    private void persist(List<JpaPersistentItem> items) {
         EntityManager em = getEntityManagerFactory().createEntityManager();
         try {
-            logger.debug("Persisting item...");
+            logger.debug("Persisting {} items...", items.size());
             // In RESOURCE_LOCAL calls to EntityManager require a begin/commit
             em.getTransaction().begin();
-            em.persist(pItem);
+            for (JpaPersistentItem item : items) {
+                em.persist(item);
+            }
             em.getTransaction().commit();
-            logger.debug("Persisting item...done");
+            logger.debug("Persisting {} items...done", items.size());
         } catch (Exception e) {
-            logger.error("Error on persisting item! Rolling back!", e);
+            logger.error("Error on persisting {} items! Rolling back!", items.size(), e);
             em.getTransaction().rollback();
         } finally {
             em.close();
         }
-
-        logger.debug("Storing item...done");
     }
 
     @Override
@@ -177,28 +303,14 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         String itemName = filter.getItemName();
         Item item = getItemFromRegistry(itemName);
 
-        String sortOrder;
-        if (filter.getOrdering() == Ordering.ASCENDING) {
-            sortOrder = "ASC";
-        } else {
-            sortOrder = "DESC";
-        }
+        awaitPendingItems();
 
-        boolean hasBeginDate = false;
-        boolean hasEndDate = false;
-        String queryString = "SELECT n FROM " + JpaPersistentItem.class.getSimpleName()
-                + " n WHERE n.realName = :itemName";
-        if (filter.getBeginDate() != null) {
-            queryString += " AND n.timestamp >= :beginDate";
-            hasBeginDate = true;
-        }
-        if (filter.getEndDate() != null) {
-            queryString += " AND n.timestamp <= :endDate";
-            hasEndDate = true;
-        }
-        queryString += " ORDER BY n.timestamp " + sortOrder;
+        boolean hasBeginDate = filter.getBeginDate() != null;
+        boolean hasEndDate = filter.getEndDate() != null;
+        String queryName = JpaPersistentItem.getQueryName(hasBeginDate, hasEndDate,
+                filter.getOrdering() == Ordering.ASCENDING);
 
-        logger.debug("The query: {}", queryString);
+        logger.debug("The query: {}", queryName);
 
         EntityManager em = getEntityManagerFactory().createEntityManager();
         try {
@@ -206,7 +318,7 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             em.getTransaction().begin();
 
             logger.debug("Creating query...");
-            Query query = em.createQuery(queryString);
+            TypedQuery<JpaPersistentItem> query = em.createNamedQuery(queryName, JpaPersistentItem.class);
             query.setParameter("itemName", item.getName());
             if (hasBeginDate) {
                 query.setParameter("beginDate", Date.from(filter.getBeginDate().toInstant()));
@@ -220,7 +332,6 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             logger.debug("Creating query...done");
 
             logger.debug("Retrieving result list...");
-            @SuppressWarnings("unchecked")
             List<JpaPersistentItem> result = query.getResultList();
             logger.debug("Retrieving result list...done");
 
@@ -22,6 +22,8 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -39,8 +41,69 @@ import org.openhab.core.types.UnDefType;
 
 @Entity
 @Table(name = "HISTORIC_ITEM")
+@NamedQueries({ //
+        @NamedQuery(name = "JpaPersistentItem.byName.asc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " ORDER BY n.timestamp ASC"),
+        @NamedQuery(name = "JpaPersistentItem.byName.desc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " ORDER BY n.timestamp DESC"),
+        @NamedQuery(name = "JpaPersistentItem.byNameSince.asc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " AND n.timestamp >= :beginDate"
+                        + " ORDER BY n.timestamp ASC"),
+        @NamedQuery(name = "JpaPersistentItem.byNameSince.desc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " AND n.timestamp >= :beginDate"
+                        + " ORDER BY n.timestamp DESC"),
+        @NamedQuery(name = "JpaPersistentItem.byNameUntil.asc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " AND n.timestamp <= :endDate"
+                        + " ORDER BY n.timestamp ASC"),
+        @NamedQuery(name = "JpaPersistentItem.byNameUntil.desc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " AND n.timestamp <= :endDate"
+                        + " ORDER BY n.timestamp DESC"),
+        @NamedQuery(name = "JpaPersistentItem.byNameBetween.asc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " AND n.timestamp >= :beginDate"
+                        + " AND n.timestamp <= :endDate"
+                        + " ORDER BY n.timestamp ASC"),
+        @NamedQuery(name = "JpaPersistentItem.byNameBetween.desc", //
+                query = "SELECT n FROM JpaPersistentItem n WHERE n.realName = :itemName"
+                        + " AND n.timestamp >= :beginDate"
+                        + " AND n.timestamp <= :endDate"
+                        + " ORDER BY n.timestamp DESC") })
 public class JpaPersistentItem implements HistoricItem {
 
+    // Named queries for the supported FilterCriteria shapes, they are parsed and compiled only once
+    private static final String QUERY_BY_NAME = "JpaPersistentItem.byName";
+    private static final String QUERY_BY_NAME_SINCE = "JpaPersistentItem.byNameSince";
+    private static final String QUERY_BY_NAME_UNTIL = "JpaPersistentItem.byNameUntil";
+    private static final String QUERY_BY_NAME_BETWEEN = "JpaPersistentItem.byNameBetween";
+
+    /**
+     * Returns the name of the named query selecting the states of an item
+     *
+     * @param hasBeginDate whether the query has a :beginDate parameter
+     * @param hasEndDate whether the query has an :endDate parameter
+     * @param ascending whether the states are sorted by ascending timestamp
+     * @return the query name
+     */
+    public static String getQueryName(boolean hasBeginDate, boolean hasEndDate, boolean ascending) {
+        String name;
+        if (hasBeginDate && hasEndDate) {
+            name = QUERY_BY_NAME_BETWEEN;
+        } else if (hasBeginDate) {
+            name = QUERY_BY_NAME_SINCE;
+        } else if (hasEndDate) {
+            name = QUERY_BY_NAME_UNTIL;
+        } else {
+            name = QUERY_BY_NAME;
+        }
+        return name + (ascending ? ".asc" : ".desc");
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
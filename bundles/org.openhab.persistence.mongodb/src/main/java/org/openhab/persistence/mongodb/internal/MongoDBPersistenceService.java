@@ -17,14 +17,24 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
@@ -59,12 +69,18 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.mongodb.BasicDBObject;
-import com.mongodb.DBCollection;
-import com.mongodb.DBCursor;
-import com.mongodb.DBObject;
-import com.mongodb.MongoClient;
-import com.mongodb.MongoClientURI;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 
 /**
  * This is the implementation of the MongoDB {@link PersistenceService}.
@@ -82,19 +98,44 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     private static final String FIELD_TIMESTAMP = "timestamp";
     private static final String FIELD_VALUE = "value";
 
+    private static final String THREAD_POOL_NAME = "mongodbPersistenceService";
+    private static final int MAX_PENDING_DOCUMENTS = 10000;
+    private static final int MAX_BULK_INSERT_SIZE = 1000;
+    private static final int QUERY_BATCH_SIZE = 500;
+
+    private static final Bson QUERY_PROJECTION = Projections.fields(Projections.include(FIELD_TIMESTAMP, FIELD_VALUE),
+            Projections.excludeId());
+
+    /**
+     * A document waiting to be inserted, with the collection it belongs to
+     */
+    private static class PendingDocument {
+        final String collectionName;
+        final Document document;
+
+        PendingDocument(String collectionName, Document document) {
+            this.collectionName = collectionName;
+            this.document = document;
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
     private @NonNullByDefault({}) String url;
     private @NonNullByDefault({}) String db;
     private @NonNullByDefault({}) String collection;
     private boolean collectionPerItem;
+    private long flushInterval;
 
     private boolean initialized = false;
 
     protected final ItemRegistry itemRegistry;
 
-    private @NonNullByDefault({}) MongoClient cl;
-    private @NonNullByDefault({}) DBCollection mongoCollection;
+    private @Nullable MongoClient cl;
+    private final Set<String> indexedCollections = ConcurrentHashMap.newKeySet();
+
+    private final BlockingQueue<PendingDocument> pendingDocuments = new LinkedBlockingQueue<>(MAX_PENDING_DOCUMENTS);
+    private @Nullable ScheduledExecutorService writer;
 
     @Activate
     public MongoDBPersistenceService(final @Reference ItemRegistry itemRegistry) {
@@ -117,15 +158,34 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         }
         collection = (String) config.get("collection");
         logger.debug("MongoDB collection {}", collection);
-        if (collection == null || collection.isBlank()) {
-            collectionPerItem = false;
-        } else {
+        // Items are stored in a collection per item, even if a collection name is configured, unless a single
+        // collection is requested explicitly. Existing installations keep their layout.
+        collectionPerItem = !Boolean.parseBoolean(String.valueOf(config.get("singleCollection")));
+        if (!collectionPerItem && (collection == null || collection.isBlank())) {
+            logger.warn("No MongoDB collection is configured for singleCollection, using a collection per item.");
             collectionPerItem = true;
         }
 
+        Object flushIntervalParam = config.get("flushInterval");
+        try {
+            flushInterval = flushIntervalParam == null ? 0 : Long.parseLong(flushIntervalParam.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid MongoDB flushInterval {}, writing documents immediately", flushIntervalParam);
+            flushInterval = 0;
+        }
+        logger.debug("MongoDB flush interval {} ms", flushInterval);
+
         disconnectFromDatabase();
         connectToDatabase();
 
+        if (flushInterval > 0) {
+            ScheduledExecutorService newWriter = Executors
+                    .newSingleThreadScheduledExecutor(new NamedThreadFactory(THREAD_POOL_NAME));
+            newWriter.scheduleWithFixedDelay(this::flushPendingDocuments, flushInterval, flushInterval,
+                    TimeUnit.MILLISECONDS);
+            writer = newWriter;
+        }
+
         // connection has been established... initialization completed!
         initialized = true;
     }
@@ -133,6 +193,12 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("MongoDB persistence bundle stopping. Disconnecting from database.");
+        ScheduledExecutorService currentWriter = writer;
+        if (currentWriter != null) {
+            writer = null;
+            currentWriter.shutdownNow();
+        }
+        flushPendingDocuments();
         disconnectFromDatabase();
     }
 
@@ -149,7 +215,9 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     @Override
     public void store(Item item, @Nullable String alias) {
         // Don't log undefined/uninitialized data
-        if (item.getState() instanceof UnDefType) {
+        @Nullable
+        State state = item.getState();
+        if (state == null || state instanceof UnDefType) {
             return;
         }
 
@@ -173,29 +241,66 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         }
 
         String realName = item.getName();
-
-        // If collection Per Item is active, connect to the item Collection
-        if (collectionPerItem) {
-            connectToCollection(realName);
-        }
-
         String name = (alias != null) ? alias : realName;
-        Object value = this.convertValue(item.getState());
+        Object value = this.convertValue(state);
 
-        DBObject obj = new BasicDBObject();
+        Document obj = new Document();
         obj.put(FIELD_ID, new ObjectId());
         obj.put(FIELD_ITEM, name);
         obj.put(FIELD_REALNAME, realName);
         obj.put(FIELD_TIMESTAMP, new Date());
         obj.put(FIELD_VALUE, value);
-        this.mongoCollection.save(obj);
 
-        // If collection Per Item is active, disconnect after save.
-        if (collectionPerItem) {
-            disconnectFromCollection();
+        // If collection Per Item is active, the document goes to the item collection
+        String collectionName = collectionPerItem ? realName : collection;
+
+        if (writer == null) {
+            try {
+                getCollection(collectionName).insertOne(obj);
+            } catch (MongoException e) {
+                logger.warn("MongoDB failed to save {}={}: {}", name, value, e.getMessage());
+                return;
+            }
+            logger.debug("MongoDB save {}={}", name, value);
+        } else if (pendingDocuments.offer(new PendingDocument(collectionName, obj))) {
+            logger.debug("MongoDB buffered {}={}", name, value);
+        } else {
+            logger.warn("MongoDB write buffer is full, discarding {}={}", name, value);
         }
+    }
 
-        logger.debug("MongoDB save {}={}", name, value);
+    /**
+     * Inserts the buffered documents with unordered bulk inserts, one per collection, so that a failing document
+     * does not prevent the others from being written.
+     */
+    private synchronized void flushPendingDocuments() {
+        if (pendingDocuments.isEmpty() || !isConnected()) {
+            return;
+        }
+        List<PendingDocument> drained = new ArrayList<>(pendingDocuments.size());
+        pendingDocuments.drainTo(drained);
+
+        Map<String, List<Document>> documentsByCollection = new HashMap<>();
+        for (PendingDocument pending : drained) {
+            documentsByCollection.computeIfAbsent(pending.collectionName, c -> new ArrayList<>())
+                    .add(pending.document);
+        }
+        InsertManyOptions options = new InsertManyOptions().ordered(false);
+        documentsByCollection.forEach((collectionName, documents) -> {
+            for (int from = 0; from < documents.size(); from += MAX_BULK_INSERT_SIZE) {
+                List<Document> bulk = documents.subList(from, Math.min(from + MAX_BULK_INSERT_SIZE, documents.size()));
+                try {
+                    getCollection(collectionName).insertMany(bulk, options);
+                } catch (MongoBulkWriteException e) {
+                    logger.warn("MongoDB failed to save {} of {} documents to {}: {}", e.getWriteErrors().size(),
+                            bulk.size(), collectionName, e.getMessage());
+                } catch (MongoException e) {
+                    logger.warn("MongoDB failed to save {} documents to {}: {}", bulk.size(), collectionName,
+                            e.getMessage());
+                }
+            }
+        });
+        logger.debug("MongoDB saved {} buffered documents", drained.size());
     }
 
     private Object convertValue(State state) {
@@ -240,15 +345,7 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     private void connectToDatabase() {
         try {
             logger.debug("Connect MongoDB");
-            this.cl = new MongoClient(new MongoClientURI(this.url));
-            if (collectionPerItem) {
-                mongoCollection = cl.getDB(this.db).getCollection(this.collection);
-
-                BasicDBObject idx = new BasicDBObject();
-                idx.append(FIELD_TIMESTAMP, 1).append(FIELD_ITEM, 1);
-                this.mongoCollection.createIndex(idx);
-            }
-
+            this.cl = MongoClients.create(this.url);
             logger.debug("Connect MongoDB ... done");
         } catch (Exception e) {
             logger.error("Failed to connect to database {}", this.url);
@@ -257,37 +354,37 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     }
 
     /**
-     * Connects to the Collection
+     * Returns the collection with the given name. The compound index on item and timestamp, which serves the
+     * equality match on the item as well as the range and sort on the timestamp, is created once per collection.
      */
-    private void connectToCollection(String collectionName) {
-        try {
-            mongoCollection = cl.getDB(this.db).getCollection(collectionName);
-
-            BasicDBObject idx = new BasicDBObject();
-            idx.append(FIELD_TIMESTAMP, 1).append(FIELD_ITEM, 1);
-            this.mongoCollection.createIndex(idx);
-        } catch (Exception e) {
-            logger.error("Failed to connect to collection {}", collectionName);
-            throw new RuntimeException("Cannot connect to collection", e);
+    private MongoCollection<Document> getCollection(String collectionName) {
+        MongoClient client = cl;
+        if (client == null) {
+            throw new MongoException("Not connected to database");
         }
-    }
-
-    /**
-     * Disconnects from the Collection
-     */
-    private void disconnectFromCollection() {
-        this.mongoCollection = null;
+        MongoCollection<Document> mongoCollection = client.getDatabase(this.db).getCollection(collectionName);
+        if (indexedCollections.add(collectionName)) {
+            try {
+                mongoCollection.createIndex(
+                        Indexes.compoundIndex(Indexes.ascending(FIELD_ITEM), Indexes.ascending(FIELD_TIMESTAMP)));
+            } catch (MongoException e) {
+                indexedCollections.remove(collectionName);
+                logger.warn("Failed to create index on collection {}: {}", collectionName, e.getMessage());
+            }
+        }
+        return mongoCollection;
     }
 
     /**
      * Disconnects from the database
      */
     private void disconnectFromDatabase() {
-        this.mongoCollection = null;
-        if (this.cl != null) {
-            this.cl.close();
+        MongoClient client = cl;
+        if (client != null) {
+            client.close();
         }
         cl = null;
+        indexedCollections.clear();
     }
 
     @Override
@@ -304,81 +401,99 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             return Collections.emptyList();
         }
 
-        String name = filter.getItemName();
+        // make sure buffered states are visible to the query
+        flushPendingDocuments();
 
-        // If collection Per Item is active, connect to the item Collection
-        if (collectionPerItem) {
-            connectToCollection(name);
-        }
+        String name = filter.getItemName();
         Item item = getItem(name);
 
-        List<HistoricItem> items = new ArrayList<>();
-        DBObject query = new BasicDBObject();
-        if (filter.getItemName() != null) {
-            query.put(FIELD_ITEM, filter.getItemName());
+        List<Bson> conditions = new ArrayList<>(4);
+        if (name != null) {
+            conditions.add(Filters.eq(FIELD_ITEM, name));
         }
         if (filter.getState() != null && filter.getOperator() != null) {
-            String op = convertOperator(filter.getOperator());
-            Object value = convertValue(filter.getState());
-            query.put(FIELD_VALUE, new BasicDBObject(op, value));
+            Bson condition = convertOperator(filter.getOperator(), convertValue(filter.getState()));
+            if (condition != null) {
+                conditions.add(condition);
+            }
         }
         if (filter.getBeginDate() != null) {
-            query.put(FIELD_TIMESTAMP, new BasicDBObject("$gte", filter.getBeginDate()));
+            conditions.add(Filters.gte(FIELD_TIMESTAMP, Date.from(filter.getBeginDate().toInstant())));
         }
-        if (filter.getBeginDate() != null) {
-            query.put(FIELD_TIMESTAMP, new BasicDBObject("$lte", filter.getBeginDate()));
-        }
-
-        Integer sortDir = (filter.getOrdering() == Ordering.ASCENDING) ? 1 : -1;
-        DBCursor cursor = this.mongoCollection.find(query).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
-                .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize());
-
-        while (cursor.hasNext()) {
-            BasicDBObject obj = (BasicDBObject) cursor.next();
-
-            final State state;
-            if (item instanceof NumberItem) {
-                state = new DecimalType(obj.getDouble(FIELD_VALUE));
-            } else if (item instanceof DimmerItem) {
-                state = new PercentType(obj.getInt(FIELD_VALUE));
-            } else if (item instanceof SwitchItem) {
-                state = OnOffType.valueOf(obj.getString(FIELD_VALUE));
-            } else if (item instanceof ContactItem) {
-                state = OpenClosedType.valueOf(obj.getString(FIELD_VALUE));
-            } else if (item instanceof RollershutterItem) {
-                state = new PercentType(obj.getInt(FIELD_VALUE));
-            } else if (item instanceof DateTimeItem) {
-                state = new DateTimeType(
-                        ZonedDateTime.ofInstant(obj.getDate(FIELD_VALUE).toInstant(), ZoneId.systemDefault()));
-            } else {
-                state = new StringType(obj.getString(FIELD_VALUE));
-            }
+        if (filter.getEndDate() != null) {
+            conditions.add(Filters.lte(FIELD_TIMESTAMP, Date.from(filter.getEndDate().toInstant())));
+        }
+        Bson query = conditions.isEmpty() ? new Document() : Filters.and(conditions);
 
-            items.add(new MongoDBItem(name, state,
-                    ZonedDateTime.ofInstant(obj.getDate(FIELD_TIMESTAMP).toInstant(), ZoneId.systemDefault())));
+        Bson sort = (filter.getOrdering() == Ordering.ASCENDING) ? Sorts.ascending(FIELD_TIMESTAMP)
+                : Sorts.descending(FIELD_TIMESTAMP);
+
+        // If collection Per Item is active, query the item Collection
+        String collectionName = collectionPerItem ? name : collection;
+        if (collectionName == null) {
+            return Collections.emptyList();
+        }
+        FindIterable<Document> documents;
+        try {
+            documents = getCollection(collectionName).find(query).projection(QUERY_PROJECTION).sort(sort)
+                    .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize())
+                    .batchSize(QUERY_BATCH_SIZE);
+        } catch (MongoException e) {
+            logger.warn("MongoDB query for {} failed: {}", name, e.getMessage());
+            return Collections.emptyList();
         }
 
-        // If collection Per Item is active, disconnect after save.
-        if (collectionPerItem) {
-            disconnectFromCollection();
+        List<HistoricItem> items = new ArrayList<>();
+        try (MongoCursor<Document> cursor = documents.iterator()) {
+            while (cursor.hasNext()) {
+                Document obj = cursor.next();
+                Date timestamp = obj.getDate(FIELD_TIMESTAMP);
+                if (timestamp == null) {
+                    continue;
+                }
+                items.add(new MongoDBItem(name, convertState(item, obj.get(FIELD_VALUE)),
+                        ZonedDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault())));
+            }
+        } catch (MongoException e) {
+            logger.warn("MongoDB query for {} failed: {}", name, e.getMessage());
         }
         return items;
     }
 
-    private @Nullable String convertOperator(Operator operator) {
+    private State convertState(@Nullable Item item, @Nullable Object value) {
+        if (value == null) {
+            return UnDefType.NULL;
+        } else if (item instanceof NumberItem) {
+            return new DecimalType(((Number) value).doubleValue());
+        } else if (item instanceof DimmerItem) {
+            return new PercentType(((Number) value).intValue());
+        } else if (item instanceof SwitchItem) {
+            return OnOffType.valueOf(value.toString());
+        } else if (item instanceof ContactItem) {
+            return OpenClosedType.valueOf(value.toString());
+        } else if (item instanceof RollershutterItem) {
+            return new PercentType(((Number) value).intValue());
+        } else if (item instanceof DateTimeItem) {
+            return new DateTimeType(ZonedDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault()));
+        } else {
+            return new StringType(value.toString());
+        }
+    }
+
+    private @Nullable Bson convertOperator(Operator operator, Object value) {
         switch (operator) {
             case EQ:
-                return "$eq";
+                return Filters.eq(FIELD_VALUE, value);
             case GT:
-                return "$gt";
+                return Filters.gt(FIELD_VALUE, value);
             case GTE:
-                return "$gte";
+                return Filters.gte(FIELD_VALUE, value);
             case LT:
-                return "$lt";
+                return Filters.lt(FIELD_VALUE, value);
             case LTE:
-                return "$lte";
+                return Filters.lte(FIELD_VALUE, value);
             case NEQ:
-                return "$neq";
+                return Filters.ne(FIELD_VALUE, value);
             default:
                 return null;
         }
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mongodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+import org.osgi.framework.BundleContext;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Round trips through a MongoDB server, by default a local mongod. Another server can be set with the system
+ * property "mongodb.url". The tests are skipped if no server is available.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MongoDBPersistenceServiceTest {
+    private static final String URL = System.getProperty("mongodb.url",
+            "mongodb://localhost:27017/?serverSelectionTimeoutMS=1000");
+    private static final String COLLECTION = "openhab";
+    private static boolean serverAvailable;
+
+    private final ItemRegistry itemRegistry = mock(ItemRegistry.class);
+    private final NumberItem temperature = new NumberItem("Temperature");
+    private final SwitchItem light = new SwitchItem("Light");
+    private final String database = "openhab_test_" + Long.toHexString(System.nanoTime());
+    private @Nullable MongoClient client;
+    private @Nullable MongoDBPersistenceService service;
+
+    @BeforeAll
+    public static void checkServer() {
+        try (MongoClient client = MongoClients.create(URL)) {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+            serverAvailable = true;
+        } catch (MongoException e) {
+            serverAvailable = false;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        assumeTrue(serverAvailable, "No MongoDB server available at " + URL);
+        client = MongoClients.create(URL);
+        when(itemRegistry.getItem("Temperature")).thenReturn(temperature);
+        when(itemRegistry.getItem("Light")).thenReturn(light);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        MongoDBPersistenceService service = this.service;
+        if (service != null) {
+            service.deactivate(0);
+        }
+        MongoClient client = this.client;
+        if (client != null) {
+            client.getDatabase(database).drop();
+            client.close();
+        }
+    }
+
+    private MongoDBPersistenceService activate(boolean singleCollection, long flushInterval) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("url", URL);
+        config.put("database", database);
+        config.put("collection", COLLECTION);
+        config.put("singleCollection", String.valueOf(singleCollection));
+        config.put("flushInterval", String.valueOf(flushInterval));
+        MongoDBPersistenceService service = new MongoDBPersistenceService(itemRegistry);
+        service.activate(mock(BundleContext.class), config);
+        this.service = service;
+        return service;
+    }
+
+    private MongoDatabase getDatabase() {
+        MongoClient client = this.client;
+        assertNotNull(client);
+        return client.getDatabase(database);
+    }
+
+    private long count(String collection) {
+        return getDatabase().getCollection(collection).countDocuments();
+    }
+
+    private void storeStates(MongoDBPersistenceService service) throws InterruptedException {
+        for (int i = 1; i <= 3; i++) {
+            temperature.setState(new DecimalType(20 + i));
+            service.store(temperature);
+            // distinct timestamps for a defined order
+            Thread.sleep(5);
+        }
+        light.setState(OnOffType.ON);
+        service.store(light);
+    }
+
+    private List<State> query(MongoDBPersistenceService service, String itemName) {
+        FilterCriteria criteria = new FilterCriteria();
+        criteria.setItemName(itemName);
+        criteria.setOrdering(Ordering.ASCENDING);
+        List<State> states = new ArrayList<>();
+        for (HistoricItem item : service.query(criteria)) {
+            states.add(item.getState());
+        }
+        return states;
+    }
+
+    private void assertRoundTrip(MongoDBPersistenceService service) {
+        assertEquals(List.of(new DecimalType(21), new DecimalType(22), new DecimalType(23)),
+                query(service, "Temperature"));
+        assertEquals(List.of(OnOffType.ON), query(service, "Light"));
+    }
+
+    @Test
+    public void collectionPerItem() throws InterruptedException {
+        MongoDBPersistenceService service = activate(false, 0);
+        storeStates(service);
+
+        assertEquals(3, count("Temperature"));
+        assertEquals(1, count("Light"));
+        assertEquals(0, count(COLLECTION));
+        assertRoundTrip(service);
+    }
+
+    @Test
+    public void collectionPerItemWithBulkInserts() throws InterruptedException {
+        MongoDBPersistenceService service = activate(false, 3600000);
+        storeStates(service);
+
+        // buffered until the next flush, queries flush first
+        assertEquals(0, count("Temperature"));
+        assertRoundTrip(service);
+        assertEquals(3, count("Temperature"));
+        assertEquals(1, count("Light"));
+    }
+
+    @Test
+    public void singleCollection() throws InterruptedException {
+        MongoDBPersistenceService service = activate(true, 0);
+        storeStates(service);
+
+        assertEquals(4, count(COLLECTION));
+        assertEquals(0, count("Temperature"));
+        assertRoundTrip(service);
+    }
+
+    @Test
+    public void singleCollectionWithBulkInserts() throws InterruptedException {
+        MongoDBPersistenceService service = activate(true, 3600000);
+        storeStates(service);
+
+        assertEquals(0, count(COLLECTION));
+        assertRoundTrip(service);
+        assertEquals(4, count(COLLECTION));
+    }
+
+    @Test
+    public void undefinedStatesAreNotStored() {
+        MongoDBPersistenceService service = activate(true, 0);
+        temperature.setState(UnDefType.NULL);
+        service.store(temperature);
+
+        assertEquals(0, count(COLLECTION));
+    }
+
+    @Test
+    public void missingValuesAreQueriedAsNull() {
+        MongoDBPersistenceService service = activate(true, 0);
+        getDatabase().getCollection(COLLECTION)
+                .insertOne(new Document("item", "Temperature").append("timestamp", new Date()));
+
+        assertEquals(List.of(UnDefType.NULL), query(service, "Temperature"));
+    }
+}